@@ -0,0 +1,121 @@
+package analytics;
+
+/**
+ * The Aggregate class defines a value computed over the rows of each group of a Query: the number of rows, or the sum, average, minimum or maximum of a column.
+ * <p>
+ * The Aggregate class is immutable and utilizes static factory methods.
+ */
+public final class Aggregate {
+
+    /*
+    The kinds of aggregate.
+     */
+    static final int COUNT = 0;
+    static final int SUM = 1;
+    static final int AVERAGE = 2;
+    static final int MINIMUM = 3;
+    static final int MAXIMUM = 4;
+
+    private static final String[] NAMES = {"count", "sum", "average", "minimum", "maximum"};
+
+    private final int kind;
+    private final String columnName;
+
+    /**
+     * Aggregate is a constructor for a new Aggregate object.
+     *
+     * @param kind       the kind of aggregate.
+     * @param columnName the column aggregated (null for count).
+     */
+    private Aggregate(int kind, String columnName) {
+        this.kind = kind;
+        this.columnName = columnName;
+    }
+
+    /**
+     * count returns an aggregate counting the rows of each group.
+     *
+     * @return returns the Aggregate object.
+     */
+    public static Aggregate count() {
+        return new Aggregate(COUNT, null);
+    }
+
+    /**
+     * sum returns an aggregate summing a column over the rows of each group.
+     *
+     * @param columnName specifies the column.
+     * @return returns the Aggregate object.
+     */
+    public static Aggregate sum(String columnName) {
+        return getInstance(SUM, columnName);
+    }
+
+    /**
+     * average returns an aggregate averaging a column over the rows of each group.
+     *
+     * @param columnName specifies the column.
+     * @return returns the Aggregate object.
+     */
+    public static Aggregate average(String columnName) {
+        return getInstance(AVERAGE, columnName);
+    }
+
+    /**
+     * minimum returns an aggregate finding the smallest value of a column over the rows of each group.
+     *
+     * @param columnName specifies the column.
+     * @return returns the Aggregate object.
+     */
+    public static Aggregate minimum(String columnName) {
+        return getInstance(MINIMUM, columnName);
+    }
+
+    /**
+     * maximum returns an aggregate finding the largest value of a column over the rows of each group.
+     *
+     * @param columnName specifies the column.
+     * @return returns the Aggregate object.
+     */
+    public static Aggregate maximum(String columnName) {
+        return getInstance(MAXIMUM, columnName);
+    }
+
+    private static Aggregate getInstance(int kind, String columnName) {
+        /*
+        Check parameters.
+         */
+        if (columnName == null) {
+            throw new IllegalArgumentException("Column name cannot be null.");
+        }
+        return new Aggregate(kind, columnName);
+    }
+
+    /**
+     * getKind returns the kind of aggregate.
+     *
+     * @return returns the kind.
+     */
+    int getKind() {
+        return kind;
+    }
+
+    /**
+     * getColumnName returns the column aggregated.
+     *
+     * @return returns the column name (null for count).
+     */
+    String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * toString returns the aggregate as a string.
+     *
+     * @return returns the following formatted string "kind(column)".
+     */
+    @Override
+    public String toString() {
+        return NAMES[kind] + "(" + (columnName == null ? "*" : columnName) + ")";
+    }
+}
@@ -0,0 +1,85 @@
+package analytics;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The AnalyticsBenchmark class measures how queries over a synthetic rentals table (see FleetDatasets.rentals) scale with the parallelism of the fork-join pool.
+ * The parallelism is doubled from 1 up to the number of available processors.
+ * <p>
+ * Usage: AnalyticsBenchmark [rows] (ten million rows by default).
+ */
+public final class AnalyticsBenchmark {
+
+    private static final int NO_RUNS = 5;
+
+    private AnalyticsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int noRows = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        ColumnTable rentals = getRentals(noRows);
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println("Rows: " + noRows + ", processors: " + processors);
+        for (int parallelism = 1; parallelism <= processors; parallelism = parallelism == processors ? processors + 1 : Math.min(parallelism * 2, processors)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                long fuelByAge = time(Query.from(rentals).groupBy("driverAge", 10).aggregate(Aggregate.average("fuelNeeded")), pool);
+                long rentalsByHour = time(Query.from(rentals).where("kilometres", kilometres -> kilometres > 0)
+                        .groupBy("type").groupBy("issuedHour").aggregate(Aggregate.count(), Aggregate.sum("durationMinutes")), pool);
+                System.out.println("Parallelism " + parallelism + ": fuel owed by age bracket " + fuelByAge + " ms, rentals by type per hour " + rentalsByHour + " ms");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * time returns the best time of a number of runs of a query.
+     *
+     * @param query specifies the query.
+     * @param pool  specifies the pool to run the query on.
+     * @return returns the best time in milliseconds.
+     */
+    private static long time(Query query, ForkJoinPool pool) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < NO_RUNS; run++) {
+            long start = System.nanoTime();
+            query.run(pool);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1000000;
+    }
+
+    /**
+     * getRentals builds a synthetic rentals table (rentals are returned in order so the issue hour increases through the table).
+     *
+     * @param noRows specifies the number of rows.
+     * @return returns the table.
+     */
+    private static ColumnTable getRentals(int noRows) {
+        //A fixed seed so runs query the same rentals.
+        Random random = new Random(34);
+        String[] columnNames = {"licenceNumber", "type", "issuedAt", "returnedAt", "issuedHour", "durationMinutes", "kilometres", "fuelNeeded", "driverAge", "yearsHeld"};
+        long[][] columns = new long[columnNames.length][noRows];
+        for (int row = 0; row < noRows; row++) {
+            long issuedHour = 400000 + row / 1000;
+            long durationMinutes = 30 + random.nextInt(3 * 24 * 60);
+            columns[0][row] = random.nextInt(100000);
+            columns[1][row] = random.nextInt(2);
+            columns[2][row] = issuedHour * 60 * 60 * 1000;
+            columns[3][row] = columns[2][row] + durationMinutes * 60 * 1000;
+            columns[4][row] = issuedHour;
+            columns[5][row] = durationMinutes;
+            columns[6][row] = random.nextInt(1000);
+            columns[7][row] = random.nextInt(60);
+            columns[8][row] = 18 + random.nextInt(70);
+            columns[9][row] = random.nextInt(Math.toIntExact(columns[8][row] - 16));
+        }
+        String[] licenceNumbers = new String[100000];
+        for (int i = 0; i < licenceNumbers.length; i++) {
+            licenceNumbers[i] = "LICENCE-" + i;
+        }
+        return new ColumnTable(columnNames, columns, new String[][]{licenceNumbers, {"SMALL", "LARGE"}, null, null, null, null, null, null, null, null});
+    }
+}
@@ -0,0 +1,173 @@
+package analytics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ColumnTable class is an immutable table of rows stored column by column, where every value is a long.
+ * <p>
+ * Categorical columns (i.e. the type of car) store a code per row and keep a dictionary of the labels of the codes, so filtering and grouping never compare strings.
+ * Storing each column as a primitive array keeps the values of a column next to each other in memory so a query only reads the columns it uses (see Query).
+ * Tables are built by FleetDatasets (or directly from columns within the package).
+ */
+public final class ColumnTable {
+
+    private final String[] columnNames;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+    private final long[][] columns;
+    /*
+    The labels of the codes of each categorical column (null for numeric columns).
+     */
+    private final String[][] labels;
+    private final int noRows;
+
+    /**
+     * ColumnTable is a constructor for a table of the specified columns (which must all have the same number of rows).
+     *
+     * @param columnNames the names of the columns.
+     * @param columns     the values of each column.
+     * @param labels      the labels of the codes of each categorical column (null for numeric columns).
+     */
+    ColumnTable(String[] columnNames, long[][] columns, String[][] labels) {
+        assert columnNames.length == columns.length && columns.length == labels.length;
+        this.columnNames = columnNames;
+        this.columns = columns;
+        this.labels = labels;
+        this.noRows = columns.length == 0 ? 0 : columns[0].length;
+        for (int i = 0; i < columnNames.length; i++) {
+            assert columns[i].length == noRows;
+            columnIndexes.put(columnNames[i], i);
+        }
+    }
+
+    /**
+     * getNoRows returns the number of rows of the table.
+     *
+     * @return returns the number of rows.
+     */
+    public int getNoRows() {
+        return noRows;
+    }
+
+    /**
+     * getColumnNames returns the names of the columns of the table.
+     *
+     * @return returns an unmodifiable list of the column names.
+     */
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(Arrays.asList(columnNames));
+    }
+
+    /**
+     * getColumnIndex returns the index of a column.
+     *
+     * @param columnName specifies the name of the column.
+     * @return returns the index of the column.
+     * @throws IllegalArgumentException an IllegalArgumentException is thrown if the table has no such column.
+     */
+    public int getColumnIndex(String columnName) throws IllegalArgumentException {
+        Integer index = columnIndexes.get(columnName);
+        if (index == null) {
+            throw new IllegalArgumentException("The table has no column " + columnName + ".");
+        }
+        return index;
+    }
+
+    /**
+     * get returns the value of a column of a row (for categorical columns, the code of the label).
+     *
+     * @param columnName specifies the name of the column.
+     * @param row        specifies the row.
+     * @return returns the value.
+     */
+    public long get(String columnName, int row) {
+        return columns[getColumnIndex(columnName)][row];
+    }
+
+    /**
+     * isCategorical identifies if a column stores codes of labels.
+     *
+     * @param columnIndex specifies the index of the column.
+     * @return returns true if the column is categorical.
+     */
+    public boolean isCategorical(int columnIndex) {
+        return labels[columnIndex] != null;
+    }
+
+    /**
+     * getCode returns the code of a label of a categorical column.
+     *
+     * @param columnName specifies the name of the column.
+     * @param label      specifies the label.
+     * @return returns the code, or -1 if the label does not occur in the column.
+     */
+    public long getCode(String columnName, String label) {
+        String[] columnLabels = labels[getColumnIndex(columnName)];
+        if (columnLabels == null) {
+            throw new IllegalArgumentException("The column " + columnName + " is not categorical.");
+        }
+        for (int code = 0; code < columnLabels.length; code++) {
+            if (columnLabels[code].equals(label)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * getLabel returns the label of a code of a categorical column, or the value itself as a string for numeric columns.
+     *
+     * @param columnIndex specifies the index of the column.
+     * @param value       specifies the code or value.
+     * @return returns the label.
+     */
+    public String getLabel(int columnIndex, long value) {
+        return labels[columnIndex] == null ? Long.toString(value) : labels[columnIndex][(int) value];
+    }
+
+    /**
+     * getColumn returns the values of a column (the array itself, which must not be modified).
+     *
+     * @param columnIndex specifies the index of the column.
+     * @return returns the values of the column.
+     */
+    long[] getColumn(int columnIndex) {
+        return columns[columnIndex];
+    }
+
+    /**
+     * encode encodes the labels of a categorical column into codes (in order of first occurrence).
+     *
+     * @param values specifies the label of each row.
+     * @param labels specifies the list the distinct labels are added to (the label of code i at index i).
+     * @return returns the code of each row.
+     */
+    static long[] encode(List<String> values, List<String> labels) {
+        Map<String, Integer> codes = new HashMap<>();
+        long[] column = new long[values.size()];
+        for (int row = 0; row < column.length; row++) {
+            String value = values.get(row);
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = labels.size();
+                codes.put(value, code);
+                labels.add(value);
+            }
+            column[row] = code;
+        }
+        return column;
+    }
+
+    /**
+     * toString returns the table as a string.
+     *
+     * @return returns the following formatted string "ColumnTable[column names, noRows rows]".
+     */
+    @Override
+    public String toString() {
+        return "ColumnTable[" + String.join(", ", columnNames) + ", " + noRows + " rows]";
+    }
+}
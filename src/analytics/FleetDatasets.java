@@ -0,0 +1,175 @@
+package analytics;
+
+import cars.Car;
+import licences.DrivingLicence;
+import manager.RentalManager;
+import manager.RentalRecord;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The FleetDatasets class builds the column tables queried by operations (see Query) from the fleet, the closed rentals and the driving licences.
+ * <p>
+ * The datasets and their columns are...
+ * (a) fleet: depot, type (categorical), fuelRemaining, fuelCapacity, fuelNeeded, rented (1 or 0) and odometer of every car of the depots.
+ * (b) rentals: licenceNumber, type (categorical), issuedAt, returnedAt, issuedHour (hours since the epoch), durationMinutes, kilometres, fuelNeeded, driverAge and yearsHeld of every closed rental.
+ * The driver's age and years held are looked up once per licence when the table is built (-1 if the licence is unknown), so queries over rentals by licence age need no join.
+ * (c) licences: licenceNumber (categorical), age, yearsHeld and full (1 or 0) of every licence.
+ */
+public final class FleetDatasets {
+
+    private static final long MILLISECONDS_PER_HOUR = 60L * 60 * 1000;
+    private static final long MILLISECONDS_PER_MINUTE = 60L * 1000;
+
+    private FleetDatasets() {
+    }
+
+    /**
+     * fleet builds the fleet dataset of the cars of the depots (a snapshot, see RentalManager.getCars).
+     *
+     * @param depots specifies the depots.
+     * @return returns the fleet table.
+     */
+    public static ColumnTable fleet(List<RentalManager> depots) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depots == null) {
+            throw new IllegalArgumentException("Depots cannot be null.");
+        }
+        List<String> depotNames = new ArrayList<>();
+        List<Car> cars = new ArrayList<>();
+        for (RentalManager depot : depots) {
+            for (Car car : depot.getCars()) {
+                depotNames.add(depot.getDepotName());
+                cars.add(car);
+            }
+        }
+        List<String> types = new ArrayList<>(cars.size());
+        long[] fuelRemaining = new long[cars.size()];
+        long[] fuelCapacity = new long[cars.size()];
+        long[] fuelNeeded = new long[cars.size()];
+        long[] rented = new long[cars.size()];
+        long[] odometer = new long[cars.size()];
+        for (int row = 0; row < cars.size(); row++) {
+            Car car = cars.get(row);
+            types.add(car.getTypeAsString());
+            fuelRemaining[row] = car.getFuelRemaining();
+            fuelCapacity[row] = car.getFuelCapacity();
+            fuelNeeded[row] = car.getFuelNeeded();
+            rented[row] = car.isRented() ? 1 : 0;
+            odometer[row] = car.getOdometer();
+        }
+        List<String> depotLabels = new ArrayList<>();
+        List<String> typeLabels = new ArrayList<>();
+        long[] depotCodes = ColumnTable.encode(depotNames, depotLabels);
+        long[] typeCodes = ColumnTable.encode(types, typeLabels);
+        return new ColumnTable(new String[]{"depot", "type", "fuelRemaining", "fuelCapacity", "fuelNeeded", "rented", "odometer"},
+                new long[][]{depotCodes, typeCodes, fuelRemaining, fuelCapacity, fuelNeeded, rented, odometer},
+                new String[][]{depotLabels.toArray(new String[0]), typeLabels.toArray(new String[0]), null, null, null, null, null});
+    }
+
+    /**
+     * rentals builds the rentals dataset of closed rentals (i.e. drained from the depots or scanned from a RentalHistoryStore).
+     *
+     * @param rentals specifies the records of the rentals.
+     * @return returns the rentals table.
+     */
+    public static ColumnTable rentals(List<RentalRecord> rentals) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (rentals == null) {
+            throw new IllegalArgumentException("Rentals cannot be null.");
+        }
+        int noRows = rentals.size();
+        List<String> licenceNumbers = new ArrayList<>(noRows);
+        List<String> types = new ArrayList<>(noRows);
+        long[] issuedAt = new long[noRows];
+        long[] returnedAt = new long[noRows];
+        long[] issuedHour = new long[noRows];
+        long[] durationMinutes = new long[noRows];
+        long[] kilometres = new long[noRows];
+        long[] fuelNeeded = new long[noRows];
+        long[] driverAge = new long[noRows];
+        long[] yearsHeld = new long[noRows];
+        //The licence of each licence number is looked up once (key-value pairs of licence number to age and years held).
+        Map<String, long[]> drivers = new HashMap<>();
+        for (int row = 0; row < noRows; row++) {
+            RentalRecord rental = rentals.get(row);
+            licenceNumbers.add(rental.getLicenceNumber());
+            types.add(rental.getTypeAsString());
+            issuedAt[row] = rental.getIssuedAt();
+            returnedAt[row] = rental.getReturnedAt();
+            issuedHour[row] = Math.floorDiv(rental.getIssuedAt(), MILLISECONDS_PER_HOUR);
+            durationMinutes[row] = (rental.getReturnedAt() - rental.getIssuedAt()) / MILLISECONDS_PER_MINUTE;
+            kilometres[row] = rental.getKilometres();
+            fuelNeeded[row] = rental.getFuelNeeded();
+            long[] driver = drivers.get(rental.getLicenceNumber());
+            if (driver == null) {
+                driver = lookUpDriver(rental.getLicenceNumber());
+                drivers.put(rental.getLicenceNumber(), driver);
+            }
+            driverAge[row] = driver[0];
+            yearsHeld[row] = driver[1];
+        }
+        List<String> licenceLabels = new ArrayList<>();
+        List<String> typeLabels = new ArrayList<>();
+        long[] licenceCodes = ColumnTable.encode(licenceNumbers, licenceLabels);
+        long[] typeCodes = ColumnTable.encode(types, typeLabels);
+        return new ColumnTable(new String[]{"licenceNumber", "type", "issuedAt", "returnedAt", "issuedHour", "durationMinutes", "kilometres", "fuelNeeded", "driverAge", "yearsHeld"},
+                new long[][]{licenceCodes, typeCodes, issuedAt, returnedAt, issuedHour, durationMinutes, kilometres, fuelNeeded, driverAge, yearsHeld},
+                new String[][]{licenceLabels.toArray(new String[0]), typeLabels.toArray(new String[0]), null, null, null, null, null, null, null, null});
+    }
+
+    /**
+     * licences builds the licences dataset.
+     *
+     * @param licences specifies the licences.
+     * @return returns the licences table.
+     */
+    public static ColumnTable licences(Collection<DrivingLicence> licences) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (licences == null) {
+            throw new IllegalArgumentException("Licences cannot be null.");
+        }
+        List<String> licenceNumbers = new ArrayList<>(licences.size());
+        long[] age = new long[licences.size()];
+        long[] yearsHeld = new long[licences.size()];
+        long[] full = new long[licences.size()];
+        int row = 0;
+        for (DrivingLicence licence : licences) {
+            licenceNumbers.add(licence.getLicenceNumberAsString());
+            age[row] = licence.getAge();
+            yearsHeld[row] = licence.getYearsHeld();
+            full[row] = licence.isFull() ? 1 : 0;
+            row++;
+        }
+        List<String> licenceLabels = new ArrayList<>();
+        long[] licenceCodes = ColumnTable.encode(licenceNumbers, licenceLabels);
+        return new ColumnTable(new String[]{"licenceNumber", "age", "yearsHeld", "full"},
+                new long[][]{licenceCodes, age, yearsHeld, full},
+                new String[][]{licenceLabels.toArray(new String[0]), null, null, null});
+    }
+
+    /**
+     * lookUpDriver returns the age and years held of the holder of a licence.
+     *
+     * @param licenceNumber specifies the licence number.
+     * @return returns {age, years held}, or {-1, -1} if the licence is unknown.
+     */
+    private static long[] lookUpDriver(String licenceNumber) {
+        try {
+            DrivingLicence licence = DrivingLicence.getLicence(licenceNumber);
+            return new long[]{licence.getAge(), licence.getYearsHeld()};
+        } catch (IllegalArgumentException e) {
+            return new long[]{-1, -1};
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongPredicate;
+
+/**
+ * The Query class filters the rows of a ColumnTable, groups them by up to two columns and computes aggregates over each group.
+ * <p>
+ * For example "average fuel owed by licence age bracket" over the rentals dataset (see FleetDatasets) is...
+ * Query.from(rentals).groupBy("driverAge", 10).aggregate(Aggregate.average("fuelNeeded")).run()
+ * <p>
+ * A query runs as a fork-join task (see QueryTask): the rows are split into ranges which are filtered and aggregated in parallel and the partial aggregates of the ranges are merged.
+ * Queries are built by chaining calls and are not thread-safe until they are run (running a query does not change it, so it can be run any number of times).
+ */
+public final class Query {
+
+    /*
+    The most columns a query can be grouped by (the bucket indexes of both are combined into a single long key, see QueryTask.getKey).
+     */
+    private static final int MAX_GROUP_COLUMNS = 2;
+
+    private final ColumnTable table;
+    private final List<Integer> filterColumns = new ArrayList<>();
+    private final List<LongPredicate> filters = new ArrayList<>();
+    private final List<Integer> groupColumns = new ArrayList<>();
+    private final List<Long> bucketWidths = new ArrayList<>();
+    private final List<Aggregate> aggregates = new ArrayList<>();
+
+    /**
+     * Query is a constructor for a new Query over a table.
+     *
+     * @param table the table queried.
+     */
+    private Query(ColumnTable table) {
+        this.table = table;
+    }
+
+    /**
+     * from returns a new query over a table (with no filters, no grouping and no aggregates).
+     *
+     * @param table specifies the table.
+     * @return returns the Query object.
+     */
+    public static Query from(ColumnTable table) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (table == null) {
+            throw new IllegalArgumentException("Table cannot be null.");
+        }
+        return new Query(table);
+    }
+
+    /**
+     * where only keeps the rows where the value of a column satisfies a predicate (filters are combined with and).
+     *
+     * @param columnName specifies the column.
+     * @param predicate  specifies the predicate (tested against codes for categorical columns).
+     * @return returns this query.
+     */
+    public Query where(String columnName, LongPredicate predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Predicate cannot be null.");
+        }
+        filterColumns.add(table.getColumnIndex(columnName));
+        filters.add(predicate);
+        return this;
+    }
+
+    /**
+     * whereEquals only keeps the rows where a categorical column has a label.
+     *
+     * @param columnName specifies the categorical column.
+     * @param label      specifies the label.
+     * @return returns this query.
+     */
+    public Query whereEquals(String columnName, String label) {
+        final long code = table.getCode(columnName, label);
+        return where(columnName, value -> value == code);
+    }
+
+    /**
+     * groupBy groups the rows by the value of a column.
+     *
+     * @param columnName specifies the column.
+     * @return returns this query.
+     */
+    public Query groupBy(String columnName) {
+        return groupBy(columnName, 1);
+    }
+
+    /**
+     * groupBy groups the rows by the bucket of the value of a numeric column, i.e. a width of 10 over ages groups 20-29, 30-39 and so on.
+     *
+     * @param columnName  specifies the column.
+     * @param bucketWidth specifies the width of the buckets (1 for categorical columns).
+     * @return returns this query.
+     */
+    public Query groupBy(String columnName, long bucketWidth) {
+        int columnIndex = table.getColumnIndex(columnName);
+        if (bucketWidth <= 0 || (table.isCategorical(columnIndex) && bucketWidth != 1)) {
+            throw new IllegalArgumentException("The bucket width must be greater than 0 (and 1 for categorical columns).");
+        }
+        if (groupColumns.size() == MAX_GROUP_COLUMNS) {
+            throw new IllegalArgumentException("A query can be grouped by at most " + MAX_GROUP_COLUMNS + " columns.");
+        }
+        groupColumns.add(columnIndex);
+        bucketWidths.add(bucketWidth);
+        return this;
+    }
+
+    /**
+     * aggregate adds aggregates computed over each group.
+     *
+     * @param aggregates specifies the aggregates.
+     * @return returns this query.
+     */
+    public Query aggregate(Aggregate... aggregates) {
+        for (Aggregate aggregate : aggregates) {
+            if (aggregate == null) {
+                throw new IllegalArgumentException("Aggregate cannot be null.");
+            }
+            if (aggregate.getColumnName() != null) {
+                table.getColumnIndex(aggregate.getColumnName());
+            }
+            this.aggregates.add(aggregate);
+        }
+        return this;
+    }
+
+    /**
+     * run runs the query on the common fork-join pool.
+     *
+     * @return returns the QueryResult.
+     */
+    public QueryResult run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * run runs the query on a fork-join pool (the parallelism of the pool is the number of ranges of rows processed at once).
+     *
+     * @param pool specifies the pool.
+     * @return returns the QueryResult.
+     */
+    public QueryResult run(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null.");
+        }
+        if (aggregates.isEmpty()) {
+            throw new IllegalStateException("A query must have at least one aggregate.");
+        }
+        long[][] filterValues = new long[filters.size()][];
+        for (int i = 0; i < filters.size(); i++) {
+            filterValues[i] = table.getColumn(filterColumns.get(i));
+        }
+        long[][] groupValues = new long[groupColumns.size()][];
+        long[] widths = new long[groupColumns.size()];
+        for (int i = 0; i < groupColumns.size(); i++) {
+            groupValues[i] = table.getColumn(groupColumns.get(i));
+            widths[i] = bucketWidths.get(i);
+        }
+        /*
+        The key of a group of two columns is the bucket of the first times the range of buckets of the second plus the offset into that range, so the ranges are found before grouping
+        and a query whose keys would not fit into a long (i.e. narrow buckets over both columns of milliseconds) is rejected rather than grouping rows together.
+         */
+        long otherBucketOrigin = 0;
+        long otherBucketRange = 1;
+        if (groupValues.length == MAX_GROUP_COLUMNS && table.getNoRows() > 0) {
+            long[] buckets = getBucketRange(groupValues[0], widths[0]);
+            long[] otherBuckets = getBucketRange(groupValues[1], widths[1]);
+            try {
+                otherBucketOrigin = otherBuckets[0];
+                otherBucketRange = Math.addExact(Math.subtractExact(otherBuckets[1], otherBuckets[0]), 1);
+                Math.multiplyExact(buckets[0], otherBucketRange);
+                Math.addExact(Math.multiplyExact(buckets[1], otherBucketRange), otherBucketRange - 1);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("The grouped columns have too many buckets to be grouped together, use wider buckets.");
+            }
+        }
+        int[] kinds = new int[aggregates.size()];
+        long[][] aggregateValues = new long[aggregates.size()][];
+        for (int i = 0; i < aggregates.size(); i++) {
+            kinds[i] = aggregates.get(i).getKind();
+            aggregateValues[i] = kinds[i] == Aggregate.COUNT ? null : table.getColumn(table.getColumnIndex(aggregates.get(i).getColumnName()));
+        }
+        QueryTask task = new QueryTask(filterValues, filters.toArray(new LongPredicate[0]), groupValues, widths, otherBucketOrigin, otherBucketRange, kinds, aggregateValues, 0,
+                table.getNoRows());
+        Map<Long, long[]> groups = pool.invoke(task);
+        int[] groupColumnIndexes = new int[groupColumns.size()];
+        for (int i = 0; i < groupColumnIndexes.length; i++) {
+            groupColumnIndexes[i] = groupColumns.get(i);
+        }
+        return new QueryResult(table, groupColumnIndexes, widths, otherBucketOrigin, otherBucketRange, new ArrayList<>(aggregates), kinds, groups);
+    }
+
+    /**
+     * getBucketRange returns the lowest and highest bucket index of the values of a column.
+     *
+     * @param values specifies the values (at least one).
+     * @param width  specifies the bucket width.
+     * @return returns the lowest and highest bucket index.
+     */
+    private static long[] getBucketRange(long[] values, long width) {
+        long lowest = Long.MAX_VALUE;
+        long highest = Long.MIN_VALUE;
+        for (long value : values) {
+            long bucket = Math.floorDiv(value, width);
+            lowest = Math.min(lowest, bucket);
+            highest = Math.max(highest, bucket);
+        }
+        return new long[]{lowest, highest};
+    }
+
+    /**
+     * toString returns the query as a string.
+     *
+     * @return returns the following formatted string "Query[aggregates, groupColumns, noFilters filters]".
+     */
+    @Override
+    public String toString() {
+        List<String> groupColumnNames = new ArrayList<>();
+        for (int groupColumn : groupColumns) {
+            groupColumnNames.add(table.getColumnNames().get(groupColumn));
+        }
+        return "Query[" + aggregates + ", group by " + groupColumnNames + ", " + filters.size() + " filters]";
+    }
+}
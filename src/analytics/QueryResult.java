@@ -0,0 +1,168 @@
+package analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The QueryResult class is the result of running a Query: one row per group (ordered by the group key) with the value of each aggregate.
+ * <p>
+ * The QueryResult class is immutable.
+ */
+public final class QueryResult {
+
+    private final ColumnTable table;
+    private final int[] groupColumns;
+    private final long[] bucketWidths;
+    private final long otherBucketOrigin;
+    private final long otherBucketRange;
+    private final List<Aggregate> aggregates;
+    private final int[] kinds;
+    private final long[] keys;
+    private final long[][] accumulators;
+
+    /**
+     * QueryResult is a constructor for the result of a query.
+     *
+     * @param table             the table queried.
+     * @param groupColumns      the indexes of the columns grouped by.
+     * @param bucketWidths      the bucket width of each grouped column.
+     * @param otherBucketOrigin the lowest bucket index of the second grouped column (see QueryTask).
+     * @param otherBucketRange  the number of bucket indexes of the second grouped column (see QueryTask).
+     * @param aggregates        the aggregates.
+     * @param kinds             the kind of each aggregate.
+     * @param groups            the accumulators of the groups (key-value pairs of group key to accumulator, see QueryTask).
+     */
+    QueryResult(ColumnTable table, int[] groupColumns, long[] bucketWidths, long otherBucketOrigin, long otherBucketRange, List<Aggregate> aggregates, int[] kinds,
+                Map<Long, long[]> groups) {
+        this.table = table;
+        this.groupColumns = groupColumns;
+        this.bucketWidths = bucketWidths;
+        this.otherBucketOrigin = otherBucketOrigin;
+        this.otherBucketRange = otherBucketRange;
+        this.aggregates = aggregates;
+        this.kinds = kinds;
+        this.keys = new long[groups.size()];
+        int group = 0;
+        for (long key : groups.keySet()) {
+            keys[group++] = key;
+        }
+        Arrays.sort(keys);
+        this.accumulators = new long[keys.length][];
+        for (group = 0; group < keys.length; group++) {
+            accumulators[group] = groups.get(keys[group]);
+        }
+    }
+
+    /**
+     * getNoGroups returns the number of groups (a query which is not grouped has one group if any row matched).
+     *
+     * @return returns the number of groups.
+     */
+    public int getNoGroups() {
+        return keys.length;
+    }
+
+    /**
+     * getGroupValue returns the value of a grouped column of a group (the start of the bucket for numeric columns, the code for categorical columns).
+     *
+     * @param group       specifies the group.
+     * @param groupColumn specifies the grouped column (0 or 1, in the order of groupBy).
+     * @return returns the value.
+     */
+    public long getGroupValue(int group, int groupColumn) {
+        if (groupColumn < 0 || groupColumn >= groupColumns.length) {
+            throw new IllegalArgumentException("The query is not grouped by a column " + groupColumn + ".");
+        }
+        long key = keys[group];
+        long bucket = groupColumns.length == 1 ? key : (groupColumn == 0 ? Math.floorDiv(key, otherBucketRange) : Math.floorMod(key, otherBucketRange) + otherBucketOrigin);
+        return bucket * bucketWidths[groupColumn];
+    }
+
+    /**
+     * getGroupLabel returns the label of a grouped column of a group (the label for categorical columns, the start of the bucket for numeric columns).
+     *
+     * @param group       specifies the group.
+     * @param groupColumn specifies the grouped column (0 or 1, in the order of groupBy).
+     * @return returns the label.
+     */
+    public String getGroupLabel(int group, int groupColumn) {
+        return table.getLabel(groupColumns[groupColumn], getGroupValue(group, groupColumn));
+    }
+
+    /**
+     * findGroup returns the group with the specified labels of the grouped columns.
+     *
+     * @param labels specifies the label of each grouped column.
+     * @return returns the group, or -1 if there is no such group.
+     */
+    public int findGroup(String... labels) {
+        if (labels.length != groupColumns.length) {
+            throw new IllegalArgumentException("A label must be specified for each of the " + groupColumns.length + " grouped columns.");
+        }
+        groups:
+        for (int group = 0; group < keys.length; group++) {
+            for (int groupColumn = 0; groupColumn < labels.length; groupColumn++) {
+                if (!getGroupLabel(group, groupColumn).equals(labels[groupColumn])) {
+                    continue groups;
+                }
+            }
+            return group;
+        }
+        return -1;
+    }
+
+    /**
+     * getValue returns the value of an aggregate of a group.
+     *
+     * @param group     specifies the group.
+     * @param aggregate specifies the aggregate (in the order they were added to the query).
+     * @return returns the value of the aggregate (0 for the minimum and maximum of no values).
+     */
+    public double getValue(int group, int aggregate) {
+        long[] accumulator = accumulators[group];
+        long count = accumulator[0];
+        switch (kinds[aggregate]) {
+            case Aggregate.COUNT:
+                return count;
+            case Aggregate.SUM:
+                return accumulator[1 + 3 * aggregate];
+            case Aggregate.AVERAGE:
+                return count == 0 ? 0 : (double) accumulator[1 + 3 * aggregate] / count;
+            case Aggregate.MINIMUM:
+                return count == 0 ? 0 : accumulator[2 + 3 * aggregate];
+            default:
+                return count == 0 ? 0 : accumulator[3 + 3 * aggregate];
+        }
+    }
+
+    /**
+     * toString returns the result as a table of text (a header line followed by one line per group).
+     *
+     * @return returns the result as a string.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        List<String> header = new ArrayList<>();
+        for (int groupColumn : groupColumns) {
+            header.add(table.getColumnNames().get(groupColumn));
+        }
+        for (Aggregate aggregate : aggregates) {
+            header.add(aggregate.toString());
+        }
+        builder.append(String.join("\t", header)).append('\n');
+        for (int group = 0; group < keys.length; group++) {
+            List<String> line = new ArrayList<>();
+            for (int groupColumn = 0; groupColumn < groupColumns.length; groupColumn++) {
+                line.add(getGroupLabel(group, groupColumn));
+            }
+            for (int aggregate = 0; aggregate < aggregates.size(); aggregate++) {
+                line.add(String.valueOf(getValue(group, aggregate)));
+            }
+            builder.append(String.join("\t", line)).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,175 @@
+package analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongPredicate;
+
+/**
+ * The QueryTask class runs a Query over a range of rows: ranges larger than THRESHOLD rows are split in two and run in parallel, smaller ranges are filtered and aggregated directly.
+ * <p>
+ * The result of a task is a map of group key to accumulator (see getKey), where an accumulator holds the number of rows of the group followed by the sum, minimum and maximum of the column of each aggregate.
+ * The accumulators of the two halves of a range are merged into one map.
+ */
+final class QueryTask extends RecursiveTask<Map<Long, long[]>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /*
+    The number of rows below which a range is not split.
+     */
+    static final int THRESHOLD = 1 << 14;
+
+    private final long[][] filterValues;
+    private final LongPredicate[] filters;
+    private final long[][] groupValues;
+    private final long[] bucketWidths;
+    private final long otherBucketOrigin;
+    private final long otherBucketRange;
+    private final int[] kinds;
+    private final long[][] aggregateValues;
+    private final int fromRow;
+    private final int toRow;
+
+    /**
+     * QueryTask is a constructor for a task over a range of rows.
+     *
+     * @param filterValues      the columns filtered.
+     * @param filters           the predicate of each filtered column.
+     * @param groupValues       the columns grouped by.
+     * @param bucketWidths      the bucket width of each grouped column.
+     * @param otherBucketOrigin the lowest bucket index of the second grouped column (0 if the rows are not grouped by two columns).
+     * @param otherBucketRange  the number of bucket indexes from the lowest to the highest of the second grouped column (1 if the rows are not grouped by two columns).
+     * @param kinds             the kind of each aggregate.
+     * @param aggregateValues   the column of each aggregate (null for count).
+     * @param fromRow           the first row (inclusive).
+     * @param toRow             the last row (exclusive).
+     */
+    QueryTask(long[][] filterValues, LongPredicate[] filters, long[][] groupValues, long[] bucketWidths, long otherBucketOrigin, long otherBucketRange, int[] kinds,
+              long[][] aggregateValues, int fromRow, int toRow) {
+        this.filterValues = filterValues;
+        this.filters = filters;
+        this.groupValues = groupValues;
+        this.bucketWidths = bucketWidths;
+        this.otherBucketOrigin = otherBucketOrigin;
+        this.otherBucketRange = otherBucketRange;
+        this.kinds = kinds;
+        this.aggregateValues = aggregateValues;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+    }
+
+    @Override
+    protected Map<Long, long[]> compute() {
+        if (toRow - fromRow <= THRESHOLD) {
+            return aggregate();
+        }
+        int middle = (fromRow + toRow) >>> 1;
+        QueryTask left = new QueryTask(filterValues, filters, groupValues, bucketWidths, otherBucketOrigin, otherBucketRange, kinds, aggregateValues, fromRow, middle);
+        QueryTask right = new QueryTask(filterValues, filters, groupValues, bucketWidths, otherBucketOrigin, otherBucketRange, kinds, aggregateValues, middle, toRow);
+        left.fork();
+        Map<Long, long[]> groups = right.compute();
+        merge(groups, left.join());
+        return groups;
+    }
+
+    /**
+     * aggregate filters and aggregates the rows of the range.
+     *
+     * @return returns the accumulators of the groups of the range.
+     */
+    private Map<Long, long[]> aggregate() {
+        Map<Long, long[]> groups = new HashMap<>();
+        //Rows of the same group are often next to each other, so the accumulator of the previous row is reused without a lookup.
+        long previousKey = 0;
+        long[] previousAccumulator = null;
+        rows:
+        for (int row = fromRow; row < toRow; row++) {
+            for (int i = 0; i < filters.length; i++) {
+                if (!filters[i].test(filterValues[i][row])) {
+                    continue rows;
+                }
+            }
+            long key = getKey(row);
+            long[] accumulator;
+            if (previousAccumulator != null && key == previousKey) {
+                accumulator = previousAccumulator;
+            } else {
+                accumulator = groups.get(key);
+                if (accumulator == null) {
+                    accumulator = newAccumulator(kinds.length);
+                    groups.put(key, accumulator);
+                }
+                previousKey = key;
+                previousAccumulator = accumulator;
+            }
+            accumulator[0]++;
+            for (int i = 0; i < kinds.length; i++) {
+                if (aggregateValues[i] != null) {
+                    long value = aggregateValues[i][row];
+                    accumulator[1 + 3 * i] += value;
+                    accumulator[2 + 3 * i] = Math.min(accumulator[2 + 3 * i], value);
+                    accumulator[3 + 3 * i] = Math.max(accumulator[3 + 3 * i], value);
+                }
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * getKey returns the group key of a row: the bucket index of the grouped column, or for two grouped columns the bucket index of the first times the range of the second
+     * plus the offset of the second from its lowest bucket index, so the keys order the groups by the first column then the second (Query checks the keys do not overflow).
+     *
+     * @param row specifies the row.
+     * @return returns the group key.
+     */
+    private long getKey(int row) {
+        if (groupValues.length == 0) {
+            return 0;
+        }
+        long bucket = Math.floorDiv(groupValues[0][row], bucketWidths[0]);
+        if (groupValues.length == 1) {
+            return bucket;
+        }
+        long otherBucket = Math.floorDiv(groupValues[1][row], bucketWidths[1]);
+        return bucket * otherBucketRange + (otherBucket - otherBucketOrigin);
+    }
+
+    /**
+     * newAccumulator returns an accumulator of no rows.
+     *
+     * @param noAggregates specifies the number of aggregates.
+     * @return returns the accumulator.
+     */
+    static long[] newAccumulator(int noAggregates) {
+        long[] accumulator = new long[1 + 3 * noAggregates];
+        for (int i = 0; i < noAggregates; i++) {
+            accumulator[2 + 3 * i] = Long.MAX_VALUE;
+            accumulator[3 + 3 * i] = Long.MIN_VALUE;
+        }
+        return accumulator;
+    }
+
+    /**
+     * merge merges the accumulators of another range into the accumulators of this range.
+     *
+     * @param groups      specifies the accumulators merged into.
+     * @param otherGroups specifies the accumulators of the other range.
+     */
+    private void merge(Map<Long, long[]> groups, Map<Long, long[]> otherGroups) {
+        for (Map.Entry<Long, long[]> entry : otherGroups.entrySet()) {
+            long[] accumulator = groups.get(entry.getKey());
+            if (accumulator == null) {
+                groups.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            long[] other = entry.getValue();
+            accumulator[0] += other[0];
+            for (int i = 0; i < kinds.length; i++) {
+                accumulator[1 + 3 * i] += other[1 + 3 * i];
+                accumulator[2 + 3 * i] = Math.min(accumulator[2 + 3 * i], other[2 + 3 * i]);
+                accumulator[3 + 3 * i] = Math.max(accumulator[3 + 3 * i], other[3 + 3 * i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package analytics;
+
+import licences.DrivingLicence;
+import manager.RentalManager;
+import manager.RentalRecord;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.fail;
+
+public class QueryTest {
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private static ColumnTable getRentals(int noRows) {
+        List<RentalRecord> rentals = new ArrayList<>();
+        for (int i = 0; i < noRows; i++) {
+            rentals.add(RentalRecord.getInstance("LICENCE-" + (i % 10), "a" + i, (i % 3) == 0 ? "LARGE" : "SMALL", (i / 100) * HOUR, (i / 100) * HOUR + HOUR, i % 100, i % 7));
+        }
+        return FleetDatasets.rentals(rentals);
+    }
+
+    @Test
+    public void runValid() throws Exception {
+        ColumnTable rentals = getRentals(300);
+        QueryResult result = Query.from(rentals).groupBy("type").aggregate(Aggregate.count(), Aggregate.sum("kilometres"), Aggregate.maximum("fuelNeeded")).run();
+        int large = result.findGroup("LARGE");
+        int small = result.findGroup("SMALL");
+        if (result.getNoGroups() != 2 || result.getValue(large, 0) != 100 || result.getValue(small, 0) != 200 || result.getValue(small, 2) != 6) {
+            fail();
+        }
+        if (result.getValue(large, 1) + result.getValue(small, 1) != 3 * 4950) {
+            fail();
+        }
+    }
+
+    @Test
+    public void runGroupedByTwoColumns() throws Exception {
+        ColumnTable rentals = getRentals(300);
+        //Rentals of each type per hour, only counting rentals which drove at least 50 kilometres.
+        QueryResult result = Query.from(rentals).where("kilometres", kilometres -> kilometres >= 50).groupBy("type").groupBy("issuedHour")
+                .aggregate(Aggregate.count(), Aggregate.average("kilometres")).run();
+        if (result.getNoGroups() != 6) {
+            fail();
+        }
+        int group = result.findGroup("SMALL", "1");
+        if (group < 0 || result.getValue(group, 0) + result.getValue(result.findGroup("LARGE", "1"), 0) != 50) {
+            fail();
+        }
+    }
+
+    @Test
+    public void runGroupedByMilliseconds() throws Exception {
+        //Rentals issued at times since the epoch, so the buckets of a millisecond column do not fit into an int.
+        List<RentalRecord> rentals = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long issuedAt = 1700000000000L + (i / 100) * HOUR;
+            rentals.add(RentalRecord.getInstance("LICENCE-" + (i % 10), "a" + i, (i % 3) == 0 ? "LARGE" : "SMALL", issuedAt, issuedAt + HOUR, i % 100, i % 7));
+        }
+        QueryResult result = Query.from(FleetDatasets.rentals(rentals)).groupBy("type").groupBy("issuedAt", 1000).aggregate(Aggregate.count()).run();
+        if (result.getNoGroups() != 6) {
+            fail();
+        }
+        int group = result.findGroup("LARGE", Long.toString(1700000000000L + 2 * HOUR));
+        if (group < 0 || result.getValue(group, 0) != 33 || result.getGroupValue(group, 1) != 1700000000000L + 2 * HOUR) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runGroupedByTooManyBuckets() throws Exception {
+        List<RentalRecord> rentals = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long issuedAt = 1700000000000L + (i / 100) * HOUR;
+            rentals.add(RentalRecord.getInstance("LICENCE-" + (i % 10), "a" + i, "SMALL", issuedAt, issuedAt + HOUR, i % 100, i % 7));
+        }
+        //A millisecond bucket of both columns has more groups than the keys of a long.
+        Query.from(FleetDatasets.rentals(rentals)).groupBy("issuedAt").groupBy("returnedAt").aggregate(Aggregate.count()).run();
+    }
+
+    @Test
+    public void runParallelMatchesSequential() throws Exception {
+        //Enough rows to be split into several fork-join tasks.
+        ColumnTable rentals = getRentals(QueryTask.THRESHOLD * 5 + 17);
+        Query query = Query.from(rentals).whereEquals("type", "SMALL").groupBy("kilometres", 10).aggregate(Aggregate.count(), Aggregate.average("fuelNeeded"), Aggregate.minimum("issuedAt"));
+        QueryResult sequential = query.run(new ForkJoinPool(1));
+        QueryResult parallel = query.run(new ForkJoinPool(4));
+        if (sequential.getNoGroups() != 10 || parallel.getNoGroups() != 10) {
+            fail();
+        }
+        for (int group = 0; group < 10; group++) {
+            for (int aggregate = 0; aggregate < 3; aggregate++) {
+                if (sequential.getValue(group, aggregate) != parallel.getValue(group, aggregate) || sequential.getGroupValue(group, 0) != group * 10) {
+                    fail();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fleetAndLicences() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("analytics");
+        depot.provisionCars("small", 3);
+        depot.provisionCars("large", 2);
+        QueryResult fleet = Query.from(FleetDatasets.fleet(Collections.singletonList(depot))).groupBy("type").aggregate(Aggregate.count(), Aggregate.sum("fuelCapacity")).run();
+        if (fleet.getValue(fleet.findGroup("SMALL"), 0) != 3 || fleet.getValue(fleet.findGroup("LARGE"), 1) != 120) {
+            fail();
+        }
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        List<DrivingLicence> licences = new ArrayList<>();
+        licences.add(DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, true));
+        licences.add(DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, false));
+        QueryResult full = Query.from(FleetDatasets.licences(licences)).groupBy("full").aggregate(Aggregate.count()).run();
+        if (full.getNoGroups() != 2 || full.getValue(full.findGroup("1"), 0) != 1) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void groupByInvalid() throws Exception {
+        Query.from(getRentals(10)).groupBy("type", 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aggregateInvalid() throws Exception {
+        Query.from(getRentals(10)).aggregate(Aggregate.sum("unknown"));
+    }
+}
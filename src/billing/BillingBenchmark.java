@@ -0,0 +1,43 @@
+package billing;
+
+import manager.RentalRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The BillingBenchmark class measures how long the BillingEngine takes to bill a batch of synthetic closed rentals.
+ * <p>
+ * Usage: BillingBenchmark [rentals] (one million rentals by default).
+ */
+public final class BillingBenchmark {
+
+    private static final long MILLISECONDS_PER_HOUR = 60L * 60 * 1000;
+
+    private BillingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int noRentals = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        //A fixed seed so runs bill the same rentals.
+        Random random = new Random(32);
+        List<RentalRecord> rentals = new ArrayList<>(noRentals);
+        for (int i = 0; i < noRentals; i++) {
+            long issuedAt = random.nextInt(1000) * MILLISECONDS_PER_HOUR;
+            long returnedAt = issuedAt + 1 + random.nextInt(30 * 24) * MILLISECONDS_PER_HOUR;
+            rentals.add(RentalRecord.getInstance("LICENCE-" + (i % 50000), "a" + (i % 10000), (i & 1) == 0 ? "SMALL" : "LARGE",
+                    issuedAt, returnedAt, random.nextInt(5000), random.nextInt(70)));
+        }
+        BillingEngine engine = BillingEngine.getDefaultInstance();
+        //Warm up before measuring.
+        for (int i = 0; i < 3; i++) {
+            engine.billAll(rentals.subList(0, Math.min(noRentals, 100000)));
+        }
+        long start = System.nanoTime();
+        List<Invoice> invoices = engine.billAll(rentals);
+        long total = BillingEngine.getTotal(invoices);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Billed " + invoices.size() + " rentals (total " + total + ") in " + (elapsed / 1000000) + " ms.");
+    }
+}
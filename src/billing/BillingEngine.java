@@ -0,0 +1,166 @@
+package billing;
+
+import manager.RentalManager;
+import manager.RentalRecord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The BillingEngine class bills closed rentals (RentalRecord objects) using a Tariff per type of car.
+ * <p>
+ * Billing a rental only reads the (immutable) tariffs and the record, so batches of rentals are billed in parallel (see billAll), i.e. the end of day run billing the rentals closed by a set of depots (see billClosedRentals).
+ */
+public final class BillingEngine {
+
+    private static final long MILLISECONDS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /*
+    The tariffs of each type of car (key-value pairs of car type to tariff).
+     */
+    private final Map<String, Tariff> tariffs;
+
+    /**
+     * BillingEngine is a constructor for a new BillingEngine object.
+     *
+     * @param tariffs the (unmodifiable) tariffs of each type of car.
+     */
+    private BillingEngine(Map<String, Tariff> tariffs) {
+        this.tariffs = tariffs;
+    }
+
+    /**
+     * getInstance returns a new BillingEngine using the specified tariffs.
+     *
+     * @param tariffs specifies the tariff of each type of car (key-value pairs of car type to tariff, the types are converted into UPPERCASE).
+     * @return returns a new BillingEngine object.
+     */
+    public static BillingEngine getInstance(Map<String, Tariff> tariffs) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (tariffs == null || tariffs.isEmpty()) {
+            throw new IllegalArgumentException("A billing engine must have at least one tariff.");
+        }
+        Map<String, Tariff> copy = new HashMap<>();
+        for (Map.Entry<String, Tariff> entry : tariffs.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("Car types and tariffs cannot be null objects.");
+            }
+            copy.put(entry.getKey().toUpperCase(), entry.getValue());
+        }
+        //Defensive copying so the tariffs cannot change while rentals are billed.
+        return new BillingEngine(Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * getDefaultInstance returns a new BillingEngine using the default tariffs of small and large cars.
+     *
+     * @return returns a new BillingEngine object.
+     */
+    public static BillingEngine getDefaultInstance() {
+        Map<String, Tariff> tariffs = new HashMap<>();
+        tariffs.put("SMALL", Tariff.getInstance(3000, 15000, 100, 15, 180, 1000));
+        tariffs.put("LARGE", Tariff.getInstance(5000, 25000, 150, 25, 180, 1500));
+        return getInstance(tariffs);
+    }
+
+    /**
+     * getTariff returns the tariff of a type of car.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the Tariff of the type of car.
+     * @throws IllegalArgumentException an IllegalArgumentException is thrown if there is no tariff for the type of car.
+     */
+    public Tariff getTariff(String typeOfCar) throws IllegalArgumentException {
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        Tariff tariff = tariffs.get(typeOfCar.toUpperCase());
+        if (tariff == null) {
+            throw new IllegalArgumentException("There is no tariff for " + typeOfCar + " cars.");
+        }
+        return tariff;
+    }
+
+    /**
+     * bill bills a single closed rental. Every started day of the rental is charged (and a rental is charged at least one day).
+     *
+     * @param rental specifies the record of the rental.
+     * @return returns the Invoice of the rental.
+     */
+    public Invoice bill(RentalRecord rental) {
+        /*
+        Check parameters.
+         */
+        if (rental == null) {
+            throw new IllegalArgumentException("Rental cannot be null.");
+        }
+        Tariff tariff = getTariff(rental.getTypeAsString());
+        long duration = rental.getReturnedAt() - rental.getIssuedAt();
+        int days = (int) Math.max(1, (duration + MILLISECONDS_PER_DAY - 1) / MILLISECONDS_PER_DAY);
+        return new Invoice(rental, days, tariff.getDurationCharge(days), tariff.getDistanceCharge(days, rental.getKilometres()), tariff.getFuelCharge(rental.getFuelNeeded()));
+    }
+
+    /**
+     * billAll bills a batch of closed rentals in parallel.
+     *
+     * @param rentals specifies the records of the rentals.
+     * @return returns a list of the invoices (in the same order as the rentals).
+     */
+    public List<Invoice> billAll(List<RentalRecord> rentals) {
+        /*
+        Check parameters.
+         */
+        if (rentals == null) {
+            throw new IllegalArgumentException("Rentals cannot be null.");
+        }
+        return rentals.parallelStream().map(this::bill).collect(Collectors.toList());
+    }
+
+    /**
+     * billClosedRentals is the end of day billing run: it drains the records of the rentals closed by each depot (see RentalManager.drainClosedRentals) and bills them in parallel.
+     * If any rental cannot be billed (i.e. there is no tariff for its type of car) nothing is billed and the records are put back on their depots (see RentalManager.restoreClosedRentals), so no rental is lost.
+     *
+     * @param depots specifies the depots to bill.
+     * @return returns a list of the invoices of every rental closed by the depots.
+     * @throws IllegalArgumentException an IllegalArgumentException is thrown if a rental cannot be billed (the records stay on the depots).
+     */
+    public List<Invoice> billClosedRentals(List<RentalManager> depots) {
+        /*
+        Check parameters.
+         */
+        if (depots == null || depots.contains(null)) {
+            throw new IllegalArgumentException("Depots cannot be null objects.");
+        }
+        List<List<RentalRecord>> drained = new ArrayList<>(depots.size());
+        List<RentalRecord> rentals = new ArrayList<>();
+        for (RentalManager depot : depots) {
+            List<RentalRecord> closedRentals = depot.drainClosedRentals();
+            drained.add(closedRentals);
+            rentals.addAll(closedRentals);
+        }
+        try {
+            return billAll(rentals);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < depots.size(); i++) {
+                depots.get(i).restoreClosedRentals(drained.get(i));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * getTotal returns the sum of the totals of a batch of invoices.
+     *
+     * @param invoices specifies the invoices.
+     * @return returns the total charge of the invoices.
+     */
+    public static long getTotal(List<Invoice> invoices) {
+        return invoices.parallelStream().mapToLong(Invoice::getTotal).sum();
+    }
+}
@@ -0,0 +1,111 @@
+package billing;
+
+import licences.DrivingLicence;
+import manager.RentalManager;
+import manager.RentalRecord;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+public class BillingEngineTest {
+    private static final long HOUR = 60L * 60 * 1000;
+
+    @Test
+    public void billValid() throws Exception {
+        BillingEngine engine = BillingEngine.getDefaultInstance();
+        //25 hours is two started days: 2 days (6000), 50 km beyond the 200 free (750) and 10 litres (1800 + 1000).
+        Invoice invoice = engine.bill(RentalRecord.getInstance("MM-1990-01", "a0001", "small", 0, 25 * HOUR, 250, 10));
+        if (invoice.getDays() != 2 || invoice.getDurationCharge() != 6000 || invoice.getDistanceCharge() != 750 || invoice.getFuelCharge() != 2800 || invoice.getTotal() != 9550) {
+            fail();
+        }
+        //A rental is charged at least one day.
+        if (engine.bill(RentalRecord.getInstance("MM-1990-01", "a0001", "large", 0, 0, 0, 0)).getTotal() != 5000) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void billInvalid() throws Exception {
+        BillingEngine.getDefaultInstance().bill(RentalRecord.getInstance("MM-1990-01", "a0001", "bus", 0, HOUR, 0, 0));
+    }
+
+    @Test
+    public void billAll() throws Exception {
+        BillingEngine engine = BillingEngine.getDefaultInstance();
+        List<RentalRecord> rentals = new ArrayList<>();
+        long expectedTotal = 0;
+        for (int i = 0; i < 10000; i++) {
+            RentalRecord rental = RentalRecord.getInstance("MM-1990-01", "a0001", (i & 1) == 0 ? "small" : "large", 0, (1 + i % 100) * HOUR, i % 500, i % 60);
+            rentals.add(rental);
+            expectedTotal += engine.bill(rental).getTotal();
+        }
+        List<Invoice> invoices = engine.billAll(rentals);
+        //Invoices should be in the same order as the rentals.
+        if (invoices.size() != rentals.size() || invoices.get(1234).getRental() != rentals.get(1234) || BillingEngine.getTotal(invoices) != expectedTotal) {
+            fail();
+        }
+    }
+
+    @Test
+    public void billClosedRentals() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("billing");
+        depot.provisionCars("small", 1);
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        DrivingLicence licence = DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, true);
+        if (!depot.issueCar(licence, "small")) {
+            fail();
+        }
+        depot.getCar(licence).drive(300);
+        depot.terminateRental(licence);
+        List<Invoice> invoices = BillingEngine.getDefaultInstance().billClosedRentals(Collections.singletonList(depot));
+        if (invoices.size() != 1 || invoices.get(0).getRental().getKilometres() != 300 || invoices.get(0).getDays() != 1 || invoices.get(0).getFuelCharge() != 15 * 180 + 1000) {
+            fail();
+        }
+        //The closed rentals have been drained.
+        if (!depot.drainClosedRentals().isEmpty()) {
+            fail();
+        }
+    }
+
+    @Test
+    public void billClosedRentalsUntariffed() throws Exception {
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        List<RentalManager> depots = new ArrayList<>();
+        String[] types = {"small", "large"};
+        for (int i = 0; i < types.length; i++) {
+            RentalManager depot = RentalManager.getDepotInstance("billing-untariffed-" + i);
+            depot.provisionCars(types[i], 1);
+            DrivingLicence licence = DrivingLicence.getInstance("Emmett", "Brown", birth, issue, true);
+            if (!depot.issueCar(licence, types[i])) {
+                fail();
+            }
+            depot.terminateRental(licence);
+            depots.add(depot);
+        }
+        //There is no tariff for large cars, so nothing is billed.
+        try {
+            BillingEngine.getInstance(Collections.singletonMap("small", Tariff.getInstance(3000, 15000, 100, 15, 180, 1000))).billClosedRentals(depots);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //The records have been put back on their depots.
+        }
+        List<Invoice> invoices = BillingEngine.getDefaultInstance().billClosedRentals(depots);
+        if (invoices.size() != 2 || !invoices.get(0).getRental().getTypeAsString().equals("SMALL") || !invoices.get(1).getRental().getTypeAsString().equals("LARGE")) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void billClosedRentalsInvalid() throws Exception {
+        BillingEngine.getDefaultInstance().billClosedRentals(Arrays.asList(RentalManager.getDepotInstance("billing-invalid"), null));
+    }
+}
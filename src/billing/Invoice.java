@@ -0,0 +1,98 @@
+package billing;
+
+import manager.RentalRecord;
+
+/**
+ * The Invoice class is the bill for a closed rental (see BillingEngine). All charges are in pence.
+ * <p>
+ * The Invoice class is immutable, instances are only created by the BillingEngine.
+ */
+public final class Invoice {
+
+    private final RentalRecord rental;
+    private final int days;
+    private final long durationCharge;
+    private final long distanceCharge;
+    private final long fuelCharge;
+
+    /**
+     * Invoice is a constructor for a new Invoice object.
+     *
+     * @param rental         the rental billed.
+     * @param days           the number of (started) days charged.
+     * @param durationCharge the charge for the duration of the rental.
+     * @param distanceCharge the charge for the kilometres driven.
+     * @param fuelCharge     the charge for the fuel owed.
+     */
+    Invoice(RentalRecord rental, int days, long durationCharge, long distanceCharge, long fuelCharge) {
+        this.rental = rental;
+        this.days = days;
+        this.durationCharge = durationCharge;
+        this.distanceCharge = distanceCharge;
+        this.fuelCharge = fuelCharge;
+    }
+
+    /**
+     * getRental returns the record of the rental billed.
+     *
+     * @return returns the RentalRecord object.
+     */
+    public RentalRecord getRental() {
+        return rental;
+    }
+
+    /**
+     * getDays returns the number of (started) days charged.
+     *
+     * @return returns the number of days.
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * getDurationCharge returns the charge for the duration of the rental.
+     *
+     * @return returns the duration charge.
+     */
+    public long getDurationCharge() {
+        return durationCharge;
+    }
+
+    /**
+     * getDistanceCharge returns the charge for the kilometres driven.
+     *
+     * @return returns the distance charge.
+     */
+    public long getDistanceCharge() {
+        return distanceCharge;
+    }
+
+    /**
+     * getFuelCharge returns the charge for the fuel owed.
+     *
+     * @return returns the fuel charge.
+     */
+    public long getFuelCharge() {
+        return fuelCharge;
+    }
+
+    /**
+     * getTotal returns the total charge of the invoice.
+     *
+     * @return returns the total charge.
+     */
+    public long getTotal() {
+        return durationCharge + distanceCharge + fuelCharge;
+    }
+
+    /**
+     * toString returns the invoice as a string.
+     *
+     * @return returns the following formatted string "Invoice[licenceNumber, registration, days days, total]".
+     */
+    @Override
+    public String toString() {
+        return "Invoice[" + rental.getLicenceNumber() + ", " + rental.getRegistration() + ", " + days + " days, " + getTotal() + "]";
+    }
+}
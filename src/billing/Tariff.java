@@ -0,0 +1,135 @@
+package billing;
+
+/**
+ * The Tariff class defines the charges for renting a type of car. All charges are in pence.
+ * <p>
+ * A rental is charged...
+ * (a) For its duration: a daily rate per started day, where every full week is charged at no more than the weekly rate (and a partial week never costs more than a week).
+ * (b) For the kilometres driven beyond an allowance of free kilometres per day.
+ * (c) For the fuel the driver owes: a price per litre plus a refuelling fee if any fuel is owed.
+ * <p>
+ * The duration and fuel charges are precomputed into lookup tables when the tariff is created (covering up to a year and up to MAX_TABLE_LITRES litres) so billing a rental only looks values up.
+ * Values outside of the tables are calculated.
+ * <p>
+ * The Tariff class is immutable and utilizes a static factory method build pattern.
+ */
+public final class Tariff {
+
+    /*
+    The sizes of the precomputed lookup tables.
+     */
+    static final int MAX_TABLE_DAYS = 366;
+    static final int MAX_TABLE_LITRES = 256;
+
+    private final long dailyRate;
+    private final long weeklyRate;
+    private final int freeKilometresPerDay;
+    private final long kilometreRate;
+    private final long fuelPricePerLitre;
+    private final long refuellingFee;
+    /*
+    durationCharges[days] is the charge for a rental of that many days and fuelCharges[litres] is the charge for that many litres of fuel owed.
+     */
+    private final long[] durationCharges = new long[MAX_TABLE_DAYS + 1];
+    private final long[] fuelCharges = new long[MAX_TABLE_LITRES + 1];
+
+    /**
+     * Tariff is a constructor for a new Tariff object which precomputes the lookup tables.
+     *
+     * @param dailyRate            the charge per day.
+     * @param weeklyRate           the most charged for a week.
+     * @param freeKilometresPerDay the kilometres per day which are not charged.
+     * @param kilometreRate        the charge per kilometre beyond the free kilometres.
+     * @param fuelPricePerLitre    the charge per litre of fuel owed.
+     * @param refuellingFee        the charge for refuelling a car if any fuel is owed.
+     */
+    private Tariff(long dailyRate, long weeklyRate, int freeKilometresPerDay, long kilometreRate, long fuelPricePerLitre, long refuellingFee) {
+        this.dailyRate = dailyRate;
+        this.weeklyRate = weeklyRate;
+        this.freeKilometresPerDay = freeKilometresPerDay;
+        this.kilometreRate = kilometreRate;
+        this.fuelPricePerLitre = fuelPricePerLitre;
+        this.refuellingFee = refuellingFee;
+        for (int days = 0; days <= MAX_TABLE_DAYS; days++) {
+            durationCharges[days] = calculateDurationCharge(days);
+        }
+        for (int litres = 0; litres <= MAX_TABLE_LITRES; litres++) {
+            fuelCharges[litres] = calculateFuelCharge(litres);
+        }
+    }
+
+    /**
+     * getInstance returns a new Tariff object given the respective parameters.
+     *
+     * @param dailyRate            specifies the charge per day.
+     * @param weeklyRate           specifies the most charged for a week.
+     * @param freeKilometresPerDay specifies the kilometres per day which are not charged.
+     * @param kilometreRate        specifies the charge per kilometre beyond the free kilometres.
+     * @param fuelPricePerLitre    specifies the charge per litre of fuel owed.
+     * @param refuellingFee        specifies the charge for refuelling a car if any fuel is owed.
+     * @return returns the Tariff object.
+     */
+    public static Tariff getInstance(long dailyRate, long weeklyRate, int freeKilometresPerDay, long kilometreRate, long fuelPricePerLitre, long refuellingFee) {
+        /*
+        Check parameters.
+         */
+        if (dailyRate < 0 || weeklyRate < 0 || freeKilometresPerDay < 0 || kilometreRate < 0 || fuelPricePerLitre < 0 || refuellingFee < 0) {
+            throw new IllegalArgumentException("Charges cannot be negative.");
+        }
+        return new Tariff(dailyRate, weeklyRate, freeKilometresPerDay, kilometreRate, fuelPricePerLitre, refuellingFee);
+    }
+
+    /**
+     * getDurationCharge returns the charge for a rental of a number of days.
+     *
+     * @param days specifies the number of (started) days of the rental.
+     * @return returns the duration charge.
+     */
+    public long getDurationCharge(int days) {
+        assert days >= 0;
+        return days <= MAX_TABLE_DAYS ? durationCharges[days] : calculateDurationCharge(days);
+    }
+
+    /**
+     * getDistanceCharge returns the charge for the kilometres driven during a rental of a number of days.
+     *
+     * @param days       specifies the number of (started) days of the rental.
+     * @param kilometres specifies the kilometres driven.
+     * @return returns the distance charge.
+     */
+    public long getDistanceCharge(int days, int kilometres) {
+        assert days >= 0 && kilometres >= 0;
+        long chargedKilometres = kilometres - (long) freeKilometresPerDay * days;
+        return chargedKilometres > 0 ? chargedKilometres * kilometreRate : 0;
+    }
+
+    /**
+     * getFuelCharge returns the charge for the fuel owed.
+     *
+     * @param litres specifies the litres of fuel owed.
+     * @return returns the fuel charge.
+     */
+    public long getFuelCharge(int litres) {
+        assert litres >= 0;
+        return litres <= MAX_TABLE_LITRES ? fuelCharges[litres] : calculateFuelCharge(litres);
+    }
+
+    private long calculateDurationCharge(long days) {
+        long weekCharge = Math.min(weeklyRate, 7 * dailyRate);
+        return (days / 7) * weekCharge + Math.min((days % 7) * dailyRate, weekCharge);
+    }
+
+    private long calculateFuelCharge(long litres) {
+        return litres == 0 ? 0 : litres * fuelPricePerLitre + refuellingFee;
+    }
+
+    /**
+     * toString returns the tariff as a string.
+     *
+     * @return returns the following formatted string "Tariff[dailyRate/day, weeklyRate/week, freeKilometresPerDay km/day free, kilometreRate/km, fuelPricePerLitre/L + refuellingFee]".
+     */
+    @Override
+    public String toString() {
+        return "Tariff[" + dailyRate + "/day, " + weeklyRate + "/week, " + freeKilometresPerDay + " km/day free, " + kilometreRate + "/km, " + fuelPricePerLitre + "/L + " + refuellingFee + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package billing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.fail;
+
+public class TariffTest {
+    @Test
+    public void getDurationChargeValid() throws Exception {
+        Tariff tariff = Tariff.getInstance(3000, 15000, 100, 15, 180, 1000);
+        //Six days cost more than a week, so are capped at the weekly rate.
+        if (tariff.getDurationCharge(1) != 3000 || tariff.getDurationCharge(4) != 12000 || tariff.getDurationCharge(6) != 15000 || tariff.getDurationCharge(7) != 15000) {
+            fail();
+        }
+        if (tariff.getDurationCharge(8) != 18000 || tariff.getDurationCharge(14) != 30000) {
+            fail();
+        }
+    }
+
+    @Test
+    public void getDurationChargeExtremeValid() throws Exception {
+        Tariff tariff = Tariff.getInstance(3000, 15000, 100, 15, 180, 1000);
+        //Values beyond the lookup table are calculated the same way.
+        if (tariff.getDurationCharge(Tariff.MAX_TABLE_DAYS + 1) != (Tariff.MAX_TABLE_DAYS + 1) / 7 * 15000L + (Tariff.MAX_TABLE_DAYS + 1) % 7 * 3000L) {
+            fail();
+        }
+        if (tariff.getFuelCharge(Tariff.MAX_TABLE_LITRES + 1) != (Tariff.MAX_TABLE_LITRES + 1) * 180L + 1000L) {
+            fail();
+        }
+    }
+
+    @Test
+    public void getDistanceAndFuelCharge() throws Exception {
+        Tariff tariff = Tariff.getInstance(3000, 15000, 100, 15, 180, 1000);
+        if (tariff.getDistanceCharge(2, 200) != 0 || tariff.getDistanceCharge(2, 250) != 750) {
+            fail();
+        }
+        if (tariff.getFuelCharge(0) != 0 || tariff.getFuelCharge(10) != 2800) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() throws Exception {
+        Tariff.getInstance(-1, 15000, 100, 15, 180, 1000);
+    }
+}
@@ -65,6 +65,20 @@ public interface Car {
      */
     int drive(int kilometres);
 
+    /**
+     * getOdometer should return the total number of kilometres the car has been driven.
+     *
+     * @return the kilometres driven by the car.
+     */
+    int getOdometer();
+
+    /**
+     * setFuelObserver should set the observer notified when the car's fuel remaining changes or the car is driven.
+     *
+     * @param observer the observer (null to remove the observer).
+     */
+    void setFuelObserver(FuelObserver observer);
+
     /**
      * toString should return the object as a String.
      *
@@ -1,26 +1,37 @@
 package cars;
 
 import exceptions.GetInstanceLimitExceededException;
-import java.util.HashMap;
-import java.util.Map;
+import instrumentation.CarDrivenEvent;
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+import registry.Registries;
+import registry.WeakRegistry;
 
 /**
  * CarImplCarFactory provides a static factory method pattern for instantiating unique instances of its sub-class types and also acts as the default implementation for all sub-class types of the class (for non-static or concrete objects).
  * As such it provides a static map of cars of each type it is able to instance and provides the default behaviour as implemented by the Car interface and defines the minimum attributes a member of the class must have in order to be considered implementable.
  * These are a fuel capacity and consumption rate in addition to the set of methods defined by the interface.
  * <p>
- * Since Java is a reference type language all instances are stored in the static maps provided.
- * To provide easier implementation of more kinds of sub-class types i.e. "BMWCar" the getInstance method for the static factory provides a switch-case which identifies different car types with the respective static maps.
+ * Since Java is a reference type language all instances are stored in the static registries provided.
+ * The registries are weak (see WeakRegistry): a car is held while it is in use (i.e. by a depot), cars which are no longer referenced are purged and decommissioned cars are removed (see decommission).
+ * The registration of a car purged without being decommissioned is released when it is purged, as decommission would have released it, so dropped cars do not leak registrations.
+ * To provide easier implementation of more kinds of sub-class types i.e. "BMWCar" the tryGetInstance method for the static factory provides a switch-case which identifies different car types with the respective static registries.
  * Here it is important to note that all requests to the getInstance method, i.e. for a small car, are represented by an uppercase string i.e. "SMALL".
  */
 public abstract class CarImplCarFactory implements Car {
 
     /*
-    Define static maps of String (Car String Representation) to Car objects.
+    Define static registries of CarRegistration to Car objects. A car is estimated as the object and its registration (72 bytes).
+    The registries are keyed by the registration the car already holds (equal by its code), so no key is formed for a car when it is created or decommissioned.
     If implementing remember not to put mutable car objects in a Set (hence the key value pair defined below).
      */
-    private static final Map<String, Car> SMALL_CARS = new HashMap<>();
-    private static final Map<String, Car> LARGE_CARS = new HashMap<>();
+    private static final WeakRegistry<CarRegistration, Car> SMALL_CARS = Registries.weak("CarImplCarFactory.smallCars", 72, CarRegistration::release);
+    private static final WeakRegistry<CarRegistration, Car> LARGE_CARS = Registries.weak("CarImplCarFactory.largeCars", 72, CarRegistration::release);
+    /*
+    The number of cars created and decommissioned (see Instrumentation).
+     */
+    private static final Counter INSTANCES = Instrumentation.counter("Car.instances");
+    private static final Counter DECOMMISSIONED = Instrumentation.counter("Car.decommissioned");
     /*
     Field variable for cars.
      */
@@ -29,15 +40,17 @@ public abstract class CarImplCarFactory implements Car {
     private final double fuelConsumptionRate;
     private boolean isRented;
     private int fuelRemaining;
+    private int odometer;
+    private volatile FuelObserver fuelObserver;
 
     /**
      * CarImplCarFactory is a constructor responsible for building car objects. All cars must have at least the following behaviour (defined by params)
      *
      * @param fuelCapacity    the capacity of the fuel tank in Litres.
      * @param consumptionRate the rate of consumption of the fuel tank in Kilometres/Litre.
-     * @throws GetInstanceLimitExceededException a GetInstanceLimitExceededException is thrown if the constructor (for internal reasons) is unable to produce any more cars of the specified type.
+     * @param registration    the registration of the car (allocated by the factory method, see tryGetInstance).
      */
-    CarImplCarFactory(int fuelCapacity, double consumptionRate) throws GetInstanceLimitExceededException {
+    CarImplCarFactory(int fuelCapacity, double consumptionRate, CarRegistration registration) {
         /*
         Check parameters.
          */
@@ -51,19 +64,34 @@ public abstract class CarImplCarFactory implements Car {
         this.fuelConsumptionRate = consumptionRate;
         this.setFuelRemaining(fuelCapacity);
         this.isRented = false;
-        registration = CarRegistration.getInstance();
+        this.registration = registration;
     }
 
     /**
      * getInstance is the primary mechanism responsible for instantiating new objects of any given subclass type.
-     * In order to add a new kind of object to the getInstance static factory method, first a respective Map must be defined (see above) and secondly the method must be written to the logic to posit the type.
+     * In order to add a new kind of object to the getInstance static factory method, first a respective registry must be defined (see above) and secondly the tryGetInstance method must be written to the logic to posit the type.
      * The type is posited by conversion of the inbound string typeOfCar to upper-case, and then checked against the respective case arguments.
+     * The method is synchronized as the static registries (and the registrations) are shared by every depot, which may provision cars concurrently.
      *
      * @param typeOfCar the type of the car to generate an instance of.
      * @return return the instance of the car requested.
-     * @throws GetInstanceLimitExceededException a GetInstanceLimitExceededException is thrown if the factory method (for internal reasons) is unable to produce any more cars of the specified type.
+     * @throws GetInstanceLimitExceededException a GetInstanceLimitExceededException (without a stack trace) is thrown if the factory method (for internal reasons) is unable to produce any more cars of the specified type.
+     */
+    public static synchronized Car getInstance(String typeOfCar) throws GetInstanceLimitExceededException {
+        Car car = tryGetInstance(typeOfCar);
+        if (car == null) {
+            throw CarRegistration.newExhaustedException();
+        }
+        return car;
+    }
+
+    /**
+     * tryGetInstance instantiates a car as getInstance does, but reports that no more cars can be produced by returning null rather than by throwing an exception, so callers which reach the limit often (i.e. a simulation of a large fleet) do not pay for an exception.
+     *
+     * @param typeOfCar the type of the car to generate an instance of.
+     * @return return the instance of the car requested, or null if every registration has been allocated (see CarRegistration).
      */
-    public static Car getInstance(String typeOfCar) throws GetInstanceLimitExceededException {
+    public static synchronized Car tryGetInstance(String typeOfCar) {
         /*
         Check parameters (since a public method throw exception if objects are null).
          */
@@ -75,13 +103,23 @@ public abstract class CarImplCarFactory implements Car {
         //Implicit check using switch-case tests typeOfCar.equals(case)
         switch (typeOfCar) {
             case "SMALL": {
-                Car car = new CarImplSmallCar();
-                SMALL_CARS.put(car.toString(), car);
+                CarRegistration registration = CarRegistration.tryGetInstance();
+                if (registration == null) {
+                    return null;
+                }
+                Car car = new CarImplSmallCar(registration);
+                SMALL_CARS.put(registration, car);
+                INSTANCES.increment();
                 return car;
             }
             case "LARGE": {
-                Car car = new CarImplLargeCar();
-                LARGE_CARS.put(car.toString(), car);
+                CarRegistration registration = CarRegistration.tryGetInstance();
+                if (registration == null) {
+                    return null;
+                }
+                Car car = new CarImplLargeCar(registration);
+                LARGE_CARS.put(registration, car);
+                INSTANCES.increment();
                 return car;
             }
             default:
@@ -89,6 +127,103 @@ public abstract class CarImplCarFactory implements Car {
         }
     }
 
+    /**
+     * tryGetInstance instantiates a car as tryGetInstance(typeOfCar) does, with the fuel remaining and odometer of a car moved from a depot of another process (see cluster.DepotNode).
+     * The car is given a new registration as registrations are unique to a process.
+     *
+     * @param typeOfCar     the type of the car to generate an instance of.
+     * @param fuelRemaining the fuel remaining of the car moved (see setFuelRemaining).
+     * @param odometer      the kilometres driven by the car moved.
+     * @return return the instance of the car requested, or null if every registration has been allocated (see CarRegistration).
+     */
+    public static synchronized Car tryGetInstance(String typeOfCar, int fuelRemaining, int odometer) {
+        /*
+        Check parameters.
+         */
+        if (odometer < 0) {
+            throw new IllegalArgumentException("Odometer cannot be a value lower than 0.");
+        }
+        Car car = tryGetInstance(typeOfCar);
+        if (car != null) {
+            restoreState((CarImplCarFactory) car, fuelRemaining, odometer);
+        }
+        return car;
+    }
+
+    /**
+     * restoreState sets the fuel remaining and odometer of a new car to those of a car it replaces (is package private, see tryGetInstance and LocalCarFactory.tryGetCar).
+     *
+     * @param car           specifies the new car (which has no fuel observer).
+     * @param fuelRemaining specifies the fuel remaining of the car replaced.
+     * @param odometer      specifies the kilometres driven by the car replaced.
+     */
+    static void restoreState(CarImplCarFactory car, int fuelRemaining, int odometer) {
+        assert odometer >= 0;
+        car.setFuelRemaining(fuelRemaining);
+        car.odometer = odometer;
+    }
+
+    /**
+     * decommission removes a car from the static registries of the factory and releases its registration to the free pool of registrations (see CarRegistration), so the car can be garbage collected once its depot no longer holds it.
+     * The car must first be taken out of its depot (see RentalManager.decommissionCar). Once decommissioned, the registration of the car may be recycled for a new car after the quarantine period.
+     *
+     * @param car specifies the car to decommission.
+     * @return returns true if the car was decommissioned, or false if it had already been decommissioned (or was not created by the factory).
+     */
+    public static synchronized boolean decommission(Car car) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (car == null) {
+            throw new IllegalArgumentException("Car cannot be null.");
+        }
+        if (car.isRented()) {
+            throw new IllegalArgumentException("Car " + car.toString() + " is rented and cannot be decommissioned.");
+        }
+        final WeakRegistry<CarRegistration, Car> cars;
+        switch (car.getTypeAsString()) {
+            case "SMALL":
+                cars = SMALL_CARS;
+                break;
+            case "LARGE":
+                cars = LARGE_CARS;
+                break;
+            default:
+                return false;
+        }
+        //Only the car itself is removed (and its registration released) so a car decommissioned twice cannot release a recycled registration.
+        if (!cars.remove(car.getRegistration(), car)) {
+            return false;
+        }
+        car.setFuelObserver(null);
+        CarRegistration.release(car.getRegistration());
+        DECOMMISSIONED.increment();
+        return true;
+    }
+
+    /**
+     * getNoCars returns the number of cars of a type created by the factory which have not been decommissioned.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars.
+     */
+    public static synchronized int getNoCars(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("The car type specified cannot be a null object.");
+        }
+        switch (typeOfCar.toUpperCase()) {
+            case "SMALL":
+                return SMALL_CARS.size();
+            case "LARGE":
+                return LARGE_CARS.size();
+            default:
+                throw new IllegalArgumentException("The car type specified is an invalid type.");
+        }
+    }
+
     /**
      * getRegistration returns the car's registration.
      *
@@ -123,14 +258,20 @@ public abstract class CarImplCarFactory implements Car {
     /**
      * setFuelRemaining sets the car's fuel remaining (is package private). This (by design) allows for negative values.
      * Setting over the maximum capacity of the tank will default to the value of the maximum capacity of the tank.
+     * The fuel observer of the car (if any) is notified of the change.
      * @param fuelRemaining specify the value to change fuelRemaining to.
      */
     void setFuelRemaining(int fuelRemaining) {
+        int previousFuelRemaining = this.fuelRemaining;
         if (fuelRemaining > fuelCapacity) {
             this.fuelRemaining = fuelCapacity;
         } else {
             this.fuelRemaining = fuelRemaining;
         }
+        FuelObserver observer = fuelObserver;
+        if (observer != null && previousFuelRemaining != this.fuelRemaining) {
+            observer.fuelChanged(this, previousFuelRemaining, this.fuelRemaining);
+        }
     }
 
     /**
@@ -266,11 +407,50 @@ public abstract class CarImplCarFactory implements Car {
              */
             int setFuelRemaining = getFuelRemaining() - fuelConsumed;
             setFuelRemaining(setFuelRemaining);
+            addToOdometer(kilometres);
         }
         //Return the result.
         return fuelConsumed;
     }
 
+    /**
+     * getOdometer returns the total number of kilometres the car has been driven (while rented).
+     *
+     * @return returns the kilometres driven by the car.
+     */
+    @Override
+    public final int getOdometer() {
+        return odometer;
+    }
+
+    /**
+     * setFuelObserver sets the observer notified when the car's fuel remaining changes or the car is driven (see FuelObserver).
+     *
+     * @param observer specifies the observer (null to remove the observer).
+     */
+    @Override
+    public final void setFuelObserver(FuelObserver observer) {
+        fuelObserver = observer;
+    }
+
+    /**
+     * addToOdometer adds the kilometres of a journey to the car's odometer (is package private, sub-classes overriding drive must call it).
+     *
+     * @param kilometres specifies the kilometres driven.
+     */
+    void addToOdometer(int kilometres) {
+        assert kilometres > 0;
+        odometer += kilometres;
+        FuelObserver observer = fuelObserver;
+        if (observer != null) {
+            observer.kilometresDriven(this, kilometres);
+        }
+        //The event is only allocated (and the registration only formed) while the event is recorded.
+        if (CarDrivenEvent.isRecorded()) {
+            new CarDrivenEvent().commit(registration.toString(), getTypeAsString(), kilometres, odometer);
+        }
+    }
+
     /**
      * getTypeAsString returns the car type as a string.
      * This method must be implemented in any subclass.
@@ -3,6 +3,8 @@ package cars;
 import exceptions.GetInstanceLimitExceededException;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
+
 import static junit.framework.TestCase.fail;
 
 /*
@@ -54,6 +56,39 @@ public class CarImplCarFactoryTest {
         }
     }
 
+    @Test
+    public void releaseCollected() throws Exception {
+        long quarantinePeriod = CarRegistration.getQuarantinePeriod();
+        //Registrations are recycled at once, so a car can be created whatever registrations the other tests have allocated (and dropped).
+        CarRegistration.setQuarantinePeriod(0);
+        try {
+            purgeCollected();
+            Car car = CarImplCarFactory.getInstance("small");
+            final int noReleased = CarRegistration.getNoReleased();
+            //The car is dropped without being decommissioned, so its registration is released when the registry purges it.
+            WeakReference<Car> dropped = new WeakReference<>(car);
+            car = null;
+            for (int i = 0; i < 100 && CarRegistration.getNoReleased() == noReleased; i++) {
+                purgeCollected();
+            }
+            if (dropped.get() != null || CarRegistration.getNoReleased() <= noReleased) {
+                fail();
+            }
+        } finally {
+            CarRegistration.setQuarantinePeriod(quarantinePeriod);
+        }
+    }
+
+    /*
+    Collects the cars no longer referenced and purges them from the registries of the factory.
+     */
+    private static void purgeCollected() throws Exception {
+        System.gc();
+        Thread.sleep(10);
+        CarImplCarFactory.getNoCars("small");
+        CarImplCarFactory.getNoCars("large");
+    }
+
     @Test
     public void getRegistration() throws Exception {
         //Test for registration equality.
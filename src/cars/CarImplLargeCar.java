@@ -1,7 +1,5 @@
 package cars;
 
-import exceptions.GetInstanceLimitExceededException;
-
 /**
  * CarImplLarge is a class which inherits the behaviour of the superclass CarImplCarFactory (which defines default cars).
  * This class acts as a representation of large cars.
@@ -13,10 +11,10 @@ final class CarImplLargeCar extends CarImplCarFactory {
     /**
      * CarImplLargeCar is a constructor which posits the values of the large car implementation (all sub-types of the Car factory must at least have this behaviour).
      *
-     * @throws GetInstanceLimitExceededException throws a GetInstanceLimitExceeded exception in the event that the instance cannot be created for the reason the instance limitations have been reached.
+     * @param registration the registration of the car (allocated by the factory method).
      */
-    CarImplLargeCar() throws GetInstanceLimitExceededException {
-        super(60, 10);
+    CarImplLargeCar(CarRegistration registration) {
+        super(60, 10, registration);
     }
 
     /**
@@ -69,6 +67,7 @@ final class CarImplLargeCar extends CarImplCarFactory {
              */
             int setFuelRemaining = getFuelRemaining() - fuelConsumed;
             setFuelRemaining(setFuelRemaining);
+            addToOdometer(kilometres);
         }
         //Return the result.
         return fuelConsumed;
@@ -61,6 +61,19 @@ public class CarImplLargeCarTest {
         }
     }
 
+    @Test
+    public void getOdometer() throws Exception {
+        Car largeCar = CarImplCarFactory.getInstance("large");
+        //Kilometres are only counted while the car is rented.
+        largeCar.drive(10);
+        largeCar.setRented(true);
+        largeCar.drive(30);
+        largeCar.drive(70);
+        if (largeCar.getOdometer() != 100) {
+            fail();
+        }
+    }
+
     @Test
     public void getTypeAsString() throws Exception {
         Car largeCar = CarImplCarFactory.getInstance("large");
@@ -1,7 +1,5 @@
 package cars;
 
-import exceptions.GetInstanceLimitExceededException;
-
 /**
  * CarImplSmallCar is a class which inherits the behaviour of the superclass CarImplCarFactory (which defines default cars).
  * This class acts as a representation of small cars.
@@ -13,10 +11,10 @@ final class CarImplSmallCar extends CarImplCarFactory {
     /**
      * CarImplSmallCar is a constructor which posits the values of the small car implementation (all sub-types of the Car factory must at least have this behaviour).
      *
-     * @throws GetInstanceLimitExceededException throws a GetInstanceLimitExceeded exception in the event that the instance cannot be created for the reason the instance limitations have been reached.
+     * @param registration the registration of the car (allocated by the factory method).
      */
-    CarImplSmallCar() throws GetInstanceLimitExceededException {
-        super(49, 20);
+    CarImplSmallCar(CarRegistration registration) {
+        super(49, 20, registration);
     }
 
     /**
@@ -1,252 +1,229 @@
 package cars;
 
 import exceptions.GetInstanceLimitExceededException;
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+import instrumentation.LatencyHistogram;
 
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * The CarRegistration class represents an object type used to represent the registration of cars.
  * <p>
- * The CarRegistration class utilizes a static factory build pattern in conjunction to a SortedSet implementation with a comparator.
- * This allows for an ordering of a unique data-structure such that all instances of the CarRegistration class are guaranteed to be unique and stored in the respective order (defined by the class and thus instances of the class).
- * The class thus implements the comparable interface and overrides the equals and hashcode methods to achieve these ends.
+ * The CarRegistration class utilizes a static factory build pattern which allocates registrations in the sequence of the registration scheme (see RegistrationScheme), so all instances of the CarRegistration class are guaranteed to be unique.
+ * A registration is held as its code (a long) in the scheme and is formatted when required, i.e. "a0001" under the default scheme, rather than holding its string representation.
+ * The ordering of registrations (see compareTo) is the order they are allocated in, which under the default scheme is the order of their string representations.
+ * <p>
+ * The scheme can be changed (i.e. to a scheme with more letters, digits or regions for simulations of large fleets) only before the first registration is allocated, so every registration shares the scheme.
+ * <p>
+ * The registration of a decommissioned car is released (see CarImplCarFactory.decommission) to a free pool, where it is held for a quarantine period before it can be allocated again.
+ * getInstance prefers registrations from the free pool (those released longest ago first) over allocating a new registration, so a long running process which decommissions cars does not use up the scheme.
+ * Registrations are unique amongst the cars which have not been decommissioned.
+ * The class implements the comparable interface and overrides the equals and hashcode methods.
  */
 public final class CarRegistration implements Comparable<CarRegistration> {
 
-    //Define a new TreeSet which implements the SortedSet interface (generified).
-    private static final SortedSet<CarRegistration> REGISTRATIONS = new TreeSet<>();
-    // The specification defines the literal number partition of a CarRegistration may include leading zeros.
-    // Therefore we can conclude in order to represent this in the data structure it must be stored as a String (or another object which supports leading zeros).
-    // Please use the getNumberAsValue method to return this as a value (short).)
-    private final String number;
-    private final char character;
-    private final String strRep;
+    //The latency of getInstance and the number of registrations created (see Instrumentation).
+    private static final LatencyHistogram GET_INSTANCE_LATENCY = Instrumentation.histogram("CarRegistration.getInstance");
+    private static final Counter INSTANCES = Instrumentation.counter("CarRegistration.instances");
+    //The scheme of every registration and the code of the next registration to be allocated.
+    private static volatile RegistrationScheme scheme = RegistrationScheme.DEFAULT;
+    private static long nextCode;
+    /*
+    The free pool: the registrations released (in the order they were released) and the quarantine period before a released registration may be allocated again.
+     */
+    private static final long DEFAULT_QUARANTINE_PERIOD = 24 * 60 * 60 * 1000;
+    private static final Deque<ReleasedRegistration> RELEASED = new ArrayDeque<>();
+    private static final Counter RECYCLED = Instrumentation.counter("CarRegistration.recycled");
+    private static long quarantinePeriod = DEFAULT_QUARANTINE_PERIOD;
+    private final long code;
 
     /**
      * CarRegistration is a constructor for CarRegistration instances.
      *
-     * @param character defines the character of the car registration i.e. "a", or "b".
-     * @param number    defines the number of the car registration (String) i.e. 0001.
-     * @param strRep    defines the string representation of the car registration (character+number).
+     * @param code defines the code of the registration in the registration scheme.
      */
-    private CarRegistration(char character, String number, String strRep) {
-        this.strRep = strRep;
-        this.character = character;
-        this.number = number;
+    private CarRegistration(long code) {
+        this.code = code;
     }
 
     /**
      * getInstance generates a unique instance of a CarRegistration object.
-     * The uniqueness of these objects is defined by their string representations (from a0001-z9999).
-     * This method is responsible for correctly utilizing the "generateNextNumber" and "generateNextCharacter".
-     * In particular, it does not define how to get the next number or next character, but provides a logic of when and where those methods should be used.
-     * <p>
-     * To illustrate one implementation (this one) is, if the Car Registration number == 9999 (of string a9999), then perform generateNextCharacter.
+     * A registration released longer ago than the quarantine period is recycled if there is one, otherwise registrations are allocated in the sequence of the registration scheme, to illustrate under the default scheme "a9999" is followed by "b0001".
+     * The method is synchronized so that registrations remain unique when cars are created concurrently.
      *
      * @return returns a new Car Registration object.
-     * @throws GetInstanceLimitExceededException throws a GetInstanceLimitExceededException in the event that the maximum limitation for instances of this type is exceeded i.e. z9999.
+     * @throws GetInstanceLimitExceededException throws a GetInstanceLimitExceededException (without a stack trace) in the event that every registration of the scheme has been allocated i.e. z9999 under the default scheme (and no released registration has completed its quarantine).
      */
-    final static CarRegistration getInstance() throws GetInstanceLimitExceededException {
-        short number;
-        char character;
-        /*
-        If it is not the case there are CarRegistration's already stored then define a new one with the first-most possible values "a" and "1".
-         */
-        if (REGISTRATIONS.isEmpty()) {
-            assert (REGISTRATIONS.isEmpty());
-            number = 1;
-            character = 'a';
-        } else {
-            /*
-             If there are CarRegistration's already stored then find the last CarRegistration stored and take its values.
-             */
-            CarRegistration carRegistration = getLastRegistration();
-            number = carRegistration.getNumberAsValue();
-            character = carRegistration.getCharacter();
-             /*
-             Return the next values (provided by the relevant methods).
-             */
-            number = generateNextNumber(number);
-            if (number == 1) {
-                //If the number is equal to 1, then we move on to the next character.
-                character = generateNextCharacter(character);
-            }
-
-            // Assume we have not reached the last possible character i.e. "z" and it is not the case that we have reached the last possible number value i.e. "9999".
-            // In production this is be handled by the respective methods (generateNextNumber and generateNextCharacter).
-            assert (character <= 'z');
-            assert (number < 10000 || number > 0);
+    final static synchronized CarRegistration getInstance() throws GetInstanceLimitExceededException {
+        CarRegistration carRegistration = tryGetInstance();
+        if (carRegistration == null) {
+            throw newExhaustedException();
         }
-        /*
-        Create object and append to the collection by key-value pair.
-         */
-        //Assert our inputs are still valid.
-        assert (isCharacterValid(character));
-        assert (isNumberValid(number));
-        //Ensure that we store the string representation of the registration to the object (as defined in the specification).
-        final String leadingZeros = generateLeadingZeros(number);
-        final String numberStr = leadingZeros + number;
-        final String strRep = String.valueOf(character + numberStr);
-        final CarRegistration carRegistration = new CarRegistration(character, numberStr, strRep);
-        REGISTRATIONS.add(carRegistration);
         return carRegistration;
     }
 
-
     /**
-     * generateNextNumber is responsible for taking an input value and guaranteeing the return of the next number that can be returned.
-     * This is to de-couple the number generation from the validity of the upper boundary of Car Registration numbers. Validity rules of the valid range of numbers can be found at the isNumberValid method.
-     * From that range this method utilizes the logic that if the inbound number is valid, and the number proceeding that is invalid, then the next number must be the wrap around value.
-     * To illustrate if a9999 and 9999 is the highest value, then the next value must be 10000 (defined invalid), so must be 1.
+     * tryGetInstance generates a unique instance of a CarRegistration object as getInstance does, but reports that every registration has been allocated by returning null rather than by throwing an exception (see CarImplCarFactory.tryGetInstance).
      *
-     * @param number takes a valid input number.
-     * @return returns the next valid number.
+     * @return returns a new Car Registration object, or null if every registration of the scheme has been allocated (and no released registration has completed its quarantine).
      */
-    private static short generateNextNumber(short number) {
-        /*
-        Check to see if the method has been passed a legal value. If it hasn't something serious has went wrong and we can't recover from it since CarRegistration objects are encapsulated.
-         */
-        if (!isNumberValid(number)) {
-            throw new IllegalArgumentException("The passed value " + number + " is not within the defined range of values.");
+    static synchronized CarRegistration tryGetInstance() {
+        long start = Instrumentation.start();
+        final CarRegistration carRegistration;
+        //Registrations are released in order so only the registration released longest ago need be checked.
+        ReleasedRegistration released = RELEASED.peekFirst();
+        if (released != null && (System.nanoTime() - released.releasedAt) / 1000000 >= quarantinePeriod) {
+            RELEASED.removeFirst();
+            carRegistration = new CarRegistration(released.code);
+            RECYCLED.increment();
+        } else if (nextCode < scheme.getCapacity()) {
+            carRegistration = new CarRegistration(nextCode++);
+        } else {
+            return null;
         }
+        INSTANCES.increment();
+        GET_INSTANCE_LATENCY.recordSince(start);
+        return carRegistration;
+    }
 
-        /*
-        Increment the input value by 1.
-         */
-        short nextNumber = (short) (number + 1);
-        /*
-        If the input value is valid and the input value incremented by 1 is invalid, then the input value incremented by 1 must be greater than the defined valid value.
-        To illustrate if the input value is valid and to be a valid input can be at most 9999, then it must be the case the incremented value is 10000.
-        Therefore we can know that the next number should be the value of 1.
-         */
-        if (!isNumberValid(nextNumber)) {
-            nextNumber = 1;
-        }
-        //Return the result.
-        return nextNumber;
+    /**
+     * getLocalInstance returns the registration of a code allocated by the caller rather than from the sequence of the registration scheme (is package private, see LocalCarFactory).
+     * The registration is unique only amongst the registrations of the caller, it may equal a registration allocated by getInstance.
+     *
+     * @param code specifies the code of the registration in the registration scheme.
+     * @return returns a new Car Registration object.
+     */
+    static CarRegistration getLocalInstance(long code) {
+        assert code >= 0 && code < scheme.getCapacity();
+        return new CarRegistration(code);
     }
 
     /**
-     * isNumberValid is responsible for providing the validity criteria of numbers between too values (see generateNextNumber for usage).
+     * newExhaustedException returns the exception reporting that every registration has been allocated (is package private, see CarImplCarFactory.getInstance).
      *
-     * @param number input number to check range.
-     * @return returns true if number is within a defined range.
+     * @return returns a GetInstanceLimitExceededException without a stack trace.
      */
-    private static boolean isNumberValid(short number) {
-        /*
-         Define maximum accepted range of numbers so other methods can handle if we exceed that range (check to see if between that range).
-         This method de-couples the validation procedure from other methods which would like to perform validation checking.
-         */
-        final short minimumNumberValue = 1;
-        final short maximumNumberValue = 9999;
-        //Return false "!" only if the number is not within the defined range.
-        return !((number > maximumNumberValue) || number < minimumNumberValue);
+    static synchronized GetInstanceLimitExceededException newExhaustedException() {
+        return new GetInstanceLimitExceededException("Every registration of " + scheme + " has been allocated (" + RELEASED.size() + " released registrations are in quarantine).", false);
+    }
+
+    /**
+     * release returns the registration of a decommissioned car to the free pool (is package private, see CarImplCarFactory.decommission).
+     * The registration is quarantined, it is not allocated again until the quarantine period has passed.
+     *
+     * @param carRegistration specifies the registration, which must not be released more than once.
+     */
+    static synchronized void release(CarRegistration carRegistration) {
+        assert carRegistration != null;
+        RELEASED.addLast(new ReleasedRegistration(carRegistration.code, System.nanoTime()));
     }
 
     /**
-     * generateNextCharacter is responsible for taking an input value and guaranteeing the return of the next character that can be returned.
-     * This makes use of the ASCII table for conversion purposes i.e. if a then b = a+=a.
+     * setQuarantinePeriod sets the period a released registration is held in the free pool before it can be allocated again (the default is 24 hours).
      *
-     * @param character specifies the input character to be iterated.
-     * @return returns the next character in the sequence of characters for CarRegistration objects.
-     * @throws GetInstanceLimitExceededException in the event that the last possible character is reached, then we can know that the limit of instances for CarRegistrations has been reached i.e. we are on character "{".
+     * @param milliseconds specifies the quarantine period in milliseconds (0 to recycle registrations immediately).
      */
-    private static char generateNextCharacter(char character) throws GetInstanceLimitExceededException {
+    public static synchronized void setQuarantinePeriod(long milliseconds) {
         /*
-        Check to see if the method has been passed a legal value.
-        We do this since it could be the case that an input character is '{' (so next character is }). If this happens something seriously has went wrong (shouldn't be possible given error checking below).
+        Check parameters.
          */
-        if (!isCharacterValid(character)) {
-            throw new IllegalArgumentException("The passed character " + character + " is not within the defined range of characters.");
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("The quarantine period cannot be a value lower than 0.");
         }
+        quarantinePeriod = milliseconds;
+    }
 
-        //Increment the character to the next character on the ASCII table.
-        char nextCharacter = ++character;
+    /**
+     * getQuarantinePeriod returns the period a released registration is held in the free pool before it can be allocated again.
+     *
+     * @return returns the quarantine period in milliseconds.
+     */
+    public static synchronized long getQuarantinePeriod() {
+        return quarantinePeriod;
+    }
 
-        /*
-        Check to see if the resultant value is a legal value and handle as appropriate.
-        We do this since it could be the case that an input character is 'a' (so next character is b), or the input character is 'z' (so next character on the ASCII table is '{').
-        If the character is not valid we can know the instance limit has been exceeded.
-         */
-        if (!isCharacterValid(nextCharacter)) {
-            throw new GetInstanceLimitExceededException("The returned character " + nextCharacter + " is not within the defined accepted range of characters.");
-        }
-        return nextCharacter;
+    /**
+     * getNoReleased returns the number of registrations in the free pool (whether or not their quarantine has passed).
+     *
+     * @return returns the number of released registrations.
+     */
+    public static synchronized int getNoReleased() {
+        return RELEASED.size();
     }
 
     /**
-     * isCharacterValid is responsible for providing the validity criteria of characters between too values (see generateNextCharacter for usage).
+     * setScheme sets the registration scheme. This must be done before any registration is allocated (i.e. when the application starts).
      *
-     * @param character input character to check range.
-     * @return returns true if character is within a defined range.
+     * @param registrationScheme specifies the RegistrationScheme of every registration.
+     * @throws IllegalStateException an IllegalStateException is thrown if a registration has already been allocated under the current scheme.
      */
-    private static boolean isCharacterValid(char character) {
+    public static synchronized void setScheme(RegistrationScheme registrationScheme) throws IllegalStateException {
         /*
-         Define maximum accepted range of characters so other methods can handle if we exceed that range (check to see if between that range).
-         This method de-couples the validation procedure from other methods which would like to perform validation checking.
+        Check parameters (since a public method throw exception if objects are null).
          */
-        for (char c = 'a'; c <= 'z'; c++) {
-            if (character == c) {
-                return true;
-            }
+        if (registrationScheme == null) {
+            throw new IllegalArgumentException("Registration scheme cannot be null.");
         }
-        return false;
+        if (nextCode > 0 && registrationScheme != scheme) {
+            throw new IllegalStateException("The registration scheme cannot be changed once registrations have been allocated.");
+        }
+        scheme = registrationScheme;
     }
 
     /**
-     * generateLeadingZeros is responsible for taking a value and generating the number of leading zeros which would be required to complete a string representation of the object.
-     * This is calculable by finding the number of significant figures, defining a minimum number of significant figures, and subtracting them.
-     * The class then uses a StringBuolder instance to generate a new string representing those zeros.
-     * The value of the minimum significant figures is herein defined.
+     * getScheme returns the registration scheme.
      *
-     * @param value the input value to i
-     * @return returns a String object of leading zeros required.
+     * @return returns the RegistrationScheme of every registration.
      */
-    private static String generateLeadingZeros(short value) {
-        //Define minimum significant figures.
-        final byte minimumSignificantFigures = 4;
-        // Convert the value into a string.
-        String valueString = String.valueOf(value);
-        // Count the number of characters to obtain number of significant figures.
-        final int significantFigures = valueString.length();
-        /*
-        Take the number of significant figures away from the designated padding size
-        To illustrate, if the string represents the value of 99 and we need to make sure there are leading zeros to make up 4 significant figures.
-        Then the value of significant figures, 2, subtract the number of leading zeros required (minimum significant figures), is 4-2.
-        */
-        int noLeadingZeros = minimumSignificantFigures - significantFigures;
-        /*
-        Instantiate an StringBuilder and create a string object.
-        */
-        StringBuilder zerosBuilder = new StringBuilder();
-        for (int i = 0; i < noLeadingZeros; i++) {
-            zerosBuilder.append("0");
-        }
-        return zerosBuilder.toString();
+    public static RegistrationScheme getScheme() {
+        return scheme;
     }
 
-    private static CarRegistration getLastRegistration() {
-        //The SortedSet interface allows us to implement the "last" method.
-        return REGISTRATIONS.last();
+    /**
+     * getCode returns the code of the registration in the registration scheme.
+     *
+     * @return returns the code (see RegistrationScheme).
+     */
+    public long getCode() {
+        return code;
     }
 
     /**
      * getCharacter returns the character attributed to the CarRegistration object.
      *
-     * @return returns the character attributed to the car registration object.
+     * @return returns the (first) letter of the car registration object.
      */
     public final char getCharacter() {
-        return character;
+        return getScheme().getFirstLetter(code);
+    }
+
+    /**
+     * getNumber returns the number of the registration.
+     *
+     * @return returns the number i.e. 1 of "a0001".
+     */
+    public int getNumber() {
+        return getScheme().getNumber(code);
     }
 
     /**
-     * getNumberAsValue provides access to the number represented by the DrivingLicenceNumber number.
+     * getNumberAsValue provides access to the number of the registration as a short (for schemes of at most four digits, see getNumber).
      *
-     * @return returns the representation of the field variable number as a short.
+     * @return returns the number as a short.
      */
     public short getNumberAsValue() {
-        return Short.valueOf(number);
+        return (short) getNumber();
+    }
+
+    /**
+     * formatTo appends the registration to a StringBuilder without allocating a string.
+     *
+     * @param out specifies the StringBuilder to append to.
+     */
+    public void formatTo(StringBuilder out) {
+        getScheme().formatTo(code, out);
     }
 
     /**
@@ -255,7 +232,7 @@ public final class CarRegistration implements Comparable<CarRegistration> {
      * @return returns the string representation of the object (the registration number i.e. "a9999").
      */
     public final String toString() {
-        return strRep;
+        return getScheme().format(code);
     }
 
     @Override
@@ -266,40 +243,38 @@ public final class CarRegistration implements Comparable<CarRegistration> {
         */
         if (this == object) return true;
         /*
-        Test for none-nullity...
-        Use the == operator to check if the argument is null.
-        */
-        if (object == null) {
-            return false;
-        }
-        /*
-        Test for type...
+        Test for type (and none-nullity)...
         Check the object is of the correct instance.
          */
         if (!(object instanceof CarRegistration)) {
             return false;
         }
         /*
-        If the object is of the correct instance then we can perform a type conversion (or a cast) to this kind of object.
-         */
-        CarRegistration carRegistration = (CarRegistration) object;
-        /*
-        At this stage we can safely investigate the fields of the object.
+        Every registration shares the scheme so registrations are equal if their codes are equal.
          */
-        return (character == carRegistration.character) && number.equals(carRegistration.number) && strRep.equals(carRegistration.strRep);
+        return code == ((CarRegistration) object).code;
     }
 
     @Override
     public final int hashCode() {
-        int result = number.hashCode();
-        result = 31 * result + (int) character;
-        result = 31 * result + strRep.hashCode();
-        return result;
+        return Long.hashCode(code);
     }
 
-
     @Override
     public final int compareTo(CarRegistration carRegistration) {
-        return strRep.compareTo(carRegistration.toString());
+        return Long.compare(code, carRegistration.code);
+    }
+
+    /*
+    A registration in the free pool alongside the time (System.nanoTime) it was released.
+     */
+    private static final class ReleasedRegistration {
+        private final long code;
+        private final long releasedAt;
+
+        private ReleasedRegistration(long code, long releasedAt) {
+            this.code = code;
+            this.releasedAt = releasedAt;
+        }
     }
 }
@@ -12,6 +12,23 @@ public class CarRegistrationTest {
         System.out.println(registration);
     }
 
+    @Test
+    public void releaseValid() throws Exception {
+        CarRegistration registration = CarRegistration.getInstance();
+        //A registration in quarantine is not allocated again.
+        CarRegistration.setQuarantinePeriod(60000);
+        CarRegistration.release(registration);
+        if (CarRegistration.getInstance().equals(registration) || CarRegistration.getNoReleased() != 1) {
+            fail();
+        }
+        //Once the quarantine has passed the released registration is preferred over a new registration.
+        CarRegistration.setQuarantinePeriod(0);
+        if (!CarRegistration.getInstance().equals(registration) || CarRegistration.getNoReleased() != 0) {
+            fail();
+        }
+        CarRegistration.setQuarantinePeriod(24 * 60 * 60 * 1000);
+    }
+
     @Test
     public void getInstanceExtremeValid() throws Exception {
         CarRegistration registration = null;
@@ -41,4 +58,22 @@ public class CarRegistrationTest {
         CarRegistration registration = CarRegistration.getInstance();
         System.out.println(registration.getCharacter());
     }
-}
\ No newline at end of file
+
+    @Test(expected = IllegalStateException.class)
+    public void setSchemeAfterAllocation() throws Exception {
+        try {
+            CarRegistration registration = CarRegistration.getInstance();
+            if (CarRegistration.getScheme().parse(registration.toString()) != registration.getCode()) {
+                fail();
+            }
+        } catch (GetInstanceLimitExceededException e) {
+            //Every registration has already been allocated (by another test).
+        }
+        CarRegistration.setScheme(RegistrationScheme.getInstance(new String[]{"LD"}, 2, 6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setQuarantinePeriodInvalid() throws Exception {
+        CarRegistration.setQuarantinePeriod(-1);
+    }
+}
@@ -0,0 +1,26 @@
+package cars;
+
+/**
+ * The FuelObserver interface is notified when the fuel remaining of a car changes or the car is driven, so that totals over a fleet can be kept up to date without scanning the fleet.
+ * <p>
+ * A car has at most one observer (see Car.setFuelObserver) which is called on the thread changing the car, so implementations should be quick and thread-safe.
+ */
+public interface FuelObserver {
+
+    /**
+     * fuelChanged is called after the fuel remaining of a car has changed.
+     *
+     * @param car                   the car.
+     * @param previousFuelRemaining the fuel remaining before the change.
+     * @param fuelRemaining         the fuel remaining after the change.
+     */
+    void fuelChanged(Car car, int previousFuelRemaining, int fuelRemaining);
+
+    /**
+     * kilometresDriven is called after a car has been driven.
+     *
+     * @param car        the car.
+     * @param kilometres the kilometres driven.
+     */
+    void kilometresDriven(Car car, int kilometres);
+}
@@ -0,0 +1,172 @@
+package cars;
+
+import exceptions.GetInstanceLimitExceededException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The LocalCarFactory class is a factory of cars whose state is its own rather than that of the static factory (see CarImplCarFactory): it holds its cars and allocates their registrations itself,
+ * so that independent fleets (i.e. the fleets of simulations run concurrently, see simulation.SimulationContext) neither contend on nor exhaust the static registries and registrations shared by every depot.
+ * <p>
+ * The registrations of a LocalCarFactory are allocated in the sequence of the registration scheme (see CarRegistration.getScheme) from the first registration of the scheme, so they are unique only amongst the cars of the factory.
+ * The registration of a decommissioned car is recycled straight away (the last released first) as the cars of the factory are not known outside it, so the registrations of a factory are determined by the order in which its cars are created and decommissioned.
+ * The cars of a factory should not be moved to a depot whose cars are created by another factory.
+ * <p>
+ * The LocalCarFactory class utilizes a static factory method pattern, each call to getInstance returns a new factory. A factory is synchronized on itself so it may be used by more than one thread.
+ */
+public final class LocalCarFactory {
+
+    //The cars of the factory which have not been decommissioned by type (in UPPERCASE), each by the code of its registration.
+    private final Map<String, Map<Long, Car>> cars = new HashMap<>();
+    //The number of registrations of the scheme, the code of the next registration to be allocated and the codes of the registrations released.
+    private final long capacity;
+    private long nextCode;
+    private final Deque<Long> released = new ArrayDeque<>();
+
+    /**
+     * LocalCarFactory is a constructor for a new factory with no cars.
+     *
+     * @param capacity the number of registrations of the registration scheme.
+     */
+    private LocalCarFactory(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * getInstance returns a new factory with no cars, which allocates the registrations of its cars under the current registration scheme.
+     *
+     * @return returns a new LocalCarFactory object.
+     */
+    public static LocalCarFactory getInstance() {
+        return new LocalCarFactory(CarRegistration.getScheme().getCapacity());
+    }
+
+    /**
+     * getCar instantiates a car of a type as CarImplCarFactory.getInstance does, but with a registration of the factory.
+     *
+     * @param typeOfCar the type of the car to generate an instance of (converted into UPPERCASE).
+     * @return return the instance of the car requested.
+     * @throws GetInstanceLimitExceededException a GetInstanceLimitExceededException (without a stack trace) is thrown if every registration of the scheme is held by a car of the factory.
+     */
+    public synchronized Car getCar(String typeOfCar) throws GetInstanceLimitExceededException {
+        Car car = tryGetCar(typeOfCar);
+        if (car == null) {
+            throw new GetInstanceLimitExceededException("Every registration of " + CarRegistration.getScheme() + " is held by a car of the factory.", false);
+        }
+        return car;
+    }
+
+    /**
+     * tryGetCar instantiates a car as getCar does, but reports that no more cars can be produced by returning null rather than by throwing an exception (see CarImplCarFactory.tryGetInstance).
+     *
+     * @param typeOfCar the type of the car to generate an instance of (converted into UPPERCASE).
+     * @return return the instance of the car requested, or null if every registration of the scheme is held by a car of the factory.
+     */
+    public synchronized Car tryGetCar(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("The car type specified cannot be a null object.");
+        }
+        typeOfCar = typeOfCar.toUpperCase();
+        //The type is checked before a registration is allocated so an invalid type does not take a registration.
+        if (!typeOfCar.equals("SMALL") && !typeOfCar.equals("LARGE")) {
+            throw new IllegalArgumentException("The car type specified is an invalid type.");
+        }
+        final long code;
+        if (!released.isEmpty()) {
+            code = released.pop();
+        } else if (nextCode < capacity) {
+            code = nextCode++;
+        } else {
+            return null;
+        }
+        CarRegistration registration = CarRegistration.getLocalInstance(code);
+        //Implicit check using switch-case tests typeOfCar.equals(case), as CarImplCarFactory.tryGetInstance does.
+        final Car car;
+        switch (typeOfCar) {
+            case "SMALL":
+                car = new CarImplSmallCar(registration);
+                break;
+            default:
+                car = new CarImplLargeCar(registration);
+                break;
+        }
+        cars.computeIfAbsent(typeOfCar, type -> new HashMap<>()).put(code, car);
+        return car;
+    }
+
+    /**
+     * tryGetCar instantiates a car as tryGetCar(typeOfCar) does, with the fuel remaining and odometer of a car moved from a depot of another process (see CarImplCarFactory.tryGetInstance).
+     *
+     * @param typeOfCar     the type of the car to generate an instance of (converted into UPPERCASE).
+     * @param fuelRemaining the fuel remaining of the car moved.
+     * @param odometer      the kilometres driven by the car moved.
+     * @return return the instance of the car requested, or null if every registration of the scheme is held by a car of the factory.
+     */
+    public synchronized Car tryGetCar(String typeOfCar, int fuelRemaining, int odometer) {
+        /*
+        Check parameters.
+         */
+        if (odometer < 0) {
+            throw new IllegalArgumentException("Odometer cannot be a value lower than 0.");
+        }
+        Car car = tryGetCar(typeOfCar);
+        if (car != null) {
+            CarImplCarFactory.restoreState((CarImplCarFactory) car, fuelRemaining, odometer);
+        }
+        return car;
+    }
+
+    /**
+     * decommission removes a car from the factory and releases its registration to be allocated to the next car of the factory (see CarImplCarFactory.decommission).
+     * The car must first be taken out of its depot (see RentalManager.decommissionCar).
+     *
+     * @param car specifies the car to decommission.
+     * @return returns true if the car was decommissioned, or false if it had already been decommissioned (or was not created by the factory).
+     */
+    public synchronized boolean decommission(Car car) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (car == null) {
+            throw new IllegalArgumentException("Car cannot be null.");
+        }
+        if (car.isRented()) {
+            throw new IllegalArgumentException("Car " + car.toString() + " is rented and cannot be decommissioned.");
+        }
+        Map<Long, Car> carsOfType = cars.get(car.getTypeAsString());
+        //Only the car itself is removed (and its registration released) so a car decommissioned twice cannot release a recycled registration.
+        if (carsOfType == null || !carsOfType.remove(car.getRegistration().getCode(), car)) {
+            return false;
+        }
+        car.setFuelObserver(null);
+        released.push(car.getRegistration().getCode());
+        return true;
+    }
+
+    /**
+     * getNoCars returns the number of cars of a type created by the factory which have not been decommissioned.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars.
+     */
+    public synchronized int getNoCars(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("The car type specified cannot be a null object.");
+        }
+        typeOfCar = typeOfCar.toUpperCase();
+        if (!typeOfCar.equals("SMALL") && !typeOfCar.equals("LARGE")) {
+            throw new IllegalArgumentException("The car type specified is an invalid type.");
+        }
+        Map<Long, Car> carsOfType = cars.get(typeOfCar);
+        return carsOfType == null ? 0 : carsOfType.size();
+    }
+}
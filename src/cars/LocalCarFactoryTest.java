@@ -0,0 +1,48 @@
+package cars;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LocalCarFactoryTest {
+    @Test
+    public void getCarValid() throws Exception {
+        LocalCarFactory carFactory = LocalCarFactory.getInstance();
+        Car car = carFactory.getCar("small");
+        //The registrations of a factory start from the first registration of the scheme.
+        if (!car.getTypeAsString().equals("SMALL") || car.getRegistration().getCode() != 0 || carFactory.getNoCars("small") != 1) {
+            fail();
+        }
+        if (LocalCarFactory.getInstance().getCar("large").getRegistration().getCode() != 0) {
+            fail();
+        }
+    }
+
+    @Test
+    public void decommissionValid() throws Exception {
+        LocalCarFactory carFactory = LocalCarFactory.getInstance();
+        Car car = carFactory.getCar("large");
+        carFactory.getCar("large");
+        if (!carFactory.decommission(car) || carFactory.decommission(car) || carFactory.getNoCars("large") != 1) {
+            fail();
+        }
+        //The registration of a decommissioned car is recycled straight away.
+        if (!carFactory.getCar("small").getRegistration().equals(car.getRegistration())) {
+            fail();
+        }
+        //A car of another factory is not decommissioned.
+        if (carFactory.decommission(LocalCarFactory.getInstance().getCar("large"))) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getCarInvalid() throws Exception {
+        LocalCarFactory.getInstance().getCar("bus");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decommissionInvalid() throws Exception {
+        LocalCarFactory.getInstance().decommission(null);
+    }
+}
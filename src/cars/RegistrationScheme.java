@@ -0,0 +1,272 @@
+package cars;
+
+import java.util.Arrays;
+
+/**
+ * The RegistrationScheme class defines the format of car registrations and the encoding of registrations as a long (see CarRegistration).
+ * <p>
+ * A registration is an optional region code, followed by a fixed number of lowercase letters and a zero padded number (from 1) of a fixed number of digits, i.e. "a0001" (the DEFAULT scheme) or "LDab000001".
+ * Registrations are encoded as their position in the sequence of the scheme (from 0), where the number changes fastest, then the letters and then the region...
+ * code = ((region * noLetterCombinations) + letters) * noNumbers + (number - 1)
+ * so registrations allocated in sequence have consecutive codes and the order of the codes is the order of the registrations.
+ * <p>
+ * Codes are parsed and formatted without allocating (see parse and formatTo), so registrations need only be held as a long.
+ * The DEFAULT scheme is the original format of registrations ("a0001" to "z9999"), larger schemes add letters, digits and regions (up to the largest long of registrations).
+ * <p>
+ * The RegistrationScheme class is immutable and utilizes a static factory method build pattern.
+ */
+public final class RegistrationScheme {
+
+    /*
+    The original scheme: a single letter and four digits ("a0001" to "z9999").
+     */
+    public static final RegistrationScheme DEFAULT = new RegistrationScheme(new String[0], 1, 4);
+
+    private static final int MAXIMUM_LETTERS = 6;
+    private static final int MAXIMUM_DIGITS = 9;
+
+    private final String[] regions;
+    private final int regionLength;
+    private final int noLetters;
+    private final int noDigits;
+    /*
+    The number of letter combinations (26 ^ noLetters) and numbers (10 ^ noDigits - 1) per region, and the number of registrations of the scheme.
+     */
+    private final long noLetterCombinations;
+    private final long noNumbers;
+    private final long capacity;
+
+    /**
+     * RegistrationScheme is a constructor for a new RegistrationScheme object.
+     *
+     * @param regions   the region codes (all of the same length), or none.
+     * @param noLetters the number of letters.
+     * @param noDigits  the number of digits.
+     */
+    private RegistrationScheme(String[] regions, int noLetters, int noDigits) {
+        this.regions = regions;
+        this.regionLength = regions.length == 0 ? 0 : regions[0].length();
+        this.noLetters = noLetters;
+        this.noDigits = noDigits;
+        long letterCombinations = 1;
+        for (int i = 0; i < noLetters; i++) {
+            letterCombinations *= 26;
+        }
+        long numbers = 1;
+        for (int i = 0; i < noDigits; i++) {
+            numbers *= 10;
+        }
+        this.noLetterCombinations = letterCombinations;
+        this.noNumbers = numbers - 1;
+        this.capacity = Math.multiplyExact(Math.multiplyExact(letterCombinations, noNumbers), (long) Math.max(1, regions.length));
+    }
+
+    /**
+     * getInstance returns a new RegistrationScheme object given the respective parameters.
+     *
+     * @param regions   specifies the region codes in the order they are allocated (uppercase letters and digits, all of the same length), or an empty array for registrations without a region.
+     * @param noLetters specifies the number of letters (1-6).
+     * @param noDigits  specifies the number of digits (1-9).
+     * @return returns the RegistrationScheme object.
+     */
+    public static RegistrationScheme getInstance(String[] regions, int noLetters, int noDigits) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (regions == null) {
+            throw new IllegalArgumentException("Regions cannot be null.");
+        }
+        if (noLetters < 1 || noLetters > MAXIMUM_LETTERS) {
+            throw new IllegalArgumentException("The number of letters must be a value between 1 and " + MAXIMUM_LETTERS + ".");
+        }
+        if (noDigits < 1 || noDigits > MAXIMUM_DIGITS) {
+            throw new IllegalArgumentException("The number of digits must be a value between 1 and " + MAXIMUM_DIGITS + ".");
+        }
+        //Defensive copying so the regions cannot change after the scheme is created.
+        String[] copy = Arrays.copyOf(regions, regions.length);
+        for (String region : copy) {
+            if (region == null || region.isEmpty() || region.length() != copy[0].length()) {
+                throw new IllegalArgumentException("Region codes must be non-empty and of the same length.");
+            }
+            for (int i = 0; i < region.length(); i++) {
+                char character = region.charAt(i);
+                if (!(character >= 'A' && character <= 'Z') && !(character >= '0' && character <= '9')) {
+                    throw new IllegalArgumentException("Region codes may only contain uppercase letters and digits.");
+                }
+            }
+        }
+        if (copy.length != Arrays.stream(copy).distinct().count()) {
+            throw new IllegalArgumentException("Region codes must be unique.");
+        }
+        try {
+            return new RegistrationScheme(copy, noLetters, noDigits);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The scheme has more registrations than can be encoded.");
+        }
+    }
+
+    /**
+     * getCapacity returns the number of registrations of the scheme.
+     *
+     * @return returns the number of registrations (codes are from 0 to the capacity - 1).
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * getLength returns the length of the registrations of the scheme.
+     *
+     * @return returns the number of characters of a formatted registration.
+     */
+    public int getLength() {
+        return regionLength + noLetters + noDigits;
+    }
+
+    /**
+     * formatTo appends a registration to a StringBuilder (without allocating if the builder has the capacity).
+     *
+     * @param code specifies the code of the registration.
+     * @param out  specifies the StringBuilder to append to.
+     */
+    public void formatTo(long code, StringBuilder out) {
+        /*
+        Check parameters.
+         */
+        checkCode(code);
+        if (out == null) {
+            throw new IllegalArgumentException("StringBuilder cannot be null.");
+        }
+        if (regions.length > 0) {
+            out.append(regions[getRegionIndex(code)]);
+        }
+        long letters = (code / noNumbers) % noLetterCombinations;
+        for (long divisor = noLetterCombinations / 26; divisor > 0; divisor /= 26) {
+            out.append((char) ('a' + (letters / divisor) % 26));
+        }
+        long number = getNumber(code);
+        for (long divisor = (noNumbers + 1) / 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (number / divisor) % 10));
+        }
+    }
+
+    /**
+     * format returns a registration as a string.
+     *
+     * @param code specifies the code of the registration.
+     * @return returns the registration i.e. "a0001".
+     */
+    public String format(long code) {
+        StringBuilder out = new StringBuilder(getLength());
+        formatTo(code, out);
+        return out.toString();
+    }
+
+    /**
+     * parse returns the code of a registration of the scheme (without allocating unless the registration is invalid).
+     *
+     * @param registration specifies the registration i.e. "a0001".
+     * @return returns the code of the registration.
+     * @throws IllegalArgumentException an IllegalArgumentException is thrown if the registration is not a registration of the scheme.
+     */
+    public long parse(CharSequence registration) throws IllegalArgumentException {
+        if (registration == null || registration.length() != getLength()) {
+            throw new IllegalArgumentException("The registration " + registration + " is not a registration of the scheme.");
+        }
+        int region = 0;
+        if (regions.length > 0) {
+            region = -1;
+            for (int i = 0; i < regions.length && region < 0; i++) {
+                if (startsWith(registration, regions[i])) {
+                    region = i;
+                }
+            }
+            if (region < 0) {
+                throw new IllegalArgumentException("The registration " + registration + " is not of a region of the scheme.");
+            }
+        }
+        long letters = 0;
+        for (int i = regionLength; i < regionLength + noLetters; i++) {
+            char character = registration.charAt(i);
+            if (character < 'a' || character > 'z') {
+                throw new IllegalArgumentException("The registration " + registration + " is not a registration of the scheme.");
+            }
+            letters = letters * 26 + (character - 'a');
+        }
+        long number = 0;
+        for (int i = regionLength + noLetters; i < registration.length(); i++) {
+            char character = registration.charAt(i);
+            if (character < '0' || character > '9') {
+                throw new IllegalArgumentException("The registration " + registration + " is not a registration of the scheme.");
+            }
+            number = number * 10 + (character - '0');
+        }
+        if (number == 0) {
+            throw new IllegalArgumentException("The number of the registration " + registration + " cannot be zero.");
+        }
+        return (region * noLetterCombinations + letters) * noNumbers + (number - 1);
+    }
+
+    private static boolean startsWith(CharSequence registration, String region) {
+        for (int i = 0; i < region.length(); i++) {
+            if (registration.charAt(i) != region.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * getRegion returns the region code of a registration.
+     *
+     * @param code specifies the code of the registration.
+     * @return returns the region code, or an empty string if the scheme has no regions.
+     */
+    public String getRegion(long code) {
+        checkCode(code);
+        return regions.length == 0 ? "" : regions[getRegionIndex(code)];
+    }
+
+    /**
+     * getFirstLetter returns the first letter of a registration.
+     *
+     * @param code specifies the code of the registration.
+     * @return returns the first letter i.e. 'a' of "a0001".
+     */
+    public char getFirstLetter(long code) {
+        checkCode(code);
+        long letters = (code / noNumbers) % noLetterCombinations;
+        return (char) ('a' + letters / (noLetterCombinations / 26));
+    }
+
+    /**
+     * getNumber returns the number of a registration.
+     *
+     * @param code specifies the code of the registration.
+     * @return returns the number i.e. 1 of "a0001".
+     */
+    public int getNumber(long code) {
+        checkCode(code);
+        return (int) (code % noNumbers) + 1;
+    }
+
+    private int getRegionIndex(long code) {
+        return (int) (code / noNumbers / noLetterCombinations);
+    }
+
+    private void checkCode(long code) {
+        if (code < 0 || code >= capacity) {
+            throw new IllegalArgumentException("The code " + code + " is not a registration of the scheme.");
+        }
+    }
+
+    /**
+     * toString returns the scheme as a string.
+     *
+     * @return returns the following formatted string "RegistrationScheme[regions, noLetters letters, noDigits digits]".
+     */
+    @Override
+    public String toString() {
+        return "RegistrationScheme[" + Arrays.toString(regions) + ", " + noLetters + " letters, " + noDigits + " digits]";
+    }
+}
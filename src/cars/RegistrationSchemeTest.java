@@ -0,0 +1,81 @@
+package cars;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.fail;
+
+public class RegistrationSchemeTest {
+    @Test
+    public void defaultSchemeValid() {
+        RegistrationScheme scheme = RegistrationScheme.DEFAULT;
+        //The default scheme is the original format of registrations.
+        if (scheme.getCapacity() != 26 * 9999 || !scheme.format(0).equals("a0001") || !scheme.format(9998).equals("a9999") || !scheme.format(9999).equals("b0001") ||
+                !scheme.format(scheme.getCapacity() - 1).equals("z9999")) {
+            fail();
+        }
+        if (scheme.parse("a0001") != 0 || scheme.parse("c0002") != 2 * 9999 + 1 || scheme.getNumber(scheme.parse("q0420")) != 420 || scheme.getFirstLetter(scheme.parse("q0420")) != 'q') {
+            fail();
+        }
+    }
+
+    @Test
+    public void regionalSchemeValid() {
+        RegistrationScheme scheme = RegistrationScheme.getInstance(new String[]{"LD", "MA", "GL"}, 3, 6);
+        if (scheme.getCapacity() != 3L * 26 * 26 * 26 * 999999 || scheme.getLength() != 11) {
+            fail();
+        }
+        long[] codes = {0, 1, 999999, 26L * 26 * 26 * 999999, scheme.getCapacity() - 1, 12345678901L};
+        for (long code : codes) {
+            if (scheme.parse(scheme.format(code)) != code) {
+                fail();
+            }
+        }
+        if (!scheme.format(0).equals("LDaaa000001") || !scheme.format(scheme.getCapacity() - 1).equals("GLzzz999999") || !scheme.getRegion(scheme.parse("MAabc000042")).equals("MA")) {
+            fail();
+        }
+        //The order of the codes is the order of the registrations.
+        if (scheme.parse("LDaab000001") != scheme.parse("LDaaa999999") + 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void parseAndFormatWithoutAllocating() {
+        RegistrationScheme scheme = RegistrationScheme.getInstance(new String[]{"LD", "MA"}, 2, 5);
+        StringBuilder out = new StringBuilder(scheme.getLength());
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long checksum = 0;
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (long code = 0; code < 100000; code++) {
+            out.setLength(0);
+            scheme.formatTo(code, out);
+            checksum += scheme.parse(out);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        //Allow for the allocation of the measurement itself.
+        if (checksum != 99999L * 100000 / 2 || allocated > 10000) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseInvalid() {
+        RegistrationScheme.DEFAULT.parse("a0000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() {
+        RegistrationScheme.getInstance(new String[]{"LD", "M"}, 2, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceTooLarge() {
+        String[] regions = new String[100000];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = String.format("%05d", i);
+        }
+        RegistrationScheme.getInstance(regions, 6, 9);
+    }
+}
@@ -0,0 +1,133 @@
+package cluster;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ClusterProtocol class defines the messages exchanged between depot nodes over Unix domain sockets.
+ * <p>
+ * Every request is framed as [operation (byte)][sender node id (int)][payload] and every response is framed as [count (int)][count results (boolean)].
+ * The payload of the licence operations (CLAIM, RELEASE, HELD) is a batch of licence numbers [origin process id (long)][count (int)][count licence numbers (UTF)], so that a single message carries every check a node needs from another node.
+ * Licence numbers are allocated by each process, so the numbers of a batch are qualified by the id of the process which allocated them.
+ * The payload of the TRANSFER operation is the id of the transfer and the state of the car being transferred [epoch (long)][sequence (long)][type (UTF)][fuel remaining (int)][odometer (int)].
+ * A transfer is resent with the same id if its response is lost, so the receiving node can recognise it and answer it again rather than accept the car twice.
+ * <p>
+ * The class is not instantiable: it only provides the operation codes and the methods to read and write the frames.
+ */
+final class ClusterProtocol {
+
+    /*
+    Operation codes.
+     */
+    static final byte CLAIM = 1;
+    static final byte RELEASE = 2;
+    static final byte HELD = 3;
+    static final byte TRANSFER = 4;
+
+    /**
+     * ClusterProtocol is a private constructor as the class only provides static members.
+     */
+    private ClusterProtocol() {
+    }
+
+    /**
+     * writeLicenceRequest writes a request for one of the licence operations.
+     *
+     * @param out            specifies the stream to write to.
+     * @param operation      specifies the operation (CLAIM, RELEASE or HELD).
+     * @param senderNode     specifies the id of the node sending the request.
+     * @param origin         specifies the id of the process which allocated the licence numbers.
+     * @param licenceNumbers specifies the batch of licence numbers.
+     * @throws IOException in the event the request cannot be written.
+     */
+    static void writeLicenceRequest(DataOutputStream out, byte operation, int senderNode, long origin, List<String> licenceNumbers) throws IOException {
+        assert operation == CLAIM || operation == RELEASE || operation == HELD;
+        out.writeByte(operation);
+        out.writeInt(senderNode);
+        out.writeLong(origin);
+        out.writeInt(licenceNumbers.size());
+        for (String licenceNumber : licenceNumbers) {
+            out.writeUTF(licenceNumber);
+        }
+        out.flush();
+    }
+
+    /**
+     * writeTransferRequest writes a request to transfer a car to the receiving node.
+     *
+     * @param out           specifies the stream to write to.
+     * @param senderNode    specifies the id of the node sending the request.
+     * @param epoch         specifies the epoch of the transfer id (chosen when the sending node started).
+     * @param sequence      specifies the sequence of the transfer id within the epoch.
+     * @param typeOfCar     specifies the type of the car transferred.
+     * @param fuelRemaining specifies the fuel remaining of the car transferred.
+     * @param odometer      specifies the kilometres driven by the car transferred.
+     * @throws IOException in the event the request cannot be written.
+     */
+    static void writeTransferRequest(DataOutputStream out, int senderNode, long epoch, long sequence, String typeOfCar, int fuelRemaining, int odometer) throws IOException {
+        out.writeByte(TRANSFER);
+        out.writeInt(senderNode);
+        out.writeLong(epoch);
+        out.writeLong(sequence);
+        out.writeUTF(typeOfCar);
+        out.writeInt(fuelRemaining);
+        out.writeInt(odometer);
+        out.flush();
+    }
+
+    /**
+     * readLicenceNumbers reads the batch of licence numbers of a licence request (after the operation, sender and origin have been read).
+     *
+     * @param in specifies the stream to read from.
+     * @return returns the licence numbers of the request.
+     * @throws IOException in the event the request cannot be read.
+     */
+    static List<String> readLicenceNumbers(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid batch size " + count + ".");
+        }
+        List<String> licenceNumbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            licenceNumbers.add(in.readUTF());
+        }
+        return licenceNumbers;
+    }
+
+    /**
+     * writeResponse writes the results of a request.
+     *
+     * @param out     specifies the stream to write to.
+     * @param results specifies the results (one per licence number, or one for a transfer).
+     * @throws IOException in the event the response cannot be written.
+     */
+    static void writeResponse(DataOutputStream out, boolean[] results) throws IOException {
+        out.writeInt(results.length);
+        for (boolean result : results) {
+            out.writeBoolean(result);
+        }
+        out.flush();
+    }
+
+    /**
+     * readResponse reads the results of a request.
+     *
+     * @param in specifies the stream to read from.
+     * @return returns the results of the request.
+     * @throws IOException in the event the response cannot be read.
+     */
+    static boolean[] readResponse(DataInputStream in) throws IOException {
+        final int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid response size " + count + ".");
+        }
+        boolean[] results = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            results[i] = in.readBoolean();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,115 @@
+package cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The DepotClient class is a connection from one depot node to another depot node.
+ * The connection is opened on first use and kept open for every following request. Requests are synchronized so a single connection can be shared by every thread of the node.
+ */
+final class DepotClient implements Closeable {
+
+    private final Path socketPath;
+    private SocketChannel channel;
+    private DataInputStream in;
+    private DataOutputStream out;
+
+    /**
+     * DepotClient is a constructor for a connection to the node listening on the specified socket.
+     *
+     * @param socketPath specifies the path of the Unix domain socket of the node.
+     */
+    DepotClient(Path socketPath) {
+        this.socketPath = socketPath;
+    }
+
+    /**
+     * request sends a batch of licence numbers for one of the licence operations and waits for the results.
+     *
+     * @param operation      specifies the operation (see ClusterProtocol).
+     * @param senderNode     specifies the id of the node sending the request.
+     * @param origin         specifies the id of the process which allocated the licence numbers.
+     * @param licenceNumbers specifies the batch of licence numbers.
+     * @return returns the results (one per licence number).
+     * @throws IOException in the event the node cannot be reached.
+     */
+    synchronized boolean[] request(byte operation, int senderNode, long origin, List<String> licenceNumbers) throws IOException {
+        try {
+            connect();
+            ClusterProtocol.writeLicenceRequest(out, operation, senderNode, origin, licenceNumbers);
+            boolean[] results = ClusterProtocol.readResponse(in);
+            if (results.length != licenceNumbers.size()) {
+                throw new IOException("Expected " + licenceNumbers.size() + " results but received " + results.length + ".");
+            }
+            return results;
+        } catch (IOException e) {
+            //The stream is in an unknown state so the connection is re-opened by the next request.
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * transfer sends the state of a car to the node and waits for the node to accept or reject it.
+     *
+     * @param senderNode    specifies the id of the node sending the request.
+     * @param epoch         specifies the epoch of the transfer id.
+     * @param sequence      specifies the sequence of the transfer id within the epoch.
+     * @param typeOfCar     specifies the type of the car transferred.
+     * @param fuelRemaining specifies the fuel remaining of the car transferred.
+     * @param odometer      specifies the kilometres driven by the car transferred.
+     * @return returns true if the node accepted the car.
+     * @throws IOException in the event the node cannot be reached (the outcome of the transfer is then unknown).
+     */
+    synchronized boolean transfer(int senderNode, long epoch, long sequence, String typeOfCar, int fuelRemaining, int odometer) throws IOException {
+        try {
+            connect();
+            ClusterProtocol.writeTransferRequest(out, senderNode, epoch, sequence, typeOfCar, fuelRemaining, odometer);
+            boolean[] results = ClusterProtocol.readResponse(in);
+            return results.length == 1 && results[0];
+        } catch (IOException e) {
+            //The stream is in an unknown state so the connection is re-opened by the next request.
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * connect opens the connection if it is not already open.
+     *
+     * @throws IOException in the event the node cannot be reached.
+     */
+    private void connect() throws IOException {
+        if (channel == null) {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        }
+    }
+
+    /**
+     * close closes the connection (a following request re-opens it).
+     *
+     * @throws IOException in the event the connection cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            in = null;
+            out = null;
+        }
+    }
+}
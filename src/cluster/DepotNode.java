@@ -0,0 +1,619 @@
+package cluster;
+
+import cars.Car;
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+import manager.RentalManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The DepotNode class allows depots (RentalManager instances) running in different processes on the same host to cooperate over Unix domain sockets.
+ * <p>
+ * A cluster is defined by an ordered list of socket paths: the node with id i listens on the i-th path. Every licence has a home node (the hash of its key, see getLicenceKey, modulo the number of nodes).
+ * The home node of a licence records which node (if any) has issued a car to that licence. Before a node issues a car it claims the licence from its home node, and after the rental is terminated it releases the licence.
+ * This guarantees a licence never holds two cars across the depots of the cluster.
+ * A claim by the node which already holds the licence succeeds (as a claim resent after its response was lost would otherwise be refused for good), the depot of the node then refuses a second car.
+ * A release which cannot be sent (the home node cannot be reached) is held as a pending release and resent with the next release (or by retryPendingReleases), so the rental is still ended and the licence is freed later.
+ * Claims and checks for many licences are grouped by home node so that a single message is sent to each node (see ClusterProtocol).
+ * Licence numbers are allocated by each process (see DrivingLicenceNumber), so the same number may name different drivers in different processes: a licence is known to the cluster by its number qualified by the id of the process which allocated it.
+ * <p>
+ * Cars can be transferred between nodes: the car is withdrawn from the depot of the sending node and its state (type, fuel remaining and odometer) is sent to the receiving node, whose depot adds a car with that state.
+ * Registrations are unique to a process, so a transferred car receives a new registration at the receiving node, and the car withdrawn is decommissioned (releasing its registration) only once the receiving node has accepted it.
+ * If the receiving node cannot be reached the outcome of the transfer is unknown, so the car withdrawn is held as a pending transfer (in neither depot) and the transfer is resent with the same id before the next transfer to that node (or by retryPendingTransfers).
+ * The receiving node answers a transfer it has already received with its first answer, so a car is never in both depots nor lost.
+ */
+public final class DepotNode implements Closeable {
+
+    //The id of this process, which qualifies the licence numbers it allocated.
+    private static final long ORIGIN = ProcessHandle.current().pid();
+
+    private final int nodeId;
+    private final List<Path> members;
+    private final RentalManager depot;
+    private final ServerSocketChannel server;
+    /*
+    The node holding a car for each licence whose home is this node (key-value pairs of licence key to node id).
+     */
+    private final Map<String, Integer> licenceHolders = new HashMap<>();
+    /*
+    Connections to the other nodes and from the other nodes.
+     */
+    private final Map<Integer, DepotClient> peers = new HashMap<>();
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    /*
+    The ids of the transfers sent by this node (an epoch chosen when the node starts, so a restarted node does not reuse ids, and a sequence), the transfers sent whose outcome is unknown by target node
+    and the last transfer received from each node.
+     */
+    private final long transferEpoch = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong transferSequence = new AtomicLong();
+    private final Map<Integer, PendingTransfer> pendingTransfers = new ConcurrentHashMap<>();
+    private final Map<Integer, ReceivedTransfer> receivedTransfers = new HashMap<>();
+    /*
+    The licence numbers (allocated by this process) whose release could not be sent to their home node.
+     */
+    private final Set<String> pendingReleases = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    /**
+     * DepotNode is a constructor for a node of the cluster listening on an open server channel.
+     *
+     * @param nodeId  the id of the node (its index in the list of members).
+     * @param members the socket paths of every node of the cluster.
+     * @param depot   the depot the node serves.
+     * @param server  the server channel bound to the socket path of the node.
+     */
+    private DepotNode(int nodeId, List<Path> members, RentalManager depot, ServerSocketChannel server) {
+        this.nodeId = nodeId;
+        this.members = members;
+        this.depot = depot;
+        this.server = server;
+    }
+
+    /**
+     * start binds a node to its socket path and starts accepting requests from the other nodes of the cluster.
+     *
+     * @param nodeId  specifies the id of the node (its index in the list of members).
+     * @param members specifies the socket paths of every node of the cluster (the same list, in the same order, must be used by every node).
+     * @param depot   specifies the depot the node serves.
+     * @return returns the started DepotNode.
+     * @throws IOException in the event the socket cannot be bound.
+     */
+    public static DepotNode start(int nodeId, List<Path> members, RentalManager depot) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (members == null || depot == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        if (nodeId < 0 || nodeId >= members.size()) {
+            throw new IllegalArgumentException("The node id " + nodeId + " is not within the defined range of members.");
+        }
+        final Path socketPath = members.get(nodeId);
+        //A socket file left behind by a previous process would prevent the bind.
+        Files.deleteIfExists(socketPath);
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        final DepotNode node = new DepotNode(nodeId, Collections.unmodifiableList(new ArrayList<>(members)), depot, server);
+        Thread acceptor = new Thread(node::accept, "depot-node-" + nodeId);
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return node;
+    }
+
+    /**
+     * getDepot returns the depot the node serves.
+     *
+     * @return returns the RentalManager of the node.
+     */
+    public RentalManager getDepot() {
+        return depot;
+    }
+
+    /**
+     * getNodeId returns the id of the node.
+     *
+     * @return returns the id of the node.
+     */
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * issueCar issues a car from the depot of this node only if the licence does not hold a car at any node of the cluster (see RentalManager.issueCar).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue.
+     * @return returns true if successful, returns false otherwise.
+     * @throws GetInstanceLimitExceededException in the event the instance limit has been reached for any particular class should be handled appropriately.
+     * @throws IOException                       in the event the home node of the licence cannot be reached to claim the licence.
+     */
+    public boolean issueCar(DrivingLicence drivingLicence, String typeOfCar) throws GetInstanceLimitExceededException, IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (drivingLicence == null || typeOfCar == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        final String licenceNumber = drivingLicence.getLicenceNumberAsString();
+        if (pendingReleases.contains(licenceNumber)) {
+            //A pending release sent after the claim would free the licence while it holds a car, so it is dropped (waiting for a release being resent) before claiming.
+            synchronized (pendingReleases) {
+                pendingReleases.remove(licenceNumber);
+            }
+        }
+        boolean claimed;
+        try {
+            claimed = send(ClusterProtocol.CLAIM, ORIGIN, Collections.singletonList(licenceNumber))[0];
+        } catch (IOException e) {
+            //The claim may have been recorded by the home node, so it is released once the home node can be reached (unless the licence holds a car at this node).
+            if (!depot.isRenting(drivingLicence)) {
+                pendingReleases.add(licenceNumber);
+            }
+            throw e;
+        }
+        if (!claimed) {
+            //The licence holds a car at another node.
+            return false;
+        }
+        boolean issued = false;
+        try {
+            issued = depot.issueCar(drivingLicence, typeOfCar);
+        } finally {
+            //The claim is released unless the licence holds a car at this node (issued now or before, as the claim of the holder succeeds).
+            if (!issued && !depot.isRenting(drivingLicence)) {
+                release(licenceNumber);
+            }
+        }
+        return issued;
+    }
+
+    /**
+     * terminateRental terminates the rental of the licence at the depot of this node and releases the licence so that it can be issued a car at any node (see RentalManager.terminateRental).
+     * If the home node of the licence cannot be reached the rental is still terminated and the release is held as a pending release (see retryPendingReleases).
+     *
+     * @param drivingLicence defines the DrivingLicence object to terminate the rental of.
+     * @return returns the value of fuel required to fill up the tank post-rental.
+     * @throws InvalidObjectException safety check the event that the object is in an inconsistent state of both rented and not rented (as internally determined).
+     */
+    public int terminateRental(DrivingLicence drivingLicence) throws InvalidObjectException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (drivingLicence == null) {
+            throw new IllegalArgumentException("Driving licence cannot be null.");
+        }
+        final int fuelNeeded = depot.terminateRental(drivingLicence);
+        //Releasing is only effective if this node holds the licence (so it is safe if the licence did not rent a car here).
+        release(drivingLicence.getLicenceNumberAsString());
+        return fuelNeeded;
+    }
+
+    /**
+     * release releases a licence at its home node together with the releases still pending, holding them as pending releases if a home node cannot be reached.
+     *
+     * @param licenceNumber specifies the licence number (allocated by this process).
+     */
+    private void release(String licenceNumber) {
+        pendingReleases.add(licenceNumber);
+        try {
+            retryPendingReleases();
+        } catch (IOException e) {
+            //The releases stay pending.
+        }
+    }
+
+    /**
+     * retryPendingReleases resends every release which could not be sent (see terminateRental), in a single batch per home node.
+     * A release is only effective if this node holds the licence, so a release resent after it was received has no effect.
+     *
+     * @return returns the number of releases sent.
+     * @throws IOException in the event a home node still cannot be reached (the releases stay pending).
+     */
+    public int retryPendingReleases() throws IOException {
+        synchronized (pendingReleases) {
+            if (pendingReleases.isEmpty()) {
+                return 0;
+            }
+            List<String> releases = new ArrayList<>(pendingReleases);
+            send(ClusterProtocol.RELEASE, ORIGIN, releases);
+            pendingReleases.removeAll(releases);
+            return releases.size();
+        }
+    }
+
+    /**
+     * getNoPendingReleases returns the number of releases which could not be sent to the home node of the licence.
+     *
+     * @return returns the number of pending releases.
+     */
+    public int getNoPendingReleases() {
+        return pendingReleases.size();
+    }
+
+    /**
+     * holdsCar checks (in a single batch per home node) whether each of the licence numbers holds a car at any node of the cluster.
+     *
+     * @param licenceNumbers specifies the licence numbers to check (allocated by this process).
+     * @return returns whether each licence number holds a car (in the order of the licence numbers).
+     * @throws IOException in the event a home node cannot be reached.
+     */
+    public boolean[] holdsCar(List<String> licenceNumbers) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (licenceNumbers == null || licenceNumbers.contains(null)) {
+            throw new IllegalArgumentException("Licence numbers cannot be null objects.");
+        }
+        return send(ClusterProtocol.HELD, ORIGIN, licenceNumbers);
+    }
+
+    /**
+     * transferCar moves an available car of a type from the depot of this node to the depot of the target node (see class body).
+     * If the target depot cannot accept the car (i.e. it would exceed its instance restrictions) the car is returned to this depot.
+     * A transfer to the target node whose outcome is unknown is resolved first.
+     *
+     * @param targetNode specifies the id of the node to transfer the car to.
+     * @param typeOfCar  specifies the type of car to transfer.
+     * @return returns true if a car was transferred.
+     * @throws IOException in the event the target node cannot be reached (the car withdrawn is held as a pending transfer, see retryPendingTransfers).
+     */
+    public boolean transferCar(int targetNode, String typeOfCar) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        if (targetNode == nodeId || targetNode < 0 || targetNode >= members.size()) {
+            throw new IllegalArgumentException("The node id " + targetNode + " is not a valid target for a transfer.");
+        }
+        DepotClient peer = getPeer(targetNode);
+        //Transfers to a node are made one at a time, so there is at most one pending transfer to each node.
+        synchronized (peer) {
+            PendingTransfer pending = pendingTransfers.get(targetNode);
+            if (pending != null) {
+                resolveTransfer(peer, targetNode, pending);
+            }
+            Car car = depot.withdrawAvailableCar(typeOfCar);
+            if (car == null) {
+                return false;
+            }
+            pending = new PendingTransfer(car, transferSequence.incrementAndGet());
+            pendingTransfers.put(targetNode, pending);
+            return resolveTransfer(peer, targetNode, pending);
+        }
+    }
+
+    /**
+     * retryPendingTransfers resends every transfer whose outcome is unknown (see transferCar), so the cars withdrawn are either decommissioned (if the target node accepted them) or returned to this depot.
+     *
+     * @return returns the number of transfers resolved.
+     * @throws IOException in the event a target node still cannot be reached (its transfer stays pending).
+     */
+    public int retryPendingTransfers() throws IOException {
+        int noResolved = 0;
+        for (Integer targetNode : new ArrayList<>(pendingTransfers.keySet())) {
+            DepotClient peer = getPeer(targetNode);
+            synchronized (peer) {
+                PendingTransfer pending = pendingTransfers.get(targetNode);
+                if (pending != null) {
+                    resolveTransfer(peer, targetNode, pending);
+                    noResolved++;
+                }
+            }
+        }
+        return noResolved;
+    }
+
+    /**
+     * getNoPendingTransfers returns the number of transfers sent by this node whose outcome is unknown (each holds a car withdrawn from the depot of this node).
+     *
+     * @return returns the number of pending transfers.
+     */
+    public int getNoPendingTransfers() {
+        return pendingTransfers.size();
+    }
+
+    /**
+     * resolveTransfer sends (or resends) a transfer to the target node and, once the node answers, decommissions the car withdrawn if the node accepted it or returns it to this depot otherwise.
+     * The caller must hold the lock of the connection to the target node.
+     *
+     * @param peer       specifies the connection to the target node.
+     * @param targetNode specifies the id of the target node.
+     * @param pending    specifies the transfer.
+     * @return returns true if the target node accepted the car.
+     * @throws IOException in the event the target node cannot be reached (the transfer stays pending).
+     */
+    private boolean resolveTransfer(DepotClient peer, int targetNode, PendingTransfer pending) throws IOException {
+        assert Thread.holdsLock(peer);
+        Car car = pending.car;
+        boolean accepted = peer.transfer(nodeId, transferEpoch, pending.sequence, car.getTypeAsString(), car.getFuelRemaining(), car.getOdometer());
+        pendingTransfers.remove(targetNode);
+        if (accepted) {
+            //The car has been replaced by a car of the target depot, so its registration is released.
+            depot.decommissionWithdrawnCar(car);
+        } else {
+            depot.acceptCar(car);
+        }
+        return accepted;
+    }
+
+    /**
+     * send groups the licence numbers by home node and sends one request to each home node (requests for this node are handled locally).
+     *
+     * @param operation      specifies the operation (see ClusterProtocol).
+     * @param origin         specifies the id of the process which allocated the licence numbers.
+     * @param licenceNumbers specifies the licence numbers.
+     * @return returns the results (in the order of the licence numbers).
+     * @throws IOException in the event a home node cannot be reached.
+     */
+    private boolean[] send(byte operation, long origin, List<String> licenceNumbers) throws IOException {
+        /*
+        Group the positions of the licence numbers by home node.
+         */
+        Map<Integer, List<Integer>> positionsByNode = new HashMap<>();
+        for (int i = 0; i < licenceNumbers.size(); i++) {
+            Integer home = getHomeNode(getLicenceKey(origin, licenceNumbers.get(i)));
+            List<Integer> positions = positionsByNode.get(home);
+            if (positions == null) {
+                positions = new ArrayList<>();
+                positionsByNode.put(home, positions);
+            }
+            positions.add(i);
+        }
+        boolean[] results = new boolean[licenceNumbers.size()];
+        for (Map.Entry<Integer, List<Integer>> entry : positionsByNode.entrySet()) {
+            List<String> batch = new ArrayList<>(entry.getValue().size());
+            for (Integer position : entry.getValue()) {
+                batch.add(licenceNumbers.get(position));
+            }
+            boolean[] batchResults;
+            if (entry.getKey() == nodeId) {
+                batchResults = handle(operation, nodeId, origin, batch);
+            } else {
+                batchResults = getPeer(entry.getKey()).request(operation, nodeId, origin, batch);
+            }
+            for (int i = 0; i < batchResults.length; i++) {
+                results[entry.getValue().get(i)] = batchResults[i];
+            }
+        }
+        return results;
+    }
+
+    /**
+     * handle performs a licence operation on the licences whose home is this node.
+     *
+     * @param operation      specifies the operation (see ClusterProtocol).
+     * @param senderNode     specifies the id of the node which sent the request.
+     * @param origin         specifies the id of the process which allocated the licence numbers.
+     * @param licenceNumbers specifies the licence numbers.
+     * @return returns the results (one per licence number).
+     */
+    private boolean[] handle(byte operation, int senderNode, long origin, List<String> licenceNumbers) {
+        boolean[] results = new boolean[licenceNumbers.size()];
+        synchronized (licenceHolders) {
+            for (int i = 0; i < licenceNumbers.size(); i++) {
+                String licenceNumber = getLicenceKey(origin, licenceNumbers.get(i));
+                Integer holder = licenceHolders.get(licenceNumber);
+                switch (operation) {
+                    case ClusterProtocol.CLAIM:
+                        //A claim succeeds only if no other node holds a car for the licence (a claim resent by the holder succeeds again, so a claim whose response was lost can be resent).
+                        if (holder == null || holder == senderNode) {
+                            licenceHolders.put(licenceNumber, senderNode);
+                            results[i] = true;
+                        }
+                        break;
+                    case ClusterProtocol.RELEASE:
+                        //Only the node holding the licence can release it.
+                        if (holder != null && holder == senderNode) {
+                            licenceHolders.remove(licenceNumber);
+                            results[i] = true;
+                        }
+                        break;
+                    case ClusterProtocol.HELD:
+                        results[i] = holder != null;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("The operation " + operation + " is not a licence operation.");
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * getLicenceKey returns the key of a licence number in the cluster: the licence number qualified by the id of the process which allocated it.
+     *
+     * @param origin        specifies the id of the process which allocated the licence number.
+     * @param licenceNumber specifies the licence number.
+     * @return returns the key "origin/licenceNumber".
+     */
+    private static String getLicenceKey(long origin, String licenceNumber) {
+        return origin + "/" + licenceNumber;
+    }
+
+    /**
+     * getHomeNode returns the id of the node responsible for a licence.
+     *
+     * @param licenceKey specifies the key of the licence (see getLicenceKey).
+     * @return returns the id of the home node.
+     */
+    private int getHomeNode(String licenceKey) {
+        //String.hashCode is defined by the specification so every process computes the same home node.
+        return Math.floorMod(licenceKey.hashCode(), members.size());
+    }
+
+    /**
+     * getPeer returns the connection to another node of the cluster.
+     *
+     * @param node specifies the id of the node.
+     * @return returns the DepotClient connected to the node.
+     */
+    private DepotClient getPeer(int node) {
+        synchronized (peers) {
+            DepotClient peer = peers.get(node);
+            if (peer == null) {
+                peer = new DepotClient(members.get(node));
+                peers.put(node, peer);
+            }
+            return peer;
+        }
+    }
+
+    /**
+     * accept accepts connections from the other nodes until the node is closed. Each connection is served by its own thread.
+     */
+    private void accept() {
+        while (running) {
+            try {
+                final SocketChannel channel = server.accept();
+                connections.add(channel);
+                Thread connection = new Thread(() -> serve(channel), "depot-node-" + nodeId + "-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                //The server channel is closed by close (any other failure also stops the node from accepting).
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * serve reads requests from a connection and writes the responses until the connection is closed.
+     *
+     * @param channel specifies the connection.
+     */
+    private void serve(SocketChannel channel) {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            while (running) {
+                final byte operation = in.readByte();
+                final int senderNode = in.readInt();
+                if (operation == ClusterProtocol.TRANSFER) {
+                    final long epoch = in.readLong();
+                    final long sequence = in.readLong();
+                    final String typeOfCar = in.readUTF();
+                    final int fuelRemaining = in.readInt();
+                    final int odometer = in.readInt();
+                    ClusterProtocol.writeResponse(out, new boolean[]{receiveCar(senderNode, epoch, sequence, typeOfCar, fuelRemaining, odometer)});
+                } else {
+                    final long origin = in.readLong();
+                    ClusterProtocol.writeResponse(out, handle(operation, senderNode, origin, ClusterProtocol.readLicenceNumbers(in)));
+                }
+            }
+        } catch (EOFException e) {
+            //The other node closed the connection.
+        } catch (IOException | IllegalArgumentException e) {
+            //The connection has failed or the request is invalid: the connection is dropped (and re-opened by the other node).
+        } finally {
+            connections.remove(channel);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                //Nothing more can be done with the connection.
+            }
+        }
+    }
+
+    /**
+     * receiveCar (is package private for testing) adds a car with the state of the car transferred to the depot of this node (see RentalManager.receiveCar), unless the transfer has already been received.
+     * A transfer resent by the sender (its response was lost) is answered as it was first answered, and an older transfer of the sender (delivered late) is ignored, as the sender no longer waits for it.
+     *
+     * @param senderNode    specifies the id of the node which sent the transfer.
+     * @param epoch         specifies the epoch of the transfer id.
+     * @param sequence      specifies the sequence of the transfer id within the epoch.
+     * @param typeOfCar     specifies the type of the car transferred.
+     * @param fuelRemaining specifies the fuel remaining of the car transferred.
+     * @param odometer      specifies the kilometres driven by the car transferred.
+     * @return returns true if the depot accepted the car.
+     */
+    boolean receiveCar(int senderNode, long epoch, long sequence, String typeOfCar, int fuelRemaining, int odometer) {
+        synchronized (receivedTransfers) {
+            ReceivedTransfer last = receivedTransfers.get(senderNode);
+            if (last != null && last.epoch == epoch && sequence <= last.sequence) {
+                return sequence == last.sequence && last.accepted;
+            }
+            final boolean accepted = depot.receiveCar(typeOfCar, fuelRemaining, odometer) != null;
+            receivedTransfers.put(senderNode, new ReceivedTransfer(epoch, sequence, accepted));
+            return accepted;
+        }
+    }
+
+    /**
+     * close stops the node from accepting requests, closes every connection and removes the socket file.
+     *
+     * @throws IOException in the event the socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        synchronized (peers) {
+            for (DepotClient peer : peers.values()) {
+                peer.close();
+            }
+            peers.clear();
+        }
+        for (SocketChannel channel : connections) {
+            channel.close();
+        }
+        Files.deleteIfExists(members.get(nodeId));
+    }
+
+    /**
+     * The PendingTransfer class is a transfer sent by this node whose outcome is not yet known: the car withdrawn and the sequence of the transfer id.
+     * The PendingTransfer class is immutable.
+     */
+    private static final class PendingTransfer {
+
+        private final Car car;
+        private final long sequence;
+
+        private PendingTransfer(Car car, long sequence) {
+            this.car = car;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * The ReceivedTransfer class is the last transfer received from a node: its id and whether the car was accepted.
+     * The ReceivedTransfer class is immutable.
+     */
+    private static final class ReceivedTransfer {
+
+        private final long epoch;
+        private final long sequence;
+        private final boolean accepted;
+
+        private ReceivedTransfer(long epoch, long sequence, boolean accepted) {
+            this.epoch = epoch;
+            this.sequence = sequence;
+            this.accepted = accepted;
+        }
+    }
+}
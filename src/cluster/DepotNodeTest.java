@@ -0,0 +1,298 @@
+package cluster;
+
+import cars.Car;
+import licences.DrivingLicence;
+import manager.RentalManager;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+public class DepotNodeTest {
+
+    /*
+    Start a cluster of local nodes (each with its own depot of five small cars).
+     */
+    private static List<DepotNode> startCluster(String name, int size) throws Exception {
+        Path directory = Files.createTempDirectory("depots");
+        List<Path> members = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            members.add(directory.resolve("node-" + i + ".sock"));
+        }
+        return startCluster(name, members);
+    }
+
+    private static List<DepotNode> startCluster(String name, List<Path> members) throws Exception {
+        List<DepotNode> nodes = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            RentalManager depot = RentalManager.getDepotInstance(name + "-" + i);
+            depot.provisionCars("small", 5);
+            nodes.add(DepotNode.start(i, members, depot));
+        }
+        return nodes;
+    }
+
+    /*
+    The home node of a licence of this process (as DepotNode.getHomeNode).
+     */
+    private static int getHomeNode(DrivingLicence licence, int size) {
+        return Math.floorMod((ProcessHandle.current().pid() + "/" + licence.getLicenceNumberAsString()).hashCode(), size);
+    }
+
+    private static void stopCluster(List<DepotNode> nodes) throws Exception {
+        for (DepotNode node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    public void issueCarValid() throws Exception {
+        List<DepotNode> nodes = startCluster("cluster-issue", 3);
+        try {
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            DrivingLicence licence = DrivingLicence.getInstance("Rick", "Deckard", birth, issue, true);
+            if (!nodes.get(0).issueCar(licence, "small")) {
+                fail();
+            }
+            //The licence holds a car at node 0 so no other node (nor node 0) should issue another.
+            if (nodes.get(1).issueCar(licence, "small") || nodes.get(2).issueCar(licence, "small") || nodes.get(0).issueCar(licence, "small")) {
+                fail();
+            }
+            //Once the rental is terminated the licence can rent from any node.
+            nodes.get(0).terminateRental(licence);
+            if (!nodes.get(2).issueCar(licence, "small")) {
+                fail();
+            }
+            nodes.get(2).terminateRental(licence);
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test
+    public void claimResent() throws Exception {
+        Path directory = Files.createTempDirectory("depots");
+        List<Path> members = Arrays.asList(directory.resolve("node-0.sock"), directory.resolve("node-1.sock"));
+        List<DepotNode> nodes = startCluster("cluster-claim-resent", members);
+        try {
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            DrivingLicence licence = DrivingLicence.getInstance("Pris", "Stratton", birth, issue, true);
+            //The claim of node 0 is recorded by the home node of the licence but its response is lost.
+            DepotClient client = new DepotClient(members.get(getHomeNode(licence, members.size())));
+            try {
+                client.request(ClusterProtocol.CLAIM, 0, ProcessHandle.current().pid(), Collections.singletonList(licence.getLicenceNumberAsString()));
+            } finally {
+                client.close();
+            }
+            //The claim resent by node 0 succeeds, while the licence is still refused by any other node.
+            if (!nodes.get(0).issueCar(licence, "small") || nodes.get(1).issueCar(licence, "small")) {
+                fail();
+            }
+            //A claim of the holder while the licence holds a car is refused by its depot and does not release the licence.
+            if (nodes.get(0).issueCar(licence, "small") || nodes.get(1).issueCar(licence, "small")) {
+                fail();
+            }
+            nodes.get(0).terminateRental(licence);
+            if (!nodes.get(1).issueCar(licence, "small")) {
+                fail();
+            }
+            nodes.get(1).terminateRental(licence);
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test
+    public void terminateRentalUnreachable() throws Exception {
+        Path directory = Files.createTempDirectory("depots");
+        List<Path> members = Arrays.asList(directory.resolve("node-0.sock"), directory.resolve("node-1.sock"));
+        List<DepotNode> nodes = startCluster("cluster-release-unreachable", members);
+        try {
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            //A licence whose home is node 1.
+            DrivingLicence licence;
+            do {
+                licence = DrivingLicence.getInstance("Zhora", "Salome", birth, issue, true);
+            } while (getHomeNode(licence, members.size()) != 1);
+            if (!nodes.get(0).issueCar(licence, "small")) {
+                fail();
+            }
+            nodes.get(0).getDepot().getCar(licence).drive(100);
+            RentalManager home = nodes.get(1).getDepot();
+            nodes.get(1).close();
+            //The rental is terminated (and its fuel reported) although the release cannot be sent.
+            if (nodes.get(0).terminateRental(licence) <= 0 || nodes.get(0).getDepot().isRenting(licence) || nodes.get(0).getNoPendingReleases() != 1) {
+                fail();
+            }
+            //Once the home node is reachable the release is resent.
+            nodes.set(1, DepotNode.start(1, members, home));
+            if (nodes.get(0).retryPendingReleases() != 1 || nodes.get(0).getNoPendingReleases() != 0) {
+                fail();
+            }
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test
+    public void holdsCar() throws Exception {
+        List<DepotNode> nodes = startCluster("cluster-held", 3);
+        try {
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            List<DrivingLicence> licences = new ArrayList<>();
+            List<String> licenceNumbers = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                DrivingLicence licence = DrivingLicence.getInstance("Roy", "Batty", birth, issue, true);
+                licences.add(licence);
+                licenceNumbers.add(licence.getLicenceNumberAsString());
+            }
+            //Issue cars to every other licence from different nodes.
+            for (int i = 0; i < licences.size(); i += 2) {
+                if (!nodes.get(i % 3).issueCar(licences.get(i), "small")) {
+                    fail();
+                }
+            }
+            //A single batched check from any node should see every rental.
+            boolean[] held = nodes.get(1).holdsCar(licenceNumbers);
+            for (int i = 0; i < held.length; i++) {
+                if (held[i] != (i % 2 == 0)) {
+                    fail();
+                }
+            }
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test
+    public void transferCar() throws Exception {
+        List<DepotNode> nodes = startCluster("cluster-transfer", 2);
+        try {
+            //Every car of node 0 is driven 120 kilometres (and refuelled), so the car transferred has a known odometer.
+            RentalManager depot = nodes.get(0).getDepot();
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            for (int i = 0; i < 5; i++) {
+                DrivingLicence licence = DrivingLicence.getInstance("Leon", "Kowalski", birth, issue, true);
+                depot.issueCar(licence, "small");
+                depot.getCar(licence).drive(120);
+                depot.terminateRental(licence);
+            }
+            while (depot.refuelCars() > 0) {
+                //Refuel every car.
+            }
+            if (!nodes.get(0).transferCar(1, "small")) {
+                fail();
+            }
+            if (depot.availableCars("small") != 4 || depot.getCars().size() != 4 || nodes.get(1).getDepot().availableCars("small") != 6) {
+                fail();
+            }
+            //The car received has the state of the car transferred.
+            int noDriven = 0;
+            for (Car car : nodes.get(1).getDepot().getCars()) {
+                if (car.getOdometer() == 120 && car.isFuelFull()) {
+                    noDriven++;
+                }
+            }
+            if (noDriven != 1 || nodes.get(0).getNoPendingTransfers() != 0) {
+                fail();
+            }
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test
+    public void transferCarUnreachable() throws Exception {
+        Path directory = Files.createTempDirectory("depots");
+        List<Path> members = Arrays.asList(directory.resolve("node-0.sock"), directory.resolve("node-1.sock"));
+        List<DepotNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            RentalManager depot = RentalManager.getDepotInstance("cluster-transfer-unreachable-" + i);
+            depot.provisionCars("small", 5);
+            nodes.add(DepotNode.start(i, members, depot));
+        }
+        try {
+            RentalManager target = nodes.get(1).getDepot();
+            nodes.get(1).close();
+            try {
+                nodes.get(0).transferCar(1, "small");
+                fail();
+            } catch (IOException e) {
+                //The outcome is unknown so the car is held by neither depot.
+            }
+            if (nodes.get(0).getNoPendingTransfers() != 1 || nodes.get(0).getDepot().availableCars("small") != 4) {
+                fail();
+            }
+            //Once the target node is reachable the transfer is resolved.
+            nodes.set(1, DepotNode.start(1, members, target));
+            if (nodes.get(0).retryPendingTransfers() != 1 || nodes.get(0).getNoPendingTransfers() != 0) {
+                fail();
+            }
+            if (nodes.get(0).getDepot().availableCars("small") != 4 || target.availableCars("small") != 6) {
+                fail();
+            }
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test
+    public void receiveCarResent() throws Exception {
+        List<DepotNode> nodes = startCluster("cluster-receive-resent", 2);
+        try {
+            RentalManager depot = nodes.get(1).getDepot();
+            //A transfer resent with the same id is answered again without adding a second car, and an older transfer is ignored.
+            if (!nodes.get(1).receiveCar(0, 7, 2, "SMALL", 30, 10) || !nodes.get(1).receiveCar(0, 7, 2, "SMALL", 30, 10) || nodes.get(1).receiveCar(0, 7, 1, "SMALL", 30, 10)) {
+                fail();
+            }
+            if (depot.getCars().size() != 6) {
+                fail();
+            }
+            //The car received keeps the fuel remaining and odometer sent (so it is queued for refuelling).
+            int noReceived = 0;
+            for (Car car : depot.getCars()) {
+                if (car.getOdometer() == 10 && car.getFuelRemaining() == 30) {
+                    noReceived++;
+                }
+            }
+            if (noReceived != 1 || depot.availableCars("small") != 5) {
+                fail();
+            }
+            //A transfer of a node which has restarted (a new epoch) is a new transfer.
+            if (!nodes.get(1).receiveCar(0, 8, 1, "SMALL", 30, 10) || depot.getCars().size() != 7) {
+                fail();
+            }
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void transferCarInvalid() throws Exception {
+        List<DepotNode> nodes = startCluster("cluster-transfer-invalid", 2);
+        try {
+            nodes.get(0).transferCar(0, "small");
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startInvalid() throws Exception {
+        DepotNode.start(2, Arrays.asList(Files.createTempFile("node", ".sock")), RentalManager.getInstance());
+    }
+}
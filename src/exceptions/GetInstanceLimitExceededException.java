@@ -3,6 +3,9 @@ package exceptions;
 /**
  * If generating an object will generate an illegal number of instances then a GetInstanceLimitExceededException can be thrown.
  * GetInstanceLimitExceededException is a custom exception which should provide some details of the operation however these aren't necessary).
+ * <p>
+ * A limit being reached is a normal event under load (i.e. a depot at its instance restriction, or every registration allocated), so the factories throw the exception without a stack trace (see the constructor with writableStackTrace),
+ * which is most of the cost of throwing. Callers which reach limits often should use the methods which report a limit as a result instead (i.e. RentalManager.tryProvisionCars and CarImplCarFactory.tryGetInstance).
  */
 public final class GetInstanceLimitExceededException extends Exception {
 
@@ -21,5 +24,14 @@ public final class GetInstanceLimitExceededException extends Exception {
         super(s);
     }
 
+    /**
+     * GetInstanceLimitExceededException() takes advantage of constructor overloading to allow the user to specify the details of the exception and whether it has a stack trace.
+     * An exception without a stack trace (which also does not record suppressed exceptions) is cheap to throw, so it suits a limit reached in the normal course of operation.
+     * @param s specifies reason for the exception occurring.
+     * @param writableStackTrace specifies whether the stack trace is filled in (false for a capacity signal).
+     */
+    public GetInstanceLimitExceededException(String s, boolean writableStackTrace) {
+        super(s, null, false, writableStackTrace);
+    }
 
 }
\ No newline at end of file
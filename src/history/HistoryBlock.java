@@ -0,0 +1,196 @@
+package history;
+
+import manager.RentalRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The HistoryBlock class is a sealed, immutable block of closed rentals stored in its own file.
+ * <p>
+ * A block file has a header (a magic number, the number of rentals and the earliest and latest return time of the rentals) followed by one column per field of the rentals.
+ * Each column holds the values of one field of every rental of the block as variable length integers (see VarInts)...
+ * (a) The return times are delta-encoded (each is stored as the difference to the previous return time).
+ * (b) The issue times are stored as the duration of the rental (the difference to the return time).
+ * (c) The kilometres and the fuel owed are stored as they are.
+ * (d) The licence numbers, registrations and types of car are stored as identifiers of the dictionaries of the store (see HistoryDictionary).
+ * Rentals are appended in the order they are closed, so the return times of a block are close together and most values take one or two bytes.
+ * <p>
+ * The header is kept in memory so a scan only reads the blocks whose time range overlaps the range scanned.
+ */
+final class HistoryBlock {
+
+    private static final int MAGIC = 0x52484231;
+
+    private final Path file;
+    private final int noRentals;
+    private final long earliestReturn;
+    private final long latestReturn;
+
+    /**
+     * HistoryBlock is a constructor for the header of a block.
+     *
+     * @param file           the file of the block.
+     * @param noRentals      the number of rentals in the block.
+     * @param earliestReturn the earliest return time of the rentals.
+     * @param latestReturn   the latest return time of the rentals.
+     */
+    private HistoryBlock(Path file, int noRentals, long earliestReturn, long latestReturn) {
+        this.file = file;
+        this.noRentals = noRentals;
+        this.earliestReturn = earliestReturn;
+        this.latestReturn = latestReturn;
+    }
+
+    /**
+     * write encodes rentals into a new block file.
+     *
+     * @param file          specifies the file to write (which must not exist).
+     * @param rentals       specifies the rentals (at least one).
+     * @param licences      specifies the dictionary of licence numbers.
+     * @param registrations specifies the dictionary of registrations.
+     * @param types         specifies the dictionary of types of car.
+     * @return returns the header of the block.
+     * @throws IOException in the event the file cannot be written.
+     */
+    static HistoryBlock write(Path file, List<RentalRecord> rentals, HistoryDictionary licences, HistoryDictionary registrations, HistoryDictionary types) throws IOException {
+        assert !rentals.isEmpty();
+        long earliestReturn = Long.MAX_VALUE;
+        long latestReturn = Long.MIN_VALUE;
+        for (RentalRecord rental : rentals) {
+            earliestReturn = Math.min(earliestReturn, rental.getReturnedAt());
+            latestReturn = Math.max(latestReturn, rental.getReturnedAt());
+        }
+        ByteArrayOutputStream columns = new ByteArrayOutputStream(rentals.size() * 8);
+        long previousReturn = earliestReturn;
+        for (RentalRecord rental : rentals) {
+            VarInts.writeSigned(columns, rental.getReturnedAt() - previousReturn);
+            previousReturn = rental.getReturnedAt();
+        }
+        for (RentalRecord rental : rentals) {
+            VarInts.write(columns, rental.getReturnedAt() - rental.getIssuedAt());
+        }
+        for (RentalRecord rental : rentals) {
+            VarInts.write(columns, rental.getKilometres());
+        }
+        for (RentalRecord rental : rentals) {
+            VarInts.write(columns, rental.getFuelNeeded());
+        }
+        for (RentalRecord rental : rentals) {
+            VarInts.write(columns, licences.getIdentifier(rental.getLicenceNumber()));
+        }
+        for (RentalRecord rental : rentals) {
+            VarInts.write(columns, registrations.getIdentifier(rental.getRegistration()));
+        }
+        for (RentalRecord rental : rentals) {
+            VarInts.write(columns, types.getIdentifier(rental.getTypeAsString()));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24 + columns.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(rentals.size());
+        out.writeLong(earliestReturn);
+        out.writeLong(latestReturn);
+        columns.writeTo(out);
+        out.flush();
+        Files.write(file, bytes.toByteArray());
+        return new HistoryBlock(file, rentals.size(), earliestReturn, latestReturn);
+    }
+
+    /**
+     * open reads the header of an existing block file.
+     *
+     * @param file specifies the file of the block.
+     * @return returns the header of the block.
+     * @throws IOException in the event the file cannot be read or is not a block file.
+     */
+    static HistoryBlock open(Path file) throws IOException {
+        try (InputStream fileIn = Files.newInputStream(file); DataInputStream in = new DataInputStream(fileIn)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a history block.");
+            }
+            return new HistoryBlock(file, in.readInt(), in.readLong(), in.readLong());
+        }
+    }
+
+    /**
+     * overlaps identifies if any rental of the block may have been returned in a time range.
+     *
+     * @param from specifies the start of the range (inclusive).
+     * @param to   specifies the end of the range (inclusive).
+     * @return returns true if the time range of the block overlaps the range.
+     */
+    boolean overlaps(long from, long to) {
+        return earliestReturn <= to && latestReturn >= from;
+    }
+
+    /**
+     * scan decodes the rentals of the block returned in a time range, optionally only those of one licence or one car.
+     *
+     * @param from           specifies the start of the range (inclusive).
+     * @param to             specifies the end of the range (inclusive).
+     * @param licenceId      specifies the identifier of the licence number to match, or -1 to match any licence.
+     * @param registrationId specifies the identifier of the registration to match, or -1 to match any car.
+     * @param licences       specifies the dictionary of licence numbers.
+     * @param registrations  specifies the dictionary of registrations.
+     * @param types          specifies the dictionary of types of car.
+     * @param results        specifies the list the matching rentals are added to (in the order they were appended).
+     * @throws IOException in the event the file cannot be read.
+     */
+    void scan(long from, long to, int licenceId, int registrationId, HistoryDictionary licences, HistoryDictionary registrations, HistoryDictionary types,
+              List<RentalRecord> results) throws IOException {
+        VarInts in = new VarInts(Files.readAllBytes(file), 24);
+        long[] returns = new long[noRentals];
+        long previousReturn = earliestReturn;
+        for (int i = 0; i < noRentals; i++) {
+            previousReturn += in.readSigned();
+            returns[i] = previousReturn;
+        }
+        long[] durations = readColumn(in);
+        long[] kilometres = readColumn(in);
+        long[] fuelNeeded = readColumn(in);
+        long[] licenceIds = readColumn(in);
+        long[] registrationIds = readColumn(in);
+        long[] typeIds = readColumn(in);
+        for (int i = 0; i < noRentals; i++) {
+            if (returns[i] < from || returns[i] > to || (licenceId >= 0 && licenceIds[i] != licenceId) || (registrationId >= 0 && registrationIds[i] != registrationId)) {
+                continue;
+            }
+            results.add(RentalRecord.getInstance(licences.getValue((int) licenceIds[i]), registrations.getValue((int) registrationIds[i]), types.getValue((int) typeIds[i]),
+                    returns[i] - durations[i], returns[i], (int) kilometres[i], (int) fuelNeeded[i]));
+        }
+    }
+
+    private long[] readColumn(VarInts in) {
+        long[] column = new long[noRentals];
+        for (int i = 0; i < noRentals; i++) {
+            column[i] = in.read();
+        }
+        return column;
+    }
+
+    /**
+     * getNoRentals returns the number of rentals in the block.
+     *
+     * @return returns the number of rentals.
+     */
+    int getNoRentals() {
+        return noRentals;
+    }
+
+    /**
+     * getSize returns the size of the block file.
+     *
+     * @return returns the size in bytes.
+     * @throws IOException in the event the size cannot be read.
+     */
+    long getSize() throws IOException {
+        return Files.size(file);
+    }
+}
@@ -0,0 +1,130 @@
+package history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HistoryDictionary class maps the strings of a column (i.e. licence numbers) to small integer identifiers so that blocks store each string only once.
+ * <p>
+ * Identifiers are allocated in order and never change. The dictionary is persisted to an append-only file of the strings in identifier order, so only the strings added since the last save are written.
+ * The HistoryDictionary class is not thread-safe, it is guarded by its owner (see RentalHistoryStore).
+ */
+final class HistoryDictionary {
+
+    private final Path file;
+    private final Map<String, Integer> identifiers = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private int noSaved;
+
+    /**
+     * HistoryDictionary is a constructor for a dictionary persisted to the specified file.
+     *
+     * @param file the file of the dictionary.
+     */
+    private HistoryDictionary(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * open opens the dictionary persisted to the specified file (or a new empty dictionary if the file does not exist).
+     *
+     * @param file specifies the file of the dictionary.
+     * @return returns the dictionary.
+     * @throws IOException in the event the file cannot be read.
+     */
+    static HistoryDictionary open(Path file) throws IOException {
+        HistoryDictionary dictionary = new HistoryDictionary(file);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                while (true) {
+                    String value;
+                    try {
+                        value = in.readUTF();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    dictionary.identifiers.put(value, dictionary.values.size());
+                    dictionary.values.add(value);
+                }
+            }
+            dictionary.noSaved = dictionary.values.size();
+        }
+        return dictionary;
+    }
+
+    /**
+     * getIdentifier returns the identifier of a string, allocating one if the string is not in the dictionary.
+     *
+     * @param value specifies the string.
+     * @return returns the identifier.
+     */
+    int getIdentifier(String value) {
+        Integer identifier = identifiers.get(value);
+        if (identifier == null) {
+            identifier = values.size();
+            identifiers.put(value, identifier);
+            values.add(value);
+        }
+        return identifier;
+    }
+
+    /**
+     * findIdentifier returns the identifier of a string without allocating one.
+     *
+     * @param value specifies the string.
+     * @return returns the identifier, or -1 if the string is not in the dictionary.
+     */
+    int findIdentifier(String value) {
+        Integer identifier = identifiers.get(value);
+        return identifier == null ? -1 : identifier;
+    }
+
+    /**
+     * getValue returns the string of an identifier.
+     *
+     * @param identifier specifies the identifier.
+     * @return returns the string.
+     */
+    String getValue(int identifier) {
+        return values.get(identifier);
+    }
+
+    /**
+     * save appends the strings added since the last save to the file of the dictionary.
+     *
+     * @throws IOException in the event the file cannot be written.
+     */
+    void save() throws IOException {
+        if (noSaved == values.size()) {
+            return;
+        }
+        try (OutputStream fileOut = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            for (int i = noSaved; i < values.size(); i++) {
+                out.writeUTF(values.get(i));
+            }
+        }
+        noSaved = values.size();
+    }
+
+    /**
+     * size returns the number of strings in the dictionary.
+     *
+     * @return returns the number of strings.
+     */
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,263 @@
+package history;
+
+import manager.RentalRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The RentalHistoryStore class is an append-only store of closed rentals (RentalRecord objects) kept in a directory on local disk, for audits and utilisation analysis.
+ * <p>
+ * Rentals are appended to an in-memory block which is sealed into a compact, columnar block file (see HistoryBlock) once it holds BLOCK_SIZE rentals or when the store is flushed.
+ * Licence numbers, registrations and types of car are dictionary-encoded by the store (see HistoryDictionary), the dictionaries being saved before any block which uses them.
+ * Scans by time range (optionally for one licence or one car) only read the blocks whose time range overlaps the range, so recent history is found without reading years of blocks.
+ * <p>
+ * Rentals which have not been flushed are lost if the process ends without closing the store.
+ * Operations on a store are synchronized on the store.
+ */
+public final class RentalHistoryStore implements Closeable {
+
+    /*
+    The number of rentals in a block.
+     */
+    static final int BLOCK_SIZE = 4096;
+
+    private static final String BLOCK_PREFIX = "block-";
+    private static final String BLOCK_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final HistoryDictionary licences;
+    private final HistoryDictionary registrations;
+    private final HistoryDictionary types;
+    /*
+    The sealed blocks (in the order they were written) and the rentals appended since the last block was sealed.
+     */
+    private final List<HistoryBlock> blocks;
+    private final List<RentalRecord> pending = new ArrayList<>();
+    private long noRentals;
+
+    /**
+     * RentalHistoryStore is a constructor for a store of the specified directory.
+     *
+     * @param directory     the directory of the store.
+     * @param licences      the dictionary of licence numbers.
+     * @param registrations the dictionary of registrations.
+     * @param types         the dictionary of types of car.
+     * @param blocks        the blocks already in the directory.
+     */
+    private RentalHistoryStore(Path directory, HistoryDictionary licences, HistoryDictionary registrations, HistoryDictionary types, List<HistoryBlock> blocks) {
+        this.directory = directory;
+        this.licences = licences;
+        this.registrations = registrations;
+        this.types = types;
+        this.blocks = blocks;
+        for (HistoryBlock block : blocks) {
+            noRentals += block.getNoRentals();
+        }
+    }
+
+    /**
+     * open opens the store kept in a directory (creating the directory if it does not exist).
+     *
+     * @param directory specifies the directory of the store.
+     * @return returns the RentalHistoryStore.
+     * @throws IOException in the event the directory or the files of the store cannot be read.
+     */
+    public static RentalHistoryStore open(Path directory) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null.");
+        }
+        Files.createDirectories(directory);
+        List<Path> blockFiles = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, BLOCK_PREFIX + "*" + BLOCK_SUFFIX)) {
+            for (Path file : files) {
+                blockFiles.add(file);
+            }
+        }
+        //Block files are numbered with a fixed width so the order of their names is the order they were written.
+        Collections.sort(blockFiles);
+        List<HistoryBlock> blocks = new ArrayList<>();
+        for (Path file : blockFiles) {
+            blocks.add(HistoryBlock.open(file));
+        }
+        return new RentalHistoryStore(directory, HistoryDictionary.open(directory.resolve("licences.dict")),
+                HistoryDictionary.open(directory.resolve("registrations.dict")), HistoryDictionary.open(directory.resolve("types.dict")), blocks);
+    }
+
+    /**
+     * append appends a closed rental to the store.
+     *
+     * @param rental specifies the record of the rental.
+     * @throws IOException in the event a full block cannot be written.
+     */
+    public synchronized void append(RentalRecord rental) throws IOException {
+        /*
+        Check parameters.
+         */
+        if (rental == null) {
+            throw new IllegalArgumentException("Rental cannot be null.");
+        }
+        pending.add(rental);
+        noRentals++;
+        if (pending.size() >= BLOCK_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * appendAll appends closed rentals to the store (i.e. the rentals drained from a depot, see RentalManager.drainClosedRentals).
+     *
+     * @param rentals specifies the records of the rentals.
+     * @throws IOException in the event a full block cannot be written.
+     */
+    public synchronized void appendAll(List<RentalRecord> rentals) throws IOException {
+        /*
+        Check parameters.
+         */
+        if (rentals == null) {
+            throw new IllegalArgumentException("Rentals cannot be null.");
+        }
+        for (RentalRecord rental : rentals) {
+            append(rental);
+        }
+    }
+
+    /**
+     * flush seals the rentals appended since the last block was sealed into a new block file.
+     *
+     * @throws IOException in the event the block or the dictionaries cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Path file = directory.resolve(String.format("%s%010d%s", BLOCK_PREFIX, blocks.size(), BLOCK_SUFFIX));
+        //Encoding the block allocates any new dictionary identifiers, so the dictionaries are saved after encoding but before the block is visible to a later open.
+        Path temporaryFile = directory.resolve(file.getFileName() + ".tmp");
+        HistoryBlock.write(temporaryFile, pending, licences, registrations, types);
+        licences.save();
+        registrations.save();
+        types.save();
+        Files.move(temporaryFile, file);
+        blocks.add(HistoryBlock.open(file));
+        pending.clear();
+    }
+
+    /**
+     * scan returns the rentals returned in a time range.
+     *
+     * @param from specifies the start of the range (milliseconds since the epoch, inclusive).
+     * @param to   specifies the end of the range (milliseconds since the epoch, inclusive).
+     * @return returns a list of the rentals (in the order they were appended).
+     * @throws IOException in the event a block cannot be read.
+     */
+    public synchronized List<RentalRecord> scan(long from, long to) throws IOException {
+        return scan(from, to, -1, -1);
+    }
+
+    /**
+     * scanByLicence returns the rentals of a licence returned in a time range.
+     *
+     * @param licenceNumber specifies the licence number.
+     * @param from          specifies the start of the range (milliseconds since the epoch, inclusive).
+     * @param to            specifies the end of the range (milliseconds since the epoch, inclusive).
+     * @return returns a list of the rentals (in the order they were appended).
+     * @throws IOException in the event a block cannot be read.
+     */
+    public synchronized List<RentalRecord> scanByLicence(String licenceNumber, long from, long to) throws IOException {
+        if (licenceNumber == null) {
+            throw new IllegalArgumentException("Licence number cannot be null.");
+        }
+        int licenceId = licences.findIdentifier(licenceNumber);
+        //Identifiers are allocated when a block is sealed, so a licence number without one can only be in the pending rentals.
+        return licenceId < 0 ? scanPending(from, to, licenceNumber, null) : scan(from, to, licenceId, -1);
+    }
+
+    /**
+     * scanByRegistration returns the rentals of a car returned in a time range.
+     *
+     * @param registration specifies the registration of the car.
+     * @param from         specifies the start of the range (milliseconds since the epoch, inclusive).
+     * @param to           specifies the end of the range (milliseconds since the epoch, inclusive).
+     * @return returns a list of the rentals (in the order they were appended).
+     * @throws IOException in the event a block cannot be read.
+     */
+    public synchronized List<RentalRecord> scanByRegistration(String registration, long from, long to) throws IOException {
+        if (registration == null) {
+            throw new IllegalArgumentException("Registration cannot be null.");
+        }
+        int registrationId = registrations.findIdentifier(registration);
+        return registrationId < 0 ? scanPending(from, to, null, registration) : scan(from, to, -1, registrationId);
+    }
+
+    /**
+     * scan returns the rentals returned in a time range matching the identifiers (see HistoryBlock.scan) from the sealed blocks and then the pending rentals.
+     */
+    private List<RentalRecord> scan(long from, long to, int licenceId, int registrationId) throws IOException {
+        List<RentalRecord> results = new ArrayList<>();
+        for (HistoryBlock block : blocks) {
+            if (block.overlaps(from, to)) {
+                block.scan(from, to, licenceId, registrationId, licences, registrations, types, results);
+            }
+        }
+        results.addAll(scanPending(from, to, licenceId < 0 ? null : licences.getValue(licenceId), registrationId < 0 ? null : registrations.getValue(registrationId)));
+        return results;
+    }
+
+    private List<RentalRecord> scanPending(long from, long to, String licenceNumber, String registration) {
+        if (from > to) {
+            throw new IllegalArgumentException("The start of the range cannot be after the end of the range.");
+        }
+        List<RentalRecord> results = new ArrayList<>();
+        for (RentalRecord rental : pending) {
+            if (rental.getReturnedAt() >= from && rental.getReturnedAt() <= to &&
+                    (licenceNumber == null || rental.getLicenceNumber().equals(licenceNumber)) &&
+                    (registration == null || rental.getRegistration().equals(registration))) {
+                results.add(rental);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * getNoRentals returns the number of rentals in the store (including those not yet flushed).
+     *
+     * @return returns the number of rentals.
+     */
+    public synchronized long getNoRentals() {
+        return noRentals;
+    }
+
+    /**
+     * getStoredBytes returns the size of the block files of the store.
+     *
+     * @return returns the size in bytes.
+     * @throws IOException in the event the size of a block cannot be read.
+     */
+    public synchronized long getStoredBytes() throws IOException {
+        long storedBytes = 0;
+        for (HistoryBlock block : blocks) {
+            storedBytes += block.getSize();
+        }
+        return storedBytes;
+    }
+
+    /**
+     * close flushes the store.
+     *
+     * @throws IOException in the event the last block cannot be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+    }
+}
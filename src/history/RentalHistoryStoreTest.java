@@ -0,0 +1,81 @@
+package history;
+
+import manager.RentalRecord;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+public class RentalHistoryStoreTest {
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private static RentalRecord getRental(int i) {
+        long returnedAt = 1000000000000L + i * HOUR;
+        return RentalRecord.getInstance("LICENCE-" + (i % 100), "a" + (i % 40), (i & 1) == 0 ? "SMALL" : "LARGE", returnedAt - (1 + i % 48) * HOUR, returnedAt, i % 700, i % 60);
+    }
+
+    @Test
+    public void scanValid() throws Exception {
+        Path directory = Files.createTempDirectory("history");
+        int noRentals = RentalHistoryStore.BLOCK_SIZE * 2 + 100;
+        try (RentalHistoryStore store = RentalHistoryStore.open(directory)) {
+            for (int i = 0; i < noRentals; i++) {
+                store.append(getRental(i));
+            }
+            //Scans should include the rentals which have not been flushed.
+            List<RentalRecord> rentals = store.scan(getRental(0).getReturnedAt(), getRental(noRentals - 1).getReturnedAt());
+            if (rentals.size() != noRentals || store.getNoRentals() != noRentals) {
+                fail();
+            }
+            RentalRecord rental = rentals.get(RentalHistoryStore.BLOCK_SIZE + 7);
+            RentalRecord expected = getRental(RentalHistoryStore.BLOCK_SIZE + 7);
+            if (!rental.getLicenceNumber().equals(expected.getLicenceNumber()) || !rental.getRegistration().equals(expected.getRegistration()) ||
+                    !rental.getTypeAsString().equals(expected.getTypeAsString()) || rental.getIssuedAt() != expected.getIssuedAt() ||
+                    rental.getReturnedAt() != expected.getReturnedAt() || rental.getKilometres() != expected.getKilometres() || rental.getFuelNeeded() != expected.getFuelNeeded()) {
+                fail();
+            }
+        }
+        //Reopening the store should find every rental (the last block was flushed on close) stored compactly.
+        try (RentalHistoryStore store = RentalHistoryStore.open(directory)) {
+            if (store.getNoRentals() != noRentals || store.getStoredBytes() > noRentals * 16L) {
+                fail();
+            }
+            List<RentalRecord> rentals = store.scan(getRental(10).getReturnedAt(), getRental(19).getReturnedAt());
+            if (rentals.size() != 10 || rentals.get(0).getReturnedAt() != getRental(10).getReturnedAt()) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void scanByLicenceAndRegistration() throws Exception {
+        Path directory = Files.createTempDirectory("history");
+        try (RentalHistoryStore store = RentalHistoryStore.open(directory)) {
+            for (int i = 0; i < 1000; i++) {
+                store.append(getRental(i));
+            }
+            store.flush();
+            store.append(getRental(1000));
+            //LICENCE-0 rented at 0, 100, ..., 1000 (the last not yet flushed).
+            if (store.scanByLicence("LICENCE-0", Long.MIN_VALUE, Long.MAX_VALUE).size() != 11) {
+                fail();
+            }
+            if (store.scanByRegistration("a3", getRental(0).getReturnedAt(), getRental(99).getReturnedAt()).size() != 3) {
+                fail();
+            }
+            if (!store.scanByLicence("UNKNOWN", Long.MIN_VALUE, Long.MAX_VALUE).isEmpty()) {
+                fail();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scanInvalid() throws Exception {
+        try (RentalHistoryStore store = RentalHistoryStore.open(Files.createTempDirectory("history"))) {
+            store.scan(10, 0);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package history;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * The VarInts class writes and reads variable length integers: 7 bits per byte (least significant first) with the top bit set on every byte but the last, so small values take few bytes.
+ * Signed values are zig-zag encoded first so that small negative values are also small.
+ */
+final class VarInts {
+
+    private final byte[] bytes;
+    private int position;
+
+    /**
+     * VarInts is a constructor for a reader of the variable length integers in a byte array.
+     *
+     * @param bytes    the bytes to read.
+     * @param position the position of the first byte to read.
+     */
+    VarInts(byte[] bytes, int position) {
+        this.bytes = bytes;
+        this.position = position;
+    }
+
+    /**
+     * write writes a non-negative value.
+     *
+     * @param out   specifies the stream to write to.
+     * @param value specifies the value.
+     */
+    static void write(ByteArrayOutputStream out, long value) {
+        assert value >= 0;
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * writeSigned writes a value which may be negative (zig-zag encoded).
+     *
+     * @param out   specifies the stream to write to.
+     * @param value specifies the value.
+     */
+    static void writeSigned(ByteArrayOutputStream out, long value) {
+        long zigZag = (value << 1) ^ (value >> 63);
+        //The zig-zag value is unsigned, so it is written with the same loop as write (without the assertion).
+        while ((zigZag & ~0x7FL) != 0) {
+            out.write((int) ((zigZag & 0x7F) | 0x80));
+            zigZag >>>= 7;
+        }
+        out.write((int) zigZag);
+    }
+
+    /**
+     * read reads the next non-negative value.
+     *
+     * @return returns the value.
+     */
+    long read() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position >= bytes.length || shift > 63) {
+                throw new IllegalStateException("Malformed variable length integer at " + position + ".");
+            }
+            b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * readSigned reads the next zig-zag encoded value.
+     *
+     * @return returns the value.
+     */
+    long readSigned() {
+        long zigZag = read();
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    /**
+     * getPosition returns the position of the next byte to read.
+     *
+     * @return returns the position.
+     */
+    int getPosition() {
+        return position;
+    }
+}
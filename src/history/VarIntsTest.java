@@ -0,0 +1,45 @@
+package history;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.fail;
+
+public class VarIntsTest {
+    @Test
+    public void readValid() throws Exception {
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (long value : values) {
+            VarInts.write(out, value);
+            VarInts.writeSigned(out, -value);
+        }
+        VarInts in = new VarInts(out.toByteArray(), 0);
+        for (long value : values) {
+            if (in.read() != value || in.readSigned() != -value) {
+                fail();
+            }
+        }
+        if (in.getPosition() != out.size()) {
+            fail();
+        }
+    }
+
+    @Test
+    public void writeSmallValues() throws Exception {
+        //Values below 128 (and signed values between -64 and 63) take a single byte.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VarInts.write(out, 127);
+        VarInts.writeSigned(out, -64);
+        VarInts.writeSigned(out, 63);
+        if (out.size() != 3) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readInvalid() throws Exception {
+        new VarInts(new byte[]{(byte) 0x80}, 0).read();
+    }
+}
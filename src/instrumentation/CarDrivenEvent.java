@@ -0,0 +1,59 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The CarDrivenEvent class is the flight recorder event of a journey of a rented car. Journeys are frequent so the event does not record a stack trace.
+ */
+@Name("rental.CarDriven")
+@Label("Car Driven")
+@Category("Car Rental")
+@Description("A rented car was driven (see Car.drive).")
+@StackTrace(false)
+public final class CarDrivenEvent extends Event {
+
+    //The type of the event, which is enabled only while a recording of the event is running.
+    private static final EventType TYPE = EventType.getEventType(CarDrivenEvent.class);
+
+    @Label("Registration")
+    private String registration;
+    @Label("Car Type")
+    private String type;
+    @Label("Kilometres")
+    private int kilometres;
+    @Label("Odometer")
+    private int odometer;
+
+    /**
+     * isRecorded returns whether the event is enabled in a running recording, so that a journey allocates no event (and forms no registration) while none is.
+     *
+     * @return returns true if the event is enabled.
+     */
+    public static boolean isRecorded() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * commit sets the fields of the event and commits it (if the event is enabled and lasted longer than its threshold).
+     *
+     * @param registration specifies the registration of the car.
+     * @param type         specifies the type of the car.
+     * @param kilometres   specifies the kilometres driven.
+     * @param odometer     specifies the kilometres driven by the car after the journey.
+     */
+    public void commit(String registration, String type, int kilometres, int odometer) {
+        if (shouldCommit()) {
+            this.registration = registration;
+            this.type = type;
+            this.kilometres = kilometres;
+            this.odometer = odometer;
+            commit();
+        }
+    }
+}
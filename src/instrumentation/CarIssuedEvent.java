@@ -0,0 +1,44 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The CarIssuedEvent class is the flight recorder event of the issue of a car, timed from the start of RentalManager.issueCar.
+ */
+@Name("rental.CarIssued")
+@Label("Car Issued")
+@Category("Car Rental")
+@Description("A car was issued to a driver (see RentalManager.issueCar).")
+public final class CarIssuedEvent extends Event {
+
+    @Label("Depot")
+    private String depot;
+    @Label("Licence Number")
+    private String licenceNumber;
+    @Label("Registration")
+    private String registration;
+    @Label("Car Type")
+    private String type;
+
+    /**
+     * commit sets the fields of the event and commits it (if the event is enabled and lasted longer than its threshold).
+     *
+     * @param depot         specifies the name of the depot.
+     * @param licenceNumber specifies the licence number of the driver.
+     * @param registration  specifies the registration of the car.
+     * @param type          specifies the type of the car.
+     */
+    public void commit(String depot, String licenceNumber, String registration, String type) {
+        if (shouldCommit()) {
+            this.depot = depot;
+            this.licenceNumber = licenceNumber;
+            this.registration = registration;
+            this.type = type;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The CarsProvisionedEvent class is the flight recorder event of the provisioning of cars to a depot, timed from the start of RentalManager.provisionCars.
+ */
+@Name("rental.CarsProvisioned")
+@Label("Cars Provisioned")
+@Category("Car Rental")
+@Description("Cars were created and added to the available cars of a depot (see RentalManager.provisionCars).")
+public final class CarsProvisionedEvent extends Event {
+
+    @Label("Depot")
+    private String depot;
+    @Label("Car Type")
+    private String type;
+    @Label("Cars")
+    private int noCars;
+
+    /**
+     * commit sets the fields of the event and commits it (if the event is enabled and lasted longer than its threshold).
+     *
+     * @param depot  specifies the name of the depot.
+     * @param type   specifies the type of the cars.
+     * @param noCars specifies the number of cars provisioned.
+     */
+    public void commit(String depot, String type, int noCars) {
+        if (shouldCommit()) {
+            this.depot = depot;
+            this.type = type;
+            this.noCars = noCars;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Counter class counts events (i.e. objects allocated or requests rejected) while instrumentation is enabled.
+ * Increments are striped across threads (see LongAdder) so a counter shared by every thread does not become a point of contention.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Counter is a constructor for a counter at zero (see Instrumentation.counter).
+     *
+     * @param name the name of the counter.
+     */
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * getName returns the name of the counter.
+     *
+     * @return returns the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * increment counts one event (if instrumentation is enabled).
+     */
+    public void increment() {
+        if (Instrumentation.isEnabled()) {
+            count.increment();
+        }
+    }
+
+    /**
+     * add counts a number of events (if instrumentation is enabled).
+     *
+     * @param events specifies the number of events.
+     */
+    public void add(long events) {
+        if (Instrumentation.isEnabled()) {
+            count.add(events);
+        }
+    }
+
+    /**
+     * get returns the number of events counted.
+     *
+     * @return returns the count.
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    /**
+     * reset sets the counter back to zero.
+     */
+    public void reset() {
+        count.reset();
+    }
+
+    /**
+     * toString returns the counter as a string.
+     *
+     * @return returns the following formatted string "name[count]".
+     */
+    @Override
+    public String toString() {
+        return name + "[" + get() + "]";
+    }
+}
@@ -0,0 +1,143 @@
+package instrumentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The Instrumentation class is the registry of the latency histograms and counters of the application, and the switch which turns them on and off.
+ * <p>
+ * Instrumented code times an operation with...
+ * long start = Instrumentation.start();
+ * ...
+ * HISTOGRAM.recordSince(start);
+ * where start returns DISABLED (and recordSince does nothing) while instrumentation is disabled, so disabled instrumentation costs a volatile read per operation.
+ * Counters likewise only count while instrumentation is enabled.
+ * <p>
+ * Instrumentation is enabled unless the system property "rental.instrumentation" is "false", and can be switched at any time with setEnabled.
+ * Histograms and counters are created on first use by name and live for the lifetime of the application (classes hold them in static fields).
+ * <p>
+ * The rental lifecycle is also emitted as Java Flight Recorder events (see CarIssuedEvent and the other events of the package, category "Car Rental") so that a recording
+ * can correlate garbage collection and lock contention with the rentals in flight. Events are independent of the switch above: they are only committed while a recording
+ * enables them (i.e. java -XX:StartFlightRecording), and cost almost nothing otherwise.
+ */
+public final class Instrumentation {
+
+    /*
+    The start time returned while instrumentation is disabled.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("rental.instrumentation"));
+
+    private Instrumentation() {
+    }
+
+    /**
+     * isEnabled returns whether instrumentation is enabled.
+     *
+     * @return returns true if latencies and counts are being recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * setEnabled switches instrumentation on or off (values already recorded are kept).
+     *
+     * @param enabled specifies whether latencies and counts should be recorded.
+     */
+    public static void setEnabled(boolean enabled) {
+        Instrumentation.enabled = enabled;
+    }
+
+    /**
+     * start returns the start time of an operation to be passed to LatencyHistogram.recordSince.
+     *
+     * @return returns System.nanoTime, or DISABLED if instrumentation is disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * histogram returns the latency histogram with a name, creating it if it does not exist.
+     *
+     * @param name specifies the name (by convention "Class.method").
+     * @return returns the LatencyHistogram.
+     */
+    public static LatencyHistogram histogram(String name) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null.");
+        }
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * counter returns the counter with a name, creating it if it does not exist.
+     *
+     * @param name specifies the name (by convention "Class.event").
+     * @return returns the Counter.
+     */
+    public static Counter counter(String name) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null.");
+        }
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * getHistograms returns every latency histogram (ordered by name).
+     *
+     * @return returns a list of the histograms.
+     */
+    public static List<LatencyHistogram> getHistograms() {
+        return new ArrayList<>(HISTOGRAMS.values());
+    }
+
+    /**
+     * getCounters returns every counter (ordered by name).
+     *
+     * @return returns a list of the counters.
+     */
+    public static List<Counter> getCounters() {
+        return new ArrayList<>(COUNTERS.values());
+    }
+
+    /**
+     * reset resets every latency histogram and counter.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            histogram.reset();
+        }
+        for (Counter counter : COUNTERS.values()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * getReport returns a summary of every latency histogram and counter, one per line.
+     *
+     * @return returns the report.
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            report.append(histogram).append('\n');
+        }
+        for (Counter counter : COUNTERS.values()) {
+            report.append(counter).append('\n');
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The IssueRejectedEvent class is the flight recorder event of a refused request to issue a car, timed from the start of RentalManager.issueCar.
+ */
+@Name("rental.IssueRejected")
+@Label("Issue Rejected")
+@Category("Car Rental")
+@Description("A request to issue a car was refused (see RentalManager.issueCar).")
+public final class IssueRejectedEvent extends Event {
+
+    @Label("Depot")
+    private String depot;
+    @Label("Licence Number")
+    private String licenceNumber;
+    @Label("Car Type")
+    private String type;
+    @Label("Reason")
+    private String reason;
+
+    /**
+     * commit sets the fields of the event and commits it (if the event is enabled and lasted longer than its threshold).
+     *
+     * @param depot         specifies the name of the depot.
+     * @param licenceNumber specifies the licence number of the driver.
+     * @param type          specifies the type of car requested.
+     * @param reason        specifies the reason the request was refused (see RejectionReason).
+     */
+    public void commit(String depot, String licenceNumber, String type, String reason) {
+        if (shouldCommit()) {
+            this.depot = depot;
+            this.licenceNumber = licenceNumber;
+            this.type = type;
+            this.reason = reason;
+            commit();
+        }
+    }
+}
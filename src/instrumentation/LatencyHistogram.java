@@ -0,0 +1,189 @@
+package instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LatencyHistogram class records latencies (in nanoseconds) into log-linear buckets in the style of an HDR histogram.
+ * <p>
+ * Values below SUB_BUCKETS have a bucket each. Above that each power of two is split into SUB_BUCKETS / 2 linear buckets, so the bucket of a value is found with a few bit operations
+ * and every value is recorded to within 1 / (SUB_BUCKETS / 2) (about 3%) of its true value, from nanoseconds up to the largest long, in a fixed number of buckets.
+ * <p>
+ * Recording is lock-free so the histogram can be shared by every thread: the bucket is incremented atomically, the count and total are striped across threads (see LongAdder, as Counter is)
+ * and the maximum is only written when a value exceeds it, so threads recording into the same histogram do not all update the same fields.
+ * Percentiles are read from the buckets while recording continues, so they are approximate while values are being recorded.
+ */
+public final class LatencyHistogram {
+
+    /*
+    The number of buckets below the first power of two which is split (a power of two).
+     */
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int NO_BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(NO_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * LatencyHistogram is a constructor for an empty histogram (see Instrumentation.histogram).
+     *
+     * @param name the name of the histogram.
+     */
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * getName returns the name of the histogram.
+     *
+     * @return returns the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * recordSince records the time elapsed since a start time returned by Instrumentation.start (nothing is recorded if instrumentation was disabled at the start).
+     *
+     * @param start specifies the start time.
+     */
+    public void recordSince(long start) {
+        if (start != Instrumentation.DISABLED) {
+            record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * record records a latency.
+     *
+     * @param nanoseconds specifies the latency (negative values are recorded as 0).
+     */
+    public void record(long nanoseconds) {
+        long value = Math.max(0, nanoseconds);
+        counts.incrementAndGet(getBucket(value));
+        count.increment();
+        total.add(value);
+        //The maximum is read (which does not contend) and only compared and set while the value exceeds it.
+        long currentMax = max.get();
+        while (value > currentMax) {
+            if (max.compareAndSet(currentMax, value)) {
+                break;
+            }
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * getBucket returns the bucket of a value.
+     *
+     * @param value specifies the (non-negative) value.
+     * @return returns the index of the bucket.
+     */
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS + 1;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * getLowestValue returns the lowest value recorded in a bucket.
+     *
+     * @param bucket specifies the index of the bucket.
+     * @return returns the lowest value of the bucket.
+     */
+    static long getLowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / HALF_SUB_BUCKETS - 1;
+        return (long) (bucket - shift * HALF_SUB_BUCKETS) << shift;
+    }
+
+    /**
+     * getCount returns the number of latencies recorded.
+     *
+     * @return returns the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * getMean returns the mean of the latencies recorded.
+     *
+     * @return returns the mean in nanoseconds (0 if nothing has been recorded).
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) total.sum() / recorded;
+    }
+
+    /**
+     * getMax returns the largest latency recorded.
+     *
+     * @return returns the largest latency in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * getPercentile returns the latency at or below which a percentage of the recorded latencies fall (the highest value of the bucket it falls in, capped at the maximum).
+     *
+     * @param percentile specifies the percentage (0-100).
+     * @return returns the latency in nanoseconds (0 if nothing has been recorded).
+     */
+    public long getPercentile(double percentile) {
+        /*
+        Check parameters.
+         */
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be a value between 0 and 100.");
+        }
+        long recorded = count.sum();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int bucket = 0; bucket < NO_BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                long highestValue = bucket + 1 < NO_BUCKETS ? getLowestValue(bucket + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(highestValue, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * reset forgets every latency recorded.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < NO_BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * toString returns a summary of the histogram.
+     *
+     * @return returns the following formatted string "name[count = count, mean = mean ns, p50 = p50 ns, p99 = p99 ns, p99.9 = p999 ns, max = max ns]".
+     */
+    @Override
+    public String toString() {
+        return name + "[count = " + getCount() + ", mean = " + Math.round(getMean()) + " ns, p50 = " + getPercentile(50) + " ns, p99 = " + getPercentile(99) +
+                " ns, p99.9 = " + getPercentile(99.9) + " ns, max = " + getMax() + " ns]";
+    }
+}
@@ -0,0 +1,68 @@
+package instrumentation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.fail;
+
+public class LatencyHistogramTest {
+    @Test
+    public void getBucketValid() {
+        //Small values have a bucket each, larger values are recorded to within 1/32 of their value.
+        if (LatencyHistogram.getBucket(0) != 0 || LatencyHistogram.getBucket(63) != 63 || LatencyHistogram.getBucket(64) != 64 || LatencyHistogram.getBucket(65) != 64) {
+            fail();
+        }
+        long[] values = {64, 100, 1000, 123456, 99999999999L, Long.MAX_VALUE};
+        for (long value : values) {
+            long lowestValue = LatencyHistogram.getLowestValue(LatencyHistogram.getBucket(value));
+            if (lowestValue > value || value - lowestValue > value / 32) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void getPercentileValid() {
+        LatencyHistogram histogram = Instrumentation.histogram("LatencyHistogramTest.percentiles");
+        histogram.reset();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        if (histogram.getCount() != 1000 || histogram.getMax() != 1000000 || histogram.getMean() != 500500) {
+            fail();
+        }
+        long median = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        if (median < 500000 || median > 500000 * 33 / 32 || p99 < 990000 || p99 > 990000 * 33 / 32 || histogram.getPercentile(100) != 1000000) {
+            fail();
+        }
+        histogram.reset();
+        if (histogram.getCount() != 0 || histogram.getPercentile(99) != 0) {
+            fail();
+        }
+    }
+
+    @Test
+    public void recordSinceDisabled() {
+        LatencyHistogram histogram = Instrumentation.histogram("LatencyHistogramTest.disabled");
+        histogram.reset();
+        Counter counter = Instrumentation.counter("LatencyHistogramTest.disabled");
+        counter.reset();
+        Instrumentation.setEnabled(false);
+        try {
+            histogram.recordSince(Instrumentation.start());
+            counter.increment();
+        } finally {
+            Instrumentation.setEnabled(true);
+        }
+        histogram.recordSince(Instrumentation.start());
+        counter.increment();
+        if (histogram.getCount() != 1 || counter.get() != 1 || Instrumentation.histogram("LatencyHistogramTest.disabled") != histogram) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getPercentileInvalid() {
+        Instrumentation.histogram("LatencyHistogramTest.invalid").getPercentile(101);
+    }
+}
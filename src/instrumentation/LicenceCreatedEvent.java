@@ -0,0 +1,36 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The LicenceCreatedEvent class is the flight recorder event of the creation of a driving licence, timed from the start of DrivingLicence.getInstance.
+ */
+@Name("rental.LicenceCreated")
+@Label("Licence Created")
+@Category("Car Rental")
+@Description("A driving licence was created (see DrivingLicence.getInstance).")
+public final class LicenceCreatedEvent extends Event {
+
+    @Label("Licence Number")
+    private String licenceNumber;
+    @Label("Full Licence")
+    private boolean full;
+
+    /**
+     * commit sets the fields of the event and commits it (if the event is enabled and lasted longer than its threshold).
+     *
+     * @param licenceNumber specifies the licence number.
+     * @param full          specifies whether the licence is a full licence.
+     */
+    public void commit(String licenceNumber, boolean full) {
+        if (shouldCommit()) {
+            this.licenceNumber = licenceNumber;
+            this.full = full;
+            commit();
+        }
+    }
+}
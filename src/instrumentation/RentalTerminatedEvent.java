@@ -0,0 +1,52 @@
+package instrumentation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The RentalTerminatedEvent class is the flight recorder event of the termination of a rental, timed from the start of RentalManager.terminateRental.
+ */
+@Name("rental.RentalTerminated")
+@Label("Rental Terminated")
+@Category("Car Rental")
+@Description("A rental was terminated and the car returned to its depot (see RentalManager.terminateRental).")
+public final class RentalTerminatedEvent extends Event {
+
+    @Label("Depot")
+    private String depot;
+    @Label("Licence Number")
+    private String licenceNumber;
+    @Label("Registration")
+    private String registration;
+    @Label("Car Type")
+    private String type;
+    @Label("Kilometres")
+    private int kilometres;
+    @Label("Fuel Needed")
+    private int fuelNeeded;
+
+    /**
+     * commit sets the fields of the event and commits it (if the event is enabled and lasted longer than its threshold).
+     *
+     * @param depot         specifies the name of the depot.
+     * @param licenceNumber specifies the licence number of the driver.
+     * @param registration  specifies the registration of the car.
+     * @param type          specifies the type of the car.
+     * @param kilometres    specifies the kilometres driven during the rental.
+     * @param fuelNeeded    specifies the fuel the driver owes.
+     */
+    public void commit(String depot, String licenceNumber, String registration, String type, int kilometres, int fuelNeeded) {
+        if (shouldCommit()) {
+            this.depot = depot;
+            this.licenceNumber = licenceNumber;
+            this.registration = registration;
+            this.type = type;
+            this.kilometres = kilometres;
+            this.fuelNeeded = fuelNeeded;
+            commit();
+        }
+    }
+}
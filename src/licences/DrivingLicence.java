@@ -1,53 +1,85 @@
 package licences;
 
 import exceptions.GetInstanceLimitExceededException;
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+import instrumentation.LatencyHistogram;
+import instrumentation.LicenceCreatedEvent;
+import registry.Registries;
+import registry.StrongRegistry;
 
-import java.util.Calendar;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 /**
  * The DrivingLicence class represents an object type used to represent users driving licences.
  * <p>
- * These are built from various fields i.e. birth-date, issue-date, unique driving licence number object, unique name object .etc.
- * The class either utilizes immutable final field variables or provides defensive copying as necessary.
- * To illustrate, for birth-date access to Date objects are encapsulated by get methods which implement defensive copying approaches.
+ * These are built from various fields i.e. birth-date, issue-date, unique driving licence number, unique name object .etc.
+ * The class utilizes immutable final field variables and provides defensive copying as necessary.
+ * To illustrate, the dates are held as milliseconds since the epoch and the get methods return new Date objects.
  * <p>
- * The DrivingLicence class utilizes a static factory method build pattern. Instances of the DrivingLicence class are guaranteed uniqueness in that they are provided them in a HashSet.
- * As per the conventions of a set this ensures the DrivingLicence is defined as an immutable object.
+ * A licence is held as primitives (the dates, the year of birth, the serial number and whether it is full) alongside its Name and the names as given, rather than as a Date for each date,
+ * a DrivingLicenceNumber and a string representation: the licence number (see getLicenceNumber) and the string representation (see toString) are formed the first time they are needed and then cached,
+ * as most licences are never printed.
+ * <p>
+ * The DrivingLicence class utilizes a static factory method build pattern. Instances of the DrivingLicence class are guaranteed uniqueness by their unique licence number, by which they are held in a registry (see StrongRegistry) so that getLicence finds a licence without a search.
+ * The registry is keyed by the licence number packed into a long (see LicenceDirectory.getKey), so no string is formed to register a licence.
+ * Licences are held until they expire, if an expiry period is set on the registry "DrivingLicence.licences" (see Registries.getRegistry), otherwise for the lifetime of the application.
  * The DrivingLicence class overrides the .equals and .hashcode methods for direct comparison.
  */
 public final class DrivingLicence {
-    private static final Set<DrivingLicence> LICENCES = new HashSet<DrivingLicence>();
-    private final Date birth;
-    private final Date issue;
-    private final DrivingLicenceNumber licenceNumber;
-    private final Name name;
+    /*
+    The licences by the key of their licence number. A licence is estimated as the object and its boxed key (72 bytes).
+     */
+    private static final StrongRegistry<Long, DrivingLicence> LICENCES = Registries.strong("DrivingLicence.licences", 72);
+    /*
+    The latency of getInstance and the number of licences created (see Instrumentation).
+     */
+    private static final LatencyHistogram GET_INSTANCE_LATENCY = Instrumentation.histogram("DrivingLicence.getInstance");
+    private static final Counter INSTANCES = Instrumentation.counter("DrivingLicence.instances");
+    //The read-only directory of licences not held in the registry (see getLicence).
+    private static volatile LicenceDirectory directory;
+    //The dates in milliseconds since the epoch.
+    private final long birth;
+    private final long issue;
+    //The serial number and year of birth of the licence number (the initials are those of the name).
+    private final int serialNumber;
+    private final short birthYear;
     private final boolean isFull;
-    private final String strRep;
+    private final Name name;
+    //The names as given (the Name is in uppercase), for the string representation.
+    private final String firstName;
+    private final String lastName;
+    //Formed by getLicenceNumber and toString (a race only forms equal objects twice).
+    private DrivingLicenceNumber licenceNumber;
+    private String strRep;
 
     /**
      * DrivingLicence is a constructor for a new DrivingLicence object.
      *
-     * @param birth         the date of birth of the driving licence holder (as a Date object).
-     * @param issue         the date of issue of the driving licence holder (as a Date object).
-     * @param licenceNumber the licence number of the driving licence holder.
-     * @param name          the name of the driving licence holder (as a Name object).
-     * @param isFull        specifies whether the licence is a full licence
-     * @param strRep        the string representation of the object.
+     * @param firstName    the first name of the driving licence holder (as given).
+     * @param lastName     the last name of the driving licence holder (as given).
+     * @param birth        the date of birth of the driving licence holder (in milliseconds since the epoch).
+     * @param issue        the date of issue of the driving licence (in milliseconds since the epoch).
+     * @param birthYear    the year of birth of the licence number.
+     * @param serialNumber the serial number of the licence number.
+     * @param name         the name of the driving licence holder (as a Name object).
+     * @param isFull       specifies whether the licence is a full licence
      */
-    private DrivingLicence(Date birth, Date issue, DrivingLicenceNumber licenceNumber, Name name, boolean isFull, String strRep) {
+    private DrivingLicence(String firstName, String lastName, long birth, long issue, int birthYear, int serialNumber, Name name, boolean isFull) {
+        this.firstName = firstName;
+        this.lastName = lastName;
         this.birth = birth;
-        this.licenceNumber = licenceNumber;
+        this.issue = issue;
+        this.birthYear = (short) birthYear;
+        this.serialNumber = serialNumber;
         this.name = name;
         this.isFull = isFull;
-        this.strRep = strRep;
-        this.issue = issue;
     }
 
     /**
      * getInstance returns a new instance of a DrivingLicence object given the respective parameters.
+     * The method is synchronized as licences (and the names and licence numbers they are built from) may be requested concurrently i.e. by the service layer.
      *
      * @param firstName the first name of the licence holder.
      * @param lastName  the last name of the licence holder.
@@ -57,45 +89,107 @@ public final class DrivingLicence {
      * @return returns a unique DrivingLicence object given the respective parameters.
      * @throws GetInstanceLimitExceededException a GetInstanceLimitExceededException should be handled by the client in the event that a requested instance cannot be generated.
      */
-    public final static DrivingLicence getInstance(String firstName, String lastName, Date birth, Date issue, boolean isFull) throws GetInstanceLimitExceededException {
+    public final static synchronized DrivingLicence getInstance(String firstName, String lastName, Date birth, Date issue, boolean isFull) throws GetInstanceLimitExceededException {
+        long start = Instrumentation.start();
+        LicenceCreatedEvent event = new LicenceCreatedEvent();
+        event.begin();
         /*
         Check parameters (since a public method throw exception if objects are null).
          */
         if (firstName == null || lastName == null || birth == null) {
             throw new IllegalArgumentException("Parameters cannot be a null object");
         } else {
-        /*
-        Defensive copying of mutable class.
-         */
-            birth = new Date(birth.getTime());
-            issue = new Date(issue.getTime());
             /*
-            Generate instance.
+            Generate instance (only the times of the mutable dates are kept, so they need not be copied).
              */
             Name name = Name.getInstance(firstName, lastName);
-            final char firstInitial = name.getFirstInitial();
-            final char lastInitial = name.getLastInitial();
-            DrivingLicenceNumber licenceNumber = DrivingLicenceNumber.getInstance(birth, firstInitial, lastInitial);
-            final String strRep = licenceNumber.toString() + "[" + firstName + ", " + lastName + ", is full licence = " + isFull + "]";
-            DrivingLicence drivingLicence = new DrivingLicence(birth, issue, licenceNumber, name, isFull, strRep);
-            LICENCES.add(drivingLicence);
+            final long birthTime = birth.getTime();
+            final int birthYear = DrivingLicenceNumber.getYear(birthTime);
+            //For testing purposes we assert the date entered will be between 1900-2999 (the initials are those of a valid Name).
+            assert birthYear >= 1900 && birthYear <= 2999;
+            final int serialNumber = DrivingLicenceNumber.allocateSerialNumbers(1);
+            DrivingLicence drivingLicence = new DrivingLicence(firstName, lastName, birthTime, issue.getTime(), birthYear, serialNumber, name, isFull);
+            LICENCES.put(drivingLicence.getKey(), drivingLicence);
+            INSTANCES.increment();
+            GET_INSTANCE_LATENCY.recordSince(start);
+            //The licence number is only formed for an event which is recorded.
+            if (event.shouldCommit()) {
+                event.commit(drivingLicence.getLicenceNumberAsString(), isFull);
+            }
             return drivingLicence;
         }
     }
 
     /**
-     * getLicence gets a licence by its string representation.
+     * getValidatedInstance returns a new DrivingLicence built from parameters already validated by the caller (is package private, see LicenceImporter).
+     * The licence is not published (see publish) so it cannot be found by getLicence until it is.
+     *
+     * @param firstName    the first name of the licence holder (as given, for the string representation).
+     * @param lastName     the last name of the licence holder (as given, for the string representation).
+     * @param birth        the date of birth of the licence holder (in milliseconds since the epoch).
+     * @param issue        the date of issue of the licence (in milliseconds since the epoch).
+     * @param birthYear    the year of birth of the licence number (1900-2999).
+     * @param serialNumber a serial number allocated by DrivingLicenceNumber.allocateSerialNumbers.
+     * @param name         the name of the licence holder (the initials of which are those of the licence number).
+     * @param isFull       specifies whether the licence is a full licence.
+     * @return returns a new DrivingLicence object.
+     */
+    static DrivingLicence getValidatedInstance(String firstName, String lastName, long birth, long issue, int birthYear, int serialNumber, Name name, boolean isFull) {
+        assert birthYear >= 1900 && birthYear <= 2999 && serialNumber > 0;
+        return new DrivingLicence(firstName, lastName, birth, issue, birthYear, serialNumber, name, isFull);
+    }
+
+    /**
+     * getUnregisteredInstance returns a new instance of a DrivingLicence object as getInstance does, but the licence is not added to the registry of licences, so it is held only by the caller and cannot be found by getLicence.
+     * Unregistered licences are intended for the drivers of simulations (see simulation.SimulationContext), which would otherwise be held for the lifetime of the application.
+     * The method is not synchronized, the serial number of the licence is allocated from an atomic counter (see DrivingLicenceNumber) so licences are unique whether or not they are registered.
+     *
+     * @param firstName the first name of the licence holder.
+     * @param lastName  the last name of the licence holder.
+     * @param birth     the birth date of the licence holder.
+     * @param issue     the date the licence is issued.
+     * @param isFull    a boolean representing whether or not the licence is full.
+     * @return returns a unique DrivingLicence object given the respective parameters.
+     * @throws GetInstanceLimitExceededException a GetInstanceLimitExceededException should be handled by the client in the event that a requested instance cannot be generated.
+     */
+    public static DrivingLicence getUnregisteredInstance(String firstName, String lastName, Date birth, Date issue, boolean isFull) throws GetInstanceLimitExceededException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (firstName == null || lastName == null || birth == null || issue == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        Name name = Name.getInstance(firstName, lastName);
+        final long birthTime = birth.getTime();
+        final int birthYear = DrivingLicenceNumber.getYear(birthTime);
+        assert birthYear >= 1900 && birthYear <= 2999;
+        return new DrivingLicence(firstName, lastName, birthTime, issue.getTime(), birthYear, DrivingLicenceNumber.allocateSerialNumbers(1), name, isFull);
+    }
+
+    /**
+     * publish adds a batch of licences to the registry of licences (is package private, see LicenceImporter), taking the lock of the registry once for the batch.
+     *
+     * @param licences specifies the licences.
+     */
+    static void publish(List<DrivingLicence> licences) {
+        LICENCES.putAll(licences, DrivingLicence::getKey);
+        INSTANCES.add(licences.size());
+    }
+
+    /**
+     * getLicence gets a licence by its string representation. The registry of licences is synchronized so this does not wait for licences being created.
+     * A licence which is not in the registry is looked up in the licence directory, if one is set (see setDirectory).
      *
      * @param licenceNumber specifies the string representation of the licence.
      * @return returns the DrivingLicence object corresponding to that licence.
      * @throws IllegalArgumentException throws an IllegalArgumentException if that licence does not exist be found.
      */
     public final static DrivingLicence getLicence(String licenceNumber) throws IllegalArgumentException {
-        DrivingLicence licence = null;
-        for (DrivingLicence licenceEntry : LICENCES) {
-            if (licenceEntry.getLicenceNumber().toString().equals(licenceNumber)) {
-                licence = licenceEntry;
-            }
+        long key = licenceNumber == null ? -1 : LicenceDirectory.getKey(licenceNumber);
+        DrivingLicence licence = key < 0 ? null : LICENCES.get(key);
+        LicenceDirectory licenceDirectory = directory;
+        if (licence == null && licenceNumber != null && licenceDirectory != null) {
+            licence = licenceDirectory.getLicence(licenceNumber);
         }
         if (licence == null) {
             throw new IllegalArgumentException("The licence does not exist.");
@@ -114,16 +208,83 @@ public final class DrivingLicence {
         /*
         Defensive copying of mutable class.
          */
-        return new Date(birth.getTime());
+        return new Date(birth);
     }
 
     /**
-     * getLicenceNumber allows access to the DrivingLicenceNumber object  number of the object.
+     * setDirectory sets the licence directory getLicence falls back to (i.e. a directory of the licences of a nightly export, see LicenceDirectory), so those licences need not be held on the heap.
+     *
+     * @param licenceDirectory specifies the LicenceDirectory (null to remove the directory).
+     */
+    public static void setDirectory(LicenceDirectory licenceDirectory) {
+        directory = licenceDirectory;
+    }
+
+    /**
+     * getBirthTime returns the date of birth of the licence holder without copying it (is package private, see LicenceDirectory).
+     *
+     * @return returns the date of birth in milliseconds since the epoch.
+     */
+    long getBirthTime() {
+        return birth;
+    }
+
+    /**
+     * getIssueTime returns the date of issue of the licence (is package private, see LicenceDirectory).
+     *
+     * @return returns the date of issue in milliseconds since the epoch.
+     */
+    long getIssueTime() {
+        return issue;
+    }
+
+    /**
+     * getKey returns the licence number packed into a long (is package private, see LicenceDirectory.getKey).
+     *
+     * @return returns the key of the licence number.
+     */
+    long getKey() {
+        return LicenceDirectory.getKey(name.getFirstInitial(), name.getLastInitial(), birthYear, serialNumber);
+    }
+
+    /**
+     * getGivenFirstName returns the first name of the licence holder as it was given (is package private, see LicenceDirectory), the Name being in uppercase.
+     *
+     * @return returns the first name.
+     */
+    String getGivenFirstName() {
+        return firstName;
+    }
+
+    /**
+     * getGivenLastName returns the last name of the licence holder as it was given (is package private, see LicenceDirectory).
+     *
+     * @return returns the last name.
+     */
+    String getGivenLastName() {
+        return lastName;
+    }
+
+    /**
+     * getLicenceNumber allows access to the DrivingLicenceNumber object  number of the object, which is formed the first time it is needed.
      *
      * @return returns the DrivingLicenceNumber object corresponding to the driving licence holder.
      */
     public DrivingLicenceNumber getLicenceNumber() {
-        return licenceNumber;
+        DrivingLicenceNumber number = licenceNumber;
+        if (number == null) {
+            licenceNumber = number = DrivingLicenceNumber.getInstance(name.getFirstInitial(), name.getLastInitial(), birthYear, serialNumber);
+        }
+        return number;
+    }
+
+    /**
+     * getLicenceNumberAsString returns the string representation of the licence number of the object (i.e. "AA-1993-01").
+     *
+     * @return returns the licence number as a String.
+     */
+    public final String getLicenceNumberAsString() {
+        return getLicenceNumber().toString();
     }
 
     /**
@@ -142,12 +303,8 @@ public final class DrivingLicence {
      * @return returns the age of the driving licence holder.
      */
     public final int getAge() {
-        Calendar birthDate = Calendar.getInstance();
-        //Use the birth date from the stored Date object to set the time of the calender object (which retrieves the year).
-        birthDate.setTime(getBirth());
-        Calendar today = Calendar.getInstance();
-        //Return as respective int.
-        return today.get(Calendar.YEAR) - birthDate.get(Calendar.YEAR);
+        //The year of birth is that of the licence number.
+        return DrivingLicenceNumber.getYear(System.currentTimeMillis()) - birthYear;
     }
 
     /**
@@ -156,12 +313,7 @@ public final class DrivingLicence {
      * @return returns the age of the driving licence.
      */
     public final int getYearsHeld() {
-        Calendar issueDate = Calendar.getInstance();
-        //Use the issue date from the stored Date object to set the time of the calender object (which retrieves the year).
-        issueDate.setTime(issue);
-        Calendar today = Calendar.getInstance();
-        //Return as respective int.
-        return today.get(Calendar.YEAR) - issueDate.get(Calendar.YEAR);
+        return DrivingLicenceNumber.getYear(System.currentTimeMillis()) - DrivingLicenceNumber.getYear(issue);
     }
 
     /**
@@ -176,12 +328,20 @@ public final class DrivingLicence {
     /**
      * Overrides the toString method such that the string representation of an object is given by...
      * Licence Number + "[" + firstName + ", " + lastName + ", is full licence = " + isFull + "]
+     * The string is formed the first time it is needed, and then cached.
      *
      * @return returns the string representation of the object.
      */
     @Override
     public final String toString() {
-        return strRep;
+        String string = strRep;
+        if (string == null) {
+            StringBuilder out = new StringBuilder(firstName.length() + lastName.length() + 48);
+            DrivingLicenceNumber.formatTo(out, name.getFirstInitial(), name.getLastInitial(), birthYear, serialNumber);
+            out.append('[').append(firstName).append(", ").append(lastName).append(", is full licence = ").append(isFull).append(']');
+            strRep = string = out.toString();
+        }
+        return string;
     }
 
     @Override
@@ -207,16 +367,20 @@ public final class DrivingLicence {
         If the object is of the correct instance then we can perform a type conversion (or a cast) to this kind of object.
          */
         DrivingLicence licence = (DrivingLicence) object;
-        return isFull == licence.isFull && getBirth().equals(licence.getBirth()) && licenceNumber.equals(licence.licenceNumber) && name.equals(licence.name) && strRep.equals(licence.strRep);
+        //The fields the string representation is formed from are compared rather than the strings.
+        return isFull == licence.isFull && birth == licence.birth && serialNumber == licence.serialNumber && birthYear == licence.birthYear && name.equals(licence.name) &&
+                firstName.equals(licence.firstName) && lastName.equals(licence.lastName);
     }
 
     @Override
     public int hashCode() {
-        int result = getBirth().hashCode();
-        result = 31 * result + licenceNumber.hashCode();
+        int result = Long.hashCode(birth);
+        result = 31 * result + serialNumber;
+        result = 31 * result + birthYear;
         result = 31 * result + name.hashCode();
         result = 31 * result + (isFull ? 1 : 0);
-        result = 31 * result + strRep.hashCode();
+        result = 31 * result + firstName.hashCode();
+        result = 31 * result + lastName.hashCode();
         return result;
     }
 }
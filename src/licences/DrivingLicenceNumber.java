@@ -2,29 +2,46 @@ package licences;
 
 import exceptions.GetInstanceLimitExceededException;
 
-import java.util.Calendar;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The DrivingLicenceNumber class is an immutable class which stores DrivingLicenceNumber object.
  * The class is responsible for generating DrivingLicencenNumbers to the defined format "[First Initial][Last Initial]-[Birth date (YEAR)]-[Unique Serial Number]".
  * A DrivingLicenceNumber is always unique to serial i.e. if AA-1993-01 exists, the next licence number will be AA-1993-02, or AB-1993-01, and so on.
- * Only the string representation of those numbers is stored. This information is stored in a set to guarantee uniqueness.
+ * Uniqueness is guaranteed by the serial number, which is allocated from an atomic counter (so licence numbers need not be held once they are no longer in use).
+ * <p>
+ * Only the initials, the year of birth and the serial number are stored; the string representation is formed the first time it is needed and then cached.
  */
 final class DrivingLicenceNumber {
-    private final static Set<DrivingLicenceNumber> DRIVING_LICENCE_NUMBERS = new HashSet<>();
-    private final String strRep;
+    //The last serial number allocated.
+    private final static AtomicInteger SERIAL_NUMBER = new AtomicInteger();
+    //The time zone years of birth are taken in (as a Calendar would take them).
+    private final static ZoneId ZONE = ZoneId.systemDefault();
+    private final char firstInitial;
+    private final char lastInitial;
+    private final short birthYear;
+    private final int serialNumber;
+    //Formed by toString (a race only forms an equal string twice).
+    private String strRep;
 
     /**
-     * DrivingLicenceNumber is a constructor for a DrivingLicenceNumber object by given string representation.
-     * This should only be accessed by the getInstance method of the class. The static keyword entails that this method cannot be accessed by any instance of the class.
+     * DrivingLicenceNumber is a constructor for a DrivingLicenceNumber object by given fields.
+     * This should only be accessed by the getInstance methods of the class.
      *
-     * @param strRep specifies the string representation of the object.
+     * @param firstInitial specifies the first initial.
+     * @param lastInitial  specifies the last initial.
+     * @param birthYear    specifies the year of birth.
+     * @param serialNumber specifies the serial number.
      */
-    private DrivingLicenceNumber(String strRep) {
-        this.strRep = strRep;
+    private DrivingLicenceNumber(char firstInitial, char lastInitial, int birthYear, int serialNumber) {
+        this.firstInitial = firstInitial;
+        this.lastInitial = lastInitial;
+        this.birthYear = (short) birthYear;
+        this.serialNumber = serialNumber;
     }
 
 
@@ -44,41 +61,68 @@ final class DrivingLicenceNumber {
         Check parameters.
          */
         assert birth != null;
-
-        /*
-        Defensive copying for the mutable class "Date": without this it would be possible to use the reference of the parameter passed to the constructor to make changes (note the 'getTime' method returns a long value).
-         */
-        birth = new Date(birth.getTime());
-
-        /*
-        Type conversion of input parameters into a string for validation.
-         */
-        String firstInitialString = String.valueOf(firstInitial);
-        String lastInitialString = String.valueOf(lastInitial);
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(birth);
-        final short birthYear = (short) cal.get(Calendar.YEAR);
-        if (firstInitialString.matches("^[A-Z]$") && lastInitialString.matches("^[A-Z]$")) {
+        final int birthYear = getYear(birth.getTime());
+        //The initials are checked as characters, rather than as strings matched to "^[A-Z]$", so that no strings are created.
+        if (isInitial(firstInitial) && isInitial(lastInitial)) {
             //Assertions.
-            // Keeping in mind calender as a module should be able to determine the year (as implemented by Oracle)
             // For testing purposes we assert the date entered will be between 1900-2999.
-            assert firstInitialString.matches("^[A-Z]$");
-            assert lastInitialString.matches("^[A-Z]$");
-            assert String.valueOf(birthYear).matches("((19)[0-9]{2}|(2)[0-9]{3})");
+            assert birthYear >= 1900 && birthYear <= 2999;
             //Generate a new unique serial number.
             final int serialNumber = getNextSerialNumber();
-            //Create a string representation of the first initial., last initial, birth year, and the new licence number.
-            String strRep = String.valueOf(firstInitial) + String.valueOf(lastInitial) + "-" + birthYear + "-" + serialNumber;
-            //Construct a new Driving Licence Number object with that unique string representation attributed.
-            DrivingLicenceNumber drivingLicenceNumber = new DrivingLicenceNumber(strRep);
-            //Add it to the set.
-            DRIVING_LICENCE_NUMBERS.add(drivingLicenceNumber);
-            return drivingLicenceNumber;
+            return new DrivingLicenceNumber(firstInitial, lastInitial, birthYear, serialNumber);
         } else {
             throw new IllegalArgumentException("The parameters entered are invalid.");
         }
     }
 
+    /**
+     * getInstance returns a DrivingLicenceNumber of a serial number already allocated (is package private, see LicenceImporter), the parameters having been validated by the caller.
+     *
+     * @param firstInitial specifies the first initial (an uppercase letter).
+     * @param lastInitial  specifies the last initial (an uppercase letter).
+     * @param birthYear    specifies the year of birth (1900-2999).
+     * @param serialNumber specifies a serial number allocated by allocateSerialNumbers.
+     * @return returns a unique DrivingLicenceNumber object.
+     */
+    static DrivingLicenceNumber getInstance(char firstInitial, char lastInitial, int birthYear, int serialNumber) {
+        assert firstInitial >= 'A' && firstInitial <= 'Z' && lastInitial >= 'A' && lastInitial <= 'Z';
+        assert birthYear >= 1900 && birthYear <= 2999;
+        return new DrivingLicenceNumber(firstInitial, lastInitial, birthYear, serialNumber);
+    }
+
+    /**
+     * getYear returns the year of a time in the default time zone (is package private, see DrivingLicence), as Calendar.get(Calendar.YEAR) would but without creating a Calendar.
+     *
+     * @param time specifies the time in milliseconds since the epoch.
+     * @return returns the year.
+     */
+    static int getYear(long time) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(time), ZONE).getYear();
+    }
+
+    private static boolean isInitial(char initial) {
+        return initial >= 'A' && initial <= 'Z';
+    }
+
+    /**
+     * allocateSerialNumbers allocates a block of consecutive serial numbers (is package private, see LicenceImporter) so that a bulk import does not contend on the serial number for every licence.
+     *
+     * @param noSerialNumbers specifies the number of serial numbers in the block.
+     * @return returns the first serial number of the block.
+     * @throws GetInstanceLimitExceededException in the event that the block would exceed the maximum number of licences.
+     */
+    static int allocateSerialNumbers(int noSerialNumbers) throws GetInstanceLimitExceededException {
+        assert noSerialNumbers > 0;
+        int serialNumber;
+        do {
+            serialNumber = SERIAL_NUMBER.get();
+            if (serialNumber > Integer.MAX_VALUE - noSerialNumbers) {
+                throw new GetInstanceLimitExceededException("The maximum number of licences that can be generated with these values has been reached", false);
+            }
+        } while (!SERIAL_NUMBER.compareAndSet(serialNumber, serialNumber + noSerialNumbers));
+        return serialNumber + 1;
+    }
+
     /**
      * getNextSerialNumber attempts to generate the next serialNumber applicable for Driving Licences.
      *
@@ -86,21 +130,37 @@ final class DrivingLicenceNumber {
      * @throws GetInstanceLimitExceededException in the event that the maximum number of licences of a particular kind have already been generated.
      */
     private static int getNextSerialNumber() throws GetInstanceLimitExceededException {
-        final int numberOfLicences = DRIVING_LICENCE_NUMBERS.size();
-        if (numberOfLicences == Integer.MAX_VALUE) {
-            throw new GetInstanceLimitExceededException("The maximum number of licences that can be generated with these values has been reached");
-        }
-        return numberOfLicences + 1;
+        return allocateSerialNumbers(1);
     }
 
     /**
-     * toString generates the string representation of the object.
+     * formatTo appends the string representation of a licence number to a StringBuilder (is package private, see DrivingLicence.toString, which forms it without a DrivingLicenceNumber).
+     *
+     * @param out          specifies the StringBuilder to append to.
+     * @param firstInitial specifies the first initial.
+     * @param lastInitial  specifies the last initial.
+     * @param birthYear    specifies the year of birth.
+     * @param serialNumber specifies the serial number.
+     */
+    static void formatTo(StringBuilder out, char firstInitial, char lastInitial, int birthYear, int serialNumber) {
+        out.append(firstInitial).append(lastInitial).append('-').append(birthYear).append('-').append(serialNumber);
+    }
+
+    /**
+     * toString generates the string representation of the object the first time it is called, and then returns the same string.
      *
      * @return returns a direct string representation of the licence number i.e. "AA-1993-01".
      */
     @Override
     public final String toString() {
-        return strRep;
+        String string = strRep;
+        if (string == null) {
+            //The licence number is at most 19 characters.
+            StringBuilder out = new StringBuilder(19);
+            formatTo(out, firstInitial, lastInitial, birthYear, serialNumber);
+            strRep = string = out.toString();
+        }
+        return string;
     }
 
     @Override
@@ -134,13 +194,14 @@ final class DrivingLicenceNumber {
         /*
         At this stage we can safely investigate the fields of the object.
          */
-        return drivingLicenceNumber.strRep.equals(strRep);
+        return drivingLicenceNumber.serialNumber == serialNumber && drivingLicenceNumber.birthYear == birthYear &&
+                drivingLicenceNumber.firstInitial == firstInitial && drivingLicenceNumber.lastInitial == lastInitial;
     }
 
     @Override
     public final int hashCode() {
-        int prime = 31;
-        // Return the prime value in addition to String.hashcode() with a check for nulls (the object should not be null but just in case).
-        return prime + (strRep == null ? 0 : strRep.hashCode());
+        int result = 31 * firstInitial + lastInitial;
+        result = 31 * result + birthYear;
+        return 31 * result + serialNumber;
     }
 }
@@ -81,5 +81,20 @@ public class DrivingLicenceTest {
         }
     }
 
-
-}
\ No newline at end of file
+    @Test
+    public void getUnregisteredInstanceValid() throws Exception {
+        Date birth = new GregorianCalendar(1970, 0, 1).getTime();
+        Date issue = new GregorianCalendar(2000, 0, 1).getTime();
+        DrivingLicence licence = DrivingLicence.getUnregisteredInstance("Test", "Timmy", birth, issue, true);
+        if (licence.equals(DrivingLicence.getUnregisteredInstance("Test", "Timmy", birth, issue, true)) || !licence.isFull()) {
+            fail();
+        }
+        //An unregistered licence cannot be found by its licence number.
+        try {
+            DrivingLicence.getLicence(licence.getLicenceNumberAsString());
+            fail();
+        } catch (IllegalArgumentException e) {
+            //Expected.
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package licences;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The ImportResult class is the outcome of a bulk import of licences (see LicenceImporter): the number of licences imported and the number of lines rejected, with the reasons for the first rejections.
+ * <p>
+ * The ImportResult class is immutable.
+ */
+public final class ImportResult {
+
+    private final long noImported;
+    private final long noRejected;
+    private final List<String> rejections;
+
+    /**
+     * ImportResult is a constructor for a new ImportResult object (is package private, see LicenceImporter).
+     *
+     * @param noImported the number of licences imported.
+     * @param noRejected the number of lines rejected.
+     * @param rejections the reasons for the first rejections (i.e. "offset 120: the date of birth is invalid").
+     */
+    ImportResult(long noImported, long noRejected, List<String> rejections) {
+        this.noImported = noImported;
+        this.noRejected = noRejected;
+        this.rejections = Collections.unmodifiableList(rejections);
+    }
+
+    /**
+     * getNoImported returns the number of licences imported.
+     *
+     * @return returns the number of licences.
+     */
+    public long getNoImported() {
+        return noImported;
+    }
+
+    /**
+     * getNoRejected returns the number of lines rejected.
+     *
+     * @return returns the number of lines.
+     */
+    public long getNoRejected() {
+        return noRejected;
+    }
+
+    /**
+     * getRejections returns the reasons for the first rejections (in the order of the file), each prefixed by the byte offset of the line in the file.
+     *
+     * @return returns an unmodifiable list of at most LicenceImporter.MAXIMUM_REJECTIONS reasons.
+     */
+    public List<String> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * toString returns the result as a string.
+     *
+     * @return returns the following formatted string "ImportResult[imported=..., rejected=...]".
+     */
+    @Override
+    public String toString() {
+        return "ImportResult[imported=" + noImported + ", rejected=" + noRejected + "]";
+    }
+}
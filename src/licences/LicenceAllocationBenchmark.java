@@ -0,0 +1,71 @@
+package licences;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+
+/**
+ * The LicenceAllocationBenchmark class measures the bytes allocated by, and the heap retained by, each licence created with DrivingLicence.getInstance,
+ * and the bytes allocated when the string representations of the licences are then formed.
+ * <p>
+ * Usage: LicenceAllocationBenchmark [licences] (two hundred thousand licences by default).
+ */
+public final class LicenceAllocationBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Rick", "Rachael", "Roy", "Pris", "Leon", "Zhora", "Eldon", "Hannibal", "Gaff", "Holden"};
+    private static final String[] LAST_NAMES = {"Deckard", "Batty", "Tyrell", "Sebastian", "Kowalski", "Bryant", "Chew", "Stratton", "Salome", "Nexus"};
+    private static final int NO_WARM_UP_LICENCES = 20000;
+
+    private LicenceAllocationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noLicences = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        //The dates are created up front so only the allocation of the licences is measured.
+        Date[] births = new Date[60 * 12];
+        for (int i = 0; i < births.length; i++) {
+            births[i] = new GregorianCalendar(1940 + i / 12, i % 12, 1 + i % 28).getTime();
+        }
+        Date issue = new GregorianCalendar(2010, 5, 1).getTime();
+        //A fixed seed so runs create the same licences.
+        Random random = new Random(46);
+        createLicences(new DrivingLicence[NO_WARM_UP_LICENCES], births, issue, random);
+        DrivingLicence[] licences = new DrivingLicence[noLicences];
+        long heapBefore = getUsedHeap();
+        long allocatedBefore = getAllocatedBytes();
+        long start = System.nanoTime();
+        createLicences(licences, births, issue, random);
+        long elapsed = System.nanoTime() - start;
+        long allocated = getAllocatedBytes() - allocatedBefore;
+        long retained = getUsedHeap() - heapBefore;
+        System.out.println("getInstance: " + (allocated / noLicences) + " bytes allocated and " + (retained / noLicences) + " bytes retained per licence, " +
+                (noLicences * 1000000000L / elapsed) + " licences/s");
+        allocatedBefore = getAllocatedBytes();
+        long length = 0;
+        for (DrivingLicence licence : licences) {
+            length += licence.toString().length();
+        }
+        allocated = getAllocatedBytes() - allocatedBefore;
+        System.out.println("toString: " + (allocated / noLicences) + " bytes allocated per licence (" + length + " characters)");
+    }
+
+    private static void createLicences(DrivingLicence[] licences, Date[] births, Date issue, Random random) throws Exception {
+        for (int i = 0; i < licences.length; i++) {
+            licences[i] = DrivingLicence.getInstance(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    births[random.nextInt(births.length)], issue, random.nextBoolean());
+        }
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long getUsedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
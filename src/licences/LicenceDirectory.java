@@ -0,0 +1,357 @@
+package licences;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The LicenceDirectory class is a read-only directory of licences kept in a memory-mapped file, for lookups of millions of licences without holding a DrivingLicence (two Dates, a Name, a DrivingLicenceNumber and its strings) on the heap for each.
+ * <p>
+ * The file has a header (a magic number, the number of licences and the offset of the names) followed by a fixed-width record of RECORD_SIZE bytes per licence and the names of the licences...
+ * (a) The key of the licence number: the initials and year of birth and the serial number packed in a long, ordered as the licence numbers are (initials, then year, then serial number).
+ * (b) The date of birth and the date of issue (milliseconds since the epoch).
+ * (c) The offset of the names of the licence holder and the length of the first and the last name (names are stored once for every licence with the same names).
+ * (d) Whether the licence is full.
+ * Records are sorted by key so a licence is found by a binary search of the records (see find): a sparse index of the keys (one per INDEX_INTERVAL records, held on the heap) finds the interval of the record, so the mapped file is only read within the interval.
+ * <p>
+ * A LicenceView is a flyweight view of a record, so a lookup (i.e. an eligibility check) need not create any objects, and getLicence creates a DrivingLicence of a record when an object is needed.
+ * Licences created from the directory are equal to the licences they were written from (see DrivingLicence.equals), but are not held by the directory.
+ * A directory is written once (see write) and is safe for lookups from any number of threads, since the mapped file is only read by absolute position.
+ */
+public final class LicenceDirectory {
+
+    /*
+    The size of a record, and the offsets of the fields of a record.
+     */
+    static final int RECORD_SIZE = 32;
+    static final int KEY = 0;
+    static final int BIRTH = 8;
+    static final int ISSUE = 16;
+    static final int NAMES = 24;
+    static final int FIRST_NAME_LENGTH = 28;
+    static final int LAST_NAME_LENGTH = 29;
+    static final int IS_FULL = 30;
+
+    private static final int MAGIC = 0x4C444952;
+    private static final int HEADER_SIZE = 16;
+    private static final int MAXIMUM_NAME_LENGTH = 255;
+    /*
+    The key of every INDEX_INTERVAL-th record is held on the heap, so a binary search only reads the mapped file within one interval of records.
+     */
+    private static final int INDEX_INTERVAL = 64;
+
+    private final MappedByteBuffer buffer;
+    private final int noLicences;
+    private final int namesOffset;
+    private final long[] index;
+
+    /**
+     * LicenceDirectory is a constructor for a directory of a mapped file.
+     *
+     * @param buffer      the mapped file.
+     * @param noLicences  the number of licences in the directory.
+     * @param namesOffset the offset of the names.
+     */
+    private LicenceDirectory(MappedByteBuffer buffer, int noLicences, int namesOffset) {
+        this.buffer = buffer;
+        this.noLicences = noLicences;
+        this.namesOffset = namesOffset;
+        this.index = new long[(noLicences + INDEX_INTERVAL - 1) / INDEX_INTERVAL];
+        for (int i = 0; i < index.length; i++) {
+            index[i] = getLong(i * INDEX_INTERVAL, KEY);
+        }
+    }
+
+    /**
+     * write writes a directory of licences to a file (replacing the file if it exists).
+     *
+     * @param file     specifies the file.
+     * @param licences specifies the licences (the licence numbers of which must be unique and the names of which must be ASCII, as a name is written a byte per letter).
+     * @throws IOException in the event the file cannot be written.
+     */
+    public static void write(Path file, Collection<DrivingLicence> licences) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (file == null || licences == null) {
+            throw new IllegalArgumentException("File and licences cannot be null.");
+        }
+        DrivingLicence[] sorted = licences.toArray(new DrivingLicence[0]);
+        long[] keys = new long[sorted.length];
+        Integer[] order = new Integer[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = sorted[i].getKey();
+            if (keys[i] < 0) {
+                throw new IllegalArgumentException("The licence number " + sorted[i].getLicenceNumberAsString() + " cannot be written to a directory.");
+            }
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> Long.compare(keys[i], keys[j]));
+        /*
+        Build the names (once per distinct pair of names) and then write the records followed by the names.
+         */
+        Map<String, Integer> nameOffsets = new HashMap<>();
+        StringBuilder names = new StringBuilder();
+        int[] offsets = new int[sorted.length];
+        String[][] givenNames = new String[sorted.length][];
+        for (int i = 0; i < sorted.length; i++) {
+            givenNames[i] = getGivenNames(sorted[i]);
+            String pair = givenNames[i][0] + givenNames[i][1];
+            Integer offset = nameOffsets.get(pair);
+            if (offset == null) {
+                offset = names.length();
+                nameOffsets.put(pair, offset);
+                names.append(pair);
+            }
+            offsets[i] = offset;
+        }
+        long namesOffset = HEADER_SIZE + (long) sorted.length * RECORD_SIZE;
+        if (namesOffset + names.length() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A directory is limited to 2GB.");
+        }
+        try (OutputStream fileOut = Files.newOutputStream(file); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(sorted.length);
+            out.writeLong(namesOffset);
+            for (int k = 0; k < sorted.length; k++) {
+                int i = order[k];
+                if (k > 0 && keys[i] == keys[order[k - 1]]) {
+                    throw new IllegalArgumentException("The licence number " + sorted[i].getLicenceNumberAsString() + " is not unique.");
+                }
+                out.writeLong(keys[i]);
+                out.writeLong(sorted[i].getBirthTime());
+                out.writeLong(sorted[i].getIssueTime());
+                out.writeInt(offsets[i]);
+                out.writeByte(givenNames[i][0].length());
+                out.writeByte(givenNames[i][1].length());
+                out.writeByte(sorted[i].isFull() ? 1 : 0);
+                out.writeByte(0);
+            }
+            out.write(names.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * getGivenNames returns the names of a licence holder as they were given (the Name of a licence is in uppercase).
+     * A given name may have letters outside ASCII which the Name does not (i.e. a sharp s is "SS" in uppercase), those are rejected rather than written as '?' and read back as another name.
+     */
+    private static String[] getGivenNames(DrivingLicence licence) {
+        String[] names = {licence.getGivenFirstName(), licence.getGivenLastName()};
+        if (names[0].length() > MAXIMUM_NAME_LENGTH || names[1].length() > MAXIMUM_NAME_LENGTH) {
+            throw new IllegalArgumentException("Names of more than " + MAXIMUM_NAME_LENGTH + " letters cannot be written to a directory.");
+        }
+        for (String name : names) {
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) > 0x7F) {
+                    throw new IllegalArgumentException("The name " + name + " of licence " + licence.getLicenceNumberAsString() + " cannot be written to a directory, only ASCII names can.");
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * open maps the directory of a file.
+     *
+     * @param file specifies the file.
+     * @return returns the LicenceDirectory.
+     * @throws IOException in the event the file cannot be read or is not a directory.
+     */
+    public static LicenceDirectory open(Path file) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a licence directory.");
+            }
+            //The mapping remains valid once the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a licence directory.");
+            }
+            //The records and names must lie within the file, so a truncated or corrupt file is not read past its end.
+            final int noLicences = buffer.getInt(4);
+            final long namesOffset = buffer.getLong(8);
+            if (noLicences < 0 || HEADER_SIZE + (long) noLicences * RECORD_SIZE > namesOffset || namesOffset > channel.size()) {
+                throw new IOException(file + " is not a licence directory (the header does not match the size of the file).");
+            }
+            return new LicenceDirectory(buffer, noLicences, (int) namesOffset);
+        }
+    }
+
+    /**
+     * getKey returns the key of a licence number (see the class comment), or -1 if the string is not a licence number.
+     *
+     * @param licenceNumber specifies the licence number i.e. "AA-1993-1".
+     * @return returns the key.
+     */
+    static long getKey(CharSequence licenceNumber) {
+        final int length = licenceNumber.length();
+        if (length < 9 || licenceNumber.charAt(2) != '-' || licenceNumber.charAt(7) != '-') {
+            return -1;
+        }
+        char firstInitial = licenceNumber.charAt(0);
+        char lastInitial = licenceNumber.charAt(1);
+        if (firstInitial < 'A' || firstInitial > 'Z' || lastInitial < 'A' || lastInitial > 'Z') {
+            return -1;
+        }
+        long year = readNumber(licenceNumber, 3, 7);
+        long serialNumber = readNumber(licenceNumber, 8, length);
+        if (year < 1900 || year > 2999 || serialNumber < 1 || serialNumber > Integer.MAX_VALUE) {
+            return -1;
+        }
+        return getKey(firstInitial, lastInitial, (int) year, (int) serialNumber);
+    }
+
+    /**
+     * getKey returns the key of a licence number given its fields (see DrivingLicence.getKey), which must be valid.
+     *
+     * @param firstInitial specifies the first initial (an uppercase letter).
+     * @param lastInitial  specifies the last initial (an uppercase letter).
+     * @param birthYear    specifies the year of birth (1900-2999).
+     * @param serialNumber specifies the serial number (greater than 0).
+     * @return returns the key.
+     */
+    static long getKey(char firstInitial, char lastInitial, int birthYear, int serialNumber) {
+        return ((((firstInitial - 'A') * 26L + (lastInitial - 'A')) * 1100 + (birthYear - 1900)) << 31) | serialNumber;
+    }
+
+    private static long readNumber(CharSequence value, int start, int end) {
+        if (end - start > 10) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            char digit = value.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            number = number * 10 + (digit - '0');
+        }
+        return number;
+    }
+
+    /**
+     * size returns the number of licences in the directory.
+     *
+     * @return returns the number of licences.
+     */
+    public int size() {
+        return noLicences;
+    }
+
+    /**
+     * newView returns a new view of the directory, which is positioned on a licence by find.
+     *
+     * @return returns a new LicenceView.
+     */
+    public LicenceView newView() {
+        return new LicenceView(this);
+    }
+
+    /**
+     * find positions a view on the licence of a licence number, by a binary search of the records (which does not create any objects).
+     *
+     * @param licenceNumber specifies the licence number i.e. "AA-1993-1".
+     * @param view          specifies the view (of this directory).
+     * @return returns true if the directory has a licence of the licence number, otherwise the view is not changed.
+     */
+    public boolean find(CharSequence licenceNumber, LicenceView view) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (licenceNumber == null || view == null || view.getDirectory() != this) {
+            throw new IllegalArgumentException("The licence number and a view of this directory must be specified.");
+        }
+        int record = findRecord(getKey(licenceNumber));
+        if (record < 0) {
+            return false;
+        }
+        view.setRecord(record);
+        return true;
+    }
+
+    /**
+     * getLicence returns a DrivingLicence of a licence number (a new object each time, see find to look up a licence without creating one).
+     *
+     * @param licenceNumber specifies the licence number i.e. "AA-1993-1".
+     * @return returns the DrivingLicence, or null if the directory does not have a licence of the licence number.
+     */
+    public DrivingLicence getLicence(String licenceNumber) {
+        LicenceView view = newView();
+        return find(licenceNumber, view) ? view.toLicence() : null;
+    }
+
+    private int findRecord(long key) {
+        if (key < 0) {
+            return -1;
+        }
+        //The interval of the record is found from the index, then the record within the interval.
+        int interval = Arrays.binarySearch(index, key);
+        if (interval >= 0) {
+            return interval * INDEX_INTERVAL;
+        }
+        interval = -interval - 2;
+        if (interval < 0) {
+            return -1;
+        }
+        int low = interval * INDEX_INTERVAL + 1;
+        int high = Math.min(low + INDEX_INTERVAL - 2, noLicences - 1);
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = getLong(middle, KEY);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /*
+    Reads of the fields of a record (by absolute position, so the mapped buffer is shared by every view and thread).
+     */
+    long getLong(int record, int field) {
+        return buffer.getLong(HEADER_SIZE + record * RECORD_SIZE + field);
+    }
+
+    int getInt(int record, int field) {
+        return buffer.getInt(HEADER_SIZE + record * RECORD_SIZE + field);
+    }
+
+    int getByte(int record, int field) {
+        return buffer.get(HEADER_SIZE + record * RECORD_SIZE + field) & 0xFF;
+    }
+
+    char getNameCharacter(int offset) {
+        return (char) buffer.get(namesOffset + offset);
+    }
+
+    /**
+     * toString returns the directory as a string.
+     *
+     * @return returns the following formatted string "LicenceDirectory[noLicences licences]".
+     */
+    @Override
+    public String toString() {
+        return "LicenceDirectory[" + noLicences + " licences]";
+    }
+}
@@ -0,0 +1,88 @@
+package licences;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The LicenceDirectoryBenchmark class compares the heap used by, and the lookups per second of, licences held on the heap (in a map by licence number) and the same licences in a LicenceDirectory.
+ * <p>
+ * Usage: LicenceDirectoryBenchmark [licences] (one million licences by default).
+ */
+public final class LicenceDirectoryBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Rick", "Rachael", "Roy", "Pris", "Leon", "Zhora", "Eldon", "Hannibal", "Gaff", "Holden"};
+    private static final String[] LAST_NAMES = {"Deckard", "Batty", "Tyrell", "Sebastian", "Kowalski", "Bryant", "Chew", "Stratton", "Salome", "Nexus"};
+    private static final int NO_LOOKUPS = 1000000;
+
+    private LicenceDirectoryBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noLicences = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        //A fixed seed so runs create the same licences.
+        Random random = new Random(45);
+        long heapBefore = getUsedHeap();
+        Map<String, DrivingLicence> licences = new HashMap<>();
+        int firstSerialNumber = DrivingLicenceNumber.allocateSerialNumbers(noLicences);
+        for (int i = 0; i < noLicences; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int birthYear = 1940 + random.nextInt(60);
+            Date birth = new GregorianCalendar(birthYear, random.nextInt(12), 1 + random.nextInt(28)).getTime();
+            Date issue = new GregorianCalendar(2000 + random.nextInt(20), random.nextInt(12), 1 + random.nextInt(28)).getTime();
+            DrivingLicence licence = DrivingLicence.getValidatedInstance(firstName, lastName, birth.getTime(), issue.getTime(), birthYear, firstSerialNumber + i,
+                    Name.getValidatedInstance(firstName.toUpperCase(), lastName.toUpperCase()), random.nextBoolean());
+            licences.put(licence.getLicenceNumberAsString(), licence);
+        }
+        long heapUsed = getUsedHeap() - heapBefore;
+        String[] lookups = new String[NO_LOOKUPS];
+        List<String> licenceNumbers = new ArrayList<>(licences.keySet());
+        for (int i = 0; i < NO_LOOKUPS; i++) {
+            lookups[i] = licenceNumbers.get(random.nextInt(licenceNumbers.size()));
+        }
+        licenceNumbers = null;
+        long start = System.nanoTime();
+        int noFull = 0;
+        for (String licenceNumber : lookups) {
+            noFull += licences.get(licenceNumber).isFull() ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Heap: " + noLicences + " licences use " + (heapUsed / (1024 * 1024)) + " MB, " + (NO_LOOKUPS * 1000000000L / elapsed) + " lookups/s (" + noFull + " full)");
+
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            LicenceDirectory.write(file, licences.values());
+            licences = null;
+            heapBefore = getUsedHeap();
+            LicenceDirectory directory = LicenceDirectory.open(file);
+            LicenceView view = directory.newView();
+            heapUsed = getUsedHeap() - heapBefore;
+            start = System.nanoTime();
+            noFull = 0;
+            for (String licenceNumber : lookups) {
+                directory.find(licenceNumber, view);
+                noFull += view.isFull() ? 1 : 0;
+            }
+            elapsed = System.nanoTime() - start;
+            System.out.println("Directory: " + directory.size() + " licences use " + (heapUsed / 1024) + " KB of heap and " + (Files.size(file) / (1024 * 1024)) + " MB mapped, " +
+                    (NO_LOOKUPS * 1000000000L / elapsed) + " lookups/s (" + noFull + " full)");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static long getUsedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
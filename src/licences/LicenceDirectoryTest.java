@@ -0,0 +1,129 @@
+package licences;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+public class LicenceDirectoryTest {
+
+    @Test
+    public void findValid() throws Exception {
+        List<DrivingLicence> licences = new ArrayList<>();
+        String[] firstNames = {"Rick", "Rachael", "Roy", "zhora"};
+        for (int i = 0; i < 500; i++) {
+            licences.add(DrivingLicence.getInstance(firstNames[i % firstNames.length], "Deckard", new GregorianCalendar(1950 + i % 50, i % 12, 1 + i % 28).getTime(),
+                    new GregorianCalendar(2000, 3, 10).getTime(), i % 3 == 0));
+        }
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            //Licences need not be written in order.
+            Collections.shuffle(licences);
+            LicenceDirectory.write(file, licences);
+            LicenceDirectory directory = LicenceDirectory.open(file);
+            LicenceView view = directory.newView();
+            if (directory.size() != 500) {
+                fail();
+            }
+            for (DrivingLicence licence : licences) {
+                if (!directory.find(licence.getLicenceNumberAsString(), view) || !view.getLicenceNumberAsString().equals(licence.getLicenceNumberAsString()) ||
+                        view.getAge() != licence.getAge() || view.getYearsHeld() != licence.getYearsHeld() || view.isFull() != licence.isFull()) {
+                    fail();
+                }
+                DrivingLicence copy = view.toLicence();
+                if (!copy.equals(licence) || copy.hashCode() != licence.hashCode() || !copy.toString().equals(licence.toString())) {
+                    fail();
+                }
+            }
+            if (directory.find("RD-1950-0", view) || directory.find("not a licence", view) || directory.getLicence("ZZ-2999-1") != null) {
+                fail();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void getLicenceFromDirectory() throws Exception {
+        Date birth = new GregorianCalendar(1949, 9, 8).getTime();
+        //A licence which was never published to the registry of licences (as if from a previous run).
+        DrivingLicence licence = DrivingLicence.getValidatedInstance("Ellen", "Ripley", birth.getTime(), birth.getTime(), 1949, DrivingLicenceNumber.allocateSerialNumbers(1),
+                Name.getInstance("Ellen", "Ripley"), true);
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            LicenceDirectory.write(file, Collections.singletonList(licence));
+            DrivingLicence.setDirectory(LicenceDirectory.open(file));
+            if (!DrivingLicence.getLicence(licence.getLicenceNumberAsString()).equals(licence)) {
+                fail();
+            }
+        } finally {
+            DrivingLicence.setDirectory(null);
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeInvalid() throws Exception {
+        DrivingLicence licence = DrivingLicence.getInstance("Roy", "Batty", new GregorianCalendar(1975, 3, 10).getTime(), new GregorianCalendar(2000, 3, 10).getTime(), true);
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            //Licence numbers must be unique.
+            LicenceDirectory.write(file, Arrays.asList(licence, licence));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writeNonAsciiName() throws Exception {
+        //The Name of the licence is "STRASSE" but the given name is not ASCII.
+        DrivingLicence licence = DrivingLicence.getInstance("Anna", "Stra\u00DFe", new GregorianCalendar(1975, 3, 10).getTime(), new GregorianCalendar(2000, 3, 10).getTime(), true);
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            LicenceDirectory.write(file, Collections.singletonList(licence));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void openTruncated() throws Exception {
+        List<DrivingLicence> licences = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            licences.add(DrivingLicence.getInstance("Rachael", "Tyrell", new GregorianCalendar(1975, 3, 10).getTime(), new GregorianCalendar(2000, 3, 10).getTime(), true));
+        }
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            LicenceDirectory.write(file, licences);
+            //The file is cut off within the records.
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(Files.size(file) / 2);
+            }
+            LicenceDirectory.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void viewInvalid() throws Exception {
+        Path file = Files.createTempFile("licences", ".dir");
+        try {
+            LicenceDirectory.write(file, Collections.emptyList());
+            LicenceDirectory.open(file).newView().isFull();
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
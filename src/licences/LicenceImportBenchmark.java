@@ -0,0 +1,73 @@
+package licences;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The LicenceImportBenchmark class measures how many licences per second the LicenceImporter imports from a synthetic CSV export, as the parallelism of the fork-join pool is doubled from 1 up to the number of available processors.
+ * For comparison it also measures creating licences one at a time with DrivingLicence.getInstance.
+ * <p>
+ * Usage: LicenceImportBenchmark [licences] (one million licences by default).
+ */
+public final class LicenceImportBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Rick", "Rachael", "Roy", "Pris", "Leon", "Zhora", "Eldon", "Hannibal", "Gaff", "Holden"};
+    private static final String[] LAST_NAMES = {"Deckard", "Batty", "Tyrell", "Sebastian", "Kowalski", "Bryant", "Chew", "Stratton", "Salome", "Nexus"};
+
+    private LicenceImportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noLicences = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        Path file = Files.createTempFile("licences", ".csv");
+        try {
+            writeExport(file, noLicences);
+            int processors = Runtime.getRuntime().availableProcessors();
+            System.out.println("Licences: " + noLicences + " (" + (Files.size(file) / 1024) + " KB), processors: " + processors);
+            for (int parallelism = 1; parallelism <= processors; parallelism = parallelism == processors ? processors + 1 : Math.min(parallelism * 2, processors)) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    //Warm up before measuring.
+                    LicenceImporter.importFile(file, pool);
+                    long start = System.nanoTime();
+                    ImportResult result = LicenceImporter.importFile(file, pool);
+                    long elapsed = System.nanoTime() - start;
+                    System.out.println("Parallelism " + parallelism + ": " + result + " in " + (elapsed / 1000000) + " ms (" + (result.getNoImported() * 1000000000L / elapsed) + " licences/s)");
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            int noCreated = Math.min(noLicences, 100000);
+            Random random = new Random(44);
+            long start = System.nanoTime();
+            for (int i = 0; i < noCreated; i++) {
+                DrivingLicence.getInstance(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        new GregorianCalendar(1940 + random.nextInt(60), random.nextInt(12), 1 + random.nextInt(28)).getTime(),
+                        new GregorianCalendar(2000 + random.nextInt(20), random.nextInt(12), 1 + random.nextInt(28)).getTime(), random.nextBoolean());
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println("DrivingLicence.getInstance: " + noCreated + " licences in " + (elapsed / 1000000) + " ms (" + (noCreated * 1000000000L / elapsed) + " licences/s)");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void writeExport(Path file, int noLicences) throws IOException {
+        //A fixed seed so runs import the same licences.
+        Random random = new Random(44);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            out.write("firstName,lastName,birthDate,issueDate,isFull\n");
+            for (int i = 0; i < noLicences; i++) {
+                out.write(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + "," + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + "," +
+                        String.format("%04d-%02d-%02d,%04d-%02d-%02d", 1940 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                                2000 + random.nextInt(20), 1 + random.nextInt(12), 1 + random.nextInt(28)) + "," + random.nextBoolean() + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package licences;
+
+import exceptions.GetInstanceLimitExceededException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The LicenceImporter class imports licences in bulk from a CSV export (i.e. the nightly export of a licensing authority) rather than creating them one at a time with DrivingLicence.getInstance.
+ * <p>
+ * The file has a header line followed by one licence per line...
+ * firstName,lastName,birthDate,issueDate,isFull
+ * i.e. "Rick,Deckard,1975-04-10,2000-04-10,true", where names are letters only and dates are ISO dates (yyyy-MM-dd). Blank lines are ignored and lines may end with "\r\n".
+ * <p>
+ * The import is a pipeline run in parallel on a fork-join pool...
+ * (a) The file is split into chunks on line boundaries and each chunk is memory mapped (see FileChannel.map), so lines are parsed from the mapped bytes rather than read into strings.
+ * (b) The lines of each chunk are validated without regular expressions, the names of a chunk are shared by its licences (see Name.getValidatedInstance) and each date of a chunk is only converted once.
+ * (c) Serial numbers are allocated in blocks of BATCH_SIZE (see DrivingLicenceNumber.allocateSerialNumbers), so the last block of a chunk may leave a gap in the serial numbers.
+ * (d) Licences are published to the registry of licences (see DrivingLicence.getLicence) in batches of BATCH_SIZE.
+ * Invalid lines are rejected (counted and reported, see ImportResult) rather than failing the import.
+ * Licences are published as each batch is complete, so an import which fails (i.e. with an IOException) may already have published licences.
+ * Licences imported do not emit a LicenceCreatedEvent.
+ */
+public final class LicenceImporter {
+
+    /*
+    The number of rejections reported with their reasons (every rejection is counted).
+     */
+    public static final int MAXIMUM_REJECTIONS = 100;
+    /*
+    The number of licences of a batch (and of serial numbers of a block).
+     */
+    static final int BATCH_SIZE = 4096;
+    /*
+    The file is split into CHUNKS_PER_THREAD chunks per thread of the pool (to balance chunks of uneven cost) of at least MINIMUM_CHUNK_SIZE bytes, and of at most MAXIMUM_CHUNK_SIZE bytes (a mapped buffer is limited to 2GB).
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MINIMUM_CHUNK_SIZE = 1 << 16;
+    private static final long MAXIMUM_CHUNK_SIZE = 1 << 30;
+    private static final int MAXIMUM_NAME_LENGTH = 64;
+    private static final int NO_FIELDS = 5;
+
+    private LicenceImporter() {
+    }
+
+    /**
+     * importFile imports the licences of a CSV file in parallel on the common fork-join pool.
+     *
+     * @param file specifies the file.
+     * @return returns the ImportResult.
+     * @throws IOException                       in the event the file cannot be read.
+     * @throws GetInstanceLimitExceededException in the event that the maximum number of licences has been reached.
+     */
+    public static ImportResult importFile(Path file) throws IOException, GetInstanceLimitExceededException {
+        return importFile(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * importFile imports the licences of a CSV file in parallel on a fork-join pool.
+     *
+     * @param file specifies the file.
+     * @param pool specifies the pool the chunks of the file are imported on.
+     * @return returns the ImportResult.
+     * @throws IOException                       in the event the file cannot be read.
+     * @throws GetInstanceLimitExceededException in the event that the maximum number of licences has been reached.
+     */
+    public static ImportResult importFile(Path file, ForkJoinPool pool) throws IOException, GetInstanceLimitExceededException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (file == null || pool == null) {
+            throw new IllegalArgumentException("File and pool cannot be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Long> boundaries = getChunkBoundaries(channel, pool.getParallelism());
+            List<Callable<ChunkImport>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.size(); i++) {
+                final long start = boundaries.get(i);
+                final long end = boundaries.get(i + 1);
+                chunks.add(() -> new ChunkImport(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), start).run());
+            }
+            long noImported = 0;
+            long noRejected = 0;
+            List<String> rejections = new ArrayList<>();
+            //The chunks are merged in the order of the file, so the rejections reported are the first of the file.
+            for (Future<ChunkImport> future : pool.invokeAll(chunks)) {
+                ChunkImport chunk = getChunk(future);
+                noImported += chunk.noImported;
+                noRejected += chunk.noRejected;
+                for (int i = 0; i < chunk.rejections.size() && rejections.size() < MAXIMUM_REJECTIONS; i++) {
+                    rejections.add(chunk.rejections.get(i));
+                }
+            }
+            return new ImportResult(noImported, noRejected, rejections);
+        }
+    }
+
+    private static ChunkImport getChunk(Future<ChunkImport> future) throws IOException, GetInstanceLimitExceededException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The import was interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof GetInstanceLimitExceededException) {
+                throw (GetInstanceLimitExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * getChunkBoundaries splits the lines of a file (after the header line) into chunks.
+     *
+     * @param channel     specifies the channel of the file.
+     * @param parallelism specifies the number of threads the chunks are imported by.
+     * @return returns the offsets of the start of each chunk followed by the size of the file.
+     * @throws IOException in the event the file cannot be read.
+     */
+    private static List<Long> getChunkBoundaries(FileChannel channel, int parallelism) throws IOException {
+        final long size = channel.size();
+        final long dataStart = getNextLine(channel, 0);
+        final long dataSize = size - dataStart;
+        long noChunks = Math.min((long) parallelism * CHUNKS_PER_THREAD, dataSize / MINIMUM_CHUNK_SIZE);
+        noChunks = Math.max(Math.max(noChunks, dataSize / MAXIMUM_CHUNK_SIZE + 1), 1);
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(dataStart);
+        for (long i = 1; i < noChunks; i++) {
+            //A chunk ends at the end of the line its nominal end falls in.
+            long boundary = getNextLine(channel, dataStart + i * (dataSize / noChunks));
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+        return boundaries;
+    }
+
+    /**
+     * getNextLine returns the offset of the line after the line containing a position.
+     *
+     * @param channel  specifies the channel of the file.
+     * @param position specifies the position.
+     * @return returns the offset of the next line, or the size of the file if the position is in the last line.
+     * @throws IOException in the event the file cannot be read.
+     */
+    private static long getNextLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        int noRead;
+        while ((noRead = channel.read(buffer, position)) > 0) {
+            for (int i = 0; i < noRead; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += noRead;
+            buffer.clear();
+        }
+        return channel.size();
+    }
+
+    /*
+    The import of one chunk of the file: the licences of the chunk are validated, given serial numbers from the blocks allocated to the chunk and published in batches.
+     */
+    private static final class ChunkImport {
+        private static final ZoneId ZONE = ZoneId.systemDefault();
+
+        private final MappedByteBuffer buffer;
+        private final long offset;
+        private final int[] fieldEnds = new int[NO_FIELDS];
+        private final Map<String, Name> names = new HashMap<>();
+        //The times of the dates of a chunk by their value as yyyyMMdd (so each date is only converted once).
+        private final Map<Integer, Long> dates = new HashMap<>();
+        private final List<DrivingLicence> batch = new ArrayList<>(BATCH_SIZE);
+        private final List<String> rejections = new ArrayList<>();
+        private int nextSerialNumber;
+        private long endSerialNumber;
+        private long noImported;
+        private long noRejected;
+
+        private ChunkImport(MappedByteBuffer buffer, long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        private ChunkImport run() throws GetInstanceLimitExceededException {
+            final int limit = buffer.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                int end = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (end > lineStart) {
+                    importLine(lineStart, end);
+                }
+                lineStart = lineEnd + 1;
+            }
+            publish();
+            return this;
+        }
+
+        private void importLine(int start, int end) throws GetInstanceLimitExceededException {
+            /*
+            Split the line into its fields (the end of each field is the offset of the comma which follows it).
+             */
+            int noFields = 0;
+            for (int i = start; i < end && noFields < NO_FIELDS; i++) {
+                if (buffer.get(i) == ',') {
+                    fieldEnds[noFields++] = i;
+                }
+            }
+            if (noFields != NO_FIELDS - 1) {
+                reject(start, "the line does not have " + NO_FIELDS + " fields");
+                return;
+            }
+            fieldEnds[NO_FIELDS - 1] = end;
+            String firstName = readName(start, fieldEnds[0]);
+            String lastName = readName(fieldEnds[0] + 1, fieldEnds[1]);
+            if (firstName == null || lastName == null) {
+                reject(start, "names must be between 1 and " + MAXIMUM_NAME_LENGTH + " letters");
+                return;
+            }
+            Long birth = readDate(fieldEnds[1] + 1, fieldEnds[2]);
+            final int birthYear = readNumber(fieldEnds[1] + 1, fieldEnds[1] + 5);
+            if (birth == null || birthYear < 1900 || birthYear > 2999) {
+                reject(start, "the date of birth is invalid");
+                return;
+            }
+            Long issue = readDate(fieldEnds[2] + 1, fieldEnds[3]);
+            if (issue == null) {
+                reject(start, "the date of issue is invalid");
+                return;
+            }
+            final boolean isFull;
+            if (matches(fieldEnds[3] + 1, end, "true")) {
+                isFull = true;
+            } else if (matches(fieldEnds[3] + 1, end, "false")) {
+                isFull = false;
+            } else {
+                reject(start, "whether the licence is full must be true or false");
+                return;
+            }
+            /*
+            Build the licence, with a serial number from the block of the chunk.
+             */
+            String upperFirstName = firstName.toUpperCase(Locale.ROOT);
+            String upperLastName = lastName.toUpperCase(Locale.ROOT);
+            Name name = names.computeIfAbsent(upperFirstName + " " + upperLastName, key -> Name.getValidatedInstance(upperFirstName, upperLastName));
+            if (nextSerialNumber == endSerialNumber) {
+                nextSerialNumber = DrivingLicenceNumber.allocateSerialNumbers(BATCH_SIZE);
+                endSerialNumber = (long) nextSerialNumber + BATCH_SIZE;
+            }
+            batch.add(DrivingLicence.getValidatedInstance(firstName, lastName, birth, issue, birthYear, nextSerialNumber++, name, isFull));
+            if (batch.size() == BATCH_SIZE) {
+                publish();
+            }
+        }
+
+        private String readName(int start, int end) {
+            if (end <= start || end - start > MAXIMUM_NAME_LENGTH) {
+                return null;
+            }
+            char[] characters = new char[end - start];
+            for (int i = start; i < end; i++) {
+                char character = (char) buffer.get(i);
+                if (!(character >= 'A' && character <= 'Z') && !(character >= 'a' && character <= 'z')) {
+                    return null;
+                }
+                characters[i - start] = character;
+            }
+            return new String(characters);
+        }
+
+        private Long readDate(int start, int end) {
+            //yyyy-MM-dd
+            if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+                return null;
+            }
+            int year = readNumber(start, start + 4);
+            int month = readNumber(start + 5, start + 7);
+            int day = readNumber(start + 8, end);
+            if (year < 0 || month < 0 || day < 0) {
+                return null;
+            }
+            Integer value = (year * 100 + month) * 100 + day;
+            Long date = dates.get(value);
+            if (date == null) {
+                try {
+                    //The start of the day in the default time zone, as a GregorianCalendar of the date would give.
+                    date = LocalDate.of(year, month, day).atStartOfDay(ZONE).toInstant().toEpochMilli();
+                } catch (DateTimeException e) {
+                    return null;
+                }
+                dates.put(value, date);
+            }
+            return date;
+        }
+
+        private int readNumber(int start, int end) {
+            int number = 0;
+            for (int i = start; i < end; i++) {
+                byte digit = buffer.get(i);
+                if (digit < '0' || digit > '9') {
+                    return -1;
+                }
+                number = number * 10 + (digit - '0');
+            }
+            return number;
+        }
+
+        private boolean matches(int start, int end, String value) {
+            if (end - start != value.length()) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) != value.charAt(i - start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void reject(int start, String reason) {
+            noRejected++;
+            if (rejections.size() < MAXIMUM_REJECTIONS) {
+                rejections.add("offset " + (offset + start) + ": " + reason);
+            }
+        }
+
+        private void publish() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            DrivingLicence.publish(batch);
+            noImported += batch.size();
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package licences;
+
+import org.junit.Test;
+import registry.Registries;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.GregorianCalendar;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.fail;
+
+public class LicenceImporterTest {
+
+    @Test
+    public void importFileValid() throws Exception {
+        Path file = Files.createTempFile("licences", ".csv");
+        try {
+            //Enough lines for the file to be split into several chunks (and serial number blocks).
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+                out.write("firstName,lastName,birthDate,issueDate,isFull\n");
+                for (int i = 0; i < 20000; i++) {
+                    out.write(i % 2 == 0 ? "Rick,Deckard,1975-04-10,2000-04-10,true\n" : "Rachael,Tyrell,2001-12-31,2019-01-01,false\r\n");
+                }
+                out.write("\n");
+                out.write("Roy,Batty,1975-02-30,2000-04-10,true\n");
+                out.write("Roy,Batty,1875-04-10,2000-04-10,true\n");
+                out.write("Roy,B4tty,1975-04-10,2000-04-10,true\n");
+                out.write("Roy,Batty,1975-04-10,2000-04-10,yes\n");
+                out.write("Roy,Batty,1975-04-10\n");
+                out.write("Roy,Batty,1975-04-10,2000-04-10,false");
+            }
+            //The registry of licences is created when the DrivingLicence class is initialised.
+            DrivingLicence.getInstance("Rick", "Deckard", new GregorianCalendar(1975, 3, 10).getTime(), new GregorianCalendar(2000, 3, 10).getTime(), true);
+            int noLicences = Registries.getRegistry("DrivingLicence.licences").size();
+            ForkJoinPool pool = new ForkJoinPool(4);
+            ImportResult result;
+            try {
+                result = LicenceImporter.importFile(file, pool);
+            } finally {
+                pool.shutdown();
+            }
+            if (result.getNoImported() != 20001 || result.getNoRejected() != 5 || result.getRejections().size() != 5 ||
+                    !result.getRejections().get(0).endsWith("the date of birth is invalid")) {
+                fail();
+            }
+            if (Registries.getRegistry("DrivingLicence.licences").size() != noLicences + 20001) {
+                fail();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void importedLicenceValid() throws Exception {
+        Path file = Files.createTempFile("licences", ".csv");
+        try {
+            Files.write(file, "firstName,lastName,birthDate,issueDate,isFull\nEllen,Ripley,1949-10-08,1979-05-25,true\n".getBytes(StandardCharsets.US_ASCII));
+            DrivingLicence before = DrivingLicence.getInstance("Ellen", "Ripley", new GregorianCalendar(1949, 9, 8).getTime(), new GregorianCalendar(1979, 4, 25).getTime(), true);
+            if (LicenceImporter.importFile(file).getNoImported() != 1) {
+                fail();
+            }
+            DrivingLicence after = DrivingLicence.getInstance("Ellen", "Ripley", before.getBirth(), before.getBirth(), true);
+            //The imported licence has a serial number between those of the licences created before and after it, and the same dates and names.
+            String number = before.getLicenceNumberAsString();
+            int beforeSerial = Integer.parseInt(number.substring(number.lastIndexOf('-') + 1));
+            number = after.getLicenceNumberAsString();
+            int afterSerial = Integer.parseInt(number.substring(number.lastIndexOf('-') + 1));
+            DrivingLicence imported = null;
+            for (int serial = beforeSerial + 1; serial < afterSerial && imported == null; serial++) {
+                try {
+                    imported = DrivingLicence.getLicence("ER-1949-" + serial);
+                } catch (IllegalArgumentException e) {
+                    //Serial numbers of other blocks.
+                }
+            }
+            if (imported == null || !imported.getBirth().equals(before.getBirth()) || !imported.getName().toString().equals("ELLEN RIPLEY") || !imported.isFull() ||
+                    !imported.toString().equals(imported.getLicenceNumberAsString() + "[Ellen, Ripley, is full licence = true]")) {
+                fail();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void importFileInvalid() throws Exception {
+        LicenceImporter.importFile(null);
+    }
+}
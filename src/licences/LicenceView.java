@@ -0,0 +1,171 @@
+package licences;
+
+/**
+ * The LicenceView class is a flyweight view of a licence of a LicenceDirectory: it reads the fields of the record it is positioned on (see LicenceDirectory.find) from the mapped file.
+ * <p>
+ * A view is reused for any number of lookups, so checks of a licence (i.e. the age of the holder and the years the licence has been held) need not create a DrivingLicence.
+ * A view is not thread-safe: each thread should use its own view of a directory.
+ */
+public final class LicenceView {
+
+    private final LicenceDirectory directory;
+    private int record = -1;
+
+    /**
+     * LicenceView is a constructor for a view of a directory which is not yet positioned on a licence (is package private, see LicenceDirectory.newView).
+     *
+     * @param directory the directory.
+     */
+    LicenceView(LicenceDirectory directory) {
+        this.directory = directory;
+    }
+
+    LicenceDirectory getDirectory() {
+        return directory;
+    }
+
+    void setRecord(int record) {
+        this.record = record;
+    }
+
+    private int getRecord() {
+        if (record < 0) {
+            throw new IllegalStateException("The view is not positioned on a licence.");
+        }
+        return record;
+    }
+
+    /**
+     * formatLicenceNumberTo appends the licence number to a StringBuilder (without allocating if the builder has the capacity).
+     *
+     * @param out specifies the StringBuilder to append to.
+     */
+    public void formatLicenceNumberTo(StringBuilder out) {
+        /*
+        Check parameters.
+         */
+        if (out == null) {
+            throw new IllegalArgumentException("StringBuilder cannot be null.");
+        }
+        long key = directory.getLong(getRecord(), LicenceDirectory.KEY);
+        long prefix = key >>> 31;
+        int initials = (int) (prefix / 1100);
+        out.append((char) ('A' + initials / 26)).append((char) ('A' + initials % 26)).append('-').append(getBirthYear()).append('-').append(key & Integer.MAX_VALUE);
+    }
+
+    /**
+     * getLicenceNumberAsString returns the licence number (i.e. "AA-1993-1").
+     *
+     * @return returns the licence number as a String.
+     */
+    public String getLicenceNumberAsString() {
+        StringBuilder out = new StringBuilder(19);
+        formatLicenceNumberTo(out);
+        return out.toString();
+    }
+
+    /**
+     * getBirthYear returns the year of birth of the licence holder (as in the licence number).
+     *
+     * @return returns the year of birth.
+     */
+    public int getBirthYear() {
+        return (int) ((directory.getLong(getRecord(), LicenceDirectory.KEY) >>> 31) % 1100) + 1900;
+    }
+
+    /**
+     * getBirthTime returns the date of birth of the licence holder.
+     *
+     * @return returns the date of birth in milliseconds since the epoch.
+     */
+    public long getBirthTime() {
+        return directory.getLong(getRecord(), LicenceDirectory.BIRTH);
+    }
+
+    /**
+     * getIssueTime returns the date of issue of the licence.
+     *
+     * @return returns the date of issue in milliseconds since the epoch.
+     */
+    public long getIssueTime() {
+        return directory.getLong(getRecord(), LicenceDirectory.ISSUE);
+    }
+
+    /**
+     * isFull returns true only if the licence is a full licence.
+     *
+     * @return returns true only if the licence is a full licence.
+     */
+    public boolean isFull() {
+        return directory.getByte(getRecord(), LicenceDirectory.IS_FULL) != 0;
+    }
+
+    /**
+     * getFirstName returns the first name of the licence holder (as given when the licence was created).
+     *
+     * @return returns the first name.
+     */
+    public String getFirstName() {
+        return getName(0, directory.getByte(getRecord(), LicenceDirectory.FIRST_NAME_LENGTH));
+    }
+
+    /**
+     * getLastName returns the last name of the licence holder (as given when the licence was created).
+     *
+     * @return returns the last name.
+     */
+    public String getLastName() {
+        return getName(directory.getByte(getRecord(), LicenceDirectory.FIRST_NAME_LENGTH), directory.getByte(record, LicenceDirectory.LAST_NAME_LENGTH));
+    }
+
+    private String getName(int start, int length) {
+        int offset = directory.getInt(getRecord(), LicenceDirectory.NAMES) + start;
+        char[] characters = new char[length];
+        for (int i = 0; i < length; i++) {
+            characters[i] = directory.getNameCharacter(offset + i);
+        }
+        return new String(characters);
+    }
+
+    /**
+     * getAge calculates the age of the licence holder as DrivingLicence.getAge does (the difference of the current year and the year of birth).
+     *
+     * @return returns the age of the licence holder.
+     */
+    public int getAge() {
+        return DrivingLicenceNumber.getYear(System.currentTimeMillis()) - getBirthYear();
+    }
+
+    /**
+     * getYearsHeld calculates the years the licence has been held as DrivingLicence.getYearsHeld does (the difference of the current year and the year of issue).
+     *
+     * @return returns the years the licence has been held.
+     */
+    public int getYearsHeld() {
+        return DrivingLicenceNumber.getYear(System.currentTimeMillis()) - DrivingLicenceNumber.getYear(getIssueTime());
+    }
+
+    /**
+     * toLicence creates a DrivingLicence of the licence the view is positioned on (which is equal to the licence the directory was written from).
+     *
+     * @return returns a new DrivingLicence object.
+     */
+    public DrivingLicence toLicence() {
+        long key = directory.getLong(getRecord(), LicenceDirectory.KEY);
+        String firstName = getFirstName();
+        String lastName = getLastName();
+        //The initials of the name are those of the licence number.
+        return DrivingLicence.getValidatedInstance(firstName, lastName, getBirthTime(), getIssueTime(), getBirthYear(), (int) (key & Integer.MAX_VALUE),
+                Name.getInstance(firstName, lastName), isFull());
+    }
+
+    /**
+     * toString returns the licence the view is positioned on as a string.
+     *
+     * @return returns the following formatted string "LicenceView[licence number]", or "LicenceView[]" if the view is not positioned on a licence.
+     */
+    @Override
+    public String toString() {
+        return record < 0 ? "LicenceView[]" : "LicenceView[" + getLicenceNumberAsString() + "]";
+    }
+}
@@ -1,23 +1,28 @@
 package licences;
 
-import java.util.HashMap;
-import java.util.Map;
+import registry.Registries;
+import registry.WeakRegistry;
 
 /**
  * The Name class is an immutable class which utilizes a static factory method pattern to generate unique instances of Names.
- * Uniqueness of Name objects allows us to re-use any previous valid "Name" object already stored in the map.
+ * Uniqueness of Name objects allows us to re-use any previous valid "Name" object already stored in the registry.
+ * The registry is weak (see WeakRegistry): a Name is only re-used while a licence holds it, so names no longer in use do not accumulate.
+ * The string representation of a Name which is not in the registry (see getValidatedInstance) is formed the first time it is needed.
  */
 final class Name {
 
-    private static final Map<String, Name> NAME_MAP = new HashMap<>();
-    private final String firstName, lastName, strRep;
+    //A Name is estimated as the object and three strings of about ten characters (120 bytes).
+    private static final WeakRegistry<String, Name> NAMES = Registries.weak("Name.names", 120);
+    private final String firstName, lastName;
+    //Formed by toString unless given by getInstance (a race only forms an equal string twice).
+    private String strRep;
 
     /**
      * Name is a constructor for a new Name object with a first name, last name, and string representation.
      *
      * @param firstName specifies the first name of the Name.
      * @param lastName  specifies the last name of the Name.
-     * @param strRep    specifies the string representation of the Name.
+     * @param strRep    specifies the string representation of the Name (or null to form it when it is needed).
      */
     private Name(String firstName, String lastName, String strRep) {
         this.strRep = strRep;
@@ -41,15 +46,13 @@ final class Name {
         assert lastName != null;
         firstName = firstName.toUpperCase();
         lastName = lastName.toUpperCase();
-        String strRep = firstName + " " + lastName;
-        // "strRep" is a string concatenation which uses the first name and last name in conjunction.
-        // Therefore if strRep is valid it must be the case that the first name (string) and last name (string) is valid.
-        if (strRep.matches("^[A-Z]+ [A-Z]+$")) {
-            strRep = firstName + " " + lastName;
-            Name name = NAME_MAP.get(strRep);
+        //The names are checked as characters, rather than matched to "^[A-Z]+ [A-Z]+$", so that only the key of the registry is created.
+        if (isName(firstName) && isName(lastName)) {
+            String strRep = firstName + " " + lastName;
+            Name name = NAMES.get(strRep);
             if (name == null) {
                 name = new Name(firstName, lastName, strRep);
-                NAME_MAP.put(strRep, name);
+                NAMES.put(strRep, name);
             }
             return name;
         } else {
@@ -57,6 +60,31 @@ final class Name {
         }
     }
 
+    private static boolean isName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) < 'A' || name.charAt(i) > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * getValidatedInstance returns a new Name of names already validated and converted to uppercase by the caller (is package private, see LicenceImporter).
+     * The Name is not added to the registry of names, the caller shares Names itself.
+     *
+     * @param firstName specifies the first name (uppercase letters).
+     * @param lastName  specifies the last name (uppercase letters).
+     * @return returns a new Name object.
+     */
+    static Name getValidatedInstance(String firstName, String lastName) {
+        assert isName(firstName) && isName(lastName);
+        return new Name(firstName, lastName, null);
+    }
 
     /**
      * getFirstName returns the first name as a String object.
@@ -94,12 +122,42 @@ final class Name {
     }
 
     /**
-     * toString generates the string representation of the object.
+     * toString generates the string representation of the object the first time it is called, and then returns the same string.
      *
      * @return returns a string representation of the object as "first-name last-name".
      */
     @Override
     public final String toString() {
-        return strRep;
+        String string = strRep;
+        if (string == null) {
+            strRep = string = firstName + " " + lastName;
+        }
+        return string;
+    }
+
+    @Override
+    //Names are only shared while in use (and not by licences imported or read from a directory), so equal names may be different objects.
+    public final boolean equals(Object object) {
+        /*
+        Test for identity...
+        Ensure that the object can be said true in and of itself (is reflexively equal). If so return true (is an instance of itself)
+        */
+        if (object == this) {
+            return true;
+        }
+        /*
+        Test for type (and none-nullity)...
+        Check the object is of the correct instance.
+         */
+        if (!(object instanceof Name)) {
+            return false;
+        }
+        Name name = (Name) object;
+        return firstName.equals(name.firstName) && lastName.equals(name.lastName);
+    }
+
+    @Override
+    public final int hashCode() {
+        return 31 * firstName.hashCode() + lastName.hashCode();
     }
 }
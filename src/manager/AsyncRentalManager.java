@@ -0,0 +1,213 @@
+package manager;
+
+import licences.DrivingLicence;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The AsyncRentalManager class is a non-blocking front to a depot (a RentalManager): every operation is queued to an executor owned by the depot and returns a CompletableFuture at once,
+ * so a front-end can have thousands of operations in flight without a thread blocked on each.
+ * <p>
+ * Each depot has its own single thread executor. Operations on a depot are serialized by the depot anyway, so a single thread per depot serves them in the order they were submitted
+ * without contending for the depot, while operations on different depots run in parallel.
+ * Checked exceptions of the depot (i.e. GetInstanceLimitExceededException, InvalidObjectException) complete the future exceptionally with the exception itself,
+ * and futures of operations submitted after the AsyncRentalManager is closed complete exceptionally with a RejectedExecutionException.
+ * <p>
+ * Futures are completed on the thread of the depot, so dependent actions which block should be registered with the async methods of CompletableFuture.
+ * The rentals terminated by the depot are published as a stream (see getClosedRentals).
+ * <p>
+ * The AsyncRentalManager class utilizes a static factory method build pattern, there is at most one AsyncRentalManager (and so one executor) per depot.
+ */
+public final class AsyncRentalManager implements AutoCloseable {
+
+    /*
+    The AsyncRentalManager of each depot (key-value pairs of depot to AsyncRentalManager).
+     */
+    private static final Map<RentalManager, AsyncRentalManager> INSTANCES = new HashMap<>();
+
+    private final RentalManager depot;
+    private final ExecutorService executor;
+    private final SubmissionPublisher<RentalRecord> closedRentals;
+
+    /**
+     * AsyncRentalManager is a constructor for the non-blocking front of a depot.
+     *
+     * @param depot the depot.
+     */
+    private AsyncRentalManager(RentalManager depot) {
+        this.depot = depot;
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "depot-" + depot.getDepotName());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newSingleThreadExecutor(threadFactory);
+        this.closedRentals = new SubmissionPublisher<>();
+    }
+
+    /**
+     * getInstance returns the non-blocking front of a depot, creating it (and the executor of the depot) if it does not exist.
+     *
+     * @param depot specifies the depot.
+     * @return returns the AsyncRentalManager of the depot.
+     */
+    public static synchronized AsyncRentalManager getInstance(RentalManager depot) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depot == null) {
+            throw new IllegalArgumentException("Depot cannot be null.");
+        }
+        AsyncRentalManager asyncDepot = INSTANCES.get(depot);
+        if (asyncDepot == null) {
+            asyncDepot = new AsyncRentalManager(depot);
+            final SubmissionPublisher<RentalRecord> publisher = asyncDepot.closedRentals;
+            //Offering never blocks the depot: subscribers which fall behind by more than their buffer miss rentals rather than stall terminations.
+            depot.setRentalListener(rental -> publisher.offer(rental, null));
+            INSTANCES.put(depot, asyncDepot);
+        }
+        return asyncDepot;
+    }
+
+    /**
+     * getDepot returns the depot.
+     *
+     * @return returns the RentalManager of the depot.
+     */
+    public RentalManager getDepot() {
+        return depot;
+    }
+
+    /**
+     * provisionCars creates available cars of a type in the depot (see RentalManager.provisionCars).
+     *
+     * @param typeOfCar            defines the type of car (converted into UPPERCASE).
+     * @param noInstancesRequested defines the number of instances of that kind requested.
+     * @return returns a future completed once the cars are available (or exceptionally with a GetInstanceLimitExceededException).
+     */
+    public CompletableFuture<Void> provisionCars(String typeOfCar, int noInstancesRequested) {
+        return submit(depot -> {
+            depot.provisionCars(typeOfCar, noInstancesRequested);
+            return null;
+        });
+    }
+
+    /**
+     * issue issues a car (see RentalManager.issue).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (converted into UPPERCASE).
+     * @return returns a future completed with the IssueResult of the request.
+     */
+    public CompletableFuture<IssueResult> issue(DrivingLicence drivingLicence, String typeOfCar) {
+        return submit(depot -> depot.issue(drivingLicence, typeOfCar));
+    }
+
+    /**
+     * issueWhenAvailable issues a car or waits for one to be returned (see RentalManager.issueWhenAvailable).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (converted into UPPERCASE).
+     * @return returns a future completed with the IssueResult once the driver is issued a car or refused one for a reason which is not transient.
+     */
+    public CompletableFuture<IssueResult> issueWhenAvailable(DrivingLicence drivingLicence, String typeOfCar) {
+        return issueWhenAvailable(drivingLicence, typeOfCar, 0);
+    }
+
+    /**
+     * issueWhenAvailable issues a car or waits for one to be returned (see RentalManager.issueWhenAvailable).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (converted into UPPERCASE).
+     * @param priority       specifies the priority of the driver under WaitlistPolicy.PRIORITY.
+     * @return returns a future completed with the IssueResult once the driver is issued a car or refused one for a reason which is not transient.
+     */
+    public CompletableFuture<IssueResult> issueWhenAvailable(DrivingLicence drivingLicence, String typeOfCar, int priority) {
+        return submit(depot -> depot.issueWhenAvailable(drivingLicence, typeOfCar, priority)).thenCompose(waiter -> waiter);
+    }
+
+    /**
+     * terminateRental terminates the rental of a driving licence (see RentalManager.terminateRental).
+     *
+     * @param drivingLicence defines the DrivingLicence object to terminate the rental of.
+     * @return returns a future completed with the fuel needed to fill up the tank (or exceptionally with an InvalidObjectException).
+     */
+    public CompletableFuture<Integer> terminateRental(DrivingLicence drivingLicence) {
+        return submit(depot -> depot.terminateRental(drivingLicence));
+    }
+
+    /**
+     * refuelCars runs a single refuelling cycle (see RentalManager.refuelCars).
+     *
+     * @return returns a future completed with the number of cars returned to the pool of available cars.
+     */
+    public CompletableFuture<Integer> refuelCars() {
+        return submit(RentalManager::refuelCars);
+    }
+
+    /**
+     * availableCars returns the number of cars available of a type. This is read from the metrics of the depot so is not queued.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns a completed future of the number of available cars.
+     */
+    public CompletableFuture<Integer> availableCars(String typeOfCar) {
+        return CompletableFuture.completedFuture(depot.availableCars(typeOfCar));
+    }
+
+    /**
+     * getClosedRentals returns the stream of the rentals terminated by the depot (by any client of the depot) from the time of subscription.
+     * Each subscriber has a bounded buffer (see Flow.defaultBufferSize), a subscriber which does not request rentals quickly enough misses the rentals terminated while its buffer is full.
+     *
+     * @return returns the publisher of the records of the rentals terminated.
+     */
+    public Flow.Publisher<RentalRecord> getClosedRentals() {
+        return closedRentals;
+    }
+
+    /**
+     * close stops accepting operations (those already queued are completed), completes the stream of closed rentals and forgets the AsyncRentalManager of the depot.
+     */
+    @Override
+    public void close() {
+        synchronized (AsyncRentalManager.class) {
+            if (INSTANCES.get(depot) == this) {
+                INSTANCES.remove(depot);
+                depot.setRentalListener(null);
+            }
+        }
+        executor.shutdown();
+        closedRentals.close();
+    }
+
+    private <T> CompletableFuture<T> submit(DepotOperation<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(operation.apply(depot));
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /*
+    An operation on the depot which may throw the checked exceptions of the depot.
+     */
+    private interface DepotOperation<T> {
+        T apply(RentalManager depot) throws Exception;
+    }
+}
@@ -0,0 +1,98 @@
+package manager;
+
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.fail;
+
+public class AsyncRentalManagerTest {
+    @Test
+    public void pipelinedRentals() throws Exception {
+        AsyncRentalManager asyncDepot = AsyncRentalManager.getInstance(RentalManager.getDepotInstance("async"));
+        if (AsyncRentalManager.getInstance(RentalManager.getDepotInstance("async")) != asyncDepot) {
+            fail();
+        }
+        final int noRentals = 200;
+        final CountDownLatch closed = new CountDownLatch(noRentals);
+        asyncDepot.getClosedRentals().subscribe(new Flow.Subscriber<RentalRecord>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(RentalRecord rental) {
+                closed.countDown();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        List<DrivingLicence> licences = new ArrayList<>();
+        for (int i = 0; i < noRentals; i++) {
+            licences.add(DrivingLicence.getInstance("Async", "Driver" + (char) ('a' + i % 26) + (char) ('a' + i / 26), birth, issue, true));
+        }
+        //Every operation is submitted without waiting for the previous one.
+        asyncDepot.provisionCars("small", noRentals);
+        List<CompletableFuture<Integer>> terminations = new ArrayList<>();
+        for (DrivingLicence licence : licences) {
+            terminations.add(asyncDepot.issue(licence, "small").thenCompose(result -> {
+                if (!result.isIssued()) {
+                    throw new IllegalStateException(result.toString());
+                }
+                return asyncDepot.terminateRental(licence);
+            }));
+        }
+        CompletableFuture.allOf(terminations.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+        if (!closed.await(10, TimeUnit.SECONDS) || asyncDepot.availableCars("small").get() != noRentals) {
+            fail();
+        }
+        asyncDepot.close();
+        try {
+            asyncDepot.refuelCars().get();
+            fail();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof RejectedExecutionException)) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void checkedExceptionsCompleteExceptionally() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("async-limits");
+        depot.setCarInstanceRestriction("large", 1);
+        try (AsyncRentalManager asyncDepot = AsyncRentalManager.getInstance(depot)) {
+            asyncDepot.provisionCars("large", 2).get();
+            fail();
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof GetInstanceLimitExceededException)) {
+                fail();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() {
+        AsyncRentalManager.getInstance(null);
+    }
+}
@@ -0,0 +1,161 @@
+package manager;
+
+import cars.Car;
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+
+import java.io.InvalidObjectException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The DepotRouter class partitions rental requests across a fixed set of depots (RentalManager instances).
+ * <p>
+ * Each driving licence is mapped to exactly one depot by the hash of the licence, so every request for a licence (issue, lookup and termination) is served by the same depot.
+ * This guarantees a licence cannot hold more than one car across the depots of the router, while requests for different licences can be served by different depots concurrently.
+ * Queries which span every depot (i.e. the number of available cars of a type) are run in parallel across the depots.
+ * <p>
+ * Rentals (issue and termination) take only the lock of their depot, so their throughput grows with the number of depots up to the number of processors (see DepotRouterBenchmark).
+ * The state shared by every depot still serializes the depots whatever their number: the creation of licences (DrivingLicence.getInstance), of cars and their registrations
+ * (CarImplCarFactory.tryGetInstance and CarRegistration, unless a depot has its own LocalCarFactory) and the lookup of licences by number (DrivingLicence.getLicence) are each synchronized on a single lock.
+ */
+public final class DepotRouter {
+
+    private final List<RentalManager> depots;
+
+    /**
+     * DepotRouter is a constructor for a new DepotRouter object.
+     *
+     * @param depots the depots to route between (in a fixed order).
+     */
+    private DepotRouter(List<RentalManager> depots) {
+        this.depots = depots;
+    }
+
+    /**
+     * getInstance returns a new DepotRouter which partitions requests across the specified depots.
+     *
+     * @param depots specifies the depots to route between (the order of the depots defines the partitioning, so must not change).
+     * @return returns a new DepotRouter object.
+     */
+    public static DepotRouter getInstance(List<RentalManager> depots) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depots == null || depots.isEmpty()) {
+            throw new IllegalArgumentException("A router must have at least one depot.");
+        }
+        if (depots.contains(null)) {
+            throw new IllegalArgumentException("Depots cannot be null objects.");
+        }
+        //Defensive copying so the partitioning cannot change after the router is created.
+        return new DepotRouter(Collections.unmodifiableList(new ArrayList<>(depots)));
+    }
+
+    /**
+     * getDepot returns the depot responsible for the specified driving licence.
+     *
+     * @param drivingLicence specifies the DrivingLicence object.
+     * @return returns the depot the licence is routed to.
+     */
+    public RentalManager getDepot(DrivingLicence drivingLicence) {
+        /*
+        Check parameters.
+         */
+        if (drivingLicence == null) {
+            throw new IllegalArgumentException("Driving licence cannot be null.");
+        }
+        //Spread the bits of the hash before taking the (non-negative) modulus so that similar licences are distributed evenly.
+        int hash = drivingLicence.hashCode();
+        hash ^= (hash >>> 16);
+        return depots.get(Math.floorMod(hash, depots.size()));
+    }
+
+    /**
+     * getDepots returns the depots of the router.
+     *
+     * @return returns an unmodifiable list of the depots.
+     */
+    public List<RentalManager> getDepots() {
+        return depots;
+    }
+
+    /**
+     * issueCar issues a car to the driving licence from the depot the licence is routed to (see RentalManager.issueCar).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue.
+     * @return returns true if successful, returns false otherwise.
+     * @throws GetInstanceLimitExceededException in the event the instance limit has been reached for any particular class should be handled appropriately.
+     */
+    public boolean issueCar(DrivingLicence drivingLicence, String typeOfCar) throws GetInstanceLimitExceededException {
+        return getDepot(drivingLicence).issueCar(drivingLicence, typeOfCar);
+    }
+
+    /**
+     * issue issues a car to the driving licence from the depot the licence is routed to, returning the car issued or why the request was refused (see RentalManager.issue).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue.
+     * @return returns the IssueResult of the request.
+     * @throws GetInstanceLimitExceededException in the event the instance limit has been reached for any particular class should be handled appropriately.
+     */
+    public IssueResult issue(DrivingLicence drivingLicence, String typeOfCar) throws GetInstanceLimitExceededException {
+        return getDepot(drivingLicence).issue(drivingLicence, typeOfCar);
+    }
+
+    /**
+     * terminateRental terminates the rental of the driving licence at the depot the licence is routed to (see RentalManager.terminateRental).
+     *
+     * @param drivingLicence defines the DrivingLicence object to terminate the rental of.
+     * @return returns the value of fuel required to fill up the tank post-rental.
+     * @throws InvalidObjectException safety check the event that the object is in an inconsistent state of both rented and not rented (as internally determined).
+     */
+    public int terminateRental(DrivingLicence drivingLicence) throws InvalidObjectException {
+        return getDepot(drivingLicence).terminateRental(drivingLicence);
+    }
+
+    /**
+     * getCar returns the car rented by the driving licence at the depot the licence is routed to (see RentalManager.getCar).
+     *
+     * @param drivingLicence specifies the DrivingLicence object.
+     * @return returns the car associated with that licence.
+     */
+    public Car getCar(DrivingLicence drivingLicence) {
+        return getDepot(drivingLicence).getCar(drivingLicence);
+    }
+
+    /**
+     * availableCars returns the number of cars available of a particular type across every depot (the depots are queried in parallel).
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @return returns the number of available cars of a particular type.
+     */
+    public int availableCars(final String typeOfCar) {
+        /*
+        Check parameters.
+         */
+        assert typeOfCar != null;
+        return depots.parallelStream().mapToInt(depot -> depot.availableCars(typeOfCar)).sum();
+    }
+
+    /**
+     * getRentedCars returns the cars rented across every depot (the depots are queried in parallel).
+     *
+     * @return returns a list of rented cars.
+     */
+    public List<Car> getRentedCars() {
+        return depots.parallelStream().flatMap(depot -> depot.getRentedCars().stream()).collect(Collectors.toList());
+    }
+
+    /**
+     * refuelCars runs a refuelling cycle at every depot in parallel.
+     *
+     * @return returns the number of cars returned to the pools of available cars.
+     */
+    public int refuelCars() {
+        return depots.parallelStream().mapToInt(RentalManager::refuelCars).sum();
+    }
+}
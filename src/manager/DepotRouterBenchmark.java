@@ -0,0 +1,143 @@
+package manager;
+
+import cars.LocalCarFactory;
+import licences.DrivingLicence;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The DepotRouterBenchmark class measures how the rentals per second of a DepotRouter scale with the number of depots (see DepotRouter).
+ * <p>
+ * For 1, 2, 4, ... depots a thread per depot issues and terminates rentals for the licences routed to its depot, so the threads share no depot lock, and the speedup over a single depot is reported
+ * next to the number of processors (the speedup cannot exceed the number of processors). The licences are created before the rentals are measured.
+ * <p>
+ * The state shared by every depot is measured separately, as it serializes the depots whatever their number: the creation of licences (DrivingLicence.getInstance is synchronized on the class,
+ * as the creation of cars is, see CarImplCarFactory.tryGetInstance) is measured with as many threads as the largest number of depots.
+ * <p>
+ * Usage: DepotRouterBenchmark [rentals] [max depots] (two million rentals per run, as shorter runs are dominated by compilation, and up to twice the number of processors, at least 8, by default).
+ */
+public final class DepotRouterBenchmark {
+
+    //The cars of each depot and the licences routed to each depot (so each thread always has a licence without a car).
+    private static final int CARS_PER_DEPOT = 64;
+    private static final int LICENCES_PER_DEPOT = 32;
+
+    private DepotRouterBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noRentals = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        int maxDepots = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+        System.out.println("processors=" + Runtime.getRuntime().availableProcessors());
+        //Warm up every number of depots before measuring, so the first run is not measured with less compiled code than the others.
+        for (int round = 0; round < 3; round++) {
+            for (int noDepots = 1; noDepots <= maxDepots; noDepots *= 2) {
+                rentalsPerSecond(noDepots, noRentals / 4);
+            }
+        }
+        double singleDepot = 0;
+        for (int noDepots = 1; noDepots <= maxDepots; noDepots *= 2) {
+            double throughput = rentalsPerSecond(noDepots, noRentals);
+            if (noDepots == 1) {
+                singleDepot = throughput;
+            }
+            System.out.printf("depots=%d threads=%d rentals=%.0f/s speedup=%.2f%n", noDepots, noDepots, throughput, throughput / singleDepot);
+        }
+        //The licences are created by the threads concurrently, so they contend on the lock of the class.
+        int noLicences = noRentals / 4;
+        long elapsed = run(maxDepots, thread -> {
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            for (int i = 0; i < noLicences / maxDepots; i++) {
+                DrivingLicence.getInstance("Router", "Benchmark", birth, issue, true);
+            }
+        });
+        System.out.printf("shared: DrivingLicence.getInstance threads=%d licences=%.0f/s%n", maxDepots, noLicences * 1e9 / elapsed);
+    }
+
+    /*
+    Issues and terminates the rentals across the depots, a thread per depot, returning the rentals per second.
+     */
+    private static double rentalsPerSecond(int noDepots, int noRentals) throws Exception {
+        List<RentalManager> depots = new ArrayList<>(noDepots);
+        for (int i = 0; i < noDepots; i++) {
+            //Isolated depots (with their own cars) so the runs neither accumulate depots nor exhaust the registrations.
+            RentalManager depot = RentalManager.getIsolatedInstance("DepotRouterBenchmark-" + i, LocalCarFactory.getInstance());
+            depot.provisionCars("SMALL", CARS_PER_DEPOT);
+            depots.add(depot);
+        }
+        DepotRouter router = DepotRouter.getInstance(depots);
+        /*
+        Create licences (unregistered, as the rentals do not look them up) until each depot has its share routed to it.
+         */
+        List<List<DrivingLicence>> licences = new ArrayList<>(noDepots);
+        for (int i = 0; i < noDepots; i++) {
+            licences.add(new ArrayList<>(LICENCES_PER_DEPOT));
+        }
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        int noFull = 0;
+        while (noFull < noDepots) {
+            DrivingLicence licence = DrivingLicence.getUnregisteredInstance("Router", "Benchmark", birth, issue, true);
+            List<DrivingLicence> licencesOfDepot = licences.get(depots.indexOf(router.getDepot(licence)));
+            if (licencesOfDepot.size() < LICENCES_PER_DEPOT) {
+                licencesOfDepot.add(licence);
+                if (licencesOfDepot.size() == LICENCES_PER_DEPOT) {
+                    noFull++;
+                }
+            }
+        }
+        final int rentalsPerThread = noRentals / noDepots;
+        long elapsed = run(noDepots, thread -> {
+            List<DrivingLicence> licencesOfDepot = licences.get(thread);
+            for (int i = 0; i < rentalsPerThread; i++) {
+                DrivingLicence licence = licencesOfDepot.get(i % LICENCES_PER_DEPOT);
+                router.issue(licence, "SMALL");
+                router.terminateRental(licence);
+                //The records of the rentals are drained so they do not accumulate over the run.
+                if ((i & 1023) == 0) {
+                    router.getDepot(licence).drainClosedRentals();
+                }
+            }
+        });
+        return rentalsPerThread * (double) noDepots * 1e9 / elapsed;
+    }
+
+    /*
+    Runs the work on a number of threads started together, returning the nanoseconds until every thread has finished.
+     */
+    private static long run(int noThreads, Work work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(noThreads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>(noThreads);
+            for (int i = 0; i < noThreads; i++) {
+                final int thread = i;
+                tasks.add(() -> {
+                    work.run(thread);
+                    return null;
+                });
+            }
+            long start = System.nanoTime();
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /*
+    The work of the i-th thread of a run.
+     */
+    private interface Work {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,98 @@
+package manager;
+
+import licences.DrivingLicence;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.fail;
+
+public class DepotRouterTest {
+    @Test
+    public void getDepotInstance() throws Exception {
+        //The same name should return the same depot and the default depot should be the singleton.
+        RentalManager depot = RentalManager.getDepotInstance("north");
+        if (depot != RentalManager.getDepotInstance("NORTH") || RentalManager.getDepotInstance("default") != RentalManager.getInstance()) {
+            fail();
+        }
+        //Depots should not share a fleet.
+        RentalManager otherDepot = RentalManager.getDepotInstance("router-isolation");
+        int availableBefore = RentalManager.getInstance().availableCars("small");
+        otherDepot.provisionCars("small", 5);
+        if (otherDepot.availableCars("small") != 5 || RentalManager.getInstance().availableCars("small") != availableBefore) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() throws Exception {
+        DepotRouter.getInstance(Collections.<RentalManager>emptyList());
+    }
+
+    @Test
+    public void getDepot() throws Exception {
+        DepotRouter router = DepotRouter.getInstance(Arrays.asList(RentalManager.getDepotInstance("route-a"), RentalManager.getDepotInstance("route-b")));
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        DrivingLicence licence = DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, true);
+        //A licence should always be routed to the same depot.
+        if (router.getDepot(licence) != router.getDepot(licence)) {
+            fail();
+        }
+    }
+
+    @Test
+    public void issueCarParallel() throws Exception {
+        //Build four depots with ten small cars each.
+        List<RentalManager> depots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            RentalManager depot = RentalManager.getDepotInstance("parallel-" + i);
+            depot.provisionCars("small", 10);
+            depots.add(depot);
+        }
+        final DepotRouter router = DepotRouter.getInstance(depots);
+        if (router.availableCars("small") != 40) {
+            fail();
+        }
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        List<DrivingLicence> licences = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            licences.add(DrivingLicence.getInstance("Doc", "Brown", birth, issue, true));
+        }
+        //Issue and terminate rentals concurrently: each licence should be issued exactly one car.
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (final DrivingLicence licence : licences) {
+                results.add(executor.submit(() -> router.issueCar(licence, "small") && !router.issueCar(licence, "small")));
+            }
+            int issued = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    issued++;
+                }
+            }
+            //Not every depot may have received enough licences, but no depot can issue more than ten cars.
+            if (router.getRentedCars().size() != issued || router.availableCars("small") != 40 - issued) {
+                fail();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (DrivingLicence licence : licences) {
+            router.terminateRental(licence);
+        }
+        if (router.availableCars("small") != 40 || !router.getRentedCars().isEmpty()) {
+            fail();
+        }
+    }
+}
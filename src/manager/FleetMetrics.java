@@ -0,0 +1,270 @@
+package manager;
+
+import cars.Car;
+import cars.FuelObserver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The FleetMetrics class keeps counters and gauges of the fleet of a depot per type of car: the number of cars owned, available, rented and awaiting fuel,
+ * the number of rentals issued and terminated, the total duration of the rentals terminated, the total fuel remaining and capacity, and the kilometres driven.
+ * <p>
+ * The values are updated incrementally by the depot as cars move between states (see RentalManager) and by the cars themselves when their fuel changes or they are driven (see FuelObserver),
+ * so every read is a lookup rather than a scan of the fleet. Reads and updates are synchronized on the metrics (not on the depot), so monitoring never waits for the depot.
+ */
+public final class FleetMetrics {
+
+    /*
+    The states a car of a depot can be in.
+     */
+    static final int AVAILABLE = 0;
+    static final int RENTED = 1;
+    static final int AWAITING_FUEL = 2;
+
+    /*
+    The index of each value in the counters of a type of car (the states come first).
+     */
+    private static final int FLEET = 3;
+    private static final int ISSUED = 4;
+    private static final int TERMINATED = 5;
+    private static final int FUEL_REMAINING = 6;
+    private static final int FUEL_CAPACITY = 7;
+    private static final int KILOMETRES = 8;
+    private static final int RENTAL_DURATION = 9;
+    private static final int NO_VALUES = 10;
+
+    /*
+    The counters of each type of car (key-value pairs of car type to counters).
+     */
+    private final Map<String, long[]> counters = new HashMap<>();
+
+    /*
+    The observer of the fuel of the cars of the fleet (kept private so only cars of the fleet update the fuel and kilometres).
+     */
+    private final FuelObserver fuelObserver = new FuelObserver() {
+        @Override
+        public void fuelChanged(Car car, int previousFuelRemaining, int fuelRemaining) {
+            add(car.getTypeAsString(), FUEL_REMAINING, fuelRemaining - previousFuelRemaining);
+        }
+
+        @Override
+        public void kilometresDriven(Car car, int kilometres) {
+            add(car.getTypeAsString(), KILOMETRES, kilometres);
+        }
+    };
+
+    /**
+     * FleetMetrics is a constructor for the metrics of an empty fleet.
+     */
+    FleetMetrics() {
+    }
+
+    /**
+     * carJoined records a car joining the fleet in a state and starts observing its fuel.
+     *
+     * @param car   specifies the car.
+     * @param state specifies the state of the car (AVAILABLE or AWAITING_FUEL).
+     */
+    synchronized void carJoined(Car car, int state) {
+        long[] typeCounters = getCounters(car.getTypeAsString());
+        typeCounters[FLEET]++;
+        typeCounters[state]++;
+        typeCounters[FUEL_REMAINING] += car.getFuelRemaining();
+        typeCounters[FUEL_CAPACITY] += car.getFuelCapacity();
+        car.setFuelObserver(fuelObserver);
+    }
+
+    /**
+     * carLeft records a car leaving the fleet from a state and stops observing its fuel.
+     *
+     * @param car   specifies the car.
+     * @param state specifies the state of the car.
+     */
+    synchronized void carLeft(Car car, int state) {
+        car.setFuelObserver(null);
+        long[] typeCounters = getCounters(car.getTypeAsString());
+        typeCounters[FLEET]--;
+        typeCounters[state]--;
+        typeCounters[FUEL_REMAINING] -= car.getFuelRemaining();
+        typeCounters[FUEL_CAPACITY] -= car.getFuelCapacity();
+    }
+
+    /**
+     * carMoved records a car of the fleet moving from one state to another. Moving from AVAILABLE to RENTED counts a rental issued and moving from RENTED counts a rental terminated.
+     *
+     * @param car  specifies the car.
+     * @param from specifies the previous state of the car.
+     * @param to   specifies the new state of the car.
+     */
+    synchronized void carMoved(Car car, int from, int to) {
+        long[] typeCounters = getCounters(car.getTypeAsString());
+        typeCounters[from]--;
+        typeCounters[to]++;
+        if (to == RENTED) {
+            typeCounters[ISSUED]++;
+        } else if (from == RENTED) {
+            typeCounters[TERMINATED]++;
+        }
+    }
+
+    /**
+     * issueRevoked records a car which was issued returning to AVAILABLE without being rented (the issue is not counted).
+     *
+     * @param car specifies the car.
+     */
+    synchronized void issueRevoked(Car car) {
+        long[] typeCounters = getCounters(car.getTypeAsString());
+        typeCounters[RENTED]--;
+        typeCounters[AVAILABLE]++;
+        typeCounters[ISSUED]--;
+    }
+
+    /**
+     * rentalClosed records the duration of a rental terminated (see carMoved).
+     *
+     * @param typeOfCar specifies the type of the car (in UPPERCASE).
+     * @param duration  specifies the duration of the rental in milliseconds.
+     */
+    void rentalClosed(String typeOfCar, long duration) {
+        add(typeOfCar, RENTAL_DURATION, duration);
+    }
+
+    private synchronized void add(String typeOfCar, int value, long amount) {
+        getCounters(typeOfCar)[value] += amount;
+    }
+
+    private long[] getCounters(String typeOfCar) {
+        long[] typeCounters = counters.get(typeOfCar);
+        if (typeCounters == null) {
+            typeCounters = new long[NO_VALUES];
+            counters.put(typeOfCar, typeCounters);
+        }
+        return typeCounters;
+    }
+
+    private synchronized long get(String typeOfCar, int value) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        long[] typeCounters = counters.get(typeOfCar.toUpperCase());
+        return typeCounters == null ? 0 : typeCounters[value];
+    }
+
+    /**
+     * getFleetSize returns the number of cars of a type owned by the depot.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars.
+     */
+    public int getFleetSize(String typeOfCar) {
+        return (int) get(typeOfCar, FLEET);
+    }
+
+    /**
+     * getAvailable returns the number of cars of a type available to be issued.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars.
+     */
+    public int getAvailable(String typeOfCar) {
+        return (int) get(typeOfCar, AVAILABLE);
+    }
+
+    /**
+     * getRented returns the number of cars of a type rented.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars.
+     */
+    public int getRented(String typeOfCar) {
+        return (int) get(typeOfCar, RENTED);
+    }
+
+    /**
+     * getAwaitingFuel returns the number of cars of a type waiting to be refuelled.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars.
+     */
+    public int getAwaitingFuel(String typeOfCar) {
+        return (int) get(typeOfCar, AWAITING_FUEL);
+    }
+
+    /**
+     * getRentalsIssued returns the number of rentals of a type of car issued.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of rentals.
+     */
+    public long getRentalsIssued(String typeOfCar) {
+        return get(typeOfCar, ISSUED);
+    }
+
+    /**
+     * getRentalsTerminated returns the number of rentals of a type of car terminated.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of rentals.
+     */
+    public long getRentalsTerminated(String typeOfCar) {
+        return get(typeOfCar, TERMINATED);
+    }
+
+    /**
+     * getAverageRentalDuration returns the average duration of the rentals of a type of car terminated.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the average duration in milliseconds (0 if no rental of the type has been terminated).
+     */
+    public synchronized long getAverageRentalDuration(String typeOfCar) {
+        long terminated = get(typeOfCar, TERMINATED);
+        return terminated == 0 ? 0 : get(typeOfCar, RENTAL_DURATION) / terminated;
+    }
+
+    /**
+     * getKilometresDriven returns the kilometres driven by the cars of a type while they were owned by the depot.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the kilometres driven.
+     */
+    public long getKilometresDriven(String typeOfCar) {
+        return get(typeOfCar, KILOMETRES);
+    }
+
+    /**
+     * getUtilisation returns the fraction of the cars of a type which are rented.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the utilisation (0 if the depot owns no cars of the type).
+     */
+    public synchronized double getUtilisation(String typeOfCar) {
+        long fleet = get(typeOfCar, FLEET);
+        return fleet == 0 ? 0 : (double) get(typeOfCar, RENTED) / fleet;
+    }
+
+    /**
+     * getAverageFuelRemaining returns the average fuel remaining of the cars of a type.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the average fuel remaining (0 if the depot owns no cars of the type).
+     */
+    public synchronized double getAverageFuelRemaining(String typeOfCar) {
+        long fleet = get(typeOfCar, FLEET);
+        return fleet == 0 ? 0 : (double) get(typeOfCar, FUEL_REMAINING) / fleet;
+    }
+
+    /**
+     * getFuelLevel returns the fuel remaining of the cars of a type as a fraction of their fuel capacity.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the fuel level (0 if the depot owns no cars of the type).
+     */
+    public synchronized double getFuelLevel(String typeOfCar) {
+        long fuelCapacity = get(typeOfCar, FUEL_CAPACITY);
+        return fuelCapacity == 0 ? 0 : (double) get(typeOfCar, FUEL_REMAINING) / fuelCapacity;
+    }
+}
@@ -0,0 +1,61 @@
+package manager;
+
+import cars.Car;
+import licences.DrivingLicence;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.fail;
+
+public class FleetMetricsTest {
+    @Test
+    public void metricsValid() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("metrics");
+        FleetMetrics metrics = depot.getMetrics();
+        depot.provisionCars("small", 4);
+        if (metrics.getFleetSize("small") != 4 || metrics.getAvailable("small") != 4 || metrics.getUtilisation("small") != 0 || metrics.getFuelLevel("small") != 1) {
+            fail();
+        }
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        DrivingLicence licence = DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, true);
+        depot.issueCar(licence, "small");
+        if (metrics.getRented("small") != 1 || metrics.getAvailable("small") != 3 || metrics.getUtilisation("small") != 0.25 || metrics.getRentalsIssued("small") != 1) {
+            fail();
+        }
+        //Driving the car updates the fuel and kilometres without the depot.
+        depot.getCar(licence).drive(200);
+        if (metrics.getKilometresDriven("small") != 200 || metrics.getAverageFuelRemaining("small") != (4 * 49 - 10) / 4.0) {
+            fail();
+        }
+        //The car returns with a partial tank so waits for fuel.
+        depot.terminateRental(licence);
+        if (metrics.getRented("small") != 0 || metrics.getAwaitingFuel("small") != 1 || metrics.getRentalsTerminated("small") != 1) {
+            fail();
+        }
+        depot.refuelCars();
+        if (metrics.getAwaitingFuel("small") != 0 || metrics.getAvailable("small") != 4 || metrics.getFuelLevel("small") != 1) {
+            fail();
+        }
+        //A car withdrawn from the depot is no longer observed.
+        Car car = depot.withdrawAvailableCar("small");
+        car.setRented(true);
+        car.drive(100);
+        if (metrics.getFleetSize("small") != 3 || metrics.getKilometresDriven("small") != 200 || metrics.getFuelLevel("small") != 1) {
+            fail();
+        }
+        car.setRented(false);
+        car.addFuel(car.getFuelNeeded());
+        depot.acceptCar(car);
+        if (metrics.getFleetSize("small") != 4 || depot.availableCars("small") != 4) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getFleetSizeInvalid() throws Exception {
+        RentalManager.getDepotInstance("metrics").getMetrics().getFleetSize(null);
+    }
+}
@@ -0,0 +1,91 @@
+package manager;
+
+import cars.Car;
+
+/**
+ * The IssuePolicy class defines when a car which is not fully fuelled may be issued by the RentalManager.
+ * <p>
+ * A policy is defined by a minimum fuel percentage (a car may be issued only if its fuel remaining is at least that percentage of its fuel capacity) and whether the driver is charged for the fuel the car was missing when it was issued.
+ * If the shortfall is not charged then the fuel owed at the end of the rental excludes the fuel that was missing at the start of the rental.
+ * The default policy FULL_TANK only allows cars with a full tank to be issued (the original behaviour of the RentalManager).
+ * <p>
+ * The IssuePolicy class is immutable and utilizes a static factory method build pattern.
+ */
+public final class IssuePolicy {
+
+    /*
+    The default policy: only cars with a full tank are issued.
+     */
+    public static final IssuePolicy FULL_TANK = new IssuePolicy(100, true);
+
+    private final int minimumFuelPercentage;
+    private final boolean chargeShortfall;
+
+    /**
+     * IssuePolicy is a constructor for a new IssuePolicy object.
+     *
+     * @param minimumFuelPercentage the minimum percentage of the fuel capacity a car must have remaining to be issued.
+     * @param chargeShortfall       specifies whether the driver is charged for the fuel missing when the car was issued.
+     */
+    private IssuePolicy(int minimumFuelPercentage, boolean chargeShortfall) {
+        this.minimumFuelPercentage = minimumFuelPercentage;
+        this.chargeShortfall = chargeShortfall;
+    }
+
+    /**
+     * getInstance returns a new IssuePolicy object given the respective parameters.
+     *
+     * @param minimumFuelPercentage the minimum percentage (1-100) of the fuel capacity a car must have remaining to be issued.
+     * @param chargeShortfall       specifies whether the driver is charged for the fuel missing when the car was issued.
+     * @return returns the IssuePolicy object.
+     */
+    public static IssuePolicy getInstance(int minimumFuelPercentage, boolean chargeShortfall) {
+        /*
+        Check parameters.
+         */
+        if (minimumFuelPercentage <= 0 || minimumFuelPercentage > 100) {
+            throw new IllegalArgumentException("The minimum fuel percentage must be a value between 1 and 100.");
+        }
+        return new IssuePolicy(minimumFuelPercentage, chargeShortfall);
+    }
+
+    /**
+     * isIssuable returns whether a car has enough fuel remaining to be issued under this policy.
+     *
+     * @param car specifies the car to check.
+     * @return returns true if the car can be issued.
+     */
+    boolean isIssuable(Car car) {
+        assert car != null;
+        //Compare as whole numbers (fuel remaining / capacity >= percentage / 100) to avoid rounding.
+        return car.getFuelRemaining() * 100L >= (long) minimumFuelPercentage * car.getFuelCapacity();
+    }
+
+    /**
+     * getMinimumFuelPercentage returns the minimum percentage of the fuel capacity a car must have remaining to be issued.
+     *
+     * @return returns the minimum fuel percentage.
+     */
+    public int getMinimumFuelPercentage() {
+        return minimumFuelPercentage;
+    }
+
+    /**
+     * isShortfallCharged returns whether the driver is charged for the fuel missing when the car was issued.
+     *
+     * @return returns true if the shortfall is charged.
+     */
+    public boolean isShortfallCharged() {
+        return chargeShortfall;
+    }
+
+    /**
+     * toString returns the policy as a string.
+     *
+     * @return returns the following formatted string "IssuePolicy[minimumFuelPercentage%, charge shortfall = chargeShortfall]".
+     */
+    @Override
+    public String toString() {
+        return "IssuePolicy[" + minimumFuelPercentage + "%, charge shortfall = " + chargeShortfall + "]";
+    }
+}
@@ -0,0 +1,44 @@
+package manager;
+
+import cars.Car;
+import cars.CarImplCarFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.fail;
+
+public class IssuePolicyTest {
+    @Test
+    public void getInstanceValid() throws Exception {
+        IssuePolicy policy = IssuePolicy.getInstance(95, false);
+        if (policy.getMinimumFuelPercentage() != 95 || policy.isShortfallCharged()) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() throws Exception {
+        IssuePolicy.getInstance(0, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceExtremeInvalid() throws Exception {
+        IssuePolicy.getInstance(101, true);
+    }
+
+    @Test
+    public void isIssuable() throws Exception {
+        //A large car has a 60 litre tank: driving 40 kilometres consumes 4 litres (leaving 56 litres, or 93%).
+        Car largeCar = CarImplCarFactory.getInstance("large");
+        largeCar.setRented(true);
+        largeCar.drive(40);
+        if (IssuePolicy.FULL_TANK.isIssuable(largeCar)) {
+            fail();
+        }
+        if (!IssuePolicy.getInstance(90, true).isIssuable(largeCar)) {
+            fail();
+        }
+        if (IssuePolicy.getInstance(95, true).isIssuable(largeCar)) {
+            fail();
+        }
+    }
+}
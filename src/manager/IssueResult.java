@@ -0,0 +1,120 @@
+package manager;
+
+import cars.Car;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The IssueResult class is the outcome of a request to issue a car (see RentalManager.issue): either the car issued, or the reason the request was refused.
+ * <p>
+ * When the request was refused because no car could be issued (see RejectionReason.isTransient) the result also estimates how long it will be until a car of the type is returned,
+ * so clients can back off for that long instead of retrying immediately. The estimate is derived from the average duration of the rentals of the type terminated by the depot
+ * and the start of its oldest outstanding rental, so it is UNKNOWN until the depot has terminated a rental of the type (or if it has no car of the type rented).
+ * <p>
+ * The IssueResult class is immutable. Results of refusals which carry no estimate are shared.
+ */
+public final class IssueResult {
+
+    /*
+    The estimated wait of a result without an estimate.
+     */
+    public static final long UNKNOWN = -1;
+
+    private static final Map<RejectionReason, IssueResult> REJECTIONS = new EnumMap<>(RejectionReason.class);
+
+    static {
+        for (RejectionReason reason : RejectionReason.values()) {
+            REJECTIONS.put(reason, new IssueResult(null, reason, UNKNOWN));
+        }
+    }
+
+    private final Car car;
+    private final RejectionReason reason;
+    private final long estimatedWait;
+
+    /**
+     * IssueResult is a constructor for a new IssueResult object.
+     *
+     * @param car           the car issued (null if the request was refused).
+     * @param reason        the reason the request was refused (null if a car was issued).
+     * @param estimatedWait the estimated wait in milliseconds until a car is returned (or UNKNOWN).
+     */
+    private IssueResult(Car car, RejectionReason reason, long estimatedWait) {
+        this.car = car;
+        this.reason = reason;
+        this.estimatedWait = estimatedWait;
+    }
+
+    /**
+     * issued returns the result of a request which issued a car.
+     *
+     * @param car specifies the car issued.
+     * @return returns the IssueResult object.
+     */
+    static IssueResult issued(Car car) {
+        assert car != null;
+        return new IssueResult(car, null, UNKNOWN);
+    }
+
+    /**
+     * rejected returns the result of a refused request.
+     *
+     * @param reason        specifies the reason the request was refused.
+     * @param estimatedWait specifies the estimated wait in milliseconds until a car is returned (or UNKNOWN).
+     * @return returns the IssueResult object.
+     */
+    static IssueResult rejected(RejectionReason reason, long estimatedWait) {
+        assert reason != null;
+        return estimatedWait == UNKNOWN ? REJECTIONS.get(reason) : new IssueResult(null, reason, Math.max(0, estimatedWait));
+    }
+
+    /**
+     * isIssued returns whether a car was issued.
+     *
+     * @return returns true if a car was issued.
+     */
+    public boolean isIssued() {
+        return car != null;
+    }
+
+    /**
+     * getCar returns the car issued.
+     *
+     * @return returns the car issued, or null if the request was refused.
+     */
+    public Car getCar() {
+        return car;
+    }
+
+    /**
+     * getReason returns the reason the request was refused.
+     *
+     * @return returns the RejectionReason, or null if a car was issued.
+     */
+    public RejectionReason getReason() {
+        return reason;
+    }
+
+    /**
+     * getEstimatedWait returns the estimated time until a car of the type requested is returned to the depot (only estimated if the reason is transient).
+     *
+     * @return returns the estimated wait in milliseconds, or UNKNOWN.
+     */
+    public long getEstimatedWait() {
+        return estimatedWait;
+    }
+
+    /**
+     * toString returns the result as a string.
+     *
+     * @return returns the following formatted string "IssueResult[issued car]" or "IssueResult[reason, estimated wait = estimatedWait ms]".
+     */
+    @Override
+    public String toString() {
+        if (isIssued()) {
+            return "IssueResult[issued " + car + "]";
+        }
+        return "IssueResult[" + reason + (estimatedWait == UNKNOWN ? "" : ", estimated wait = " + estimatedWait + " ms") + "]";
+    }
+}
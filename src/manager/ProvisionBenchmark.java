@@ -0,0 +1,59 @@
+package manager;
+
+import exceptions.GetInstanceLimitExceededException;
+
+/**
+ * The ProvisionBenchmark class measures the requests to provision cars per second when every request reaches the instance restriction of the depot,
+ * reported by a GetInstanceLimitExceededException (see RentalManager.provisionCars) and as a result (see RentalManager.tryProvisionCars).
+ * Requests are made from a given stack depth, as the cost of filling in a stack trace grows with the depth (i.e. of a request handled by the service layer).
+ * <p>
+ * Usage: ProvisionBenchmark [requests] [stack depth] (one million requests from a depth of 64 by default).
+ */
+public final class ProvisionBenchmark {
+
+    private ProvisionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noRequests = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        RentalManager depot = RentalManager.getDepotInstance("ProvisionBenchmark");
+        depot.setCarInstanceRestriction("SMALL", 1);
+        depot.provisionCars("SMALL", 1);
+        //Warm up before measuring.
+        for (int i = 0; i < 3; i++) {
+            atDepth(depth, depot, Math.min(noRequests, 100000), true);
+            atDepth(depth, depot, Math.min(noRequests, 100000), false);
+        }
+        long start = System.nanoTime();
+        int noLimited = atDepth(depth, depot, noRequests, true);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("provisionCars: " + (noRequests * 1000000000L / elapsed) + " requests/s (" + noLimited + " limited)");
+        start = System.nanoTime();
+        noLimited = atDepth(depth, depot, noRequests, false);
+        elapsed = System.nanoTime() - start;
+        System.out.println("tryProvisionCars: " + (noRequests * 1000000000L / elapsed) + " requests/s (" + noLimited + " limited)");
+    }
+
+    /*
+    Makes the requests once the stack is the given depth, returning the number of requests which reached the limit.
+     */
+    private static int atDepth(int depth, RentalManager depot, int noRequests, boolean throwing) {
+        if (depth > 0) {
+            return atDepth(depth - 1, depot, noRequests, throwing);
+        }
+        int noLimited = 0;
+        for (int i = 0; i < noRequests; i++) {
+            if (throwing) {
+                try {
+                    depot.provisionCars("SMALL", 1);
+                } catch (GetInstanceLimitExceededException e) {
+                    noLimited++;
+                }
+            } else if (depot.tryProvisionCars("SMALL", 1).isLimit()) {
+                noLimited++;
+            }
+        }
+        return noLimited;
+    }
+}
@@ -0,0 +1,44 @@
+package manager;
+
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+
+/**
+ * The ProvisionResult enum defines the outcome of a request to provision cars (see RentalManager.tryProvisionCars), so a limit being reached is reported as a result rather than as a GetInstanceLimitExceededException (RentalManager.provisionCars counts its outcomes before throwing).
+ * Each result counts the requests with that outcome across every depot (see Instrumentation).
+ */
+public enum ProvisionResult {
+
+    /*
+    Every car requested was provisioned.
+     */
+    PROVISIONED,
+    /*
+    Provisioning the cars would exceed the instance restriction of the depot for the type, so no car was provisioned.
+     */
+    DEPOT_LIMIT_REACHED,
+    /*
+    Every registration has been allocated (see CarImplCarFactory.tryGetInstance), so fewer cars than requested (possibly none) were provisioned.
+     */
+    REGISTRATIONS_EXHAUSTED;
+
+    private final Counter requests = Instrumentation.counter("RentalManager.provision." + name());
+
+    /**
+     * isLimit returns whether the request reached a limit (i.e. the caller should not retry immediately).
+     *
+     * @return returns true if the result is DEPOT_LIMIT_REACHED or REGISTRATIONS_EXHAUSTED.
+     */
+    public boolean isLimit() {
+        return this != PROVISIONED;
+    }
+
+    /**
+     * getRequests returns the counter of the requests with this outcome.
+     *
+     * @return returns the Counter.
+     */
+    public Counter getRequests() {
+        return requests;
+    }
+}
@@ -0,0 +1,147 @@
+package manager;
+
+import cars.Car;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The RefuellingScheduler class is responsible for queueing cars returned with a partial tank and refuelling them in batches.
+ * <p>
+ * A depot is modelled as a fixed number of pumps where each pump can refuel a fixed number of cars per refuelling cycle.
+ * Calling refuel performs one cycle: the cars at the head of the queue are shared out across the pumps (first come first served) and each car is filled with exactly the fuel it needs.
+ * The refuelled cars are handed back to the caller (the RentalManager) which is responsible for returning them to the pool of available cars.
+ * <p>
+ * The scheduler also records the time each car joined the queue so that the number of cars waiting and the length of their wait can be monitored.
+ */
+final class RefuellingScheduler {
+
+    /*
+    Define the layout of the depot (how many pumps and how many cars each pump refuels per cycle).
+     */
+    private final int numberOfPumps;
+    private final int carsPerPump;
+    /*
+    Cars waiting to be refuelled in the order they were returned.
+     */
+    private final Deque<QueuedCar> queue = new ArrayDeque<>();
+
+    /**
+     * RefuellingScheduler is a constructor for a scheduler serving a depot with the specified pumps.
+     *
+     * @param numberOfPumps the number of pumps at the depot.
+     * @param carsPerPump   the number of cars each pump refuels per refuelling cycle.
+     */
+    RefuellingScheduler(int numberOfPumps, int carsPerPump) {
+        /*
+        Check parameters.
+         */
+        if (numberOfPumps <= 0) {
+            throw new IllegalArgumentException("Number of pumps cannot be a value lower than or equal to 0.");
+        }
+        if (carsPerPump <= 0) {
+            throw new IllegalArgumentException("Cars per pump cannot be a value lower than or equal to 0.");
+        }
+        this.numberOfPumps = numberOfPumps;
+        this.carsPerPump = carsPerPump;
+    }
+
+    /**
+     * queue adds a car to the back of the refuelling queue.
+     *
+     * @param car specifies the car to be refuelled.
+     */
+    void queue(Car car) {
+        /*
+        Check parameters.
+         */
+        assert car != null;
+        queue.addLast(new QueuedCar(car, System.nanoTime()));
+    }
+
+    /**
+     * refuel performs a single refuelling cycle. Each pump takes the next cars from the head of the queue (up to its batch size) and fills them.
+     *
+     * @return returns the list of cars which have been refuelled (in the order they were queued).
+     */
+    List<Car> refuel() {
+        List<Car> refuelled = new ArrayList<>();
+        for (int pump = 0; pump < numberOfPumps && !queue.isEmpty(); pump++) {
+            //Each pump serves a batch of cars before the next pump takes the following batch.
+            for (int i = 0; i < carsPerPump && !queue.isEmpty(); i++) {
+                Car car = queue.removeFirst().car;
+                car.addFuel(car.getFuelNeeded());
+                assert car.isFuelFull();
+                refuelled.add(car);
+            }
+        }
+        return refuelled;
+    }
+
+    /**
+     * getCarsWaiting returns the number of cars waiting to be refuelled.
+     *
+     * @return returns the number of cars in the queue.
+     */
+    int getCarsWaiting() {
+        return queue.size();
+    }
+
+    /**
+     * getCarsQueued returns the cars waiting to be refuelled.
+     *
+     * @return returns a list of the cars in the queue (in the order they were queued).
+     */
+    List<Car> getCarsQueued() {
+        List<Car> cars = new ArrayList<>(queue.size());
+        for (QueuedCar queuedCar : queue) {
+            cars.add(queuedCar.car);
+        }
+        return cars;
+    }
+
+    /**
+     * getLongestWait returns how long the car at the head of the queue has been waiting.
+     *
+     * @return returns the longest wait in milliseconds (0 if no cars are waiting).
+     */
+    long getLongestWait() {
+        QueuedCar head = queue.peekFirst();
+        if (head == null) {
+            return 0;
+        }
+        return (System.nanoTime() - head.queuedAt) / 1000000;
+    }
+
+    /**
+     * getAverageWait returns the average time the cars in the queue have been waiting.
+     *
+     * @return returns the average wait in milliseconds (0 if no cars are waiting).
+     */
+    long getAverageWait() {
+        if (queue.isEmpty()) {
+            return 0;
+        }
+        final long now = System.nanoTime();
+        long totalWait = 0;
+        for (QueuedCar queuedCar : queue) {
+            totalWait += now - queuedCar.queuedAt;
+        }
+        return (totalWait / queue.size()) / 1000000;
+    }
+
+    /*
+    A car in the queue alongside the time (System.nanoTime) it was queued.
+     */
+    private static final class QueuedCar {
+        private final Car car;
+        private final long queuedAt;
+
+        private QueuedCar(Car car, long queuedAt) {
+            this.car = car;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
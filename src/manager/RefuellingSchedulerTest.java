@@ -0,0 +1,75 @@
+package manager;
+
+import cars.Car;
+import cars.CarImplCarFactory;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+public class RefuellingSchedulerTest {
+    @Test
+    public void refuelValid() throws Exception {
+        RefuellingScheduler scheduler = new RefuellingScheduler(1, 2);
+        Car smallCar = CarImplCarFactory.getInstance("small");
+        smallCar.setRented(true);
+        smallCar.drive(200);
+        smallCar.setRented(false);
+        scheduler.queue(smallCar);
+        if (scheduler.getCarsWaiting() != 1) {
+            fail();
+        }
+        List<Car> refuelled = scheduler.refuel();
+        //The car should have been filled and the queue should now be empty.
+        if (refuelled.size() != 1 || !refuelled.get(0).isFuelFull() || scheduler.getCarsWaiting() != 0) {
+            fail();
+        }
+    }
+
+    @Test
+    public void refuelValidExtreme() throws Exception {
+        //Two pumps of three cars each should refuel six cars per cycle.
+        RefuellingScheduler scheduler = new RefuellingScheduler(2, 3);
+        for (int i = 0; i < 10; i++) {
+            Car largeCar = CarImplCarFactory.getInstance("large");
+            largeCar.setRented(true);
+            //Drive far enough to leave the tank negative.
+            largeCar.drive(2000);
+            largeCar.setRented(false);
+            scheduler.queue(largeCar);
+        }
+        if (scheduler.refuel().size() != 6 || scheduler.getCarsWaiting() != 4) {
+            fail();
+        }
+        List<Car> refuelled = scheduler.refuel();
+        if (refuelled.size() != 4 || scheduler.getCarsWaiting() != 0) {
+            fail();
+        }
+        for (Car car : refuelled) {
+            if (!car.isFuelFull()) {
+                fail();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refuellingSchedulerInvalid() throws Exception {
+        new RefuellingScheduler(0, 1);
+    }
+
+    @Test
+    public void getLongestWait() throws Exception {
+        RefuellingScheduler scheduler = new RefuellingScheduler(1, 1);
+        //No cars are waiting so there is no wait.
+        if (scheduler.getLongestWait() != 0 || scheduler.getAverageWait() != 0) {
+            fail();
+        }
+        scheduler.queue(CarImplCarFactory.getInstance("small"));
+        Thread.sleep(5);
+        scheduler.queue(CarImplCarFactory.getInstance("small"));
+        if (scheduler.getLongestWait() < 5 || scheduler.getAverageWait() > scheduler.getLongestWait()) {
+            fail();
+        }
+    }
+}
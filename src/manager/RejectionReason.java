@@ -0,0 +1,61 @@
+package manager;
+
+import instrumentation.Counter;
+import instrumentation.Instrumentation;
+
+/**
+ * The RejectionReason enum defines why the RentalManager refused to issue a car (see RentalManager.issueCar conditions (a) to (d)).
+ * Each reason counts the requests rejected for that reason across every depot (see Instrumentation).
+ * A reason is transient if the request may succeed later without the driver doing anything (a car may be returned), clients should not retry requests refused for other reasons.
+ */
+public enum RejectionReason {
+
+    /*
+    The driver has not held a licence for long enough to rent the type of car.
+     */
+    LICENCE_AGE,
+    /*
+    The driver is too young to rent the type of car.
+     */
+    DRIVER_AGE,
+    /*
+    The licence is not a full licence.
+     */
+    PROVISIONAL_LICENCE,
+    /*
+    The driver has already rented a car.
+     */
+    ALREADY_RENTING,
+    /*
+    The driver is already waiting for a car (see RentalManager.issueWhenAvailable).
+     */
+    ALREADY_WAITING,
+    /*
+    The depot has no available car of the type.
+     */
+    NO_CAR_AVAILABLE,
+    /*
+    No available car of the type has enough fuel to be issued under the current IssuePolicy.
+     */
+    INSUFFICIENT_FUEL;
+
+    private final Counter rejections = Instrumentation.counter("RentalManager.rejected." + name());
+
+    /**
+     * isTransient returns whether a request refused for this reason may succeed later (i.e. once a car is returned).
+     *
+     * @return returns true if the reason is NO_CAR_AVAILABLE or INSUFFICIENT_FUEL.
+     */
+    public boolean isTransient() {
+        return this == NO_CAR_AVAILABLE || this == INSUFFICIENT_FUEL;
+    }
+
+    /**
+     * getRejections returns the counter of the requests rejected for this reason.
+     *
+     * @return returns the Counter.
+     */
+    public Counter getRejections() {
+        return rejections;
+    }
+}
@@ -0,0 +1,80 @@
+package manager;
+
+import instrumentation.CarDrivenEvent;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import licences.DrivingLicence;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.fail;
+
+public class RentalEventsTest {
+    @Test
+    public void rentalLifecycleRecorded() throws Exception {
+        Path file = Files.createTempFile("rental", ".jfr");
+        DrivingLicence licence;
+        String registration;
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{"rental.LicenceCreated", "rental.CarsProvisioned", "rental.CarIssued", "rental.IssueRejected", "rental.CarDriven", "rental.RentalTerminated"}) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+            RentalManager depot = RentalManager.getDepotInstance("events");
+            depot.provisionCars("small", 1);
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            licence = DrivingLicence.getInstance("Dana", "Scully", birth, issue, true);
+            depot.issueCar(licence, "small");
+            depot.issueCar(licence, "small");
+            registration = depot.getCar(licence).getRegistration().toString();
+            depot.getCar(licence).drive(100);
+            depot.terminateRental(licence);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        Map<String, RecordedEvent> eventsByName = new HashMap<>();
+        for (RecordedEvent event : events) {
+            eventsByName.put(event.getEventType().getName(), event);
+        }
+        if (eventsByName.size() != 6) {
+            fail();
+        }
+        RecordedEvent issued = eventsByName.get("rental.CarIssued");
+        if (!issued.getString("registration").equals(registration) || !issued.getString("licenceNumber").equals(licence.getLicenceNumberAsString()) ||
+                !issued.getString("type").equals("SMALL")) {
+            fail();
+        }
+        if (!eventsByName.get("rental.IssueRejected").getString("reason").equals("ALREADY_RENTING") || eventsByName.get("rental.CarDriven").getInt("kilometres") != 100 ||
+                eventsByName.get("rental.RentalTerminated").getInt("kilometres") != 100 || eventsByName.get("rental.CarsProvisioned").getInt("noCars") != 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void eventsNotRecordedWithoutRecording() throws Exception {
+        if (CarDrivenEvent.isRecorded()) {
+            fail();
+        }
+        try (Recording recording = new Recording()) {
+            recording.enable("rental.CarDriven").withoutThreshold();
+            recording.start();
+            if (!CarDrivenEvent.isRecorded()) {
+                fail();
+            }
+        }
+        if (CarDrivenEvent.isRecorded()) {
+            fail();
+        }
+    }
+}
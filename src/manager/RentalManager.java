@@ -2,14 +2,27 @@ package manager;
 
 import cars.Car;
 import cars.CarImplCarFactory;
+import cars.LocalCarFactory;
 import exceptions.GetInstanceLimitExceededException;
+import instrumentation.CarIssuedEvent;
+import instrumentation.CarsProvisionedEvent;
+import instrumentation.Instrumentation;
+import instrumentation.IssueRejectedEvent;
+import instrumentation.LatencyHistogram;
+import instrumentation.RentalTerminatedEvent;
 import licences.DrivingLicence;
 
 import java.io.InvalidObjectException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * The RentalManager class is the core framework from which the rest of the application can be accessed which implements the singleton factory design pattern.
@@ -17,7 +30,7 @@ import java.util.Map;
  * To illustrate the availableCars list refers to the availableCars in the application. Since Java is a reference type language we can use a list to refer to a set of cars which we have designated as available and another set to refer to those we have rented.
  * This technique allows the class to manage collections of cars (of any type) as posited by the respective Car interface.
  * <p>
- * Similarly there are a number of static maps which refer types of cars (stored as strings) to different kinds of values.
+ * Similarly there are a number of maps (held by each depot) which refer types of cars (stored as strings) to different kinds of values.
  * <p>
  * To state one of the key conceptual difficulties when creating this class consider the following...
  * There exists an interface "Car" and an abstract class "DefaultCar" and two stemming classes "LargeCar" and "SmallCar" which include static factory instance methods to get instances of large car and small car (where you have static collections of cars in the "LargeCar" class, and another static collection of cars in the "SmallCar" class).
@@ -27,47 +40,128 @@ import java.util.Map;
  * To illustrate, as opposed to allowing the RentalManager to have any sort of control in counting the number of "Small car" instances, the RentalManager makes requests for the number of cars of type "Small".
  * With this solution the RentalManager both aware of the maximum number of instances a particular car can have, and only aware of collections of cars as programmed by the interface of objects of type Car (but not aware of the existence of cars of any particular type).
  * This is implemented by maps of String, integer key-value pairs.
+ * <p>
+ * Each RentalManager instance represents a depot: it has its own fleet of available cars, rented cars, restrictions, issue policy and refuelling pumps.
+ * The singleton returned by getInstance is the default depot (which the static methods of the class act upon) and further independent depots can be obtained by name from getDepotInstance.
+ * Depots which share no state at all (neither the registry of depots nor the static factory of cars) are obtained from getIsolatedInstance.
+ * Operations on a depot are synchronized on that depot only, so different depots can be used concurrently (see DepotRouter for partitioning requests across depots).
  *
  * @author Callum Dempsey Leach
  */
 public final class RentalManager {
 
+    private static final Comparator<Car> MOST_FUEL_REMAINING = new Comparator<Car>() {
+        @Override
+        public int compare(Car car, Car otherCar) {
+            return Integer.compare(otherCar.getFuelRemaining(), car.getFuelRemaining());
+        }
+    };
+
+    /*
+    The layout of the refuelling pumps of each depot.
+     */
+    private static final int DEFAULT_NUMBER_OF_PUMPS = 4;
+    private static final int DEFAULT_CARS_PER_PUMP = 8;
+
+    /*
+    Depots by name (key-value pairs). The default depot is not stored in the map.
+     */
+    private static final String DEFAULT_DEPOT = "DEFAULT";
+    private static final Map<String, RentalManager> DEPOTS = new HashMap<>();
+
+    /*
+    Ensuring all calls to getInstance return the same object reference (and no other object reference).
+     */
+    private static final RentalManager INSTANCE = new RentalManager(DEFAULT_DEPOT, null);
+
     /*
-    Restrictions that exist in the system (key-value pairs).
+    The latency of the hot paths of every depot (see Instrumentation). Latencies are measured once the lock of the depot is held, so they exclude the time spent waiting for the depot.
      */
-    private static final Map<String, Integer> CAR_INSTANCE_RESTRICTIONS = new HashMap<String, Integer>();
-    private static final Map<String, Integer> CAR_AGE_RESTRICTIONS = new HashMap<String, Integer>();
-    private static final Map<String, Integer> CAR_LICENCEAGE_RESTRICTIONS = new HashMap<String, Integer>();
+    private static final LatencyHistogram ISSUE_CAR_LATENCY = Instrumentation.histogram("RentalManager.issueCar");
+    private static final LatencyHistogram TERMINATE_RENTAL_LATENCY = Instrumentation.histogram("RentalManager.terminateRental");
+    private static final LatencyHistogram PROVISION_CARS_LATENCY = Instrumentation.histogram("RentalManager.provisionCars");
+
+    /*
+    Restrictions that exist in the depot (key-value pairs).
+     */
+    private final Map<String, Integer> carInstanceRestrictions = new HashMap<String, Integer>();
+    private final Map<String, Integer> carAgeRestrictions = new HashMap<String, Integer>();
+    private final Map<String, Integer> carLicenceAgeRestrictions = new HashMap<String, Integer>();
 
     /*
-    The available cars is a static method since the number of cars instances should not be done by objects of the RentalManager class (as it has the duty of managing those instances); although they must exist.
     If there exists a restriction imposed on the number of cars that can be created of a certain kind then they will not be populated into the referential list of available cars.
+    Available cars are pooled per type (key-value pairs of car type to cars) so that finding a car of a type does not require a scan over every car.
+    Each pool is a priority queue ordered by fuel remaining (most first) so the best candidate to issue is always at the head of the pool.
     */
-    private static final List<Car> availableCars = new ArrayList<>();
+    private final Map<String, Queue<Car>> availableCars = new HashMap<>();
+    /*
+    Counters and gauges of the fleet which are updated as cars move between the pools, the rentals and the refuelling queue (see FleetMetrics).
+     */
+    private final FleetMetrics metrics = new FleetMetrics();
 
     /*
-    Ensuring all calls to getInstance return the same object reference (and no other object reference).
+    The policy deciding whether a car which is not fully fuelled may be issued (by default only cars with a full tank are issued).
      */
-    private static final RentalManager INSTANCE = new RentalManager();
+    private IssuePolicy issuePolicy = IssuePolicy.FULL_TANK;
+    /*
+    Drivers waiting for a type of car to be returned (see issueWhenAvailable).
+     */
+    private final Waitlist waitlist = new Waitlist();
+    private WaitlistPolicy waitlistPolicy = WaitlistPolicy.FIFO;
+
+    /*
+    Cars returned with a partial tank wait here until they are refuelled and returned to the pool of available cars.
+     */
+    private final RefuellingScheduler refuellingScheduler = new RefuellingScheduler(DEFAULT_NUMBER_OF_PUMPS, DEFAULT_CARS_PER_PUMP);
+
     /*
-    String representation of the clas.
+    The name of the depot and the string representation of the class.
      */
-    private static final String strRep = "Rental Management System";
+    private final String depotName;
+    private final String strRep;
+    /*
+    The factory of the cars of an isolated depot (see getIsolatedInstance), or null if the cars of the depot are created by the static factory (see CarImplCarFactory).
+     */
+    private final LocalCarFactory carFactory;
     /*
     Create a concrete map of rentedCars which will make use of the list of available cars defined above.
     The map ensures uniqueness in that multiple drivers cannot have multiple cars.
      */
     private final Map<DrivingLicence, Car> rentedCars = new HashMap<>();
+    /*
+    The fuel missing from cars when they were issued which the driver is not charged for (see IssuePolicy).
+     */
+    private final Map<DrivingLicence, Integer> waivedShortfalls = new HashMap<>();
+    /*
+    The time each rented car was issued and the odometer reading of the car at that time, so a RentalRecord can be made when the rental is terminated.
+    Issue times are kept by type (in UPPERCASE) in the order the cars were issued, so the oldest rental of a type is the first of its issue times (see estimateWait).
+     */
+    private final Map<String, Map<DrivingLicence, Long>> issueTimes = new HashMap<>();
+    private final Map<DrivingLicence, Integer> issueOdometers = new HashMap<>();
+    /*
+    Records of the rentals terminated since the records were last drained (see drainClosedRentals).
+     */
+    private List<RentalRecord> closedRentals = new ArrayList<>();
+    /*
+    Notified of each rental terminated, while the depot is locked (see AsyncRentalManager.getClosedRentals).
+     */
+    private Consumer<RentalRecord> rentalListener;
 
     /**
-     * Rental Manager is an constructor method as part of the Singleton factory pattern.
+     * Rental Manager is an constructor method as part of the Singleton factory pattern (and of the depot factory method getDepotInstance).
+     *
+     * @param depotName  specifies the name of the depot.
+     * @param carFactory specifies the factory of the cars of the depot, or null for the static factory.
      */
-    private RentalManager() {
-        // The constructor implements all default static age restrictions to conform with the specification.
-        addCarLicenceAgeRestriction("SMALL", 1);
-        addCarLicenceAgeRestriction("LARGE", 5);
-        addCarAgeRestriction("SMALL", 21);
-        addCarAgeRestriction("LARGE", 25);
+    private RentalManager(String depotName, LocalCarFactory carFactory) {
+        this.depotName = depotName;
+        this.strRep = "Rental Management System[" + depotName + "]";
+        this.carFactory = carFactory;
+        // The constructor implements all default age restrictions to conform with the specification.
+        setCarLicenceAgeRestriction("SMALL", 1);
+        setCarLicenceAgeRestriction("LARGE", 5);
+        setCarAgeRestriction("SMALL", 21);
+        setCarAgeRestriction("LARGE", 25);
     }
 
 
@@ -80,6 +174,63 @@ public final class RentalManager {
         return INSTANCE;
     }
 
+    /**
+     * getDepotInstance returns the depot with the specified name, creating it (with the default restrictions and an empty fleet) if it does not already exist.
+     * Each depot is independent of every other depot: it has its own fleet, rentals, restrictions and issue policy.
+     *
+     * @param depotName specifies the name of the depot (converted into UPPERCASE).
+     * @return returns the RentalManager of the depot.
+     */
+    public static synchronized RentalManager getDepotInstance(String depotName) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depotName == null) {
+            throw new IllegalArgumentException("Depot name cannot be null.");
+        }
+        depotName = depotName.toUpperCase();
+        if (depotName.equals(DEFAULT_DEPOT)) {
+            return INSTANCE;
+        }
+        RentalManager depot = DEPOTS.get(depotName);
+        if (depot == null) {
+            depot = new RentalManager(depotName, null);
+            DEPOTS.put(depotName, depot);
+        }
+        return depot;
+    }
+
+    /**
+     * getIsolatedInstance returns a new depot (with the default restrictions and an empty fleet) which shares no state with any other depot: it is not registered by name (see getDepotInstance),
+     * so it is held only by the caller, and its cars are created by and decommissioned to a factory of its own rather than the static factory (see LocalCarFactory).
+     * Isolated depots are intended for simulations (see simulation.SimulationContext), of which many may run concurrently in one process.
+     *
+     * @param depotName  specifies the name of the depot (converted into UPPERCASE), which need not be unique.
+     * @param carFactory specifies the factory of the cars of the depot.
+     * @return returns the RentalManager of the new depot.
+     */
+    public static RentalManager getIsolatedInstance(String depotName, LocalCarFactory carFactory) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depotName == null) {
+            throw new IllegalArgumentException("Depot name cannot be null.");
+        }
+        if (carFactory == null) {
+            throw new IllegalArgumentException("Car factory cannot be null.");
+        }
+        return new RentalManager(depotName.toUpperCase(), carFactory);
+    }
+
+    /**
+     * getDepotName returns the name of the depot.
+     *
+     * @return returns the name of the depot.
+     */
+    public String getDepotName() {
+        return depotName;
+    }
+
     /**
      * addCarInstance is a method which allows us to limit the number of instances of any car of an arbitrary type (see class body for conceptual justification)
      *
@@ -87,6 +238,16 @@ public final class RentalManager {
      * @param noMaxInstances defines the maximum number of instances the car should have.
      */
     static void addCarInstanceRestriction(String typeOfCar, int noMaxInstances) {
+        INSTANCE.setCarInstanceRestriction(typeOfCar, noMaxInstances);
+    }
+
+    /**
+     * setCarInstanceRestriction limits the number of instances of any car of an arbitrary type in this depot (see addCarInstanceRestriction).
+     *
+     * @param typeOfCar      defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param noMaxInstances defines the maximum number of instances the car should have.
+     */
+    synchronized void setCarInstanceRestriction(String typeOfCar, int noMaxInstances) {
         /*
         Check input parameters.
          */
@@ -94,7 +255,7 @@ public final class RentalManager {
         if (noMaxInstances <= 0) {
             throw new IllegalArgumentException("Value specified must be greater than 0");
         }
-        CAR_INSTANCE_RESTRICTIONS.put(typeOfCar.toUpperCase(), noMaxInstances);
+        carInstanceRestrictions.put(typeOfCar.toUpperCase(), noMaxInstances);
     }
 
     /**
@@ -104,6 +265,16 @@ public final class RentalManager {
      * @param noYears   defines the maximum number of years valid drivers of the car should have.
      */
     static void addCarLicenceAgeRestriction(String typeOfCar, int noYears) {
+        INSTANCE.setCarLicenceAgeRestriction(typeOfCar, noYears);
+    }
+
+    /**
+     * setCarLicenceAgeRestriction limits access to any car of an arbitrary type in this depot by the number of years a licence has been held (see addCarLicenceAgeRestriction).
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param noYears   defines the maximum number of years valid drivers of the car should have.
+     */
+    synchronized void setCarLicenceAgeRestriction(String typeOfCar, int noYears) {
         /*
         Check input parameters.
          */
@@ -111,7 +282,7 @@ public final class RentalManager {
         if (noYears <= 0) {
             throw new IllegalArgumentException("Value specified must be greater than 0");
         }
-        CAR_LICENCEAGE_RESTRICTIONS.put(typeOfCar.toUpperCase(), noYears);
+        carLicenceAgeRestrictions.put(typeOfCar.toUpperCase(), noYears);
     }
 
     /**
@@ -121,6 +292,16 @@ public final class RentalManager {
      * @param noYears   defines the maximum number of years valid drivers of the car should have.
      */
     static void addCarAgeRestriction(String typeOfCar, int noYears) {
+        INSTANCE.setCarAgeRestriction(typeOfCar, noYears);
+    }
+
+    /**
+     * setCarAgeRestriction limits access to any car of an arbitrary type in this depot by the age of the driver (see addCarAgeRestriction).
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param noYears   defines the maximum number of years valid drivers of the car should have.
+     */
+    synchronized void setCarAgeRestriction(String typeOfCar, int noYears) {
         /*
         Check input parameters.
          */
@@ -128,7 +309,53 @@ public final class RentalManager {
         if (noYears <= 0) {
             throw new IllegalArgumentException("Value specified must be greater than 0");
         }
-        CAR_AGE_RESTRICTIONS.put(typeOfCar.toUpperCase(), noYears);
+        carAgeRestrictions.put(typeOfCar.toUpperCase(), noYears);
+    }
+
+    /**
+     * setIssuePolicy sets the policy deciding whether a car which is not fully fuelled may be issued.
+     *
+     * @param policy specifies the IssuePolicy to apply to all subsequent calls to issueCar.
+     */
+    synchronized void setIssuePolicy(IssuePolicy policy) {
+        /*
+        Check input parameters.
+         */
+        if (policy == null) throw new IllegalArgumentException("Issue policy cannot be null.");
+        issuePolicy = policy;
+        //A more lenient policy may allow cars already available to be issued to waiting drivers.
+        serveWaiters();
+    }
+
+    /**
+     * setWaitlistPolicy sets the order in which drivers waiting for a type of car are served (see issueWhenAvailable).
+     *
+     * @param policy specifies the WaitlistPolicy to apply to drivers who subsequently join the waitlist.
+     */
+    public synchronized void setWaitlistPolicy(WaitlistPolicy policy) {
+        /*
+        Check input parameters.
+         */
+        if (policy == null) throw new IllegalArgumentException("Waitlist policy cannot be null.");
+        waitlistPolicy = policy;
+    }
+
+    /**
+     * getWaitlistPolicy returns the order in which drivers waiting for a type of car are served.
+     *
+     * @return returns the current WaitlistPolicy.
+     */
+    public synchronized WaitlistPolicy getWaitlistPolicy() {
+        return waitlistPolicy;
+    }
+
+    /**
+     * getIssuePolicy returns the policy deciding whether a car which is not fully fuelled may be issued.
+     *
+     * @return returns the current IssuePolicy.
+     */
+    synchronized IssuePolicy getIssuePolicy() {
+        return issuePolicy;
     }
 
     /**
@@ -139,6 +366,57 @@ public final class RentalManager {
      * @throws GetInstanceLimitExceededException a GetInstanceLimit exceeded exception must be handled as the event is recoverable (to be handled by the client). This occurs when a getInstance request exceeds a defined maximum number of instances.
      */
     static void createAvailableCars(String typeOfCar, int noInstancesRequested) throws GetInstanceLimitExceededException {
+        INSTANCE.provisionCars(typeOfCar, noInstancesRequested);
+    }
+
+    /**
+     * provisionCars creates available cars of a type in this depot subject to the depot's instance restrictions (see createAvailableCars).
+     *
+     * @param typeOfCar            defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param noInstancesRequested defines the number of instances of that kind requested.
+     * @throws GetInstanceLimitExceededException a GetInstanceLimit exceeded exception must be handled as the event is recoverable (to be handled by the client). This occurs when a getInstance request exceeds a defined maximum number of instances.
+     *                                           The exception has no stack trace, callers which reach limits often should use tryProvisionCars.
+     */
+    public synchronized void provisionCars(String typeOfCar, int noInstancesRequested) throws GetInstanceLimitExceededException {
+        int noProvisioned = provision(typeOfCar, noInstancesRequested);
+        ProvisionResult result = countResult(noProvisioned, noInstancesRequested);
+        if (result == ProvisionResult.DEPOT_LIMIT_REACHED) {
+            throw new GetInstanceLimitExceededException("Creating " + noInstancesRequested + " of " + typeOfCar.toUpperCase() + " cars will exceed the valid number of instances specified by POPULATION_RESTRICTIONS.", false);
+        }
+        if (result == ProvisionResult.REGISTRATIONS_EXHAUSTED) {
+            throw new GetInstanceLimitExceededException("Every registration has been allocated, " + noProvisioned + " of " + noInstancesRequested + " " + typeOfCar.toUpperCase() + " cars were provisioned.", false);
+        }
+    }
+
+    /**
+     * tryProvisionCars creates available cars of a type in this depot as provisionCars does, but reports a limit being reached as a result rather than by throwing an exception.
+     *
+     * @param typeOfCar            defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param noInstancesRequested defines the number of instances of that kind requested.
+     * @return returns PROVISIONED, or the limit which was reached (see ProvisionResult).
+     */
+    public synchronized ProvisionResult tryProvisionCars(String typeOfCar, int noInstancesRequested) {
+        return countResult(provision(typeOfCar, noInstancesRequested), noInstancesRequested);
+    }
+
+    /**
+     * countResult returns the outcome of a provisioning request and counts the request against it, so the outcomes are counted whether the limits are reported by provisionCars or tryProvisionCars.
+     *
+     * @return returns PROVISIONED, or the limit which was reached (see ProvisionResult).
+     */
+    private static ProvisionResult countResult(int noProvisioned, int noInstancesRequested) {
+        ProvisionResult result = noProvisioned < 0 ? ProvisionResult.DEPOT_LIMIT_REACHED :
+                noProvisioned < noInstancesRequested ? ProvisionResult.REGISTRATIONS_EXHAUSTED : ProvisionResult.PROVISIONED;
+        result.getRequests().increment();
+        return result;
+    }
+
+    /**
+     * provision creates available cars of a type until the number requested have been created or every registration has been allocated.
+     *
+     * @return returns the number of cars provisioned, or -1 if provisioning the cars would exceed the depot's instance restriction (in which case none are).
+     */
+    private int provision(String typeOfCar, int noInstancesRequested) {
         /*
         Check input parameters.
          */
@@ -148,44 +426,78 @@ public final class RentalManager {
         if (noInstancesRequested <= 0) {
             throw new IllegalArgumentException("Cannot generate zero or less instances of " + typeOfCar + "car.");
         }
+        long start = Instrumentation.start();
+        CarsProvisionedEvent event = new CarsProvisionedEvent();
+        event.begin();
         int noCarsOfType = 0;
         //By convention all car types should be stated in uppercase.
         typeOfCar = typeOfCar.toUpperCase();
         //If the map of restrictions contains a key for the type of car we would like to instantiate.
-        if (CAR_INSTANCE_RESTRICTIONS.containsKey(typeOfCar)) {
-            // For all cars available in the list of cars instantiated.
-            for (Car availableCar : availableCars) {
-                // If that car is equal to the same type.
-                if (typeOfCar.equals(availableCar.getTypeAsString())) {
-                    // Increment the counter.
-                    noCarsOfType++;
-                }
-            }
+        if (carInstanceRestrictions.containsKey(typeOfCar)) {
+            // The number of cars available of that type is the size of the respective pool.
+            noCarsOfType = getAvailableCarsOfType(typeOfCar).size();
             // If the number of cars of that type found plus the number of instances we would like to create exceed the defined limitation.
-            if (noInstancesRequested + noCarsOfType > (CAR_INSTANCE_RESTRICTIONS.get(typeOfCar))) {
-                // Throw an error (the method is not supposed to be used in this way.)
-                throw new GetInstanceLimitExceededException("Creating " + noInstancesRequested + " of " + typeOfCar + " cars will exceed the valid number of instances specified by POPULATION_RESTRICTIONS.");
+            if (noInstancesRequested + noCarsOfType > (carInstanceRestrictions.get(typeOfCar))) {
+                //The method is not supposed to be used in this way (reported by the caller).
+                return -1;
             }
         }
         // If this test passes we can proceed with population...
-        for (int i = 0; i < noInstancesRequested; i++) {
-            Car car = CarImplCarFactory.getInstance(typeOfCar);
-            availableCars.add(car);
+        Queue<Car> pool = getAvailableCarsOfType(typeOfCar);
+        int noProvisioned = 0;
+        while (noProvisioned < noInstancesRequested) {
+            Car car = carFactory == null ? CarImplCarFactory.tryGetInstance(typeOfCar) : carFactory.tryGetCar(typeOfCar);
+            if (car == null) {
+                //Every registration has been allocated, the cars already created are kept.
+                break;
+            }
+            pool.add(car);
+            metrics.carJoined(car, FleetMetrics.AVAILABLE);
+            noProvisioned++;
         }
+        if (noProvisioned > 0) {
+            PROVISION_CARS_LATENCY.recordSince(start);
+            event.commit(depotName, typeOfCar, noProvisioned);
+            serveWaiters();
+        }
+        return noProvisioned;
     }
 
     /**
-     * availableCars returns the number of cars available of a particular type. This is achieved by calling the size header of the getAvailableCarsOfType method (encapsulated).
+     * availableCars returns the number of cars available of a particular type. This is read from the metrics of the depot (see FleetMetrics) so does not wait for the depot.
      *
      * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
      * @return returns the number of available cars of a particular type.
      */
-    int availableCars(String typeOfCar) {
+    public int availableCars(String typeOfCar) {
         /*
         Check parameters.
         */
         assert typeOfCar != null;
-        return getAvailableCarsOfType(typeOfCar).size();
+        return metrics.getAvailable(typeOfCar);
+    }
+
+    /**
+     * fleetSize returns the number of cars of a particular type owned by the depot, whether they are available, rented or awaiting fuel.
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @return returns the number of cars of a particular type in the depot's fleet.
+     */
+    public int fleetSize(String typeOfCar) {
+        /*
+        Check parameters.
+        */
+        assert typeOfCar != null;
+        return metrics.getFleetSize(typeOfCar);
+    }
+
+    /**
+     * getMetrics returns the counters and gauges of the fleet of the depot.
+     *
+     * @return returns the FleetMetrics of the depot.
+     */
+    public FleetMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -193,14 +505,29 @@ public final class RentalManager {
      *
      * @return returns a list of rented cars.
      */
-    List<Car> getRentedCars() {
+    synchronized List<Car> getRentedCars() {
         return new ArrayList<Car>(rentedCars.values());
     }
 
+    /**
+     * getCars returns every car owned by the depot: the available cars, the rented cars and the cars awaiting fuel.
+     *
+     * @return returns a list (a snapshot) of the cars of the depot.
+     */
+    public synchronized List<Car> getCars() {
+        List<Car> cars = new ArrayList<>();
+        for (Queue<Car> pool : availableCars.values()) {
+            cars.addAll(pool);
+        }
+        cars.addAll(rentedCars.values());
+        cars.addAll(refuellingScheduler.getCarsQueued());
+        return cars;
+    }
+
     /**
      * getCarAgeRestriction returns the age restriction imposed an any particular type of car.
      *
-     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param typeOfCar defines the type of car (in UPPERCASE, see getIneligibility). This must match the string representation of the cars type.
      * @return returns the implementation details of the age restriction imposed on any specified type of car.
      */
     private int getCarAgeRestriction(String typeOfCar) {
@@ -208,8 +535,7 @@ public final class RentalManager {
         Check parameters.
         */
         assert typeOfCar != null;
-        typeOfCar = typeOfCar.toUpperCase();
-        Integer carAgeRestriction = CAR_AGE_RESTRICTIONS.get(typeOfCar);
+        Integer carAgeRestriction = carAgeRestrictions.get(typeOfCar);
         if (carAgeRestriction == null) {
             carAgeRestriction = 0;
         }
@@ -219,7 +545,7 @@ public final class RentalManager {
     /**
      * getCarLicenceAgeRestriction returns the licence age restriction imposed an any particular type of car.
      *
-     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param typeOfCar defines the type of car (in UPPERCASE, see getIneligibility). This must match the string representation of the cars type.
      * @return returns the licence age restriction imposed on any specified type of car.
      */
     private int getCarLicenceAgeRestriction(String typeOfCar) {
@@ -227,8 +553,7 @@ public final class RentalManager {
         Check parameters.
         */
         assert typeOfCar != null;
-        typeOfCar = typeOfCar.toUpperCase();
-        Integer carLicenceAgeRestriction = CAR_LICENCEAGE_RESTRICTIONS.get(typeOfCar);
+        Integer carLicenceAgeRestriction = carLicenceAgeRestrictions.get(typeOfCar);
         if (carLicenceAgeRestriction == null) {
             carLicenceAgeRestriction = 0;
         }
@@ -236,24 +561,23 @@ public final class RentalManager {
     }
 
     /**
-     * getAvailableCarsOfType extracts a list of the available cars of a particular type.
+     * getAvailableCarsOfType provides the pool of available cars of a particular type (the pool is created if it does not exist).
      *
      * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
-     * @return returns returns a list of the available cars of a particular type.
+     * @return returns the pool of the available cars of a particular type.
      */
-    private List<Car> getAvailableCarsOfType(String typeOfCar) {
+    private Queue<Car> getAvailableCarsOfType(String typeOfCar) {
         /*
         Check parameters.
          */
         assert typeOfCar != null;
         typeOfCar = typeOfCar.toUpperCase();
-        List<Car> cars = new ArrayList<Car>();
-        for (Car car : availableCars) {
-            if (typeOfCar.equals(car.getTypeAsString())) {
-                cars.add(car);
-            }
+        Queue<Car> pool = availableCars.get(typeOfCar);
+        if (pool == null) {
+            pool = new PriorityQueue<>(MOST_FUEL_REMAINING);
+            availableCars.put(typeOfCar, pool);
         }
-        return cars;
+        return pool;
     }
 
     /**
@@ -262,7 +586,7 @@ public final class RentalManager {
      * @param drivingLicence specifies the DrivingLicence object.
      * @return returns the car associated with that licence.
      */
-    Car getCar(DrivingLicence drivingLicence) {
+    public synchronized Car getCar(DrivingLicence drivingLicence) {
         /*
         Check parameters.
         */
@@ -288,56 +612,296 @@ public final class RentalManager {
         return rentedCars.containsKey(drivingLicence);
     }
 
+    /**
+     * isRenting identifies if the holder of a driving licence is renting a car from this depot (see getCar, which requires a rental).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to lookup.
+     * @return returns true if the driving licence has been issued a car which has not been returned.
+     */
+    public synchronized boolean isRenting(DrivingLicence drivingLicence) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (drivingLicence == null) {
+            throw new IllegalArgumentException("Driving licence cannot be null.");
+        }
+        return isIssuedCar(drivingLicence);
+    }
+
+    /**
+     * isEligible identifies if the holder of a driving licence may rent a type of car, i.e. the licence is a full licence and the driver meets the age and licence age restrictions of that type (see issueCar conditions (a) and (c)).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to check.
+     * @param typeOfCar      specifies the type of car (converted into UPPERCASE).
+     * @return returns true if the driver is eligible to rent the type of car.
+     */
+    public synchronized boolean isEligible(DrivingLicence drivingLicence, String typeOfCar) {
+        /*
+        Check parameters.
+        */
+        assert drivingLicence != null;
+        assert typeOfCar != null;
+        return getIneligibility(drivingLicence, typeOfCar.toUpperCase()) == null;
+    }
+
+    /**
+     * getIneligibility returns why the holder of a driving licence may not rent a type of car (see isEligible).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to check.
+     * @param typeOfCar      specifies the type of car (in UPPERCASE).
+     * @return returns the RejectionReason, or null if the driver is eligible to rent the type of car.
+     */
+    private RejectionReason getIneligibility(DrivingLicence drivingLicence, String typeOfCar) {
+        if (drivingLicence.getYearsHeld() < getCarLicenceAgeRestriction(typeOfCar)) {
+            return RejectionReason.LICENCE_AGE;
+        }
+        int carAgeRestriction = getCarAgeRestriction(typeOfCar);
+        if (drivingLicence.getAge() < carAgeRestriction && carAgeRestriction != 0) {
+            return RejectionReason.DRIVER_AGE;
+        }
+        if (!drivingLicence.isFull()) {
+            return RejectionReason.PROVISIONAL_LICENCE;
+        }
+        return null;
+    }
+
     /**
      * issueCar issues a care only if it is the case...
      * (a) The person renting the car has a full drivers licence.
      * (b) The person renting the car has not already rented a car.
      * (c) All persons renting a car are bound by static restrictions set i.e. a defined restriction that they must be at least 21 years old or a defined restriction that they must be at least 25 years old (default).
+     * (d) There is an available car of that type with enough fuel to be issued under the current IssuePolicy (the car with the most fuel remaining is issued).
+     * Requests which are refused are counted by the reason they were refused (see RejectionReason). Use issue to find out why a request was refused.
      *
      * @param drivingLicence specifies the DrivingLicence object to issue a car to.
      * @param typeOfCar      specifies the type of car to issue.
      * @return returns true if successful, returns false otherwise.
      * @throws GetInstanceLimitExceededException in the event the instance limit has been reached for any particular class should be handled appropriately.
      */
-    boolean issueCar(DrivingLicence drivingLicence, String typeOfCar) throws GetInstanceLimitExceededException {
+    public boolean issueCar(DrivingLicence drivingLicence, String typeOfCar) throws GetInstanceLimitExceededException {
+        return issue(drivingLicence, typeOfCar).isIssued();
+    }
 
+    /**
+     * issue issues a car under the same conditions as issueCar, returning the car issued or why the request was refused.
+     * If no car could be issued the result estimates how long it will be until a car of the type is returned (see IssueResult), so clients can back off rather than retry immediately.
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (converted into UPPERCASE).
+     * @return returns the IssueResult of the request.
+     * @throws GetInstanceLimitExceededException in the event the instance limit has been reached for any particular class should be handled appropriately.
+     */
+    public synchronized IssueResult issue(DrivingLicence drivingLicence, String typeOfCar) throws GetInstanceLimitExceededException {
         /*
-        Check parameters.
+        Check parameters (since a public method throw exception if objects are null).
          */
-        assert drivingLicence != null;
-        assert typeOfCar != null;
+        if (drivingLicence == null || typeOfCar == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        return issueOfType(drivingLicence, typeOfCar.toUpperCase());
+    }
+
+    /**
+     * issueWhenAvailable issues a car (see issue) or, if none can be issued now, adds the driver to the waitlist of the type of car (see WaitlistPolicy.FIFO).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (converted into UPPERCASE).
+     * @return returns a future completed with the IssueResult once the driver is issued a car or refused one for a reason which is not transient.
+     */
+    public CompletableFuture<IssueResult> issueWhenAvailable(DrivingLicence drivingLicence, String typeOfCar) {
+        return issueWhenAvailable(drivingLicence, typeOfCar, 0);
+    }
+
+    /**
+     * issueWhenAvailable issues a car (see issue) or, if none can be issued now because every car of the type is rented or awaiting fuel, adds the driver to the waitlist of the type of car.
+     * Waiting drivers are parked rather than polling: the depot issues a car to the next waiting driver (in the order of the WaitlistPolicy) as soon as one is returned, refuelled or provisioned, and completes its future.
+     * <p>
+     * A driver may wait for one car at a time. A driver stops waiting by completing the future (i.e. cancel or orTimeout), a car is never issued to a driver whose future has been completed.
+     * Futures are completed while the depot is locked, so dependent actions which block or lock other depots should be registered with the async methods of CompletableFuture.
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (converted into UPPERCASE).
+     * @param priority       specifies the priority of the driver under WaitlistPolicy.PRIORITY (higher priorities are served first, ignored under WaitlistPolicy.FIFO).
+     * @return returns a future completed with the IssueResult once the driver is issued a car or refused one for a reason which is not transient.
+     */
+    public synchronized CompletableFuture<IssueResult> issueWhenAvailable(DrivingLicence drivingLicence, String typeOfCar, int priority) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (drivingLicence == null || typeOfCar == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
         typeOfCar = typeOfCar.toUpperCase();
-        //Check if the driver is eligible to rent the car type specified.
-        if ((drivingLicence.getYearsHeld() < getCarLicenceAgeRestriction(typeOfCar)) ||
-                (drivingLicence.getAge() < (getCarAgeRestriction(typeOfCar)) && getCarAgeRestriction(typeOfCar) != 0) ||
-                (!drivingLicence.isFull()) ||
-                isIssuedCar(drivingLicence)) {
-            return false;
-        }
-
-        // Define a null instance of a car.
-        Car car = null;
-        int index = 0;
-        int carPosition = 0;
-        //Identify whether or not there exists an available car of that type and if that car is rented and if that car is available.
-        for (Car availableCar : availableCars) {
-            if (availableCar.getTypeAsString().equals(typeOfCar) && !(availableCar.isRented()) && availableCar.isFuelFull()) {
-                //If the tests passed then assign the car as the available car. Attain the reference to that object and its position in the array.
-                car = availableCar;
-                carPosition = index;
-                break;
+        if (waitlist.isWaiting(drivingLicence)) {
+            return CompletableFuture.completedFuture(IssueResult.rejected(RejectionReason.ALREADY_WAITING, IssueResult.UNKNOWN));
+        }
+        IssueResult result = issueOfType(drivingLicence, typeOfCar);
+        if (result.isIssued() || !result.getReason().isTransient()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return waitlist.add(drivingLicence, typeOfCar, waitlistPolicy == WaitlistPolicy.PRIORITY ? priority : 0);
+    }
+
+    /**
+     * getNoWaiting returns the number of drivers waiting for a type of car (see issueWhenAvailable).
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of drivers waiting.
+     */
+    public synchronized int getNoWaiting(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        return waitlist.getNoWaiting(typeOfCar.toUpperCase());
+    }
+
+    /**
+     * serveWaiters issues the cars which can be issued to the drivers waiting for them, in the order of the waitlist of each type of car.
+     */
+    private void serveWaiters() {
+        if (waitlist.isEmpty()) {
+            return;
+        }
+        for (String typeOfCar : waitlist.getTypesWaitedFor()) {
+            Waitlist.Waiter waiter = waitlist.peek(typeOfCar);
+            //Only attempt an issue if the car at the head of the pool can be issued, so waiting drivers are not refused over and over.
+            while (waiter != null && getAvailableCarsOfType(typeOfCar).peek() != null && issuePolicy.isIssuable(getAvailableCarsOfType(typeOfCar).peek())) {
+                waitlist.remove(typeOfCar);
+                IssueResult result = issueOfType(waiter.drivingLicence, typeOfCar);
+                //The future may have been completed by the client since it was checked (i.e. by a timeout), in which case the car is not kept by the driver.
+                if (!waiter.future.complete(result) && result.isIssued()) {
+                    revokeIssue(waiter.drivingLicence);
+                }
+                waiter = waitlist.peek(typeOfCar);
             }
-            index++;
         }
-        //If we found a car this condition will fail.
-        if (car != null) {
+    }
+
+    /**
+     * revokeIssue returns a car which has just been issued to the pool of available cars, as if it had never been issued.
+     *
+     * @param drivingLicence specifies the DrivingLicence object the car was issued to.
+     */
+    private void revokeIssue(DrivingLicence drivingLicence) {
+        Car car = rentedCars.remove(drivingLicence);
+        getIssueTimesOfType(car.getTypeAsString()).remove(drivingLicence);
+        issueOdometers.remove(drivingLicence);
+        waivedShortfalls.remove(drivingLicence);
+        car.setRented(false);
+        getAvailableCarsOfType(car.getTypeAsString()).add(car);
+        metrics.issueRevoked(car);
+    }
+
+    /**
+     * issueOfType issues a car (see issue) recording the latency and any rejection of the request (see Instrumentation).
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (in UPPERCASE).
+     * @return returns the IssueResult of the request.
+     */
+    private IssueResult issueOfType(DrivingLicence drivingLicence, String typeOfCar) {
+        long start = Instrumentation.start();
+        CarIssuedEvent issuedEvent = new CarIssuedEvent();
+        issuedEvent.begin();
+        RejectionReason rejection = tryIssue(drivingLicence, typeOfCar);
+        ISSUE_CAR_LATENCY.recordSince(start);
+        if (rejection != null) {
+            rejection.getRejections().increment();
+            IssueRejectedEvent rejectedEvent = new IssueRejectedEvent();
+            //The licence number is only formed for an event which is recorded.
+            if (rejectedEvent.shouldCommit()) {
+                rejectedEvent.commit(depotName, drivingLicence.getLicenceNumberAsString(), typeOfCar, rejection.name());
+            }
+            return IssueResult.rejected(rejection, rejection.isTransient() ? estimateWait(typeOfCar) : IssueResult.UNKNOWN);
+        }
+        Car car = rentedCars.get(drivingLicence);
+        //The licence number and registration are only formed for an event which is recorded.
+        if (issuedEvent.shouldCommit()) {
+            issuedEvent.commit(depotName, drivingLicence.getLicenceNumberAsString(), car.getRegistration().toString(), typeOfCar);
+        }
+        return IssueResult.issued(car);
+    }
+
+    /**
+     * tryIssue issues a car if the conditions of issueCar are met.
+     *
+     * @param drivingLicence specifies the DrivingLicence object to issue a car to.
+     * @param typeOfCar      specifies the type of car to issue (in UPPERCASE).
+     * @return returns null if a car was issued, otherwise the RejectionReason.
+     */
+    private RejectionReason tryIssue(DrivingLicence drivingLicence, String typeOfCar) {
+        //Check if the driver is eligible to rent the car type specified.
+        RejectionReason ineligibility = getIneligibility(drivingLicence, typeOfCar);
+        if (ineligibility != null) {
+            return ineligibility;
+        }
+        if (isIssuedCar(drivingLicence)) {
+            return RejectionReason.ALREADY_RENTING;
+        }
+
+        //The car with the most fuel remaining is at the head of the pool, so if it cannot be issued no other car of that type can be.
+        Queue<Car> pool = getAvailableCarsOfType(typeOfCar);
+        Car car = pool.peek();
+        if (car == null) {
+            return RejectionReason.NO_CAR_AVAILABLE;
+        }
+        //If we found a car which can be issued under the current policy this condition will pass.
+        if (issuePolicy.isIssuable(car)) {
+            assert !car.isRented();
+            pool.poll();
             rentedCars.put(drivingLicence, car);
             car.setRented(true);
-            availableCars.remove(carPosition);
-            return true;
+            metrics.carMoved(car, FleetMetrics.AVAILABLE, FleetMetrics.RENTED);
+            getIssueTimesOfType(typeOfCar).put(drivingLicence, System.currentTimeMillis());
+            issueOdometers.put(drivingLicence, car.getOdometer());
+            //Record any shortfall the driver should not be charged for when the rental is terminated.
+            if (!car.isFuelFull() && !issuePolicy.isShortfallCharged()) {
+                waivedShortfalls.put(drivingLicence, car.getFuelNeeded());
+            }
+            return null;
         }
-        //If we didn't find a car, return false.
-        return false;
+        return RejectionReason.INSUFFICIENT_FUEL;
+    }
+
+    /**
+     * estimateWait estimates how long it will be until a car of a type is returned: the expected end of the oldest rental of the type (its issue time plus the average duration of the rentals of the type terminated),
+     * but no less than the average duration shared between the rentals of the type outstanding (the expected gap between returns), so a driver refused while every rental is overdue is not told to retry at once.
+     *
+     * @param typeOfCar specifies the type of car (in UPPERCASE).
+     * @return returns the estimated wait in milliseconds (at least 1), or IssueResult.UNKNOWN if no rental of the type has been terminated or no car of the type is rented.
+     */
+    private long estimateWait(String typeOfCar) {
+        final int noRented = metrics.getRented(typeOfCar);
+        if (metrics.getRentalsTerminated(typeOfCar) == 0 || noRented == 0) {
+            return IssueResult.UNKNOWN;
+        }
+        Map<DrivingLicence, Long> issueTimesOfType = getIssueTimesOfType(typeOfCar);
+        if (issueTimesOfType.isEmpty()) {
+            return IssueResult.UNKNOWN;
+        }
+        long averageDuration = metrics.getAverageRentalDuration(typeOfCar);
+        //The issue times of a type are in the order the cars were issued, so the first is that of the oldest rental.
+        long oldestIssuedAt = issueTimesOfType.values().iterator().next();
+        long untilOldestReturned = oldestIssuedAt + averageDuration - System.currentTimeMillis();
+        return Math.max(Math.max(1, averageDuration / noRented), untilOldestReturned);
+    }
+
+    /**
+     * getIssueTimesOfType returns the issue times of the rentals of a type (in the order the cars were issued), creating the map if required.
+     *
+     * @param typeOfCar specifies the type of car (in UPPERCASE).
+     * @return returns the map of licences to issue times of the type.
+     */
+    private Map<DrivingLicence, Long> getIssueTimesOfType(String typeOfCar) {
+        Map<DrivingLicence, Long> issueTimesOfType = issueTimes.get(typeOfCar);
+        if (issueTimesOfType == null) {
+            issueTimesOfType = new LinkedHashMap<>();
+            issueTimes.put(typeOfCar, issueTimesOfType);
+        }
+        return issueTimesOfType;
     }
 
     /**
@@ -347,36 +911,249 @@ public final class RentalManager {
      * @return returns the value of fuel required to fill up the tank post-rental.
      * @throws InvalidObjectException safety check the event that the object is in an inconsistent state of both rented and not rented (as internally determined).
      */
-    int terminateRental(DrivingLicence drivingLicence) throws InvalidObjectException {
+    public synchronized int terminateRental(DrivingLicence drivingLicence) throws InvalidObjectException {
         assert drivingLicence != null;
-        //Define a placeholder Car as car null.
-        Car car = null;
-        //Iterate through map of rented driving licences and cars.
-        for (Map.Entry<DrivingLicence, Car> entry : rentedCars.entrySet()) {
-            // If the key is found.
-            if (entry.getKey().equals(drivingLicence)) {
-                // Ensure the car is rented.
-                if (!(entry.getValue().isRented())) {
-                    //If it isn't, the object is in an inconsistent state and this should be handled.
-                    throw new InvalidObjectException("Car " + entry.getValue().toString() + " in an inconsistent state of rented and not rented.");
-                }
-                // If the validation test passes then we need to terminate the rental agreement, we do this at the end of the method.
-                car = entry.getValue();
-            }
+        long start = Instrumentation.start();
+        RentalTerminatedEvent event = new RentalTerminatedEvent();
+        event.begin();
+        //Look up the car rented to the driving licence (null if there is none).
+        Car car = rentedCars.get(drivingLicence);
+        // Ensure the car is rented.
+        if (car != null && !car.isRented()) {
+            //If it isn't, the object is in an inconsistent state and this should be handled.
+            throw new InvalidObjectException("Car " + car.toString() + " in an inconsistent state of rented and not rented.");
         }
         //If car is not null then an associate DrivingLicence has been found.
         if (car != null) {
             rentedCars.remove(drivingLicence);
             car.setRented(false);
-            return car.getFuelNeeded();
+            int fuelNeeded = car.getFuelNeeded();
+            //Deduct any shortfall the driver was not charged for at the start of the rental.
+            Integer waivedShortfall = waivedShortfalls.remove(drivingLicence);
+            if (waivedShortfall != null) {
+                fuelNeeded = Math.max(0, fuelNeeded - waivedShortfall);
+            }
+            long issuedAt = getIssueTimesOfType(car.getTypeAsString()).remove(drivingLicence);
+            long returnedAt = Math.max(issuedAt, System.currentTimeMillis());
+            int kilometres = car.getOdometer() - issueOdometers.remove(drivingLicence);
+            RentalRecord rental = RentalRecord.getInstance(drivingLicence.getLicenceNumberAsString(), car.getRegistration().toString(), car.getTypeAsString(),
+                    issuedAt, returnedAt, kilometres, fuelNeeded);
+            closedRentals.add(rental);
+            if (rentalListener != null) {
+                rentalListener.accept(rental);
+            }
+            metrics.rentalClosed(car.getTypeAsString(), returnedAt - issuedAt);
+            metrics.carMoved(car, FleetMetrics.RENTED, returnCar(car));
+            serveWaiters();
+            TERMINATE_RENTAL_LATENCY.recordSince(start);
+            //The strings of the record are reused rather than formed again for the event.
+            if (event.shouldCommit()) {
+                event.commit(depotName, rental.getLicenceNumber(), rental.getRegistration(), rental.getTypeAsString(), kilometres, fuelNeeded);
+            }
+            return fuelNeeded;
         }
+        TERMINATE_RENTAL_LATENCY.recordSince(start);
         return 0;
     }
 
     /**
-     * toString provides the string representation of instances of the class. Since we generate a singleton this is overridden to "Rental Management System".
+     * drainClosedRentals returns the records of the rentals terminated since the records were last drained and forgets them.
+     * Records are kept by the depot until they are drained, so a depot should be drained regularly (i.e. by the end of day billing run).
+     *
+     * @return returns a list of the records of the closed rentals (in the order the rentals were terminated).
+     */
+    public synchronized List<RentalRecord> drainClosedRentals() {
+        List<RentalRecord> drained = closedRentals;
+        closedRentals = new ArrayList<>();
+        return drained;
+    }
+
+    /**
+     * restoreClosedRentals puts back records drained by drainClosedRentals which could not be processed (i.e. billing failed), ahead of the records of rentals terminated since, so they are drained again.
+     *
+     * @param drained specifies the records drained (in the order they were drained).
+     */
+    public synchronized void restoreClosedRentals(List<RentalRecord> drained) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (drained == null || drained.contains(null)) {
+            throw new IllegalArgumentException("Records cannot be null objects.");
+        }
+        closedRentals.addAll(0, drained);
+    }
+
+    /**
+     * setRentalListener sets the listener notified of each rental terminated by the depot. The listener is called while the depot is locked so it must not block.
+     *
+     * @param listener specifies the listener (null to remove the listener).
+     */
+    synchronized void setRentalListener(Consumer<RentalRecord> listener) {
+        rentalListener = listener;
+    }
+
+    /**
+     * withdrawAvailableCar takes the available car of a type with the most fuel remaining out of this depot (i.e. to transfer the car to another depot).
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @return returns the car withdrawn, or null if there are no available cars of that type.
+     */
+    public synchronized Car withdrawAvailableCar(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        Car car = getAvailableCarsOfType(typeOfCar).poll();
+        if (car != null) {
+            metrics.carLeft(car, FleetMetrics.AVAILABLE);
+        }
+        return car;
+    }
+
+    /**
+     * decommissionCar takes the available car of a type with the most fuel remaining out of this depot and out of service (see CarImplCarFactory.decommission, or LocalCarFactory.decommission for an isolated depot).
+     * The car is no longer held by the depot or the factory and its registration is released to the free pool of registrations, so the fleet can be renewed without the number of cars held growing.
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @return returns the car decommissioned, or null if there are no available cars of that type.
+     */
+    public synchronized Car decommissionCar(String typeOfCar) {
+        Car car = withdrawAvailableCar(typeOfCar);
+        if (car != null) {
+            decommissionWithdrawnCar(car);
+        }
+        return car;
+    }
+
+    /**
+     * decommissionWithdrawnCar takes a car withdrawn from this depot (see withdrawAvailableCar) out of service as decommissionCar does, i.e. once the car has been replaced by a car of another process (see cluster.DepotNode.transferCar).
+     *
+     * @param car specifies the car withdrawn.
+     * @return returns true if the car was decommissioned, or false if it had already been decommissioned.
+     */
+    public synchronized boolean decommissionWithdrawnCar(Car car) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (car == null) {
+            throw new IllegalArgumentException("Car cannot be null.");
+        }
+        return carFactory == null ? CarImplCarFactory.decommission(car) : carFactory.decommission(car);
+    }
+
+    /**
+     * receiveCar adds a car with the state of a car moved from a depot of another process to this depot (see cluster.DepotNode). The car is created with a new registration, as registrations are unique to a process,
+     * but with the fuel remaining and odometer of the car moved, and is either made available or queued for refuelling (see acceptCar).
+     *
+     * @param typeOfCar     specifies the type of the car moved (converted into UPPERCASE).
+     * @param fuelRemaining specifies the fuel remaining of the car moved.
+     * @param odometer      specifies the kilometres driven by the car moved.
+     * @return returns the car added, or null if the car would exceed the instance restriction of the type or every registration has been allocated.
+     */
+    public synchronized Car receiveCar(String typeOfCar, int fuelRemaining, int odometer) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        typeOfCar = typeOfCar.toUpperCase();
+        //The instance restriction of the type is checked as provisionCars checks it.
+        Integer noMaxInstances = carInstanceRestrictions.get(typeOfCar);
+        if (noMaxInstances != null && getAvailableCarsOfType(typeOfCar).size() + 1 > noMaxInstances) {
+            return null;
+        }
+        Car car = carFactory == null ? CarImplCarFactory.tryGetInstance(typeOfCar, fuelRemaining, odometer) : carFactory.tryGetCar(typeOfCar, fuelRemaining, odometer);
+        if (car != null) {
+            acceptCar(car);
+        }
+        return car;
+    }
+
+    /**
+     * acceptCar adds a car which is not rented (i.e. withdrawn from another depot) to this depot. The car is either made available or queued for refuelling.
+     *
+     * @param car specifies the car to add to the depot.
+     */
+    public synchronized void acceptCar(Car car) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (car == null) {
+            throw new IllegalArgumentException("Car cannot be null.");
+        }
+        if (car.isRented()) {
+            throw new IllegalArgumentException("Car " + car.toString() + " is rented and cannot be accepted by a depot.");
+        }
+        metrics.carJoined(car, returnCar(car));
+        serveWaiters();
+    }
+
+    /**
+     * returnCar returns a car which is no longer rented to the fleet.
+     * Cars with a full tank (or with enough fuel to be issued under the current IssuePolicy) go straight back to the pool of available cars, otherwise they are queued for refuelling.
+     *
+     * @param car specifies the car to return.
+     * @return returns the state the car is returned to (FleetMetrics.AVAILABLE or FleetMetrics.AWAITING_FUEL).
+     */
+    private int returnCar(Car car) {
+        assert car != null;
+        assert !car.isRented();
+        if (car.isFuelFull() || issuePolicy.isIssuable(car)) {
+            getAvailableCarsOfType(car.getTypeAsString()).add(car);
+            return FleetMetrics.AVAILABLE;
+        }
+        refuellingScheduler.queue(car);
+        return FleetMetrics.AWAITING_FUEL;
+    }
+
+    /**
+     * refuelCars runs a single refuelling cycle: the pumps refuel the next batch of queued cars which are then returned to the pool of available cars.
+     *
+     * @return returns the number of cars returned to the pool of available cars.
+     */
+    public synchronized int refuelCars() {
+        List<Car> refuelledCars = refuellingScheduler.refuel();
+        for (Car car : refuelledCars) {
+            metrics.carMoved(car, FleetMetrics.AWAITING_FUEL, returnCar(car));
+        }
+        serveWaiters();
+        return refuelledCars.size();
+    }
+
+    /**
+     * getCarsAwaitingFuel returns the number of cars queued for refuelling.
+     *
+     * @return returns the number of cars waiting to be refuelled.
+     */
+    synchronized int getCarsAwaitingFuel() {
+        return refuellingScheduler.getCarsWaiting();
+    }
+
+    /**
+     * getLongestRefuellingWait returns how long the longest waiting car has been queued for refuelling.
+     *
+     * @return returns the longest wait in milliseconds.
+     */
+    synchronized long getLongestRefuellingWait() {
+        return refuellingScheduler.getLongestWait();
+    }
+
+    /**
+     * getAverageRefuellingWait returns the average time the cars queued for refuelling have been waiting.
+     *
+     * @return returns the average wait in milliseconds.
+     */
+    synchronized long getAverageRefuellingWait() {
+        return refuellingScheduler.getAverageWait();
+    }
+
+    /**
+     * toString provides the string representation of instances of the class. This is overridden to "Rental Management System[depotName]".
      *
-     * @return returns the string representation of the object (static).
+     * @return returns the string representation of the object.
      */
     @Override
     public String toString() {
@@ -1,6 +1,8 @@
 package manager;
 
 import cars.Car;
+import cars.CarImplCarFactory;
+import cars.LocalCarFactory;
 import exceptions.GetInstanceLimitExceededException;
 import licences.DrivingLicence;
 import org.junit.Test;
@@ -353,4 +355,193 @@ public class RentalManagerTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void refuelCars() throws Exception {
+        //Instantiate
+        RentalManager manager = RentalManager.getInstance();
+        RentalManager.addCarInstanceRestriction("large", 10000);
+        //Restore the default restrictions (other tests overwrite these static values).
+        RentalManager.addCarAgeRestriction("large", 25);
+        RentalManager.addCarLicenceAgeRestriction("large", 5);
+        RentalManager.createAvailableCars("large", 1);
+
+        //Create a new Valid Licence
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        DrivingLicence validLicence = DrivingLicence.getInstance("Sarah", "Connor", birth, issue, true);
+        if (!manager.issueCar(validLicence, "large")) {
+            fail();
+        }
+        int availableBefore = manager.availableCars("large");
+        manager.getCar(validLicence).drive(100);
+        //The car returned with a partial tank should wait for fuel (and not be available).
+        if (manager.terminateRental(validLicence) == 0 || manager.getCarsAwaitingFuel() == 0) {
+            fail();
+        }
+        if (manager.availableCars("large") != availableBefore) {
+            fail();
+        }
+        //Once refuelled the car should return to the pool of available cars.
+        while (manager.getCarsAwaitingFuel() > 0) {
+            manager.refuelCars();
+        }
+        if (manager.availableCars("large") != availableBefore + 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void issueCarWithIssuePolicy() throws Exception {
+        //Instantiate
+        RentalManager manager = RentalManager.getInstance();
+        RentalManager.addCarInstanceRestriction("large", 10000);
+        //Restore the default restrictions (other tests overwrite these static values).
+        RentalManager.addCarAgeRestriction("large", 25);
+        RentalManager.addCarLicenceAgeRestriction("large", 5);
+        RentalManager.createAvailableCars("large", 1);
+        manager.setIssuePolicy(IssuePolicy.getInstance(90, true));
+        try {
+            //Create a new Valid Licence
+            Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+            Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+            DrivingLicence validLicence = DrivingLicence.getInstance("Ellen", "Ripley", birth, issue, true);
+            if (!manager.issueCar(validLicence, "large")) {
+                fail();
+            }
+            int availableBefore = manager.availableCars("large");
+            int awaitingFuelBefore = manager.getCarsAwaitingFuel();
+            //Driving 40 kilometres leaves the car with 93% of its fuel so it can be issued again without refuelling.
+            manager.getCar(validLicence).drive(40);
+            if (manager.terminateRental(validLicence) != 4) {
+                fail();
+            }
+            if (manager.availableCars("large") != availableBefore + 1 || manager.getCarsAwaitingFuel() != awaitingFuelBefore) {
+                fail();
+            }
+        } finally {
+            manager.setIssuePolicy(IssuePolicy.FULL_TANK);
+        }
+    }
+
+    @Test
+    public void issueCarRejectionsCounted() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("rejections");
+        long noCarAvailable = RejectionReason.NO_CAR_AVAILABLE.getRejections().get();
+        long provisionalLicence = RejectionReason.PROVISIONAL_LICENCE.getRejections().get();
+        long alreadyRenting = RejectionReason.ALREADY_RENTING.getRejections().get();
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        DrivingLicence licence = DrivingLicence.getInstance("Sarah", "Connor", birth, issue, true);
+        DrivingLicence provisionalLicenceHolder = DrivingLicence.getInstance("John", "Connor", birth, issue, false);
+        if (depot.issueCar(licence, "small") || depot.issueCar(provisionalLicenceHolder, "small")) {
+            fail();
+        }
+        depot.provisionCars("small", 2);
+        if (!depot.issueCar(licence, "small") || depot.issueCar(licence, "small")) {
+            fail();
+        }
+        if (RejectionReason.NO_CAR_AVAILABLE.getRejections().get() != noCarAvailable + 1 || RejectionReason.PROVISIONAL_LICENCE.getRejections().get() != provisionalLicence + 1 ||
+                RejectionReason.ALREADY_RENTING.getRejections().get() != alreadyRenting + 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void issueResultValid() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("issue-results");
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        DrivingLicence licence = DrivingLicence.getInstance("Rick", "Deckard", birth, issue, true);
+        DrivingLicence otherLicence = DrivingLicence.getInstance("Roy", "Batty", birth, issue, true);
+        //Until a rental of the type has been terminated there is no estimate.
+        IssueResult result = depot.issue(licence, "small");
+        if (result.isIssued() || result.getReason() != RejectionReason.NO_CAR_AVAILABLE || !result.getReason().isTransient() || result.getEstimatedWait() != IssueResult.UNKNOWN) {
+            fail();
+        }
+        depot.provisionCars("small", 1);
+        result = depot.issue(licence, "small");
+        if (!result.isIssued() || result.getCar() != depot.getCar(licence) || result.getReason() != null) {
+            fail();
+        }
+        depot.terminateRental(licence);
+        depot.issue(licence, "small");
+        result = depot.issue(otherLicence, "small");
+        //The rental is overdue against an average duration of about 0, but the estimate is never 0 (a driver should not retry at once).
+        if (result.getReason() != RejectionReason.NO_CAR_AVAILABLE || result.getEstimatedWait() < 1) {
+            fail();
+        }
+        result = depot.issue(licence, "small");
+        if (result.getReason() != RejectionReason.ALREADY_RENTING || result.getReason().isTransient() || result.getEstimatedWait() != IssueResult.UNKNOWN) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void issueInvalid() throws Exception {
+        RentalManager.getDepotInstance("issue-results").issue(null, "small");
+    }
+
+    @Test
+    public void decommissionCarValid() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("decommissions");
+        depot.provisionCars("large", 2);
+        Car car = depot.decommissionCar("large");
+        if (car == null || depot.fleetSize("large") != 1 || depot.getCars().contains(car)) {
+            fail();
+        }
+        //A car can only be decommissioned once (so its registration is only released once).
+        if (CarImplCarFactory.decommission(car)) {
+            fail();
+        }
+        depot.decommissionCar("large");
+        if (depot.decommissionCar("large") != null || depot.fleetSize("large") != 0) {
+            fail();
+        }
+    }
+
+    @Test
+    public void tryProvisionCarsValid() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("limits");
+        depot.setCarInstanceRestriction("small", 2);
+        if (depot.tryProvisionCars("small", 2) != ProvisionResult.PROVISIONED || depot.tryProvisionCars("small", 1) != ProvisionResult.DEPOT_LIMIT_REACHED) {
+            fail();
+        }
+        if (depot.availableCars("small") != 2 || !ProvisionResult.DEPOT_LIMIT_REACHED.isLimit()) {
+            fail();
+        }
+        //The exception of a limit being reached has no stack trace, and the limit is counted as it is by tryProvisionCars.
+        final long noLimitsReached = ProvisionResult.DEPOT_LIMIT_REACHED.getRequests().get();
+        try {
+            depot.provisionCars("small", 1);
+            fail();
+        } catch (GetInstanceLimitExceededException e) {
+            if (e.getStackTrace().length != 0) {
+                fail();
+            }
+        }
+        if (ProvisionResult.DEPOT_LIMIT_REACHED.getRequests().get() != noLimitsReached + 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void getIsolatedInstanceValid() throws Exception {
+        LocalCarFactory carFactory = LocalCarFactory.getInstance();
+        RentalManager depot = RentalManager.getIsolatedInstance("isolated", carFactory);
+        //An isolated depot is not registered by name, and its cars are created by its factory.
+        if (depot == RentalManager.getDepotInstance("isolated") || depot == RentalManager.getIsolatedInstance("isolated", carFactory)) {
+            fail();
+        }
+        depot.provisionCars("small", 3);
+        if (carFactory.getNoCars("small") != 3 || depot.availableCars("small") != 3) {
+            fail();
+        }
+        while (depot.decommissionCar("small") != null) {
+            //Every car is decommissioned to the factory.
+        }
+        if (carFactory.getNoCars("small") != 0 || depot.fleetSize("small") != 0) {
+            fail();
+        }
+    }
+
+}
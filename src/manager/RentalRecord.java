@@ -0,0 +1,141 @@
+package manager;
+
+/**
+ * The RentalRecord class is the record of a closed rental: who rented which car, when it was issued and returned, how far it was driven and the fuel the driver owes.
+ * <p>
+ * Records are created by the RentalManager when a rental is terminated (see RentalManager.drainClosedRentals) and hold only values (no references to licences or cars) so they can be billed and stored long after the rental.
+ * <p>
+ * The RentalRecord class is immutable and utilizes a static factory method build pattern.
+ */
+public final class RentalRecord {
+
+    private final String licenceNumber;
+    private final String registration;
+    private final String typeOfCar;
+    private final long issuedAt;
+    private final long returnedAt;
+    private final int kilometres;
+    private final int fuelNeeded;
+
+    /**
+     * RentalRecord is a constructor for a new RentalRecord object.
+     *
+     * @param licenceNumber the licence number of the driver.
+     * @param registration  the registration of the car.
+     * @param typeOfCar     the type of the car.
+     * @param issuedAt      the time the car was issued (milliseconds since the epoch).
+     * @param returnedAt    the time the car was returned (milliseconds since the epoch).
+     * @param kilometres    the kilometres driven during the rental.
+     * @param fuelNeeded    the fuel the driver owes (as returned by terminateRental).
+     */
+    private RentalRecord(String licenceNumber, String registration, String typeOfCar, long issuedAt, long returnedAt, int kilometres, int fuelNeeded) {
+        this.licenceNumber = licenceNumber;
+        this.registration = registration;
+        this.typeOfCar = typeOfCar;
+        this.issuedAt = issuedAt;
+        this.returnedAt = returnedAt;
+        this.kilometres = kilometres;
+        this.fuelNeeded = fuelNeeded;
+    }
+
+    /**
+     * getInstance returns a new RentalRecord object given the respective parameters.
+     *
+     * @param licenceNumber specifies the licence number of the driver.
+     * @param registration  specifies the registration of the car.
+     * @param typeOfCar     specifies the type of the car (converted into UPPERCASE).
+     * @param issuedAt      specifies the time the car was issued (milliseconds since the epoch).
+     * @param returnedAt    specifies the time the car was returned (no earlier than issuedAt).
+     * @param kilometres    specifies the kilometres driven during the rental.
+     * @param fuelNeeded    specifies the fuel the driver owes.
+     * @return returns the RentalRecord object.
+     */
+    public static RentalRecord getInstance(String licenceNumber, String registration, String typeOfCar, long issuedAt, long returnedAt, int kilometres, int fuelNeeded) {
+        /*
+        Check parameters.
+         */
+        if (licenceNumber == null || registration == null || typeOfCar == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        if (returnedAt < issuedAt) {
+            throw new IllegalArgumentException("A car cannot be returned before it is issued.");
+        }
+        if (kilometres < 0 || fuelNeeded < 0) {
+            throw new IllegalArgumentException("Kilometres and fuel needed cannot be negative.");
+        }
+        return new RentalRecord(licenceNumber, registration, typeOfCar.toUpperCase(), issuedAt, returnedAt, kilometres, fuelNeeded);
+    }
+
+    /**
+     * getLicenceNumber returns the licence number of the driver.
+     *
+     * @return returns the licence number as a string.
+     */
+    public String getLicenceNumber() {
+        return licenceNumber;
+    }
+
+    /**
+     * getRegistration returns the registration of the car.
+     *
+     * @return returns the registration as a string.
+     */
+    public String getRegistration() {
+        return registration;
+    }
+
+    /**
+     * getTypeAsString returns the type of the car.
+     *
+     * @return returns the type of the car (in UPPERCASE).
+     */
+    public String getTypeAsString() {
+        return typeOfCar;
+    }
+
+    /**
+     * getIssuedAt returns the time the car was issued.
+     *
+     * @return returns the time in milliseconds since the epoch.
+     */
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * getReturnedAt returns the time the car was returned.
+     *
+     * @return returns the time in milliseconds since the epoch.
+     */
+    public long getReturnedAt() {
+        return returnedAt;
+    }
+
+    /**
+     * getKilometres returns the kilometres driven during the rental.
+     *
+     * @return returns the kilometres driven.
+     */
+    public int getKilometres() {
+        return kilometres;
+    }
+
+    /**
+     * getFuelNeeded returns the fuel the driver owes.
+     *
+     * @return returns the fuel needed (Litres).
+     */
+    public int getFuelNeeded() {
+        return fuelNeeded;
+    }
+
+    /**
+     * toString returns the record as a string.
+     *
+     * @return returns the following formatted string "RentalRecord[licenceNumber, registration, type, issuedAt-returnedAt, kilometres km, fuelNeeded L]".
+     */
+    @Override
+    public String toString() {
+        return "RentalRecord[" + licenceNumber + ", " + registration + ", " + typeOfCar + ", " + issuedAt + "-" + returnedAt + ", " + kilometres + " km, " + fuelNeeded + " L]";
+    }
+}
@@ -0,0 +1,104 @@
+package manager;
+
+import licences.DrivingLicence;
+
+import java.time.LocalDate;
+
+/**
+ * The Reservation class is an advance booking of a type of car for a driving licence from a first day to a last day (inclusive) made by a ReservationEngine.
+ * <p>
+ * The Reservation class is immutable, instances are only created by the ReservationEngine.
+ */
+public final class Reservation {
+
+    private final long reservationId;
+    private final DrivingLicence drivingLicence;
+    private final String typeOfCar;
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final String strRep;
+
+    /**
+     * Reservation is a constructor for a new Reservation object.
+     *
+     * @param reservationId  the identifier of the reservation (unique within its ReservationEngine).
+     * @param drivingLicence the licence the car is reserved for.
+     * @param typeOfCar      the type of car reserved (in UPPERCASE).
+     * @param firstDay       the first day of the reservation.
+     * @param lastDay        the last day of the reservation.
+     */
+    Reservation(long reservationId, DrivingLicence drivingLicence, String typeOfCar, LocalDate firstDay, LocalDate lastDay) {
+        this.reservationId = reservationId;
+        this.drivingLicence = drivingLicence;
+        this.typeOfCar = typeOfCar;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.strRep = "Reservation[" + reservationId + ", " + typeOfCar + ", " + firstDay + " to " + lastDay + "]";
+    }
+
+    /**
+     * getReservationId returns the identifier of the reservation.
+     *
+     * @return returns the reservation identifier.
+     */
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    /**
+     * getDrivingLicence returns the licence the car is reserved for.
+     *
+     * @return returns the DrivingLicence object.
+     */
+    public DrivingLicence getDrivingLicence() {
+        return drivingLicence;
+    }
+
+    /**
+     * getTypeAsString returns the type of car reserved.
+     *
+     * @return returns the type of car (in UPPERCASE).
+     */
+    public String getTypeAsString() {
+        return typeOfCar;
+    }
+
+    /**
+     * getFirstDay returns the first day of the reservation (the earliest day the car can be picked up).
+     *
+     * @return returns the first day.
+     */
+    public LocalDate getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * getLastDay returns the last day of the reservation (inclusive).
+     *
+     * @return returns the last day.
+     */
+    public LocalDate getLastDay() {
+        return lastDay;
+    }
+
+    /**
+     * overlaps identifies if this reservation shares any day with the range of days specified.
+     *
+     * @param from specifies the first day of the range.
+     * @param to   specifies the last day of the range (inclusive).
+     * @return returns true if the reservation and the range share at least one day.
+     */
+    boolean overlaps(LocalDate from, LocalDate to) {
+        return !firstDay.isAfter(to) && !lastDay.isBefore(from);
+    }
+
+    /**
+     * toString returns the reservation as a string.
+     *
+     * @return returns the following formatted string "Reservation[reservationId, type, firstDay to lastDay]".
+     */
+    @Override
+    public String toString() {
+        return strRep;
+    }
+}
@@ -0,0 +1,341 @@
+package manager;
+
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The ReservationEngine class takes advance reservations of the cars of a depot (RentalManager) over a rolling horizon of HORIZON_DAYS days starting today.
+ * <p>
+ * The bookings of each type of car are counted per day by a SlotIndex (a segment tree) so whether a type of car is free for a range of days is answered in logarithmic time.
+ * The days of the horizon are stored circularly (the slot of a day is its epoch day modulo HORIZON_DAYS) so that advancing the horizon only clears the days which have passed.
+ * A type of car is free for a range of days if on every day of the range the number of reservations is less than the number of cars of that type owned by the depot (see RentalManager.fleetSize).
+ * <p>
+ * A reservation is only taken if the driver is eligible to rent the type of car (see RentalManager.isEligible) and has no other reservation on any of the days, and is booked atomically.
+ * At pickup the reservation is turned into a rental by RentalManager.issueCar, so every condition of issueCar is checked again at that point.
+ * Walk-in rentals are not counted by the engine, so a depot taking reservations should hold back enough of its fleet for them.
+ * <p>
+ * Operations on an engine are synchronized on the engine, which then calls its depot (the depot never calls the engine, so the locks are always taken in the same order).
+ */
+public final class ReservationEngine {
+
+    /*
+    The number of days (starting today) reservations can be made for.
+     */
+    public static final int HORIZON_DAYS = 90;
+
+    private final RentalManager depot;
+    /*
+    The bookings of each type of car (key-value pairs of car type to slot index).
+     */
+    private final Map<String, SlotIndex> bookings = new HashMap<>();
+    /*
+    The reservations of each licence (key-value pairs of licence to reservations) and the reservations which have been picked up.
+     */
+    private final Map<DrivingLicence, List<Reservation>> reservations = new HashMap<>();
+    private final Set<Reservation> pickedUp = new HashSet<>();
+    private LocalDate today;
+    private long nextReservationId = 1;
+
+    /**
+     * ReservationEngine is a constructor for a new ReservationEngine object.
+     *
+     * @param depot the depot the cars are reserved from.
+     * @param today the first day of the horizon.
+     */
+    private ReservationEngine(RentalManager depot, LocalDate today) {
+        this.depot = depot;
+        this.today = today;
+    }
+
+    /**
+     * getInstance returns a new ReservationEngine taking reservations of the cars of a depot.
+     *
+     * @param depot specifies the depot the cars are reserved from.
+     * @param today specifies the first day of the horizon.
+     * @return returns a new ReservationEngine object.
+     */
+    public static ReservationEngine getInstance(RentalManager depot, LocalDate today) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depot == null || today == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        return new ReservationEngine(depot, today);
+    }
+
+    /**
+     * getToday returns the first day of the horizon.
+     *
+     * @return returns the first day reservations can be made for.
+     */
+    public synchronized LocalDate getToday() {
+        return today;
+    }
+
+    /**
+     * advanceTo moves the horizon forward so that it starts on the specified day. The bookings of the days which have passed are cleared and reservations which have ended are forgotten.
+     *
+     * @param newToday specifies the new first day of the horizon (days before the current first day are ignored).
+     */
+    public synchronized void advanceTo(LocalDate newToday) {
+        /*
+        Check parameters.
+         */
+        if (newToday == null) {
+            throw new IllegalArgumentException("Day cannot be null.");
+        }
+        long noDaysPassed = newToday.toEpochDay() - today.toEpochDay();
+        if (noDaysPassed <= 0) {
+            return;
+        }
+        //Clear the slots of the days which have passed (at most every slot) so they can be reused by the new days at the end of the horizon.
+        for (SlotIndex slotIndex : bookings.values()) {
+            for (long day = 0; day < Math.min(noDaysPassed, HORIZON_DAYS); day++) {
+                int slot = toSlot(today.plusDays(day));
+                slotIndex.add(slot, slot, -slotIndex.get(slot));
+            }
+        }
+        today = newToday;
+        //Forget the reservations which have ended.
+        Iterator<List<Reservation>> iterator = reservations.values().iterator();
+        while (iterator.hasNext()) {
+            List<Reservation> licenceReservations = iterator.next();
+            for (Iterator<Reservation> reservationIterator = licenceReservations.iterator(); reservationIterator.hasNext(); ) {
+                Reservation reservation = reservationIterator.next();
+                if (reservation.getLastDay().isBefore(today)) {
+                    reservationIterator.remove();
+                    pickedUp.remove(reservation);
+                }
+            }
+            if (licenceReservations.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * availableCars returns the number of cars of a type which can still be reserved for every day from the first day to the last day (inclusive).
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE).
+     * @param from      specifies the first day.
+     * @param to        specifies the last day.
+     * @return returns the number of cars of that type free on every day of the range.
+     */
+    public synchronized int availableCars(String typeOfCar, LocalDate from, LocalDate to) {
+        /*
+        Check parameters.
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        checkDays(from, to);
+        typeOfCar = typeOfCar.toUpperCase();
+        return Math.max(0, depot.fleetSize(typeOfCar) - getMaxBookings(typeOfCar, from, to));
+    }
+
+    /**
+     * isAvailable identifies if a car of a type can be reserved for every day from the first day to the last day (inclusive).
+     *
+     * @param typeOfCar defines the type of car (converted into UPPERCASE).
+     * @param from      specifies the first day.
+     * @param to        specifies the last day.
+     * @return returns true if a car of that type is free on every day of the range.
+     */
+    public synchronized boolean isAvailable(String typeOfCar, LocalDate from, LocalDate to) {
+        return availableCars(typeOfCar, from, to) > 0;
+    }
+
+    /**
+     * reserve reserves a car of a type for a driving licence from the first day to the last day (inclusive). The reservation is only made if...
+     * (a) The driver is eligible to rent the type of car (see RentalManager.isEligible).
+     * (b) The driver has no other reservation on any of the days.
+     * (c) A car of that type is free on every day of the range.
+     *
+     * @param drivingLicence specifies the DrivingLicence object to reserve a car for.
+     * @param typeOfCar      specifies the type of car (converted into UPPERCASE).
+     * @param from           specifies the first day (no earlier than today).
+     * @param to             specifies the last day (within HORIZON_DAYS of today).
+     * @return returns the Reservation, or null if the car cannot be reserved.
+     */
+    public synchronized Reservation reserve(DrivingLicence drivingLicence, String typeOfCar, LocalDate from, LocalDate to) {
+        /*
+        Check parameters.
+         */
+        if (drivingLicence == null || typeOfCar == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        checkDays(from, to);
+        typeOfCar = typeOfCar.toUpperCase();
+        if (!depot.isEligible(drivingLicence, typeOfCar)) {
+            return null;
+        }
+        List<Reservation> licenceReservations = reservations.get(drivingLicence);
+        if (licenceReservations != null) {
+            for (Reservation reservation : licenceReservations) {
+                if (reservation.overlaps(from, to)) {
+                    return null;
+                }
+            }
+        }
+        if (getMaxBookings(typeOfCar, from, to) >= depot.fleetSize(typeOfCar)) {
+            return null;
+        }
+        //Every check has passed (and the engine is locked) so the booking cannot fail from this point.
+        addBookings(typeOfCar, from, to, 1);
+        Reservation reservation = new Reservation(nextReservationId++, drivingLicence, typeOfCar, from, to);
+        if (licenceReservations == null) {
+            licenceReservations = new ArrayList<>();
+            reservations.put(drivingLicence, licenceReservations);
+        }
+        licenceReservations.add(reservation);
+        return reservation;
+    }
+
+    /**
+     * cancel cancels a reservation, releasing the days of the reservation which have not yet passed.
+     *
+     * @param reservation specifies the reservation to cancel.
+     * @return returns true if the reservation was cancelled, returns false if it is not held by this engine.
+     */
+    public synchronized boolean cancel(Reservation reservation) {
+        /*
+        Check parameters.
+         */
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reservation cannot be null.");
+        }
+        List<Reservation> licenceReservations = reservations.get(reservation.getDrivingLicence());
+        if (licenceReservations == null || !licenceReservations.remove(reservation)) {
+            return false;
+        }
+        if (licenceReservations.isEmpty()) {
+            reservations.remove(reservation.getDrivingLicence());
+        }
+        pickedUp.remove(reservation);
+        LocalDate from = reservation.getFirstDay().isBefore(today) ? today : reservation.getFirstDay();
+        if (!reservation.getLastDay().isBefore(from)) {
+            addBookings(reservation.getTypeAsString(), from, reservation.getLastDay(), -1);
+        }
+        return true;
+    }
+
+    /**
+     * pickUp turns a reservation into a rental by issuing the reserved type of car to the driving licence (see RentalManager.issueCar).
+     * The car is kept reserved until the last day of the reservation.
+     *
+     * @param reservation specifies the reservation to pick up.
+     * @param day         specifies the day of pickup (which must be one of the days of the reservation).
+     * @return returns true if a car was issued, returns false otherwise.
+     * @throws GetInstanceLimitExceededException in the event the instance limit has been reached for any particular class should be handled appropriately.
+     */
+    public synchronized boolean pickUp(Reservation reservation, LocalDate day) throws GetInstanceLimitExceededException {
+        /*
+        Check parameters.
+         */
+        if (reservation == null || day == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        List<Reservation> licenceReservations = reservations.get(reservation.getDrivingLicence());
+        if (licenceReservations == null || !licenceReservations.contains(reservation) || pickedUp.contains(reservation) || !reservation.overlaps(day, day)) {
+            return false;
+        }
+        if (depot.issueCar(reservation.getDrivingLicence(), reservation.getTypeAsString())) {
+            pickedUp.add(reservation);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * getReservations returns the reservations held for a driving licence.
+     *
+     * @param drivingLicence specifies the DrivingLicence object.
+     * @return returns a list of the reservations of the licence.
+     */
+    public synchronized List<Reservation> getReservations(DrivingLicence drivingLicence) {
+        List<Reservation> licenceReservations = reservations.get(drivingLicence);
+        return licenceReservations == null ? new ArrayList<Reservation>() : new ArrayList<>(licenceReservations);
+    }
+
+    /**
+     * checkDays checks a range of days lies within the horizon.
+     *
+     * @param from specifies the first day.
+     * @param to   specifies the last day.
+     */
+    private void checkDays(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Days cannot be null.");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The first day " + from + " cannot be after the last day " + to + ".");
+        }
+        if (from.isBefore(today) || !to.isBefore(today.plusDays(HORIZON_DAYS))) {
+            throw new IllegalArgumentException("Reservations can only be made from " + today + " for " + HORIZON_DAYS + " days.");
+        }
+    }
+
+    /**
+     * toSlot returns the slot of a day (the days of the horizon are stored circularly).
+     *
+     * @param day specifies the day.
+     * @return returns the slot of the day.
+     */
+    private static int toSlot(LocalDate day) {
+        return (int) Math.floorMod(day.toEpochDay(), (long) HORIZON_DAYS);
+    }
+
+    /**
+     * getSlotIndex provides the bookings of a particular type of car (the index is created if it does not exist).
+     *
+     * @param typeOfCar defines the type of car (in UPPERCASE).
+     * @return returns the slot index of the type of car.
+     */
+    private SlotIndex getSlotIndex(String typeOfCar) {
+        SlotIndex slotIndex = bookings.get(typeOfCar);
+        if (slotIndex == null) {
+            slotIndex = new SlotIndex(HORIZON_DAYS);
+            bookings.put(typeOfCar, slotIndex);
+        }
+        return slotIndex;
+    }
+
+    /**
+     * getMaxBookings returns the largest number of reservations of a type of car on any day of a range within the horizon.
+     */
+    private int getMaxBookings(String typeOfCar, LocalDate from, LocalDate to) {
+        SlotIndex slotIndex = getSlotIndex(typeOfCar);
+        int first = toSlot(from);
+        int last = toSlot(to);
+        //A range which wraps around the end of the slots is queried as two ranges.
+        if (first <= last) {
+            return slotIndex.getMax(first, last);
+        }
+        return Math.max(slotIndex.getMax(first, HORIZON_DAYS - 1), slotIndex.getMax(0, last));
+    }
+
+    /**
+     * addBookings adds a number of reservations of a type of car to every day of a range within the horizon.
+     */
+    private void addBookings(String typeOfCar, LocalDate from, LocalDate to, int noBookings) {
+        SlotIndex slotIndex = getSlotIndex(typeOfCar);
+        int first = toSlot(from);
+        int last = toSlot(to);
+        if (first <= last) {
+            slotIndex.add(first, last, noBookings);
+        } else {
+            slotIndex.add(first, HORIZON_DAYS - 1, noBookings);
+            slotIndex.add(0, last, noBookings);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package manager;
+
+import licences.DrivingLicence;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import static org.junit.Assert.fail;
+
+public class ReservationEngineTest {
+    private static final LocalDate TODAY = LocalDate.of(2020, 1, 1);
+
+    private static DrivingLicence getLicence() throws Exception {
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        return DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, true);
+    }
+
+    @Test
+    public void reserveValid() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("reserve-valid");
+        depot.provisionCars("small", 2);
+        ReservationEngine engine = ReservationEngine.getInstance(depot, TODAY);
+        DrivingLicence first = getLicence();
+        DrivingLicence second = getLicence();
+        DrivingLicence third = getLicence();
+        //Two cars can be reserved for overlapping days, a third cannot.
+        if (engine.reserve(first, "small", TODAY.plusDays(5), TODAY.plusDays(10)) == null ||
+                engine.reserve(second, "small", TODAY.plusDays(8), TODAY.plusDays(12)) == null ||
+                engine.reserve(third, "small", TODAY.plusDays(10), TODAY.plusDays(20)) != null) {
+            fail();
+        }
+        if (engine.availableCars("small", TODAY, TODAY.plusDays(4)) != 2 || engine.availableCars("small", TODAY.plusDays(9), TODAY.plusDays(9)) != 0 ||
+                !engine.isAvailable("small", TODAY.plusDays(11), TODAY.plusDays(20))) {
+            fail();
+        }
+        //A licence cannot hold two reservations on the same day.
+        if (engine.reserve(third, "small", TODAY.plusDays(11), TODAY.plusDays(20)) == null ||
+                engine.reserve(third, "small", TODAY.plusDays(20), TODAY.plusDays(21)) != null) {
+            fail();
+        }
+    }
+
+    @Test
+    public void reserveRestricted() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("reserve-restricted");
+        depot.provisionCars("large", 1);
+        ReservationEngine engine = ReservationEngine.getInstance(depot, TODAY);
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        Date recentIssue = new Date();
+        //Provisional licences and licences held for too short a time cannot reserve a large car.
+        if (engine.reserve(DrivingLicence.getInstance("Marty", "Mcfly", birth, issue, false), "large", TODAY, TODAY) != null ||
+                engine.reserve(DrivingLicence.getInstance("Marty", "Mcfly", birth, recentIssue, true), "large", TODAY, TODAY) != null) {
+            fail();
+        }
+    }
+
+    @Test
+    public void cancelAndAdvance() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("reserve-advance");
+        depot.provisionCars("small", 1);
+        ReservationEngine engine = ReservationEngine.getInstance(depot, TODAY);
+        Reservation reservation = engine.reserve(getLicence(), "small", TODAY.plusDays(80), TODAY.plusDays(89));
+        if (reservation == null || engine.isAvailable("small", TODAY.plusDays(85), TODAY.plusDays(85))) {
+            fail();
+        }
+        if (!engine.cancel(reservation) || engine.cancel(reservation) || !engine.isAvailable("small", TODAY.plusDays(80), TODAY.plusDays(89))) {
+            fail();
+        }
+        //After advancing the horizon the slots of the days which have passed are reused by new days (wrapping around the end of the slots).
+        engine.reserve(getLicence(), "small", TODAY, TODAY.plusDays(9));
+        engine.advanceTo(TODAY.plusDays(10));
+        if (!engine.isAvailable("small", TODAY.plusDays(85), TODAY.plusDays(99))) {
+            fail();
+        }
+        if (engine.reserve(getLicence(), "small", TODAY.plusDays(85), TODAY.plusDays(99)) == null ||
+                engine.isAvailable("small", TODAY.plusDays(95), TODAY.plusDays(95)) || !engine.isAvailable("small", TODAY.plusDays(10), TODAY.plusDays(84))) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reserveBeyondHorizon() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("reserve-horizon");
+        ReservationEngine.getInstance(depot, TODAY).reserve(getLicence(), "small", TODAY, TODAY.plusDays(ReservationEngine.HORIZON_DAYS));
+    }
+
+    @Test
+    public void pickUp() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("reserve-pickup");
+        depot.provisionCars("small", 1);
+        ReservationEngine engine = ReservationEngine.getInstance(depot, TODAY);
+        DrivingLicence licence = getLicence();
+        Reservation reservation = engine.reserve(licence, "small", TODAY.plusDays(2), TODAY.plusDays(4));
+        //A reservation can only be picked up on one of its days, and only once.
+        if (engine.pickUp(reservation, TODAY.plusDays(1)) || !engine.pickUp(reservation, TODAY.plusDays(2)) || engine.pickUp(reservation, TODAY.plusDays(3))) {
+            fail();
+        }
+        if (depot.getCar(licence) == null || depot.availableCars("small") != 0 || depot.fleetSize("small") != 1) {
+            fail();
+        }
+        depot.terminateRental(licence);
+    }
+}
@@ -0,0 +1,125 @@
+package manager;
+
+/**
+ * The SlotIndex class counts the bookings of a fixed number of consecutive slots (i.e. days) using a segment tree with lazy propagation.
+ * <p>
+ * Adding a booking to a range of slots and finding the largest number of bookings of any slot in a range both take logarithmic time in the number of slots,
+ * so whether a range of days can take one more booking can be answered without visiting every day of the range.
+ * <p>
+ * The SlotIndex class is not thread-safe, it is guarded by its owner (see ReservationEngine).
+ */
+final class SlotIndex {
+
+    private final int noSlots;
+    /*
+    max[node] is the largest number of bookings of any slot covered by the node (excluding the pending additions of its ancestors).
+    pending[node] is the number of bookings added to every slot covered by the node which has not yet been pushed down to its children.
+     */
+    private final int[] max;
+    private final int[] pending;
+
+    /**
+     * SlotIndex is a constructor for a new SlotIndex with no bookings.
+     *
+     * @param noSlots the number of slots indexed.
+     */
+    SlotIndex(int noSlots) {
+        /*
+        Check parameters.
+         */
+        if (noSlots <= 0) {
+            throw new IllegalArgumentException("A slot index must have at least one slot.");
+        }
+        this.noSlots = noSlots;
+        this.max = new int[4 * noSlots];
+        this.pending = new int[4 * noSlots];
+    }
+
+    /**
+     * getNoSlots returns the number of slots indexed.
+     *
+     * @return returns the number of slots.
+     */
+    int getNoSlots() {
+        return noSlots;
+    }
+
+    /**
+     * add adds a number of bookings to every slot from the first slot to the last slot (inclusive).
+     *
+     * @param first    specifies the first slot.
+     * @param last     specifies the last slot.
+     * @param bookings specifies the number of bookings to add (negative to remove bookings).
+     */
+    void add(int first, int last, int bookings) {
+        checkRange(first, last);
+        add(1, 0, noSlots - 1, first, last, bookings);
+    }
+
+    /**
+     * getMax returns the largest number of bookings of any slot from the first slot to the last slot (inclusive).
+     *
+     * @param first specifies the first slot.
+     * @param last  specifies the last slot.
+     * @return returns the largest number of bookings in the range.
+     */
+    int getMax(int first, int last) {
+        checkRange(first, last);
+        return getMax(1, 0, noSlots - 1, first, last);
+    }
+
+    /**
+     * get returns the number of bookings of a single slot.
+     *
+     * @param slot specifies the slot.
+     * @return returns the number of bookings of the slot.
+     */
+    int get(int slot) {
+        return getMax(slot, slot);
+    }
+
+    private void checkRange(int first, int last) {
+        if (first < 0 || last >= noSlots || first > last) {
+            throw new IllegalArgumentException("Slots " + first + " to " + last + " are not in the range 0 to " + (noSlots - 1) + ".");
+        }
+    }
+
+    private void add(int node, int nodeFirst, int nodeLast, int first, int last, int bookings) {
+        if (last < nodeFirst || nodeLast < first) {
+            return;
+        }
+        //The node is covered by the range so the addition is recorded here and only pushed down when a child is visited.
+        if (first <= nodeFirst && nodeLast <= last) {
+            max[node] += bookings;
+            pending[node] += bookings;
+            return;
+        }
+        pushDown(node);
+        int middle = (nodeFirst + nodeLast) >>> 1;
+        add(2 * node, nodeFirst, middle, first, last, bookings);
+        add(2 * node + 1, middle + 1, nodeLast, first, last, bookings);
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+    }
+
+    private int getMax(int node, int nodeFirst, int nodeLast, int first, int last) {
+        if (last < nodeFirst || nodeLast < first) {
+            return Integer.MIN_VALUE;
+        }
+        if (first <= nodeFirst && nodeLast <= last) {
+            return max[node];
+        }
+        pushDown(node);
+        int middle = (nodeFirst + nodeLast) >>> 1;
+        return Math.max(getMax(2 * node, nodeFirst, middle, first, last), getMax(2 * node + 1, middle + 1, nodeLast, first, last));
+    }
+
+    private void pushDown(int node) {
+        if (pending[node] != 0) {
+            for (int child = 2 * node; child <= 2 * node + 1; child++) {
+                max[child] += pending[node];
+                pending[child] += pending[node];
+            }
+            pending[node] = 0;
+        }
+    }
+}
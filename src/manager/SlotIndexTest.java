@@ -0,0 +1,55 @@
+package manager;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.fail;
+
+public class SlotIndexTest {
+    @Test
+    public void addValid() throws Exception {
+        SlotIndex slotIndex = new SlotIndex(90);
+        slotIndex.add(10, 20, 1);
+        slotIndex.add(15, 30, 2);
+        if (slotIndex.getMax(0, 9) != 0 || slotIndex.getMax(0, 14) != 1 || slotIndex.getMax(0, 89) != 3 || slotIndex.get(25) != 2) {
+            fail();
+        }
+        slotIndex.add(15, 20, -3);
+        if (slotIndex.getMax(10, 30) != 2 || slotIndex.get(15) != 0) {
+            fail();
+        }
+    }
+
+    @Test
+    public void addMatchesArray() throws Exception {
+        //Compare random additions and queries against a plain array of bookings.
+        Random random = new Random(31);
+        SlotIndex slotIndex = new SlotIndex(37);
+        int[] expected = new int[37];
+        for (int i = 0; i < 2000; i++) {
+            int first = random.nextInt(37);
+            int last = first + random.nextInt(37 - first);
+            if (random.nextBoolean()) {
+                int bookings = random.nextInt(5) - 2;
+                slotIndex.add(first, last, bookings);
+                for (int slot = first; slot <= last; slot++) {
+                    expected[slot] += bookings;
+                }
+            } else {
+                int max = Integer.MIN_VALUE;
+                for (int slot = first; slot <= last; slot++) {
+                    max = Math.max(max, expected[slot]);
+                }
+                if (slotIndex.getMax(first, last) != max) {
+                    fail();
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getMaxInvalid() throws Exception {
+        new SlotIndex(90).getMax(80, 90);
+    }
+}
@@ -0,0 +1,168 @@
+package manager;
+
+import licences.DrivingLicence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Waitlist class holds the drivers of a depot waiting for a type of car, each parked on a CompletableFuture which the depot completes when it serves them.
+ * <p>
+ * Waiters of a type are ordered by priority (highest first) and then by the order they joined, so under WaitlistPolicy.FIFO (where every waiter has the same priority) they are served first come first served.
+ * A driver has at most one waiter at a time. Waiters whose future has been completed by the client (i.e. cancelled or timed out) are discarded when they reach the head of the queue.
+ * <p>
+ * The Waitlist class is not thread-safe, it is guarded by its depot (see RentalManager).
+ */
+final class Waitlist {
+
+    private static final Comparator<Waiter> SERVICE_ORDER = new Comparator<Waiter>() {
+        @Override
+        public int compare(Waiter waiter, Waiter otherWaiter) {
+            int byPriority = Integer.compare(otherWaiter.priority, waiter.priority);
+            return byPriority != 0 ? byPriority : Long.compare(waiter.sequence, otherWaiter.sequence);
+        }
+    };
+
+    /*
+    The waiters of each type of car (key-value pairs of car type to waiters) and the current waiter of each driver.
+     */
+    private final Map<String, Queue<Waiter>> waiters = new HashMap<>();
+    private final Map<DrivingLicence, Waiter> waitersByLicence = new HashMap<>();
+    private long nextSequence;
+
+    /**
+     * isEmpty identifies if no driver is waiting.
+     *
+     * @return returns true if there are no waiters (completed waiters may remain until they are discarded).
+     */
+    boolean isEmpty() {
+        return waitersByLicence.isEmpty();
+    }
+
+    /**
+     * isWaiting identifies if a driver is waiting for a car.
+     *
+     * @param drivingLicence specifies the licence of the driver.
+     * @return returns true if the driver has a waiter which has not been completed.
+     */
+    boolean isWaiting(DrivingLicence drivingLicence) {
+        Waiter waiter = waitersByLicence.get(drivingLicence);
+        return waiter != null && !waiter.future.isDone();
+    }
+
+    /**
+     * add adds a driver to the back of the waiters of a type of car with the same or a higher priority.
+     *
+     * @param drivingLicence specifies the licence of the driver (who must not be waiting).
+     * @param typeOfCar      specifies the type of car (in UPPERCASE).
+     * @param priority       specifies the priority of the driver.
+     * @return returns the future completed when the driver is served.
+     */
+    CompletableFuture<IssueResult> add(DrivingLicence drivingLicence, String typeOfCar, int priority) {
+        assert !isWaiting(drivingLicence);
+        Waiter waiter = new Waiter(drivingLicence, typeOfCar, priority, nextSequence++);
+        Queue<Waiter> queue = waiters.get(typeOfCar);
+        if (queue == null) {
+            queue = new PriorityQueue<>(SERVICE_ORDER);
+            waiters.put(typeOfCar, queue);
+        }
+        queue.add(waiter);
+        waitersByLicence.put(drivingLicence, waiter);
+        return waiter.future;
+    }
+
+    /**
+     * peek returns the next waiter to be served for a type of car, discarding any completed waiters ahead of it.
+     *
+     * @param typeOfCar specifies the type of car (in UPPERCASE).
+     * @return returns the waiter, or null if no driver is waiting for the type.
+     */
+    Waiter peek(String typeOfCar) {
+        Queue<Waiter> queue = waiters.get(typeOfCar);
+        if (queue == null) {
+            return null;
+        }
+        Waiter waiter = queue.peek();
+        while (waiter != null && waiter.future.isDone()) {
+            remove(queue);
+            waiter = queue.peek();
+        }
+        return waiter;
+    }
+
+    /**
+     * remove removes the waiter at the head of the waiters of a type of car (see peek).
+     *
+     * @param typeOfCar specifies the type of car (in UPPERCASE).
+     */
+    void remove(String typeOfCar) {
+        remove(waiters.get(typeOfCar));
+    }
+
+    private void remove(Queue<Waiter> queue) {
+        Waiter waiter = queue.poll();
+        //The driver may have joined again since the waiter was completed.
+        if (waitersByLicence.get(waiter.drivingLicence) == waiter) {
+            waitersByLicence.remove(waiter.drivingLicence);
+        }
+    }
+
+    /**
+     * getTypesWaitedFor returns the types of car with waiters (some of which may have been completed).
+     *
+     * @return returns a list of the types of car.
+     */
+    List<String> getTypesWaitedFor() {
+        List<String> types = new ArrayList<>();
+        for (Map.Entry<String, Queue<Waiter>> entry : waiters.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                types.add(entry.getKey());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * getNoWaiting returns the number of drivers waiting for a type of car.
+     *
+     * @param typeOfCar specifies the type of car (in UPPERCASE).
+     * @return returns the number of waiters which have not been completed.
+     */
+    int getNoWaiting(String typeOfCar) {
+        Queue<Waiter> queue = waiters.get(typeOfCar);
+        if (queue == null) {
+            return 0;
+        }
+        int noWaiting = 0;
+        for (Waiter waiter : queue) {
+            if (!waiter.future.isDone()) {
+                noWaiting++;
+            }
+        }
+        return noWaiting;
+    }
+
+    /*
+    A driver waiting for a type of car, the priority and order (sequence) in which the driver is served and the future completed when the driver is served.
+     */
+    static final class Waiter {
+        final DrivingLicence drivingLicence;
+        final String typeOfCar;
+        final CompletableFuture<IssueResult> future = new CompletableFuture<>();
+        private final int priority;
+        private final long sequence;
+
+        private Waiter(DrivingLicence drivingLicence, String typeOfCar, int priority, long sequence) {
+            this.drivingLicence = drivingLicence;
+            this.typeOfCar = typeOfCar;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
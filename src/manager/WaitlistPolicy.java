@@ -0,0 +1,16 @@
+package manager;
+
+/**
+ * The WaitlistPolicy enum defines the order in which drivers waiting for a type of car are served when a car of that type is returned (see RentalManager.issueWhenAvailable).
+ */
+public enum WaitlistPolicy {
+
+    /*
+    Drivers are served in the order they joined the waitlist (the default).
+     */
+    FIFO,
+    /*
+    Drivers with a higher priority are served first, drivers with the same priority in the order they joined the waitlist.
+     */
+    PRIORITY
+}
@@ -0,0 +1,88 @@
+package manager;
+
+import licences.DrivingLicence;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.fail;
+
+public class WaitlistTest {
+
+    private static DrivingLicence getLicence(String firstName, String lastName) throws Exception {
+        Date birth = new GregorianCalendar(1975, 3, 10).getTime();
+        Date issue = new GregorianCalendar(2000, 3, 10).getTime();
+        return DrivingLicence.getInstance(firstName, lastName, birth, issue, true);
+    }
+
+    @Test
+    public void issueWhenAvailableFifo() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("waitlist-fifo");
+        depot.provisionCars("small", 1);
+        DrivingLicence renter = getLicence("Ellen", "Ripley");
+        DrivingLicence first = getLicence("Dwayne", "Hicks");
+        DrivingLicence second = getLicence("William", "Hudson");
+        if (!depot.issueWhenAvailable(renter, "small").get().isIssued()) {
+            fail();
+        }
+        CompletableFuture<IssueResult> firstWaiter = depot.issueWhenAvailable(first, "small");
+        CompletableFuture<IssueResult> secondWaiter = depot.issueWhenAvailable(second, "small", 10);
+        if (firstWaiter.isDone() || secondWaiter.isDone() || depot.getNoWaiting("small") != 2) {
+            fail();
+        }
+        //A driver waits for one car at a time.
+        if (depot.issueWhenAvailable(first, "small").get().getReason() != RejectionReason.ALREADY_WAITING) {
+            fail();
+        }
+        //The returned car goes straight to the first waiter (priorities are ignored under FIFO).
+        depot.terminateRental(renter);
+        if (!firstWaiter.isDone() || !firstWaiter.get().isIssued() || depot.getCar(first) != firstWaiter.get().getCar() || secondWaiter.isDone()) {
+            fail();
+        }
+        //A car returned with a partial tank is issued once it has been refuelled.
+        depot.getCar(first).drive(100);
+        depot.terminateRental(first);
+        if (secondWaiter.isDone() || depot.availableCars("small") != 0) {
+            fail();
+        }
+        depot.refuelCars();
+        if (!secondWaiter.get().isIssued() || depot.getNoWaiting("small") != 0 || depot.getMetrics().getRented("small") != 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void issueWhenAvailablePriority() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("waitlist-priority");
+        depot.setWaitlistPolicy(WaitlistPolicy.PRIORITY);
+        DrivingLicence low = getLicence("Arthur", "Dent");
+        DrivingLicence cancelled = getLicence("Ford", "Prefect");
+        DrivingLicence high = getLicence("Tricia", "McMillan");
+        CompletableFuture<IssueResult> lowWaiter = depot.issueWhenAvailable(low, "large", 1);
+        CompletableFuture<IssueResult> cancelledWaiter = depot.issueWhenAvailable(cancelled, "large", 9);
+        CompletableFuture<IssueResult> highWaiter = depot.issueWhenAvailable(high, "large", 5);
+        //A cancelled waiter is skipped and may join again.
+        cancelledWaiter.cancel(false);
+        if (depot.getNoWaiting("large") != 2) {
+            fail();
+        }
+        depot.provisionCars("large", 1);
+        if (!highWaiter.get().isIssued() || lowWaiter.isDone() || depot.getMetrics().getRented("large") != 1) {
+            fail();
+        }
+        depot.provisionCars("large", 1);
+        if (!lowWaiter.get().isIssued() || depot.getMetrics().getRentalsIssued("large") != 2) {
+            fail();
+        }
+        if (depot.issueWhenAvailable(cancelled, "large").isDone()) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void issueWhenAvailableInvalid() throws Exception {
+        RentalManager.getDepotInstance("waitlist-invalid").issueWhenAvailable(null, "small");
+    }
+}
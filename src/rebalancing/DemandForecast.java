@@ -0,0 +1,32 @@
+package rebalancing;
+
+import manager.RentalManager;
+
+/**
+ * The DemandForecast interface forecasts the number of cars of a type a depot needs available over the period a rebalance plans for (see Rebalancer).
+ * A depot with fewer cars of the type available than forecast is short of cars, and a depot with more has cars to spare.
+ * <p>
+ * Forecasts are taken for every depot each time a rebalance is planned, so implementations should be quick (i.e. read the metrics of the depot, see RentalManager.getMetrics, or a forecast computed beforehand, see simulation.Simulator)
+ * and thread-safe.
+ */
+public interface DemandForecast {
+
+    /*
+    The demand which is known: a depot needs a car available for every driver waiting for the type (see RentalManager.issueWhenAvailable).
+     */
+    DemandForecast WAITLIST = new DemandForecast() {
+        @Override
+        public int getDemand(RentalManager depot, String typeOfCar) {
+            return depot.getNoWaiting(typeOfCar);
+        }
+    };
+
+    /**
+     * getDemand returns the number of cars of a type a depot is forecast to need available.
+     *
+     * @param depot     the depot.
+     * @param typeOfCar the type of car (in UPPERCASE).
+     * @return returns the number of cars (0 or more).
+     */
+    int getDemand(RentalManager depot, String typeOfCar);
+}
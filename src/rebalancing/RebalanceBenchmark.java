@@ -0,0 +1,76 @@
+package rebalancing;
+
+import cars.LocalCarFactory;
+import manager.RentalManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The RebalanceBenchmark class measures the time a Rebalancer takes to plan and apply the moves of LARGE cars between a number of depots, each with a random fleet, a random forecast demand and a random location,
+ * when every move costs the same (see TransferCost.UNIFORM) and when a move costs the distance between the depots.
+ * <p>
+ * Usage: RebalanceBenchmark [depots] [rounds] (5000 depots and 10 rounds, each with a new forecast, by default).
+ */
+public final class RebalanceBenchmark {
+
+    private RebalanceBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int noDepots = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int noRounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        SplittableRandom random = new SplittableRandom(48);
+        //The depots share a factory so cars can be moved between them.
+        LocalCarFactory carFactory = LocalCarFactory.getInstance();
+        List<RentalManager> depots = new ArrayList<>(noDepots);
+        Map<RentalManager, double[]> locations = new HashMap<>();
+        Map<RentalManager, Integer> demands = new HashMap<>();
+        for (int i = 0; i < noDepots; i++) {
+            RentalManager depot = RentalManager.getIsolatedInstance("RebalanceBenchmark-" + i, carFactory);
+            int noCars = random.nextInt(9);
+            if (noCars > 0) {
+                depot.provisionCars("LARGE", noCars);
+            }
+            depots.add(depot);
+            locations.put(depot, new double[]{random.nextDouble(1000), random.nextDouble(1000)});
+        }
+        DemandForecast forecast = (depot, typeOfCar) -> demands.get(depot);
+        TransferCost distance = (from, to) -> {
+            double[] fromLocation = locations.get(from);
+            double[] toLocation = locations.get(to);
+            double x = fromLocation[0] - toLocation[0];
+            double y = fromLocation[1] - toLocation[1];
+            return Math.sqrt(x * x + y * y);
+        };
+        for (TransferCost cost : new TransferCost[]{TransferCost.UNIFORM, distance}) {
+            Rebalancer rebalancer = Rebalancer.getInstance(depots, forecast, cost);
+            long planTime = 0;
+            long applyTime = 0;
+            long noMoved = 0;
+            double totalCost = 0;
+            //The first round warms up before measuring.
+            for (int round = 0; round <= noRounds; round++) {
+                for (RentalManager depot : depots) {
+                    demands.put(depot, random.nextInt(9));
+                }
+                long start = System.nanoTime();
+                TransferPlan plan = rebalancer.plan("LARGE");
+                long planned = System.nanoTime();
+                int noRoundMoved = rebalancer.apply(plan);
+                long applied = System.nanoTime();
+                if (round > 0) {
+                    planTime += planned - start;
+                    applyTime += applied - planned;
+                    noMoved += noRoundMoved;
+                    totalCost += plan.getCost();
+                }
+            }
+            System.out.println((cost == TransferCost.UNIFORM ? "Uniform cost" : "Distance cost") + ", " + noDepots + " depots: plan " + (planTime / noRounds / 1000) + " us, apply " + (applyTime / noRounds / 1000)
+                    + " us, " + (noMoved / noRounds) + " cars moved per round (average cost " + String.format("%.1f", totalCost / Math.max(noMoved, 1)) + " a car)");
+        }
+    }
+}
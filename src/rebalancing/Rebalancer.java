@@ -0,0 +1,363 @@
+package rebalancing;
+
+import cars.Car;
+import manager.RentalManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The Rebalancer class moves cars between depots (RentalManager instances) so that depots short of a type of car are supplied from depots with cars of the type to spare.
+ * <p>
+ * A rebalance has two steps...
+ * (a) plan: the cars of a type available at each depot (see RentalManager.availableCars) are compared with the forecast demand of the depot (see DemandForecast), giving the cars each depot has to spare or is short of,
+ * and the cars to spare are matched to the shortfalls greedily, the cheapest moves first (see TransferCost), giving a TransferPlan. Every shortfall is met if there are enough cars to spare overall.
+ * (b) apply: each transfer of the plan is made as atomic moves, a car is withdrawn from one depot and accepted by the other (see RentalManager.withdrawAvailableCar and acceptCar) while both depots are locked,
+ * so no other thread sees the car in neither depot (or in both). The locks of two depots are always taken in the same order, so transfers applied concurrently in opposite directions cannot deadlock.
+ * <p>
+ * A plan reads the metrics of each depot rather than waiting for the depot, and when every move costs the same the matching is linear in the number of depots, so thousands of depots are planned in milliseconds.
+ * Otherwise the pairs of depots with cars to spare and depots short of cars are sorted by cost (as primitives), keeping only the cheapest pairs at a time (see Matching).
+ * <p>
+ * The Rebalancer class is immutable and utilizes a static factory method build pattern.
+ */
+public final class Rebalancer {
+
+    //The costs of a sample of the pairs of depots, the lowest sixteenth of which bounds the pairs kept in a round (see Matching.matchCheapestPairs).
+    private static final int SAMPLE_SIZE = 4096;
+    private static final int SAMPLE_QUANTILE = 16;
+    //Taken, before the locks of two depots, when the order of their locks cannot be decided (see move).
+    private static final Object TIE_LOCK = new Object();
+
+    private final List<RentalManager> depots;
+    private final DemandForecast forecast;
+    private final TransferCost cost;
+
+    /**
+     * Rebalancer is a constructor for a new Rebalancer object.
+     *
+     * @param depots   the depots to rebalance.
+     * @param forecast the forecast of the demand of the depots.
+     * @param cost     the cost of moving a car between depots.
+     */
+    private Rebalancer(List<RentalManager> depots, DemandForecast forecast, TransferCost cost) {
+        this.depots = depots;
+        this.forecast = forecast;
+        this.cost = cost;
+    }
+
+    /**
+     * getInstance returns a new Rebalancer of the specified depots.
+     *
+     * @param depots   specifies the depots to rebalance, each at most once.
+     * @param forecast specifies the forecast of the demand of the depots (i.e. DemandForecast.WAITLIST).
+     * @param cost     specifies the cost of moving a car between depots (i.e. TransferCost.UNIFORM).
+     * @return returns a new Rebalancer object.
+     */
+    public static Rebalancer getInstance(List<RentalManager> depots, DemandForecast forecast, TransferCost cost) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (depots == null || depots.contains(null)) {
+            throw new IllegalArgumentException("Depots cannot be null objects.");
+        }
+        if (forecast == null || cost == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        Map<RentalManager, Boolean> distinct = new IdentityHashMap<>();
+        for (RentalManager depot : depots) {
+            if (distinct.put(depot, Boolean.TRUE) != null) {
+                throw new IllegalArgumentException("Depot " + depot + " cannot be rebalanced more than once.");
+            }
+        }
+        //Defensive copying so the depots cannot change after the rebalancer is created.
+        return new Rebalancer(Collections.unmodifiableList(new ArrayList<>(depots)), forecast, cost);
+    }
+
+    /**
+     * getDepots returns the depots of the rebalancer.
+     *
+     * @return returns an unmodifiable list of the depots.
+     */
+    public List<RentalManager> getDepots() {
+        return depots;
+    }
+
+    /**
+     * rebalance plans the moves of a type of car between the depots and applies the plan (see plan and apply).
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars moved.
+     */
+    public int rebalance(String typeOfCar) {
+        return apply(plan(typeOfCar));
+    }
+
+    /**
+     * plan computes the moves of a type of car between the depots which meet the shortfalls of the depots (their forecast demand less the cars available) from the cars other depots have to spare, the cheapest moves first.
+     * No car is moved until the plan is applied (see apply).
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the TransferPlan (which has no transfers if no depot is short of cars or no depot has cars to spare).
+     */
+    public TransferPlan plan(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        typeOfCar = typeOfCar.toUpperCase();
+        /*
+        The depots with cars to spare and the depots short of cars (as indices into the depots) and the number of cars of each.
+         */
+        int[] spareDepots = new int[depots.size()];
+        int[] spare = new int[depots.size()];
+        int noSpareDepots = 0;
+        int[] shortDepots = new int[depots.size()];
+        int[] shortfall = new int[depots.size()];
+        int noShortDepots = 0;
+        for (int i = 0; i < depots.size(); i++) {
+            RentalManager depot = depots.get(i);
+            int demand = forecast.getDemand(depot, typeOfCar);
+            if (demand < 0) {
+                throw new IllegalArgumentException("The forecast demand of " + depot + " cannot be a value lower than 0.");
+            }
+            int available = depot.availableCars(typeOfCar);
+            if (available > demand) {
+                spareDepots[noSpareDepots] = i;
+                spare[noSpareDepots++] = available - demand;
+            } else if (demand > available) {
+                shortDepots[noShortDepots] = i;
+                shortfall[noShortDepots++] = demand - available;
+            }
+        }
+        List<TransferPlan.Transfer> transfers = new ArrayList<>();
+        if (noSpareDepots > 0 && noShortDepots > 0) {
+            Matching matching = new Matching(typeOfCar, spareDepots, spare, noSpareDepots, shortDepots, shortfall, noShortDepots, transfers);
+            if (cost == TransferCost.UNIFORM) {
+                matching.matchInOrder();
+            } else {
+                matching.matchCheapestPairs();
+            }
+        }
+        return new TransferPlan(transfers);
+    }
+
+    /**
+     * apply makes the transfers of a plan, each car as an atomic move from one depot to the other (see class body).
+     * A transfer moves fewer cars than planned if fewer are available (i.e. cars were issued since the plan was computed).
+     *
+     * @param plan specifies the TransferPlan (see plan).
+     * @return returns the number of cars moved.
+     */
+    public int apply(TransferPlan plan) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (plan == null) {
+            throw new IllegalArgumentException("Plan cannot be null.");
+        }
+        int noMoved = 0;
+        for (TransferPlan.Transfer transfer : plan.getTransfers()) {
+            noMoved += move(transfer);
+        }
+        return noMoved;
+    }
+
+    /*
+    Moves the cars of a transfer while holding the locks of both depots. The locks are ordered by the identity hash codes of the depots, and by TIE_LOCK if those are equal.
+     */
+    private static int move(TransferPlan.Transfer transfer) {
+        RentalManager from = transfer.getFrom();
+        RentalManager to = transfer.getTo();
+        int fromHash = System.identityHashCode(from);
+        int toHash = System.identityHashCode(to);
+        if (fromHash == toHash) {
+            synchronized (TIE_LOCK) {
+                return moveLocked(transfer, from, to);
+            }
+        }
+        return moveLocked(transfer, fromHash < toHash ? from : to, fromHash < toHash ? to : from);
+    }
+
+    private static int moveLocked(TransferPlan.Transfer transfer, RentalManager first, RentalManager second) {
+        synchronized (first) {
+            synchronized (second) {
+                int noMoved = 0;
+                while (noMoved < transfer.getNoCars()) {
+                    Car car = transfer.getFrom().withdrawAvailableCar(transfer.getTypeAsString());
+                    if (car == null) {
+                        break;
+                    }
+                    transfer.getTo().acceptCar(car);
+                    noMoved++;
+                }
+                return noMoved;
+            }
+        }
+    }
+
+    /*
+    Matches the cars to spare to the shortfalls of a plan, adding a transfer for each pair of depots matched.
+    Each transfer moves as many cars as one of the pair can give or take, so there are fewer transfers than there are depots with cars to spare and depots short of cars.
+     */
+    private final class Matching {
+        private final String typeOfCar;
+        private final int[] spareDepots;
+        private final int[] spare;
+        private final int noSpareDepots;
+        private final int[] shortDepots;
+        private final int[] shortfall;
+        private final int noShortDepots;
+        private final List<TransferPlan.Transfer> transfers;
+        //The depots with cars left to spare and the depots still short of cars.
+        private int noSpareLeft;
+        private int noShortLeft;
+
+        private Matching(String typeOfCar, int[] spareDepots, int[] spare, int noSpareDepots, int[] shortDepots, int[] shortfall, int noShortDepots, List<TransferPlan.Transfer> transfers) {
+            this.typeOfCar = typeOfCar;
+            this.spareDepots = spareDepots;
+            this.spare = spare;
+            this.noSpareDepots = noSpareDepots;
+            this.shortDepots = shortDepots;
+            this.shortfall = shortfall;
+            this.noShortDepots = noShortDepots;
+            this.transfers = transfers;
+            this.noSpareLeft = noSpareDepots;
+            this.noShortLeft = noShortDepots;
+        }
+
+        /*
+        Every move costs the same, so the depots are matched in their order: any matching moves the fewest cars.
+         */
+        private void matchInOrder() {
+            int spareDepot = 0;
+            int shortDepot = 0;
+            while (spareDepot < noSpareDepots && shortDepot < noShortDepots) {
+                transfer(spareDepot, shortDepot, cost.getCost(depots.get(spareDepots[spareDepot]), depots.get(shortDepots[shortDepot])));
+                if (spare[spareDepot] == 0) {
+                    spareDepot++;
+                }
+                if (shortfall[shortDepot] == 0) {
+                    shortDepot++;
+                }
+            }
+        }
+
+        /*
+        Sorts pairs of depots by the cost of a move and matches the cheapest pairs first.
+        Most depots are matched by the cheapest few pairs, so the pairs are matched in rounds: only the pairs costing no more than a low quantile of a sample of the costs are kept, sorted and matched,
+        and the next round pairs only the depots left to match. After a round no pair of the depots left costs as little as the pairs kept, so the pairs are matched in the same order as sorting them all,
+        without holding every pair.
+        A pair is kept as a long of the cost (a non-negative float, whose bits sort as its value) above the index of the pair, so the pairs are sorted as primitives.
+         */
+        private void matchCheapestPairs() {
+            int[] spareLeft = new int[noSpareDepots];
+            int[] shortLeft = new int[noShortDepots];
+            while (noSpareLeft > 0 && noShortLeft > 0) {
+                int noSpare = 0;
+                for (int spareDepot = 0; spareDepot < noSpareDepots; spareDepot++) {
+                    if (spare[spareDepot] > 0) {
+                        spareLeft[noSpare++] = spareDepot;
+                    }
+                }
+                int noShort = 0;
+                for (int shortDepot = 0; shortDepot < noShortDepots; shortDepot++) {
+                    if (shortfall[shortDepot] > 0) {
+                        shortLeft[noShort++] = shortDepot;
+                    }
+                }
+                //Few pairs are kept all at once, otherwise those costing no more than the quantile of the sample.
+                long noPairsLeft = (long) noSpare * noShort;
+                int threshold = Integer.MAX_VALUE;
+                if (noPairsLeft > SAMPLE_SIZE) {
+                    int[] sample = new int[SAMPLE_SIZE];
+                    for (int i = 0; i < SAMPLE_SIZE; i++) {
+                        long pair = i * noPairsLeft / SAMPLE_SIZE;
+                        sample[i] = Float.floatToIntBits((float) getCost(spareLeft[(int) (pair / noShort)], shortLeft[(int) (pair % noShort)]));
+                    }
+                    Arrays.sort(sample);
+                    threshold = sample[SAMPLE_SIZE / SAMPLE_QUANTILE];
+                }
+                //The costs of the pairs of each depot with cars to spare are taken in parallel (most of the time of a plan is spent in the TransferCost).
+                final int roundThreshold = threshold;
+                final int noShortInRound = noShort;
+                long[][] rows = IntStream.range(0, noSpare).parallel()
+                        .mapToObj(i -> keepPairs(spareLeft[i], shortLeft, noShortInRound, roundThreshold))
+                        .toArray(long[][]::new);
+                int noPairs = 0;
+                for (long[] row : rows) {
+                    noPairs += (int) row[0];
+                }
+                long[] pairs = new long[noPairs];
+                noPairs = 0;
+                for (long[] row : rows) {
+                    System.arraycopy(row, 1, pairs, noPairs, (int) row[0]);
+                    noPairs += (int) row[0];
+                }
+                Arrays.sort(pairs);
+                matchSorted(pairs, noPairs);
+            }
+        }
+
+        /*
+        Returns the pairs of a depot with cars to spare and the depots short of cars costing no more than the threshold, after the number of pairs kept (as the first element).
+         */
+        private long[] keepPairs(int spareDepot, int[] shortLeft, int noShort, int threshold) {
+            long[] row = new long[1 + Math.min(noShort, Math.max(16, noShort / SAMPLE_QUANTILE))];
+            int noPairs = 0;
+            for (int j = 0; j < noShort; j++) {
+                int pairCost = Float.floatToIntBits((float) getCost(spareDepot, shortLeft[j]));
+                if (pairCost <= threshold) {
+                    if (noPairs + 1 == row.length) {
+                        row = Arrays.copyOf(row, Math.min(noShort + 1, 2 * row.length));
+                    }
+                    row[++noPairs] = ((long) pairCost << 32) | (spareDepot * (long) noShortDepots + shortLeft[j]);
+                }
+            }
+            row[0] = noPairs;
+            return row;
+        }
+
+        /*
+        Matches sorted pairs in order, until every depot of one side has been matched (each transfer empties at least one side of its pair, so nothing more can be matched).
+         */
+        private void matchSorted(long[] pairs, int noPairs) {
+            for (int i = 0; i < noPairs && noSpareLeft > 0 && noShortLeft > 0; i++) {
+                long pair = pairs[i] & 0xFFFFFFFFL;
+                int spareDepot = (int) (pair / noShortDepots);
+                int shortDepot = (int) (pair % noShortDepots);
+                if (spare[spareDepot] > 0 && shortfall[shortDepot] > 0) {
+                    transfer(spareDepot, shortDepot, getCost(spareDepot, shortDepot));
+                }
+            }
+        }
+
+        private double getCost(int spareDepot, int shortDepot) {
+            double pairCost = cost.getCost(depots.get(spareDepots[spareDepot]), depots.get(shortDepots[shortDepot]));
+            if (!(pairCost >= 0) || Double.isInfinite(pairCost)) {
+                throw new IllegalArgumentException("The cost of a move cannot be a value lower than 0, or not finite.");
+            }
+            //Adding 0 makes -0.0 0.0, so its bits sort as its value.
+            return pairCost + 0.0;
+        }
+
+        private void transfer(int spareDepot, int shortDepot, double pairCost) {
+            int noCars = Math.min(spare[spareDepot], shortfall[shortDepot]);
+            spare[spareDepot] -= noCars;
+            shortfall[shortDepot] -= noCars;
+            if (spare[spareDepot] == 0) {
+                noSpareLeft--;
+            }
+            if (shortfall[shortDepot] == 0) {
+                noShortLeft--;
+            }
+            transfers.add(new TransferPlan.Transfer(depots.get(spareDepots[spareDepot]), depots.get(shortDepots[shortDepot]), typeOfCar, noCars, pairCost));
+        }
+    }
+}
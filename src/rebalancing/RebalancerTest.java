@@ -0,0 +1,162 @@
+package rebalancing;
+
+import cars.LocalCarFactory;
+import licences.DrivingLicence;
+import manager.IssueResult;
+import manager.RentalManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.GregorianCalendar;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class RebalancerTest {
+
+    /*
+    Creates isolated depots whose cars are created by the same factory, so cars can be moved between them.
+     */
+    private static List<RentalManager> createDepots(int... noCars) throws Exception {
+        LocalCarFactory carFactory = LocalCarFactory.getInstance();
+        List<RentalManager> depots = new ArrayList<>();
+        for (int i = 0; i < noCars.length; i++) {
+            RentalManager depot = RentalManager.getIsolatedInstance("rebalance-" + i, carFactory);
+            if (noCars[i] > 0) {
+                depot.provisionCars("large", noCars[i]);
+            }
+            depots.add(depot);
+        }
+        return depots;
+    }
+
+    private static DemandForecast getForecast(List<RentalManager> depots, int... demand) {
+        Map<RentalManager, Integer> demands = new IdentityHashMap<>();
+        for (int i = 0; i < demand.length; i++) {
+            demands.put(depots.get(i), demand[i]);
+        }
+        return (depot, typeOfCar) -> demands.get(depot);
+    }
+
+    @Test
+    public void rebalanceValid() throws Exception {
+        List<RentalManager> depots = createDepots(4, 0, 0, 1);
+        Rebalancer rebalancer = Rebalancer.getInstance(depots, getForecast(depots, 1, 2, 1, 1), TransferCost.UNIFORM);
+        TransferPlan plan = rebalancer.plan("large");
+        if (plan.getNoCars() != 3 || plan.getCost() != 3) {
+            fail();
+        }
+        //No car is moved until the plan is applied.
+        if (depots.get(0).availableCars("large") != 4 || rebalancer.apply(plan) != 3) {
+            fail();
+        }
+        if (depots.get(0).availableCars("large") != 1 || depots.get(1).availableCars("large") != 2 || depots.get(2).availableCars("large") != 1 || depots.get(3).availableCars("large") != 1) {
+            fail();
+        }
+        //Once balanced there is nothing more to move.
+        if (rebalancer.rebalance("large") != 0) {
+            fail();
+        }
+    }
+
+    @Test
+    public void planCheapestValid() throws Exception {
+        List<RentalManager> depots = createDepots(1, 1, 0);
+        //The second depot is nearer the third than the first is.
+        TransferCost cost = (from, to) -> Math.abs(depots.indexOf(from) - depots.indexOf(to));
+        TransferPlan plan = Rebalancer.getInstance(depots, getForecast(depots, 0, 0, 1), cost).plan("large");
+        if (plan.getTransfers().size() != 1 || plan.getTransfers().get(0).getFrom() != depots.get(1) || plan.getCost() != 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void planExtremeValid() throws Exception {
+        //Enough depots that the pairs of depots are matched in rounds (see Rebalancer.Matching).
+        int[] noCars = new int[200];
+        int[] demand = new int[200];
+        for (int i = 0; i < 200; i++) {
+            noCars[i] = i % 2 == 0 ? 2 + i % 3 : 0;
+            demand[i] = i % 2 == 0 ? 0 : 3;
+        }
+        List<RentalManager> depots = createDepots(noCars);
+        Map<RentalManager, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < depots.size(); i++) {
+            indices.put(depots.get(i), i);
+        }
+        TransferCost cost = (from, to) -> Math.abs(indices.get(from) - indices.get(to));
+        TransferPlan plan = Rebalancer.getInstance(depots, getForecast(depots, demand), cost).plan("large");
+        TransferPlan inOrder = Rebalancer.getInstance(depots, getForecast(depots, demand), TransferCost.UNIFORM).plan("large");
+        //Every car to spare is moved (there are fewer than the shortfall), and the moves cost no more than moves in the order of the depots.
+        if (plan.getNoCars() != 299 || inOrder.getNoCars() != 299) {
+            fail();
+        }
+        double inOrderCost = 0;
+        for (TransferPlan.Transfer transfer : inOrder.getTransfers()) {
+            inOrderCost += transfer.getNoCars() * cost.getCost(transfer.getFrom(), transfer.getTo());
+        }
+        if (plan.getCost() > inOrderCost) {
+            fail();
+        }
+    }
+
+    @Test
+    public void rebalanceWaitlistValid() throws Exception {
+        List<RentalManager> depots = createDepots(2, 0);
+        DrivingLicence licence = DrivingLicence.getUnregisteredInstance("Waiting", "Driver", new GregorianCalendar(1970, 0, 1).getTime(), new GregorianCalendar(2000, 0, 1).getTime(), true);
+        CompletableFuture<IssueResult> waiter = depots.get(1).issueWhenAvailable(licence, "large");
+        //The driver waiting at the second depot is issued the car moved to it.
+        if (Rebalancer.getInstance(depots, DemandForecast.WAITLIST, TransferCost.UNIFORM).rebalance("large") != 1 || !waiter.isDone() || !waiter.get().isIssued()) {
+            fail();
+        }
+        if (depots.get(0).availableCars("large") != 1 || depots.get(1).getCar(licence) == null) {
+            fail();
+        }
+    }
+
+    @Test
+    public void applyConcurrentValid() throws Exception {
+        //Transfers applied concurrently in opposite directions do not deadlock, and no car is lost.
+        List<RentalManager> depots = createDepots(50, 50);
+        TransferPlan toSecond = Rebalancer.getInstance(depots, getForecast(depots, 0, 100), TransferCost.UNIFORM).plan("large");
+        TransferPlan toFirst = Rebalancer.getInstance(Arrays.asList(depots.get(1), depots.get(0)), getForecast(depots, 100, 0), TransferCost.UNIFORM).plan("large");
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final TransferPlan plan = i % 2 == 0 ? toSecond : toFirst;
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 200; j++) {
+                    Rebalancer.getInstance(depots, getForecast(depots, 0, 0), TransferCost.UNIFORM).apply(plan);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(10000);
+            if (thread.isAlive()) {
+                fail();
+            }
+        }
+        if (depots.get(0).availableCars("large") + depots.get(1).availableCars("large") != 100) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() throws Exception {
+        List<RentalManager> depots = createDepots(1);
+        depots.add(depots.get(0));
+        Rebalancer.getInstance(depots, DemandForecast.WAITLIST, TransferCost.UNIFORM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void planInvalid() throws Exception {
+        List<RentalManager> depots = createDepots(1, 0);
+        Rebalancer.getInstance(depots, getForecast(depots, -1, 1), TransferCost.UNIFORM).plan("large");
+    }
+}
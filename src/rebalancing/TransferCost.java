@@ -0,0 +1,30 @@
+package rebalancing;
+
+import manager.RentalManager;
+
+/**
+ * The TransferCost interface is the cost of moving a car from one depot to another (i.e. the distance between the depots, or the time or price of the move), which a Rebalancer minimises.
+ * <p>
+ * Costs are taken for many pairs of depots each time a rebalance is planned, so implementations should be quick (i.e. look up a table or the coordinates of the depots) and thread-safe.
+ */
+public interface TransferCost {
+
+    /*
+    Every move costs the same, so a rebalance only minimises the number of cars moved.
+     */
+    TransferCost UNIFORM = new TransferCost() {
+        @Override
+        public double getCost(RentalManager from, RentalManager to) {
+            return 1;
+        }
+    };
+
+    /**
+     * getCost returns the cost of moving a car from one depot to another.
+     *
+     * @param from the depot the car is moved from.
+     * @param to   the depot the car is moved to.
+     * @return returns the cost (a finite value of 0 or more).
+     */
+    double getCost(RentalManager from, RentalManager to);
+}
@@ -0,0 +1,160 @@
+package rebalancing;
+
+import manager.RentalManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The TransferPlan class is a plan computed by a Rebalancer: the moves of cars between its depots (see Transfer) which bring the depots as close to their forecast demand as the cars to spare allow, at the lowest cost found.
+ * <p>
+ * A plan is computed from the cars available when it was planned, so a plan applied later (see Rebalancer.apply) moves at most the cars it plans, fewer if the cars are no longer available.
+ * The TransferPlan class is immutable.
+ */
+public final class TransferPlan {
+
+    private final List<Transfer> transfers;
+    private final int noCars;
+    private final double cost;
+
+    /**
+     * TransferPlan is a constructor for a new TransferPlan object (is package private, see Rebalancer.plan).
+     *
+     * @param transfers the transfers of the plan.
+     */
+    TransferPlan(List<Transfer> transfers) {
+        this.transfers = Collections.unmodifiableList(new ArrayList<>(transfers));
+        int totalCars = 0;
+        double totalCost = 0;
+        for (Transfer transfer : transfers) {
+            totalCars += transfer.noCars;
+            totalCost += transfer.noCars * transfer.cost;
+        }
+        this.noCars = totalCars;
+        this.cost = totalCost;
+    }
+
+    /**
+     * getTransfers returns the transfers of the plan.
+     *
+     * @return returns an unmodifiable list of the transfers.
+     */
+    public List<Transfer> getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * getNoCars returns the number of cars the plan moves.
+     *
+     * @return returns the number of cars.
+     */
+    public int getNoCars() {
+        return noCars;
+    }
+
+    /**
+     * getCost returns the cost of the moves of the plan (see TransferCost).
+     *
+     * @return returns the total cost.
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * toString returns the plan as a string.
+     *
+     * @return returns the following formatted string "TransferPlan[transfers, cars, cost]".
+     */
+    @Override
+    public String toString() {
+        return "TransferPlan[" + transfers.size() + " transfers, " + noCars + " cars, cost=" + cost + "]";
+    }
+
+    /**
+     * The Transfer class is a move of a number of cars of a type from one depot to another.
+     * The Transfer class is immutable.
+     */
+    public static final class Transfer {
+
+        private final RentalManager from;
+        private final RentalManager to;
+        private final String typeOfCar;
+        private final int noCars;
+        private final double cost;
+
+        /**
+         * Transfer is a constructor for a new Transfer object (is package private, see Rebalancer.plan).
+         *
+         * @param from      the depot the cars are moved from.
+         * @param to        the depot the cars are moved to.
+         * @param typeOfCar the type of car (in UPPERCASE).
+         * @param noCars    the number of cars.
+         * @param cost      the cost of moving a car.
+         */
+        Transfer(RentalManager from, RentalManager to, String typeOfCar, int noCars, double cost) {
+            assert from != to && noCars > 0;
+            this.from = from;
+            this.to = to;
+            this.typeOfCar = typeOfCar;
+            this.noCars = noCars;
+            this.cost = cost;
+        }
+
+        /**
+         * getFrom returns the depot the cars are moved from.
+         *
+         * @return returns the RentalManager of the depot.
+         */
+        public RentalManager getFrom() {
+            return from;
+        }
+
+        /**
+         * getTo returns the depot the cars are moved to.
+         *
+         * @return returns the RentalManager of the depot.
+         */
+        public RentalManager getTo() {
+            return to;
+        }
+
+        /**
+         * getTypeAsString returns the type of the cars moved.
+         *
+         * @return returns the type of car (in UPPERCASE).
+         */
+        public String getTypeAsString() {
+            return typeOfCar;
+        }
+
+        /**
+         * getNoCars returns the number of cars moved.
+         *
+         * @return returns the number of cars.
+         */
+        public int getNoCars() {
+            return noCars;
+        }
+
+        /**
+         * getCost returns the cost of moving a car (see TransferCost).
+         *
+         * @return returns the cost of a car.
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        /**
+         * toString returns the transfer as a string.
+         *
+         * @return returns the following formatted string "Transfer[noCars TYPE from -> to]".
+         */
+        @Override
+        public String toString() {
+            return "Transfer[" + noCars + " " + typeOfCar + " " + from.getDepotName() + " -> " + to.getDepotName() + "]";
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package registry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * The Registries class creates the registries of the static factories of the application (see Registry) and reports the memory they use.
+ * <p>
+ * Factories hold their registry in a static field, i.e...
+ * private static final WeakRegistry&lt;String, Name&gt; NAMES = Registries.weak("Name.names", 120);
+ * and registries are looked up by name (see getRegistry) so that, for example, an expiry period can be set on the registry of a factory without the factory exposing it.
+ */
+public final class Registries {
+
+    private static final Map<String, Registry<?, ?>> REGISTRIES = new ConcurrentSkipListMap<>();
+
+    private Registries() {
+    }
+
+    /**
+     * strong creates a registry which holds its instances until they are removed or expire (see StrongRegistry).
+     *
+     * @param name          specifies the name of the registry (by convention "Class.field" i.e. "DrivingLicence.licences").
+     * @param bytesPerValue specifies the estimated size of an instance in bytes (for the memory report).
+     * @param <K>           the type of the keys of the registry.
+     * @param <V>           the type of the instances of the registry.
+     * @return returns the StrongRegistry.
+     */
+    public static <K, V> StrongRegistry<K, V> strong(String name, long bytesPerValue) {
+        return register(new StrongRegistry<>(checkName(name), bytesPerValue));
+    }
+
+    /**
+     * weak creates a registry which holds its instances only while they are referenced elsewhere (see WeakRegistry).
+     *
+     * @param name          specifies the name of the registry (by convention "Class.field" i.e. "Name.names").
+     * @param bytesPerValue specifies the estimated size of an instance in bytes (for the memory report).
+     * @param <K>           the type of the keys of the registry.
+     * @param <V>           the type of the instances of the registry.
+     * @return returns the WeakRegistry.
+     */
+    public static <K, V> WeakRegistry<K, V> weak(String name, long bytesPerValue) {
+        return weak(name, bytesPerValue, null);
+    }
+
+    /**
+     * weak creates a registry which holds its instances only while they are referenced elsewhere and notifies a listener of the key of each instance purged once it was collected (see WeakRegistry).
+     *
+     * @param name              specifies the name of the registry (by convention "Class.field" i.e. "Name.names").
+     * @param bytesPerValue     specifies the estimated size of an instance in bytes (for the memory report).
+     * @param collectedListener specifies the listener (called while the registry is locked, so it must not block), or null.
+     * @param <K>               the type of the keys of the registry.
+     * @param <V>               the type of the instances of the registry.
+     * @return returns the WeakRegistry.
+     */
+    public static <K, V> WeakRegistry<K, V> weak(String name, long bytesPerValue, Consumer<? super K> collectedListener) {
+        return register(new WeakRegistry<>(checkName(name), bytesPerValue, collectedListener));
+    }
+
+    private static String checkName(String name) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (name == null) {
+            throw new IllegalArgumentException("Name cannot be null.");
+        }
+        return name;
+    }
+
+    private static <R extends Registry<?, ?>> R register(R registry) {
+        if (REGISTRIES.putIfAbsent(registry.getName(), registry) != null) {
+            throw new IllegalArgumentException("A registry named " + registry.getName() + " already exists.");
+        }
+        return registry;
+    }
+
+    /**
+     * getRegistry returns the registry with a name.
+     *
+     * @param name specifies the name of the registry.
+     * @return returns the Registry, or null if there is no registry with that name.
+     */
+    public static Registry<?, ?> getRegistry(String name) {
+        return REGISTRIES.get(checkName(name));
+    }
+
+    /**
+     * getRegistries returns every registry (ordered by name).
+     *
+     * @return returns a list of the registries.
+     */
+    public static List<Registry<?, ?>> getRegistries() {
+        return new ArrayList<>(REGISTRIES.values());
+    }
+
+    /**
+     * getEstimatedBytes returns an estimate of the memory retained by every registry and its instances.
+     *
+     * @return returns the estimated size in bytes.
+     */
+    public static long getEstimatedBytes() {
+        long estimatedBytes = 0;
+        for (Registry<?, ?> registry : REGISTRIES.values()) {
+            estimatedBytes += registry.getEstimatedBytes();
+        }
+        return estimatedBytes;
+    }
+
+    /**
+     * getReport returns the memory usage of every registry, one per line.
+     *
+     * @return returns the report.
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (Registry<?, ?> registry : REGISTRIES.values()) {
+            report.append(registry).append('\n');
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package registry;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * The Registry class is a map of the unique instances of a static factory (i.e. the licences of DrivingLicence, keyed by licence number) with a lifecycle, so that the instances held do not grow without limit.
+ * <p>
+ * There are two kinds of registry (see Registries)...
+ * (a) A StrongRegistry holds its instances until they are removed or, if an expiry period is set, until they have not been used for the expiry period.
+ * (b) A WeakRegistry holds its instances only while they are referenced elsewhere (i.e. a Name while a licence holds it), for factories which only need the identity of an instance while it is in use.
+ * Instances which are expired or collected are purged as the registry is used, so the cost of purging is spread across the operations of the registry.
+ * <p>
+ * Each registry estimates the memory it retains (see getEstimatedBytes) from the number of instances held, the overhead of an entry and an estimate of the size of an instance given by its factory.
+ * Operations on a registry are synchronized on the registry.
+ *
+ * @param <K> the type of the keys of the registry.
+ * @param <V> the type of the instances of the registry.
+ */
+public abstract class Registry<K, V> {
+
+    private final String name;
+    private final long bytesPerValue;
+    private long noEvicted;
+
+    /**
+     * Registry is a constructor for a registry (is package private, see Registries).
+     *
+     * @param name          the name of the registry (by convention "Class.field" i.e. "DrivingLicence.licences").
+     * @param bytesPerValue the estimated size of an instance in bytes.
+     */
+    Registry(String name, long bytesPerValue) {
+        this.name = name;
+        this.bytesPerValue = bytesPerValue;
+    }
+
+    /**
+     * getName returns the name of the registry.
+     *
+     * @return returns the name.
+     */
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * get returns the instance of a key (which counts as a use of the instance).
+     *
+     * @param key specifies the key.
+     * @return returns the instance, or null if the registry does not hold an instance of the key.
+     */
+    public abstract V get(K key);
+
+    /**
+     * put adds an instance to the registry, replacing any instance of the same key.
+     *
+     * @param key   specifies the key.
+     * @param value specifies the instance.
+     * @return returns the instance replaced, or null if the registry did not hold an instance of the key.
+     */
+    public abstract V put(K key, V value);
+
+    /**
+     * putAll adds a batch of instances to the registry under a single lock (i.e. licences imported in bulk), replacing any instances of the same keys.
+     *
+     * @param values specifies the instances.
+     * @param keyOf  specifies the function returning the key of an instance.
+     */
+    public final synchronized void putAll(Collection<? extends V> values, Function<? super V, ? extends K> keyOf) {
+        /*
+        Check parameters.
+         */
+        if (values == null || keyOf == null) {
+            throw new IllegalArgumentException("Values and the key function cannot be null.");
+        }
+        for (V value : values) {
+            put(keyOf.apply(value), value);
+        }
+    }
+
+    /**
+     * remove removes an instance from the registry, only if it is the instance held for the key.
+     *
+     * @param key   specifies the key.
+     * @param value specifies the instance.
+     * @return returns true if the instance was removed.
+     */
+    public abstract boolean remove(K key, V value);
+
+    /**
+     * size returns the number of instances held by the registry (after purging the instances which have expired or been collected).
+     *
+     * @return returns the number of instances.
+     */
+    public abstract int size();
+
+    /**
+     * purge removes the instances which have expired or been collected.
+     */
+    public abstract void purge();
+
+    /**
+     * getBytesPerEntry returns the estimated overhead of an entry of the registry (the map entry and any reference or timestamp held with an instance) in bytes.
+     *
+     * @return returns the overhead of an entry.
+     */
+    abstract long getBytesPerEntry();
+
+    /**
+     * evicted counts instances purged from the registry (is package private, called by sub-classes while synchronized).
+     *
+     * @param noInstances specifies the number of instances purged.
+     */
+    final void evicted(int noInstances) {
+        noEvicted += noInstances;
+    }
+
+    /**
+     * getNoEvicted returns the number of instances which have been purged because they expired or were collected (instances removed explicitly are not counted).
+     *
+     * @return returns the number of instances purged.
+     */
+    public final synchronized long getNoEvicted() {
+        return noEvicted;
+    }
+
+    /**
+     * getEstimatedBytes returns an estimate of the memory retained by the registry and its instances.
+     *
+     * @return returns the estimated size in bytes.
+     */
+    public final synchronized long getEstimatedBytes() {
+        return size() * (getBytesPerEntry() + bytesPerValue);
+    }
+
+    /**
+     * toString returns the memory usage of the registry.
+     *
+     * @return returns the following formatted string "name[kind, instances=..., evicted=..., estimatedBytes=...]".
+     */
+    @Override
+    public final synchronized String toString() {
+        return name + "[" + getKind() + ", instances=" + size() + ", evicted=" + noEvicted + ", estimatedBytes=" + getEstimatedBytes() + "]";
+    }
+
+    /**
+     * getKind returns a description of the lifecycle of the registry for its report.
+     *
+     * @return returns the description i.e. "weak".
+     */
+    abstract String getKind();
+}
@@ -0,0 +1,90 @@
+package registry;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class RegistryTest {
+    private static final long MILLISECOND = 1000000;
+
+    @Test
+    public void strongRegistryValid() throws Exception {
+        StrongRegistry<String, Object> registry = Registries.strong("RegistryTest.strong", 16);
+        Object first = new Object();
+        Object second = new Object();
+        registry.put("first", first);
+        registry.put("second", second);
+        if (registry.get("first") != first || registry.size() != 2 || registry.getEstimatedBytes() != 2 * (16 + registry.getBytesPerEntry())) {
+            fail();
+        }
+        //Only the instance held for the key is removed.
+        if (registry.remove("first", second) || !registry.remove("first", first) || registry.get("first") != null) {
+            fail();
+        }
+        if (Registries.getRegistry("RegistryTest.strong") != registry || !Registries.getReport().contains("RegistryTest.strong[strong, instances=1")) {
+            fail();
+        }
+    }
+
+    @Test
+    public void strongRegistryExpiry() throws Exception {
+        //The registry expires against a clock the test advances, so the test does not depend on how long it takes to run.
+        final AtomicLong now = new AtomicLong();
+        StrongRegistry<String, Object> registry = new StrongRegistry<>("RegistryTest.expiry", 16, now::get);
+        Object used = new Object();
+        registry.put("used", used);
+        registry.put("unused", new Object());
+        registry.setExpiryPeriod(200);
+        now.addAndGet(120 * MILLISECOND);
+        //Using an instance restarts its expiry period.
+        registry.get("used");
+        now.addAndGet(120 * MILLISECOND);
+        if (registry.get("used") != used || registry.get("unused") != null || registry.getNoEvicted() != 1) {
+            fail();
+        }
+        //An instance expires once it has not been used for the whole expiry period, and not before.
+        now.addAndGet(200 * MILLISECOND - 1);
+        if (registry.size() != 1) {
+            fail();
+        }
+        now.addAndGet(1);
+        if (registry.size() != 0 || registry.getNoEvicted() != 2) {
+            fail();
+        }
+        registry.put("used", used);
+        registry.setExpiryPeriod(StrongRegistry.NO_EXPIRY);
+        now.addAndGet(1000 * MILLISECOND);
+        if (registry.size() != 1) {
+            fail();
+        }
+    }
+
+    @Test
+    public void weakRegistryValid() throws Exception {
+        WeakRegistry<String, Object> registry = Registries.weak("RegistryTest.weak", 16);
+        Object held = new Object();
+        registry.put("held", held);
+        registry.put("unreferenced", new Object());
+        //The unreferenced instance is purged once it has been collected.
+        for (int i = 0; i < 100 && registry.size() != 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        if (registry.get("held") != held || registry.get("unreferenced") != null || registry.getNoEvicted() != 1) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registryNameInvalid() throws Exception {
+        Registries.weak("RegistryTest.duplicate", 16);
+        Registries.strong("RegistryTest.duplicate", 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setExpiryPeriodInvalid() throws Exception {
+        Registries.strong("RegistryTest.invalidExpiry", 16).setExpiryPeriod(-1);
+    }
+}
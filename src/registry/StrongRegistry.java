@@ -0,0 +1,158 @@
+package registry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The StrongRegistry class is a registry which holds its instances until they are removed or, if an expiry period is set, until they have not been used (see get and put) for the expiry period.
+ * <p>
+ * Instances are kept in the order they were last used (an access ordered LinkedHashMap) so purging only examines the instances which have expired and the first which has not.
+ * Without an expiry period a StrongRegistry behaves as the static maps it replaces.
+ *
+ * @param <K> the type of the keys of the registry.
+ * @param <V> the type of the instances of the registry.
+ */
+public final class StrongRegistry<K, V> extends Registry<K, V> {
+
+    /*
+    The expiry period of a registry whose instances never expire.
+     */
+    public static final long NO_EXPIRY = 0;
+    /*
+    A LinkedHashMap entry (40 bytes), the UsedValue (24 bytes) and a slot of the table (8 bytes).
+     */
+    private static final long BYTES_PER_ENTRY = 72;
+
+    private final Map<K, UsedValue<V>> values = new LinkedHashMap<>(16, 0.75f, true);
+    //The time in nanoseconds instances are used at and expire against.
+    private final LongSupplier clock;
+    private long expiryPeriod = NO_EXPIRY;
+
+    /**
+     * StrongRegistry is a constructor for a registry (is package private, see Registries.strong).
+     *
+     * @param name          the name of the registry.
+     * @param bytesPerValue the estimated size of an instance in bytes.
+     */
+    StrongRegistry(String name, long bytesPerValue) {
+        this(name, bytesPerValue, System::nanoTime);
+    }
+
+    /**
+     * StrongRegistry is a constructor for a registry whose instances are used at and expire against the specified clock (is package private, so tests need not wait for instances to expire).
+     *
+     * @param name          the name of the registry.
+     * @param bytesPerValue the estimated size of an instance in bytes.
+     * @param clock         the clock in nanoseconds (as System.nanoTime).
+     */
+    StrongRegistry(String name, long bytesPerValue, LongSupplier clock) {
+        super(name, bytesPerValue);
+        this.clock = clock;
+    }
+
+    /**
+     * setExpiryPeriod sets the period after which an instance which has not been used is removed from the registry.
+     *
+     * @param milliseconds specifies the expiry period in milliseconds, or NO_EXPIRY.
+     */
+    public synchronized void setExpiryPeriod(long milliseconds) {
+        /*
+        Check parameters.
+         */
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("The expiry period cannot be a value lower than 0.");
+        }
+        expiryPeriod = milliseconds;
+        purge();
+    }
+
+    /**
+     * getExpiryPeriod returns the period after which an instance which has not been used is removed from the registry.
+     *
+     * @return returns the expiry period in milliseconds, or NO_EXPIRY.
+     */
+    public synchronized long getExpiryPeriod() {
+        return expiryPeriod;
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        purge();
+        UsedValue<V> usedValue = values.get(key);
+        if (usedValue == null) {
+            return null;
+        }
+        usedValue.usedAt = clock.getAsLong();
+        return usedValue.value;
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        /*
+        Check parameters.
+         */
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null.");
+        }
+        purge();
+        UsedValue<V> replaced = values.put(key, new UsedValue<>(value, clock.getAsLong()));
+        return replaced == null ? null : replaced.value;
+    }
+
+    @Override
+    public synchronized boolean remove(K key, V value) {
+        UsedValue<V> usedValue = values.get(key);
+        if (usedValue == null || usedValue.value != value) {
+            return false;
+        }
+        values.remove(key);
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        purge();
+        return values.size();
+    }
+
+    @Override
+    public synchronized void purge() {
+        if (expiryPeriod == NO_EXPIRY) {
+            return;
+        }
+        final long now = clock.getAsLong();
+        int noExpired = 0;
+        //The least recently used instances are first, so purging stops at the first instance which has not expired.
+        Iterator<UsedValue<V>> iterator = values.values().iterator();
+        while (iterator.hasNext() && (now - iterator.next().usedAt) / 1000000 >= expiryPeriod) {
+            iterator.remove();
+            noExpired++;
+        }
+        evicted(noExpired);
+    }
+
+    @Override
+    long getBytesPerEntry() {
+        return BYTES_PER_ENTRY;
+    }
+
+    @Override
+    String getKind() {
+        return expiryPeriod == NO_EXPIRY ? "strong" : "strong, expiry=" + expiryPeriod + "ms";
+    }
+
+    /*
+    An instance alongside the time (of the clock of the registry) it was last used.
+     */
+    private static final class UsedValue<V> {
+        private final V value;
+        private long usedAt;
+
+        private UsedValue(V value, long usedAt) {
+            this.value = value;
+            this.usedAt = usedAt;
+        }
+    }
+}
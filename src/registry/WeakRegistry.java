@@ -0,0 +1,118 @@
+package registry;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The WeakRegistry class is a registry which holds its instances through weak references, so an instance is only held while it is referenced elsewhere.
+ * <p>
+ * While an instance is in use the registry returns it for its key (so a factory can reuse it, i.e. a Name shared by licences), once it is collected the entry is purged
+ * (the references of collected instances are queued on a ReferenceQueue, so purging does not scan the registry).
+ * A factory which holds a resource for each instance (i.e. the registration of a car) is notified of the key of each instance purged, so the resource is released although the instance was not removed.
+ *
+ * @param <K> the type of the keys of the registry.
+ * @param <V> the type of the instances of the registry.
+ */
+public final class WeakRegistry<K, V> extends Registry<K, V> {
+
+    /*
+    A HashMap node (32 bytes), the WeakValue (48 bytes) and a slot of the table (8 bytes).
+     */
+    private static final long BYTES_PER_ENTRY = 88;
+
+    private final Map<K, WeakValue<K, V>> values = new HashMap<>();
+    private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+    //Notified of the key of each instance purged once it was collected (not of instances removed).
+    private final Consumer<? super K> collectedListener;
+
+    /**
+     * WeakRegistry is a constructor for a registry (is package private, see Registries.weak).
+     *
+     * @param name              the name of the registry.
+     * @param bytesPerValue     the estimated size of an instance in bytes.
+     * @param collectedListener the listener notified of the key of each instance purged (while the registry is locked), or null.
+     */
+    WeakRegistry(String name, long bytesPerValue, Consumer<? super K> collectedListener) {
+        super(name, bytesPerValue);
+        this.collectedListener = collectedListener;
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        purge();
+        WeakValue<K, V> weakValue = values.get(key);
+        return weakValue == null ? null : weakValue.get();
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        /*
+        Check parameters.
+         */
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value cannot be null.");
+        }
+        purge();
+        WeakValue<K, V> replaced = values.put(key, new WeakValue<>(key, value, collected));
+        return replaced == null ? null : replaced.get();
+    }
+
+    @Override
+    public synchronized boolean remove(K key, V value) {
+        WeakValue<K, V> weakValue = values.get(key);
+        if (weakValue == null || weakValue.get() != value) {
+            return false;
+        }
+        values.remove(key);
+        return true;
+    }
+
+    @Override
+    public synchronized int size() {
+        purge();
+        return values.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void purge() {
+        int noCollected = 0;
+        WeakValue<K, V> weakValue;
+        while ((weakValue = (WeakValue<K, V>) collected.poll()) != null) {
+            //The key may since have been given a new instance, which must not be removed.
+            if (values.get(weakValue.key) == weakValue) {
+                values.remove(weakValue.key);
+                noCollected++;
+                if (collectedListener != null) {
+                    collectedListener.accept(weakValue.key);
+                }
+            }
+        }
+        evicted(noCollected);
+    }
+
+    @Override
+    long getBytesPerEntry() {
+        return BYTES_PER_ENTRY;
+    }
+
+    @Override
+    String getKind() {
+        return "weak";
+    }
+
+    /*
+    A weak reference to an instance alongside its key (so the entry can be found once the instance is collected).
+     */
+    private static final class WeakValue<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private WeakValue(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
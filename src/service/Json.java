@@ -0,0 +1,233 @@
+package service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The Json class reads and writes the flat JSON objects exchanged by the service layer i.e. {"licenceNumber": "JW-1975-1", "type": "SMALL"}.
+ * <p>
+ * Only objects whose values are strings, numbers, booleans or null are supported (the requests and responses of the service never nest objects or arrays).
+ * Numbers are read as Long values and strings are unescaped. The class is not instantiable: it only provides static methods.
+ */
+final class Json {
+
+    /**
+     * Json is a private constructor as the class only provides static methods.
+     */
+    private Json() {
+    }
+
+    /**
+     * read parses a flat JSON object.
+     *
+     * @param json specifies the JSON text.
+     * @return returns the members of the object in the order they were read.
+     * @throws IllegalArgumentException an IllegalArgumentException is thrown if the text is not a flat JSON object.
+     */
+    static Map<String, Object> read(String json) throws IllegalArgumentException {
+        if (json == null) {
+            throw new IllegalArgumentException("The JSON text cannot be null.");
+        }
+        Parser parser = new Parser(json);
+        Map<String, Object> members = new LinkedHashMap<>();
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.readString();
+                parser.expect(':');
+                members.put(name, parser.readValue());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.expectEnd();
+        return members;
+    }
+
+    /**
+     * write formats the members as a flat JSON object.
+     *
+     * @param members specifies the members (values must be strings, numbers, booleans or null).
+     * @return returns the JSON text.
+     */
+    static String write(Map<String, ?> members) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, ?> member : members.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            writeString(json, member.getKey());
+            json.append(':');
+            Object value = member.getValue();
+            if (value == null || value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                writeString(json, value.toString());
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * writeString appends a quoted and escaped string.
+     *
+     * @param json   specifies the JSON text being written.
+     * @param string specifies the string to append.
+     */
+    private static void writeString(StringBuilder json, String string) {
+        json.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /*
+    A cursor over the JSON text being read.
+     */
+    private static final class Parser {
+        private final String json;
+        private int position;
+
+        private Parser(String json) {
+            this.json = json;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private boolean consume(char c) {
+            skipWhitespace();
+            if (position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at position " + position + ".");
+            }
+        }
+
+        private void expectEnd() {
+            skipWhitespace();
+            if (position != json.length()) {
+                throw new IllegalArgumentException("Unexpected text at position " + position + ".");
+            }
+        }
+
+        private boolean consumeLiteral(String literal) {
+            if (json.startsWith(literal, position)) {
+                position += literal.length();
+                return true;
+            }
+            return false;
+        }
+
+        private Object readValue() {
+            skipWhitespace();
+            if (position >= json.length()) {
+                throw new IllegalArgumentException("Expected a value at position " + position + ".");
+            }
+            char c = json.charAt(position);
+            if (c == '"') {
+                return readString();
+            }
+            if (consumeLiteral("true")) {
+                return Boolean.TRUE;
+            }
+            if (consumeLiteral("false")) {
+                return Boolean.FALSE;
+            }
+            if (consumeLiteral("null")) {
+                return null;
+            }
+            //Otherwise the value must be a (whole) number.
+            int start = position;
+            if (c == '-') {
+                position++;
+            }
+            while (position < json.length() && Character.isDigit(json.charAt(position))) {
+                position++;
+            }
+            try {
+                return Long.valueOf(json.substring(start, position));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected a value at position " + start + ".");
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder string = new StringBuilder();
+            while (position < json.length()) {
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return string.toString();
+                }
+                if (c == '\\') {
+                    if (position >= json.length()) {
+                        break;
+                    }
+                    char escaped = json.charAt(position++);
+                    switch (escaped) {
+                        case 'n':
+                            string.append('\n');
+                            break;
+                        case 'r':
+                            string.append('\r');
+                            break;
+                        case 't':
+                            string.append('\t');
+                            break;
+                        case 'b':
+                            string.append('\b');
+                            break;
+                        case 'f':
+                            string.append('\f');
+                            break;
+                        case 'u':
+                            if (position + 4 > json.length()) {
+                                throw new IllegalArgumentException("Invalid escape at position " + position + ".");
+                            }
+                            string.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            position += 4;
+                            break;
+                        default:
+                            string.append(escaped);
+                    }
+                } else {
+                    string.append(c);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string.");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package service;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.fail;
+
+public class JsonTest {
+    @Test
+    public void readValid() throws Exception {
+        Map<String, Object> members = Json.read(" {\"name\" : \"J\\\"W\", \"count\": -12, \"full\": true, \"none\": null} ");
+        if (!members.get("name").equals("J\"W") || !members.get("count").equals(-12L) || !members.get("full").equals(Boolean.TRUE) || members.get("none") != null) {
+            fail();
+        }
+        if (!Json.read("{}").isEmpty()) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readInvalid() throws Exception {
+        Json.read("{\"name\": }");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readExtremeInvalid() throws Exception {
+        Json.read("{\"name\": \"unterminated}");
+    }
+
+    @Test
+    public void write() throws Exception {
+        Map<String, Object> members = new LinkedHashMap<>();
+        members.put("name", "J\"W\n");
+        members.put("count", 3);
+        members.put("full", false);
+        if (!Json.write(members).equals("{\"name\":\"J\\\"W\\n\",\"count\":3,\"full\":false}")) {
+            fail();
+        }
+        //What is written should be read back as the same members.
+        if (!Json.read(Json.write(members)).get("name").equals("J\"W\n")) {
+            fail();
+        }
+    }
+}
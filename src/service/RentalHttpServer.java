@@ -0,0 +1,299 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+import manager.DepotRouter;
+import manager.IssueResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The RentalHttpServer class is a local HTTP/JSON front-end to the depots of a DepotRouter built on the JDK HTTP server (com.sun.net.httpserver).
+ * <p>
+ * The server provides the following resources...
+ * POST /licences with {"firstName", "lastName", "birth", "issue", "full"} registers a licence (dates as "yyyy-MM-dd") and returns {"licenceNumber"}.
+ * POST /rentals with {"licenceNumber", "type"} issues a car and returns {"licenceNumber", "type", "issued"} plus "registration" if a car was issued,
+ * otherwise "reason" (see RejectionReason) and, if a car of the type is expected to be returned, "retryAfterMillis" (see IssueResult).
+ * DELETE /rentals/{licenceNumber} terminates a rental and returns {"licenceNumber", "fuelNeeded"}.
+ * GET /availability?type={type} returns {"type", "available"}.
+ * <p>
+ * Invalid requests are answered with 400, a depot found in an inconsistent state (see RentalManager.terminateRental) with 409, exhausted instance limits with 503 and any other failure with 500, so every request is answered.
+ * Licences are looked up in the registry of licences on each request (see DrivingLicence.getLicence) rather than held by the server, so they expire from the registry as any other licence does.
+ * <p>
+ * Each request is handled by its own thread. When the runtime provides virtual threads (Java 21 or later) a virtual thread is started per request, otherwise a cached pool of platform threads is used.
+ * The depots are thread-safe (see RentalManager) so requests are not serialized by the server.
+ */
+public final class RentalHttpServer {
+
+    /*
+    The number of connections queued by the operating system before they are refused.
+     */
+    private static final int BACKLOG = 16384;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final DepotRouter router;
+
+    /**
+     * RentalHttpServer is a constructor for a server serving the specified router.
+     *
+     * @param server   the bound (but not started) HTTP server.
+     * @param executor the executor running each request.
+     * @param router   the router of the depots served.
+     */
+    private RentalHttpServer(HttpServer server, ExecutorService executor, DepotRouter router) {
+        this.server = server;
+        this.executor = executor;
+        this.router = router;
+    }
+
+    /**
+     * start binds a server to the specified address and starts serving requests for the depots of the router.
+     *
+     * @param address specifies the address to bind to (port 0 binds to any free port).
+     * @param router  specifies the router of the depots to serve.
+     * @return returns the started RentalHttpServer.
+     * @throws IOException in the event the address cannot be bound.
+     */
+    public static RentalHttpServer start(InetSocketAddress address, DepotRouter router) throws IOException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (address == null || router == null) {
+            throw new IllegalArgumentException("Parameters cannot be a null object");
+        }
+        HttpServer httpServer = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = newRequestExecutor();
+        final RentalHttpServer rentalServer = new RentalHttpServer(httpServer, executor, router);
+        httpServer.createContext("/licences", rentalServer::handleLicences);
+        httpServer.createContext("/rentals", rentalServer::handleRentals);
+        httpServer.createContext("/availability", rentalServer::handleAvailability);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+        return rentalServer;
+    }
+
+    /**
+     * newRequestExecutor returns an executor which starts a virtual thread per request if the runtime supports virtual threads, or a cached thread pool otherwise.
+     *
+     * @return returns the executor for requests.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            //Looked up reflectively so the server also runs on runtimes without virtual threads.
+            Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * getPort returns the port the server is bound to.
+     *
+     * @return returns the port of the server.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * stop stops the server (waiting at most the specified number of seconds for requests in progress to complete).
+     *
+     * @param delay specifies the maximum number of seconds to wait.
+     */
+    public void stop(int delay) {
+        server.stop(delay);
+        executor.shutdown();
+    }
+
+    /**
+     * handleLicences handles POST /licences.
+     *
+     * @param exchange specifies the request and response.
+     * @throws IOException in the event the response cannot be written.
+     */
+    private void handleLicences(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respondError(exchange, 405, "Method not allowed.");
+                return;
+            }
+            Map<String, Object> request = Json.read(readBody(exchange));
+            DrivingLicence licence = DrivingLicence.getInstance(getString(request, "firstName"), getString(request, "lastName"),
+                    getDate(request, "birth"), getDate(request, "issue"), getBoolean(request, "full"));
+            respond(exchange, 201, Collections.singletonMap("licenceNumber", licence.getLicenceNumberAsString()));
+        } catch (IllegalArgumentException e) {
+            respondError(exchange, 400, e.getMessage());
+        } catch (GetInstanceLimitExceededException e) {
+            respondError(exchange, 503, e.getMessage());
+        } catch (RuntimeException e) {
+            respondError(exchange, 500, "The request could not be handled.");
+        }
+    }
+
+    /**
+     * handleRentals handles POST /rentals and DELETE /rentals/{licenceNumber}.
+     *
+     * @param exchange specifies the request and response.
+     * @throws IOException in the event the response cannot be written.
+     */
+    private void handleRentals(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, Object> response = new LinkedHashMap<>();
+            if ("POST".equals(exchange.getRequestMethod())) {
+                Map<String, Object> request = Json.read(readBody(exchange));
+                String licenceNumber = getString(request, "licenceNumber");
+                String typeOfCar = getString(request, "type").toUpperCase();
+                DrivingLicence licence = DrivingLicence.getLicence(licenceNumber);
+                response.put("licenceNumber", licenceNumber);
+                response.put("type", typeOfCar);
+                IssueResult result = router.issue(licence, typeOfCar);
+                response.put("issued", result.isIssued());
+                if (result.isIssued()) {
+                    response.put("registration", result.getCar().getRegistration().toString());
+                } else {
+                    response.put("reason", result.getReason().name());
+                    if (result.getEstimatedWait() != IssueResult.UNKNOWN) {
+                        response.put("retryAfterMillis", result.getEstimatedWait());
+                    }
+                }
+                respond(exchange, 200, response);
+            } else if ("DELETE".equals(exchange.getRequestMethod())) {
+                String path = exchange.getRequestURI().getPath();
+                String licenceNumber = path.substring(path.lastIndexOf('/') + 1);
+                DrivingLicence licence = DrivingLicence.getLicence(licenceNumber);
+                response.put("licenceNumber", licenceNumber);
+                response.put("fuelNeeded", router.terminateRental(licence));
+                respond(exchange, 200, response);
+            } else {
+                respondError(exchange, 405, "Method not allowed.");
+            }
+        } catch (IllegalArgumentException e) {
+            respondError(exchange, 400, e.getMessage());
+        } catch (InvalidObjectException e) {
+            respondError(exchange, 409, e.getMessage());
+        } catch (GetInstanceLimitExceededException e) {
+            respondError(exchange, 503, e.getMessage());
+        } catch (RuntimeException e) {
+            respondError(exchange, 500, "The request could not be handled.");
+        }
+    }
+
+    /**
+     * handleAvailability handles GET /availability?type={type}.
+     *
+     * @param exchange specifies the request and response.
+     * @throws IOException in the event the response cannot be written.
+     */
+    private void handleAvailability(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respondError(exchange, 405, "Method not allowed.");
+                return;
+            }
+            String typeOfCar = getQueryParameter(exchange.getRequestURI(), "type");
+            if (typeOfCar == null) {
+                respondError(exchange, 400, "The type of car must be specified.");
+                return;
+            }
+            typeOfCar = typeOfCar.toUpperCase();
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("type", typeOfCar);
+            response.put("available", router.availableCars(typeOfCar));
+            respond(exchange, 200, response);
+        } catch (IllegalArgumentException e) {
+            respondError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            respondError(exchange, 500, "The request could not be handled.");
+        }
+    }
+
+    /*
+    Request and response helpers.
+     */
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Map<String, ?> response) throws IOException {
+        byte[] body = Json.write(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void respondError(HttpExchange exchange, int status, String message) throws IOException {
+        respond(exchange, status, Collections.singletonMap("error", message));
+    }
+
+    private static String getString(Map<String, Object> request, String name) {
+        Object value = request.get(name);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("The member " + name + " must be a string.");
+        }
+        return (String) value;
+    }
+
+    private static boolean getBoolean(Map<String, Object> request, String name) {
+        Object value = request.get(name);
+        if (!(value instanceof Boolean)) {
+            throw new IllegalArgumentException("The member " + name + " must be a boolean.");
+        }
+        return (Boolean) value;
+    }
+
+    private static Date getDate(Map<String, Object> request, String name) {
+        try {
+            LocalDate date = LocalDate.parse(getString(request, name));
+            return Date.from(date.atStartOfDay(ZONE).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("The member " + name + " must be a date (yyyy-MM-dd).");
+        }
+    }
+
+    private static String getQueryParameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0 && parameter.substring(0, separator).equals(name)) {
+                return parameter.substring(separator + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,103 @@
+package service;
+
+import manager.DepotRouter;
+import manager.RentalManager;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.fail;
+
+public class RentalHttpServerTest {
+
+    /*
+    Send a request and return the JSON response (the status code is stored under "status").
+     */
+    private static Map<String, Object> send(int port, String method, String path, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        try (InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+            int read;
+            while ((read = in.read()) != -1) {
+                response.write(read);
+            }
+        }
+        Map<String, Object> members = Json.read(new String(response.toByteArray(), StandardCharsets.UTF_8));
+        members.put("status", (long) status);
+        return members;
+    }
+
+    @Test
+    public void rentalLifecycle() throws Exception {
+        RentalManager depot = RentalManager.getDepotInstance("http-lifecycle");
+        depot.provisionCars("small", 2);
+        RentalHttpServer server = RentalHttpServer.start(new InetSocketAddress("127.0.0.1", 0), DepotRouter.getInstance(Collections.singletonList(depot)));
+        try {
+            int port = server.getPort();
+            Map<String, Object> licence = send(port, "POST", "/licences", "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"birth\":\"1975-04-10\",\"issue\":\"2000-04-10\",\"full\":true}");
+            if (!licence.get("status").equals(201L)) {
+                fail();
+            }
+            String licenceNumber = (String) licence.get("licenceNumber");
+            Map<String, Object> rental = send(port, "POST", "/rentals", "{\"licenceNumber\":\"" + licenceNumber + "\",\"type\":\"small\"}");
+            if (!rental.get("issued").equals(Boolean.TRUE) || !(rental.get("registration") instanceof String)) {
+                fail();
+            }
+            Map<String, Object> refusal = send(port, "POST", "/rentals", "{\"licenceNumber\":\"" + licenceNumber + "\",\"type\":\"small\"}");
+            if (!refusal.get("issued").equals(Boolean.FALSE) || !refusal.get("reason").equals("ALREADY_RENTING") || refusal.containsKey("retryAfterMillis")) {
+                fail();
+            }
+            if (!send(port, "GET", "/availability?type=small", null).get("available").equals(1L)) {
+                fail();
+            }
+            Map<String, Object> termination = send(port, "DELETE", "/rentals/" + licenceNumber, null);
+            if (!termination.get("fuelNeeded").equals(0L)) {
+                fail();
+            }
+            if (!send(port, "GET", "/availability?type=small", null).get("available").equals(2L)) {
+                fail();
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void requestInvalid() throws Exception {
+        RentalHttpServer server = RentalHttpServer.start(new InetSocketAddress("127.0.0.1", 0), DepotRouter.getInstance(Collections.singletonList(RentalManager.getDepotInstance("http-invalid"))));
+        try {
+            int port = server.getPort();
+            //Malformed bodies, unknown licences and missing parameters should all be rejected as bad requests.
+            if (!send(port, "POST", "/licences", "{\"firstName\":").get("status").equals(400L)) {
+                fail();
+            }
+            if (!send(port, "POST", "/rentals", "{\"licenceNumber\":\"ZZ-1900-0\",\"type\":\"small\"}").get("status").equals(400L)) {
+                fail();
+            }
+            if (!send(port, "GET", "/availability", null).get("status").equals(400L)) {
+                fail();
+            }
+            if (!send(port, "DELETE", "/rentals/ZZ-1900-0", null).get("status").equals(400L)) {
+                fail();
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package service;
+
+import manager.DepotRouter;
+import manager.RentalManager;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The RentalLoadClient class is a load-test client for the RentalHttpServer which measures the latency of requests at a given level of concurrency.
+ * <p>
+ * The client first registers a licence per simulated driver, then every driver concurrently issues a car, queries availability and terminates the rental.
+ * Drivers whose registration failed are reported and take no part in the following requests.
+ * The number of requests in flight is bounded by the concurrency, and the p50, p99 and maximum latency of each kind of request is reported.
+ * <p>
+ * Usage: RentalLoadClient [drivers] [concurrency] [depots] (defaults 10000, 10000, 8). The client starts its own server on a free local port.
+ */
+public final class RentalLoadClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder().executor(RentalHttpServer.newRequestExecutor()).build();
+    private final String baseUri;
+    private final Semaphore inFlight;
+
+    /**
+     * RentalLoadClient is a constructor for a load test against the server at the specified address.
+     *
+     * @param baseUri     the base URI of the server i.e. "http://127.0.0.1:8080".
+     * @param concurrency the maximum number of requests in flight.
+     */
+    private RentalLoadClient(String baseUri, int concurrency) {
+        this.baseUri = baseUri;
+        this.inFlight = new Semaphore(concurrency);
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int drivers = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        final int numberOfDepots = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        //The JDK HTTP server closes the idle connections above its limit (200 by default) which the client still pools, failing the requests later sent on them, so the limit is raised to the concurrency.
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", Integer.toString(concurrency));
+        }
+
+        //Build the depots with enough small cars for half of the drivers.
+        List<RentalManager> depots = new ArrayList<>();
+        for (int i = 0; i < numberOfDepots; i++) {
+            RentalManager depot = RentalManager.getDepotInstance("load-test-" + i);
+            depot.provisionCars("small", Math.max(1, drivers / (2 * numberOfDepots)));
+            depots.add(depot);
+        }
+        RentalHttpServer server = RentalHttpServer.start(new InetSocketAddress("127.0.0.1", 0), DepotRouter.getInstance(depots));
+        try {
+            RentalLoadClient client = new RentalLoadClient("http://127.0.0.1:" + server.getPort(), concurrency);
+            String[] licenceNumbers = client.registerLicences(drivers);
+            if (licenceNumbers.length == 0) {
+                throw new IllegalStateException("No licence could be registered.");
+            }
+            client.run("issue", licenceNumbers.length, i -> client.post("/rentals", "{\"licenceNumber\":\"" + licenceNumbers[i] + "\",\"type\":\"small\"}"));
+            client.run("availability", licenceNumbers.length, i -> client.get("/availability?type=small"));
+            client.run("terminate", licenceNumbers.length, i -> client.delete("/rentals/" + licenceNumbers[i]));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * registerLicences registers a licence for each driver (and reports the latency of registration).
+     *
+     * @param drivers specifies the number of drivers.
+     * @return returns the licence numbers registered (fewer than the drivers if any registration failed).
+     * @throws Exception in the event the requests fail.
+     */
+    private String[] registerLicences(int drivers) throws Exception {
+        final String[] licenceNumbers = new String[drivers];
+        run("register", drivers, i -> post("/licences", "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"birth\":\"1975-04-10\",\"issue\":\"2000-04-10\",\"full\":true}")
+                .thenApply(response -> {
+                    //Only a registered licence has a licence number (a failed registration has an error instead).
+                    if (response.statusCode() == 201) {
+                        licenceNumbers[i] = (String) Json.read(response.body()).get("licenceNumber");
+                    }
+                    return response;
+                }));
+        String[] registered = Arrays.stream(licenceNumbers).filter(Objects::nonNull).toArray(String[]::new);
+        if (registered.length < drivers) {
+            System.out.printf("%-12s %d of %d drivers could not be registered and are skipped%n", "register", drivers - registered.length, drivers);
+        }
+        return registered;
+    }
+
+    /**
+     * run sends the requests concurrently (bounded by the concurrency) and reports their latency.
+     *
+     * @param name     specifies the name of the kind of request.
+     * @param requests specifies the number of requests.
+     * @param request  specifies how to send the i-th request.
+     * @throws Exception in the event the requests fail.
+     */
+    private void run(String name, int requests, Request request) throws Exception {
+        final long[] latencies = new long[requests];
+        final AtomicInteger failures = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+        final long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            inFlight.acquire();
+            final long sent = System.nanoTime();
+            futures.add(request.send(index).whenComplete((response, failure) -> {
+                latencies[index] = System.nanoTime() - sent;
+                if (failure != null || response.statusCode() >= 400) {
+                    failures.incrementAndGet();
+                }
+                inFlight.release();
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).exceptionally(failure -> null).join();
+        final long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        System.out.printf("%-12s requests=%d failures=%d throughput=%.0f/s p50=%.2fms p99=%.2fms max=%.2fms%n", name, requests, failures.get(),
+                requests / (elapsed / 1e9), percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6, latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private CompletableFuture<HttpResponse<String>> post(String path, String body) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(baseUri + path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private CompletableFuture<HttpResponse<String>> get(String path) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(baseUri + path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private CompletableFuture<HttpResponse<String>> delete(String path) {
+        return httpClient.sendAsync(HttpRequest.newBuilder(URI.create(baseUri + path)).DELETE().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /*
+    Sends the i-th request of a run.
+     */
+    private interface Request {
+        CompletableFuture<HttpResponse<String>> send(int index);
+    }
+}
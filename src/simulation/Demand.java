@@ -0,0 +1,132 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * The Demand class defines the synthetic demand for a type of car in a simulation (see Scenario): the rate rental requests arrive at, how long rentals last and how far cars are driven.
+ * <p>
+ * Requests arrive as a Poisson process (exponentially distributed times between arrivals), and the durations of rentals and the lengths of trips are exponentially distributed about their means
+ * (a trip is at least one kilometre), so a few long rentals and trips occur amongst many short ones.
+ * <p>
+ * The Demand class is immutable and utilizes a static factory method build pattern.
+ */
+public final class Demand {
+
+    private static final double MILLISECONDS_PER_HOUR = 60 * 60 * 1000;
+
+    private final double arrivalsPerHour;
+    private final double meanRentalHours;
+    private final double meanKilometres;
+
+    /**
+     * Demand is a constructor for a new Demand object.
+     *
+     * @param arrivalsPerHour the mean number of rental requests per hour.
+     * @param meanRentalHours the mean duration of a rental in hours.
+     * @param meanKilometres  the mean length of a trip in kilometres.
+     */
+    private Demand(double arrivalsPerHour, double meanRentalHours, double meanKilometres) {
+        this.arrivalsPerHour = arrivalsPerHour;
+        this.meanRentalHours = meanRentalHours;
+        this.meanKilometres = meanKilometres;
+    }
+
+    /**
+     * getInstance returns a new Demand object given the respective parameters.
+     *
+     * @param arrivalsPerHour specifies the mean number of rental requests per hour (0 for no demand).
+     * @param meanRentalHours specifies the mean duration of a rental in hours.
+     * @param meanKilometres  specifies the mean length of a trip in kilometres.
+     * @return returns the Demand object.
+     */
+    public static Demand getInstance(double arrivalsPerHour, double meanRentalHours, double meanKilometres) {
+        /*
+        Check parameters.
+         */
+        if (!(arrivalsPerHour >= 0) || Double.isInfinite(arrivalsPerHour)) {
+            throw new IllegalArgumentException("The arrival rate must be a finite value of at least 0.");
+        }
+        if (!(meanRentalHours > 0) || Double.isInfinite(meanRentalHours)) {
+            throw new IllegalArgumentException("The mean duration of a rental must be a finite value greater than 0.");
+        }
+        if (!(meanKilometres > 0) || Double.isInfinite(meanKilometres)) {
+            throw new IllegalArgumentException("The mean length of a trip must be a finite value greater than 0.");
+        }
+        return new Demand(arrivalsPerHour, meanRentalHours, meanKilometres);
+    }
+
+    /**
+     * getArrivalsPerHour returns the mean number of rental requests per hour.
+     *
+     * @return returns the arrival rate.
+     */
+    public double getArrivalsPerHour() {
+        return arrivalsPerHour;
+    }
+
+    /**
+     * getMeanRentalHours returns the mean duration of a rental in hours.
+     *
+     * @return returns the mean duration.
+     */
+    public double getMeanRentalHours() {
+        return meanRentalHours;
+    }
+
+    /**
+     * getMeanKilometres returns the mean length of a trip in kilometres.
+     *
+     * @return returns the mean length.
+     */
+    public double getMeanKilometres() {
+        return meanKilometres;
+    }
+
+    /**
+     * nextArrival draws the time until the next rental request (is package private, see DepotSimulation).
+     *
+     * @param random specifies the source of randomness of the run.
+     * @return returns the time in milliseconds (at least 1).
+     */
+    long nextArrival(SplittableRandom random) {
+        assert arrivalsPerHour > 0;
+        return Math.max(1, (long) (exponential(random) * MILLISECONDS_PER_HOUR / arrivalsPerHour));
+    }
+
+    /**
+     * nextRentalDuration draws the duration of a rental (is package private, see DepotSimulation).
+     *
+     * @param random specifies the source of randomness of the run.
+     * @return returns the duration in milliseconds (at least 1).
+     */
+    long nextRentalDuration(SplittableRandom random) {
+        return Math.max(1, (long) (exponential(random) * meanRentalHours * MILLISECONDS_PER_HOUR));
+    }
+
+    /**
+     * nextKilometres draws the length of a trip (is package private, see DepotSimulation).
+     *
+     * @param random specifies the source of randomness of the run.
+     * @return returns the length in kilometres (at least 1).
+     */
+    int nextKilometres(SplittableRandom random) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(exponential(random) * meanKilometres)));
+    }
+
+    /*
+    A draw of the exponential distribution of mean 1 (by inversion, 1 - nextDouble is never 0).
+     */
+    private static double exponential(SplittableRandom random) {
+        return -Math.log(1 - random.nextDouble());
+    }
+
+    /**
+     * toString returns the demand as a string.
+     *
+     * @return returns the following formatted string "Demand[arrivals/hour, mean rental hours, mean kilometres]".
+     */
+    @Override
+    public String toString() {
+        return "Demand[" + arrivalsPerHour + "/hour, " + meanRentalHours + " hours, " + meanKilometres + " km]";
+    }
+}
@@ -0,0 +1,182 @@
+package simulation;
+
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+import manager.IssueResult;
+import manager.RejectionReason;
+import manager.RentalManager;
+
+import java.io.InvalidObjectException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+
+/**
+ * The DepotSimulation class is a single run of a Scenario: a discrete-event simulation which drives a depot (the isolated RentalManager of a SimulationContext, with a fleet provisioned from the factory of the context) through synthetic demand.
+ * <p>
+ * The simulation jumps from event to event in simulated time (see EventScheduler) rather than waiting, there are three kinds of event...
+ * (a) ARRIVAL: a driver requests a car of a type (see RentalManager.issue). If a car is issued the end of the rental is scheduled, otherwise the rejection is counted. The next arrival of the type is scheduled.
+ * (b) RETURN: the car is driven the kilometres of the trip (see Car.drive) and the rental is terminated (see RentalManager.terminateRental), so the car is queued for refuelling.
+ * (c) REFUEL: the pumps of the depot run a refuelling cycle (see RentalManager.refuelCars, which fills the cars with Car.addFuel), and the next cycle is scheduled.
+ * <p>
+ * Every random draw of a run comes from the SplittableRandom of its seed in the order of the events, so a run is determined by its seed.
+ * At the end of a run the rentals still open are terminated and the fleet is decommissioned (see RentalManager.decommissionCar), so the depot is left empty and the registrations of the fleet are recycled by the next run of the context.
+ * A DepotSimulation is run once, by a single thread.
+ */
+final class DepotSimulation implements Callable<SimulationResult> {
+
+    /*
+    The kinds of event.
+     */
+    static final int ARRIVAL = 0;
+    static final int RETURN = 1;
+    static final int REFUEL = 2;
+
+    private final Scenario scenario;
+    private final RentalManager depot;
+    private final List<String> types;
+    private final Demand[] demands;
+    private final SplittableRandom random;
+    private final EventScheduler scheduler = new EventScheduler();
+    //The drivers who are not renting a car.
+    private final Deque<DrivingLicence> drivers;
+    /*
+    The counts of the run for each type of car (see SimulationResult).
+     */
+    private final long[] arrivals;
+    private final long[] issued;
+    private final long[][] rejections;
+    private final long[] rentedTime;
+    private long noEvents;
+
+    /**
+     * DepotSimulation is a constructor for a run of a Scenario.
+     *
+     * @param scenario specifies the Scenario.
+     * @param seed     specifies the seed of the run.
+     * @param depot    specifies the depot, which must have no cars.
+     * @param drivers  specifies the drivers, of which there must be more than there are cars in the fleet (a driver requests a car only while not renting one, see SimulationContext).
+     */
+    DepotSimulation(Scenario scenario, long seed, RentalManager depot, List<DrivingLicence> drivers) {
+        assert drivers.size() > scenario.getNoCars();
+        this.scenario = scenario;
+        this.depot = depot;
+        this.types = scenario.getTypes();
+        this.demands = new Demand[types.size()];
+        for (int type = 0; type < types.size(); type++) {
+            demands[type] = scenario.getDemand(types.get(type));
+        }
+        this.random = new SplittableRandom(seed);
+        this.drivers = new ArrayDeque<>(drivers);
+        this.arrivals = new long[types.size()];
+        this.issued = new long[types.size()];
+        this.rejections = new long[types.size()][RejectionReason.values().length];
+        this.rentedTime = new long[types.size()];
+    }
+
+    /**
+     * call runs the simulation.
+     *
+     * @return returns the SimulationResult of the run.
+     * @throws GetInstanceLimitExceededException in the event the fleet cannot be provisioned (every registration has been allocated).
+     * @throws InvalidObjectException            in the event the depot is found in an inconsistent state (see RentalManager.terminateRental).
+     */
+    @Override
+    public SimulationResult call() throws GetInstanceLimitExceededException, InvalidObjectException {
+        try {
+            for (String type : types) {
+                depot.provisionCars(type, scenario.getNoCars(type));
+            }
+            for (int type = 0; type < types.size(); type++) {
+                if (demands[type].getArrivalsPerHour() > 0) {
+                    scheduler.schedule(demands[type].nextArrival(random), ARRIVAL, type, null, null, 0);
+                }
+            }
+            scheduler.schedule(scenario.getRefuelInterval(), REFUEL, 0, null, null, 0);
+            final long duration = scenario.getDuration();
+            EventScheduler.Event event;
+            while ((event = scheduler.next()) != null && event.time <= duration) {
+                noEvents++;
+                handle(depot, event, duration);
+                scheduler.recycle(event);
+            }
+            //The event taken after the end of the run (if any) is not simulated, but may be the end of a rental which is still open.
+            if (event != null) {
+                close(depot, event);
+            }
+        } finally {
+            closeAll(depot);
+        }
+        int[] noCars = new int[types.size()];
+        for (int type = 0; type < types.size(); type++) {
+            noCars[type] = scenario.getNoCars(types.get(type));
+        }
+        return new SimulationResult(types, noCars, scenario.getDuration(), 1, noEvents, arrivals, issued, rejections, rentedTime);
+    }
+
+    private void handle(RentalManager depot, EventScheduler.Event event, long duration) throws GetInstanceLimitExceededException, InvalidObjectException {
+        switch (event.kind) {
+            case ARRIVAL: {
+                Demand demand = demands[event.type];
+                scheduler.schedule(event.time + demand.nextArrival(random), ARRIVAL, event.type, null, null, 0);
+                arrivals[event.type]++;
+                DrivingLicence driver = drivers.pop();
+                IssueResult result = depot.issue(driver, types.get(event.type));
+                if (result.isIssued()) {
+                    issued[event.type]++;
+                    long rentalDuration = demand.nextRentalDuration(random);
+                    //Only the part of the rental within the run counts towards the utilisation.
+                    rentedTime[event.type] += Math.min(event.time + rentalDuration, duration) - event.time;
+                    scheduler.schedule(event.time + rentalDuration, RETURN, event.type, driver, result.getCar(), demand.nextKilometres(random));
+                } else {
+                    rejections[event.type][result.getReason().ordinal()]++;
+                    drivers.push(driver);
+                }
+                break;
+            }
+            case RETURN: {
+                event.car.drive(event.kilometres);
+                depot.terminateRental(event.driver);
+                drivers.push(event.driver);
+                break;
+            }
+            case REFUEL: {
+                depot.refuelCars();
+                //The records of the rentals are not needed by the simulation.
+                depot.drainClosedRentals();
+                scheduler.schedule(event.time + scenario.getRefuelInterval(), REFUEL, 0, null, null, 0);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown kind of event " + event.kind + ".");
+        }
+    }
+
+    private void close(RentalManager depot, EventScheduler.Event event) throws InvalidObjectException {
+        if (event.kind == RETURN) {
+            depot.terminateRental(event.driver);
+            drivers.push(event.driver);
+        }
+    }
+
+    /*
+    Terminates the rentals still open, refuels the fleet and decommissions it.
+     */
+    private void closeAll(RentalManager depot) throws InvalidObjectException {
+        EventScheduler.Event event;
+        while ((event = scheduler.next()) != null) {
+            close(depot, event);
+        }
+        while (depot.refuelCars() > 0) {
+            //Every car queued for refuelling is refuelled, a cycle at a time.
+        }
+        for (String type : types) {
+            while (depot.decommissionCar(type) != null) {
+                //Every available car of the type is decommissioned.
+            }
+        }
+        depot.drainClosedRentals();
+    }
+}
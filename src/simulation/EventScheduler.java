@@ -0,0 +1,98 @@
+package simulation;
+
+import cars.Car;
+import licences.DrivingLicence;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.PriorityQueue;
+
+/**
+ * The EventScheduler class is the future event list of a discrete-event simulation: events are held in a priority queue by the simulated time they occur at and are taken in that order (see DepotSimulation).
+ * <p>
+ * Events of the same time are taken in the order they were scheduled (each event has a sequence number), so a run is determined by its seed alone.
+ * Events taken are recycled once handled (see recycle), so a long run does not allocate an event per event.
+ * The EventScheduler class is not thread-safe, each run has its own scheduler.
+ */
+final class EventScheduler {
+
+    private static final Comparator<Event> BY_TIME = new Comparator<Event>() {
+        @Override
+        public int compare(Event event, Event otherEvent) {
+            int comparison = Long.compare(event.time, otherEvent.time);
+            return comparison != 0 ? comparison : Long.compare(event.sequence, otherEvent.sequence);
+        }
+    };
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>(BY_TIME);
+    private final Deque<Event> recycled = new ArrayDeque<>();
+    private long nextSequence;
+
+    /**
+     * schedule adds an event to the future event list.
+     *
+     * @param time       specifies the simulated time of the event in milliseconds.
+     * @param kind       specifies the kind of event (see DepotSimulation).
+     * @param type       specifies the index of the type of car of the event.
+     * @param driver     specifies the driver of the event (or null).
+     * @param car        specifies the car of the event (or null).
+     * @param kilometres specifies the kilometres of the event.
+     */
+    void schedule(long time, int kind, int type, DrivingLicence driver, Car car, int kilometres) {
+        Event event = recycled.poll();
+        if (event == null) {
+            event = new Event();
+        }
+        event.time = time;
+        event.sequence = nextSequence++;
+        event.kind = kind;
+        event.type = type;
+        event.driver = driver;
+        event.car = car;
+        event.kilometres = kilometres;
+        events.add(event);
+    }
+
+    /**
+     * next removes the earliest event from the future event list.
+     *
+     * @return returns the event, or null if no event is scheduled.
+     */
+    Event next() {
+        return events.poll();
+    }
+
+    /**
+     * recycle returns an event which has been handled, so it can be reused by schedule.
+     *
+     * @param event specifies the event.
+     */
+    void recycle(Event event) {
+        event.driver = null;
+        event.car = null;
+        recycled.push(event);
+    }
+
+    /**
+     * size returns the number of events scheduled.
+     *
+     * @return returns the number of events.
+     */
+    int size() {
+        return events.size();
+    }
+
+    /*
+    An event of the simulation (the fields are read by the simulation which handles it).
+     */
+    static final class Event {
+        long time;
+        private long sequence;
+        int kind;
+        int type;
+        DrivingLicence driver;
+        Car car;
+        int kilometres;
+    }
+}
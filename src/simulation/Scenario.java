@@ -0,0 +1,172 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Scenario class defines a simulation of a depot (see Simulator): how long is simulated, how often the pumps of the depot run a refuelling cycle (see RentalManager.refuelCars)
+ * and, for each type of car, the number of cars in the fleet and the demand for them (see Demand).
+ * <p>
+ * The Scenario class is immutable and utilizes a static factory method build pattern, a type of car is added with withCars (which returns a new Scenario), i.e.
+ * Scenario.getInstance(24 * 7, 15).withCars("SMALL", 40, smallDemand).withCars("LARGE", 10, largeDemand).
+ */
+public final class Scenario {
+
+    private static final long MILLISECONDS_PER_MINUTE = 60 * 1000;
+
+    private final int durationHours;
+    private final int refuelIntervalMinutes;
+    //The types of car in the order they were added (in UPPERCASE).
+    private final Map<String, Integer> fleet;
+    private final Map<String, Demand> demands;
+
+    /**
+     * Scenario is a constructor for a new Scenario object.
+     *
+     * @param durationHours         the number of hours simulated.
+     * @param refuelIntervalMinutes the minutes between the refuelling cycles of the depot.
+     * @param fleet                 the number of cars of each type.
+     * @param demands               the demand for each type.
+     */
+    private Scenario(int durationHours, int refuelIntervalMinutes, Map<String, Integer> fleet, Map<String, Demand> demands) {
+        this.durationHours = durationHours;
+        this.refuelIntervalMinutes = refuelIntervalMinutes;
+        this.fleet = Collections.unmodifiableMap(fleet);
+        this.demands = Collections.unmodifiableMap(demands);
+    }
+
+    /**
+     * getInstance returns a new Scenario object without any cars given the respective parameters.
+     *
+     * @param durationHours         specifies the number of hours simulated.
+     * @param refuelIntervalMinutes specifies the minutes between the refuelling cycles of the depot (each cycle refuels the cars the pumps of the depot can take).
+     * @return returns the Scenario object.
+     */
+    public static Scenario getInstance(int durationHours, int refuelIntervalMinutes) {
+        /*
+        Check parameters.
+         */
+        if (durationHours <= 0) {
+            throw new IllegalArgumentException("The duration cannot be a value lower than or equal to 0.");
+        }
+        if (refuelIntervalMinutes <= 0) {
+            throw new IllegalArgumentException("The refuelling interval cannot be a value lower than or equal to 0.");
+        }
+        return new Scenario(durationHours, refuelIntervalMinutes, new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * withCars returns a new Scenario with the cars of a type and the demand for them (replacing those of the type in this Scenario, if any).
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE). This must match the string representation of the cars type.
+     * @param noCars    specifies the number of cars of the type in the fleet.
+     * @param demand    specifies the demand for the type.
+     * @return returns the new Scenario object.
+     */
+    public Scenario withCars(String typeOfCar, int noCars, Demand demand) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null || demand == null) {
+            throw new IllegalArgumentException("Car type and demand cannot be null.");
+        }
+        if (noCars <= 0) {
+            throw new IllegalArgumentException("The number of cars cannot be a value lower than or equal to 0.");
+        }
+        Map<String, Integer> newFleet = new LinkedHashMap<>(fleet);
+        Map<String, Demand> newDemands = new LinkedHashMap<>(demands);
+        newFleet.put(typeOfCar.toUpperCase(), noCars);
+        newDemands.put(typeOfCar.toUpperCase(), demand);
+        return new Scenario(durationHours, refuelIntervalMinutes, newFleet, newDemands);
+    }
+
+    /**
+     * getDurationHours returns the number of hours simulated.
+     *
+     * @return returns the duration in hours.
+     */
+    public int getDurationHours() {
+        return durationHours;
+    }
+
+    /**
+     * getRefuelIntervalMinutes returns the minutes between the refuelling cycles of the depot.
+     *
+     * @return returns the refuelling interval in minutes.
+     */
+    public int getRefuelIntervalMinutes() {
+        return refuelIntervalMinutes;
+    }
+
+    /**
+     * getTypes returns the types of car of the fleet, in the order they were added.
+     *
+     * @return returns a list of the types (in UPPERCASE).
+     */
+    public List<String> getTypes() {
+        return new ArrayList<>(fleet.keySet());
+    }
+
+    /**
+     * getNoCars returns the number of cars of a type in the fleet.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of cars (0 if the fleet has no cars of the type).
+     */
+    public int getNoCars(String typeOfCar) {
+        /*
+        Check parameters.
+        */
+        assert typeOfCar != null;
+        Integer noCars = fleet.get(typeOfCar.toUpperCase());
+        return noCars == null ? 0 : noCars;
+    }
+
+    /**
+     * getDemand returns the demand for a type of car.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the Demand, or null if the fleet has no cars of the type.
+     */
+    public Demand getDemand(String typeOfCar) {
+        /*
+        Check parameters.
+        */
+        assert typeOfCar != null;
+        return demands.get(typeOfCar.toUpperCase());
+    }
+
+    /**
+     * getNoCars returns the number of cars of every type in the fleet.
+     *
+     * @return returns the size of the fleet.
+     */
+    public int getNoCars() {
+        int noCars = 0;
+        for (int noCarsOfType : fleet.values()) {
+            noCars += noCarsOfType;
+        }
+        return noCars;
+    }
+
+    long getDuration() {
+        return durationHours * 60 * MILLISECONDS_PER_MINUTE;
+    }
+
+    long getRefuelInterval() {
+        return refuelIntervalMinutes * MILLISECONDS_PER_MINUTE;
+    }
+
+    /**
+     * toString returns the scenario as a string.
+     *
+     * @return returns the following formatted string "Scenario[hours, refuel every minutes, {type=cars, ...}]".
+     */
+    @Override
+    public String toString() {
+        return "Scenario[" + durationHours + " hours, refuel every " + refuelIntervalMinutes + " minutes, " + fleet + "]";
+    }
+}
@@ -0,0 +1,61 @@
+package simulation;
+
+import instrumentation.Instrumentation;
+
+/**
+ * The SimulationBenchmark class measures the events per second the Simulator simulates, for a single run and for runs spread across the cores,
+ * with the instrumentation of the depots (see Instrumentation) enabled and disabled.
+ * <p>
+ * The measurements are repeated unmeasured until WARM_UP_EVENTS events have been simulated, as a run of a few simulated months is over in a fraction of a second and would otherwise be
+ * measured largely before it is compiled.
+ * Each event is a call into the synchronized depot (see DepotSimulation), not just an operation on the event list, so the events per second are bounded by the operations of the depot.
+ * <p>
+ * Usage: SimulationBenchmark [days] [runs] (a year of a fleet of 250 cars, and a run per available processor, by default).
+ */
+public final class SimulationBenchmark {
+
+    //The events simulated before measuring.
+    private static final long WARM_UP_EVENTS = 10000000;
+
+    private SimulationBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int days = args.length > 0 ? Integer.parseInt(args[0]) : 365;
+        int noRuns = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Scenario scenario = Scenario.getInstance(24 * days, 15)
+                .withCars("SMALL", 200, Demand.getInstance(60, 3, 120))
+                .withCars("LARGE", 50, Demand.getInstance(10, 8, 300));
+        long noWarmUpEvents = 0;
+        while (noWarmUpEvents < WARM_UP_EVENTS) {
+            noWarmUpEvents += measure(scenario, noRuns, false);
+        }
+        measure(scenario, noRuns, true);
+        Instrumentation.setEnabled(true);
+    }
+
+    /*
+    Runs the scenario once and then as many times as there are runs, with instrumentation enabled and disabled, printing the events per second if measured and returning the events simulated.
+     */
+    private static long measure(Scenario scenario, int noRuns, boolean measured) throws Exception {
+        long noEvents = 0;
+        for (boolean enabled : new boolean[]{true, false}) {
+            Instrumentation.setEnabled(enabled);
+            long start = System.nanoTime();
+            SimulationResult result = Simulator.run(scenario, 48);
+            long elapsed = System.nanoTime() - start;
+            noEvents += result.getNoEvents();
+            if (measured) {
+                System.out.println("Instrumentation " + (enabled ? "enabled" : "disabled") + ", 1 run: " + (result.getNoEvents() * 1000000000L / elapsed) + " events/s " + result);
+            }
+            start = System.nanoTime();
+            result = Simulator.run(scenario, 48, noRuns);
+            elapsed = System.nanoTime() - start;
+            noEvents += result.getNoEvents();
+            if (measured) {
+                System.out.println("Instrumentation " + (enabled ? "enabled" : "disabled") + ", " + noRuns + " runs: " + (result.getNoEvents() * 1000000000L / elapsed) + " events/s " + result);
+            }
+        }
+        return noEvents;
+    }
+}
@@ -0,0 +1,135 @@
+package simulation;
+
+import cars.LocalCarFactory;
+import exceptions.GetInstanceLimitExceededException;
+import licences.DrivingLicence;
+import manager.RentalManager;
+
+import java.io.InvalidObjectException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * The SimulationContext class holds the state of the runs of a Scenario with a seed, none of which is shared with any other context or with the static registries of the application:
+ * (a) the depot is isolated (see RentalManager.getIsolatedInstance), it is not registered by name, so it is held only by the context.
+ * (b) the cars of the depot are created by a factory of the context (see LocalCarFactory), so their registrations are allocated by the context rather than from the registrations shared by every depot.
+ * (c) the drivers are unregistered licences (see DrivingLicence.getUnregisteredInstance), so they are not held in the registry of licences.
+ * <p>
+ * As contexts share no state, any number of them can be run concurrently in one process (see Simulator), and the result of a run is determined by the Scenario and the seed alone:
+ * the registrations of the cars, which cars are issued and every random draw are the same whatever else the process is doing.
+ * Once a context is no longer referenced its depot, cars and drivers can be garbage collected.
+ * <p>
+ * The SimulationContext class utilizes a static factory method build pattern. A context may be run more than once (each run gives the same result), but not by more than one thread at a time.
+ */
+public final class SimulationContext {
+
+    private final Scenario scenario;
+    private final long seed;
+    private final LocalCarFactory carFactory;
+    private final RentalManager depot;
+    //A driver rents at most one car at a time, so there is one more driver than there are cars.
+    private final List<DrivingLicence> drivers;
+
+    /**
+     * SimulationContext is a constructor for a new SimulationContext object.
+     *
+     * @param scenario   the Scenario.
+     * @param seed       the seed of the runs.
+     * @param carFactory the factory of the cars of the depot.
+     * @param depot      the depot.
+     * @param drivers    the drivers.
+     */
+    private SimulationContext(Scenario scenario, long seed, LocalCarFactory carFactory, RentalManager depot, List<DrivingLicence> drivers) {
+        this.scenario = scenario;
+        this.seed = seed;
+        this.carFactory = carFactory;
+        this.depot = depot;
+        this.drivers = drivers;
+    }
+
+    /**
+     * getInstance returns a new context for runs of a Scenario with a seed. The drivers are created when the context is, the fleet when the context is run.
+     *
+     * @param scenario specifies the Scenario (which must have cars, see Scenario.withCars).
+     * @param seed     specifies the seed of the runs.
+     * @return returns a new SimulationContext object.
+     * @throws GetInstanceLimitExceededException in the event the drivers cannot be created (every serial number of the licence numbers has been allocated).
+     */
+    public static SimulationContext getInstance(Scenario scenario, long seed) throws GetInstanceLimitExceededException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (scenario == null) {
+            throw new IllegalArgumentException("Scenario cannot be null.");
+        }
+        if (scenario.getNoCars() == 0) {
+            throw new IllegalArgumentException("The scenario has no cars.");
+        }
+        LocalCarFactory carFactory = LocalCarFactory.getInstance();
+        RentalManager depot = RentalManager.getIsolatedInstance("SIMULATION", carFactory);
+        return new SimulationContext(scenario, seed, carFactory, depot, createDrivers(scenario.getNoCars() + 1));
+    }
+
+    /*
+    Creates drivers with full licences held for long enough (and old enough) to rent any type of car under the default restrictions of a depot.
+     */
+    private static List<DrivingLicence> createDrivers(int noDrivers) throws GetInstanceLimitExceededException {
+        Date birth = new GregorianCalendar(1970, 0, 1).getTime();
+        Date issue = new GregorianCalendar(2000, 0, 1).getTime();
+        List<DrivingLicence> drivers = new ArrayList<>(noDrivers);
+        for (int i = 0; i < noDrivers; i++) {
+            drivers.add(DrivingLicence.getUnregisteredInstance("Simulated", "Driver", birth, issue, true));
+        }
+        return Collections.unmodifiableList(drivers);
+    }
+
+    /**
+     * run runs the Scenario once with the seed of the context (see DepotSimulation). The fleet is provisioned at the start of the run and decommissioned at the end.
+     *
+     * @return returns the SimulationResult of the run.
+     * @throws GetInstanceLimitExceededException in the event the fleet cannot be provisioned (the fleet has more cars than the registration scheme has registrations).
+     * @throws InvalidObjectException            in the event the depot is found in an inconsistent state (see RentalManager.terminateRental).
+     */
+    public synchronized SimulationResult run() throws GetInstanceLimitExceededException, InvalidObjectException {
+        return new DepotSimulation(scenario, seed, depot, drivers).call();
+    }
+
+    /**
+     * getScenario returns the Scenario of the context.
+     *
+     * @return returns the Scenario.
+     */
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    /**
+     * getSeed returns the seed of the runs of the context.
+     *
+     * @return returns the seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * getDepot returns the isolated depot of the context (i.e. to set restrictions or an issue policy before the context is run).
+     *
+     * @return returns the RentalManager of the context.
+     */
+    public RentalManager getDepot() {
+        return depot;
+    }
+
+    /**
+     * getCarFactory returns the factory of the cars of the context.
+     *
+     * @return returns the LocalCarFactory of the context.
+     */
+    public LocalCarFactory getCarFactory() {
+        return carFactory;
+    }
+}
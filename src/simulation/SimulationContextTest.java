@@ -0,0 +1,72 @@
+package simulation;
+
+import manager.RentalManager;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SimulationContextTest {
+
+    private static final Scenario SCENARIO = Scenario.getInstance(24 * 7, 15)
+            .withCars("small", 6, Demand.getInstance(2, 3, 120))
+            .withCars("large", 3, Demand.getInstance(0.5, 8, 300));
+
+    @Test
+    public void runValid() throws Exception {
+        SimulationContext context = SimulationContext.getInstance(SCENARIO, 48);
+        SimulationResult result = context.run();
+        //The fleet is decommissioned to the factory of the context at the end of a run.
+        if (context.getCarFactory().getNoCars("small") != 0 || context.getDepot().fleetSize("small") != 0 || context.getDepot().fleetSize("large") != 0) {
+            fail();
+        }
+        //The depot of the context is not registered by name.
+        if (context.getDepot() == RentalManager.getDepotInstance(context.getDepot().getDepotName())) {
+            fail();
+        }
+        //A context run again gives the same result.
+        if (!isSame(result, context.run())) {
+            fail();
+        }
+    }
+
+    @Test
+    public void runReproducedValid() throws Exception {
+        //The runs of a request can be reproduced by contexts of the seeds of the runs, run one after another.
+        List<SimulationResult> results = new ArrayList<>();
+        for (int run = 0; run < 3; run++) {
+            results.add(SimulationContext.getInstance(SCENARIO, Simulator.getRunSeed(48, run)).run());
+        }
+        if (!isSame(SimulationResult.merge(results), Simulator.run(SCENARIO, 48, 3))) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getInstanceInvalid() throws Exception {
+        SimulationContext.getInstance(null, 48);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeInvalid() throws Exception {
+        Scenario other = Scenario.getInstance(24, 15).withCars("small", 1, Demand.getInstance(1, 4, 100));
+        List<SimulationResult> results = new ArrayList<>();
+        results.add(Simulator.run(SCENARIO, 48));
+        results.add(Simulator.run(other, 48));
+        SimulationResult.merge(results);
+    }
+
+    static boolean isSame(SimulationResult result, SimulationResult other) {
+        if (result.getNoRuns() != other.getNoRuns() || result.getNoEvents() != other.getNoEvents() || !result.getTypes().equals(other.getTypes())) {
+            return false;
+        }
+        for (String type : result.getTypes()) {
+            if (result.getIssued(type) != other.getIssued(type) || result.getRejected(type) != other.getRejected(type) || result.getUtilisation(type) != other.getUtilisation(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,229 @@
+package simulation;
+
+import manager.RejectionReason;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The SimulationResult class is the outcome of one or more runs of a Scenario (see Simulator): for each type of car the rental requests which arrived, were issued a car and were rejected (by RejectionReason),
+ * and the utilisation of the fleet (the share of the simulated time the cars of the type were rented).
+ * <p>
+ * The results of runs of the same Scenario are merged by adding their counts (see merge), so the rates of a merged result are those of every run taken together.
+ * The SimulationResult class is immutable.
+ */
+public final class SimulationResult {
+
+    private static final RejectionReason[] REASONS = RejectionReason.values();
+
+    private final List<String> types;
+    private final int[] noCars;
+    private final long duration;
+    private final int noRuns;
+    private final long noEvents;
+    private final long[] arrivals;
+    private final long[] issued;
+    //The rejections of each type by the ordinal of the RejectionReason.
+    private final long[][] rejections;
+    //The total time the cars of each type were rented in milliseconds.
+    private final long[] rentedTime;
+
+    /**
+     * SimulationResult is a constructor for a new SimulationResult object (is package private, see DepotSimulation and merge), which takes ownership of the arrays.
+     *
+     * @param types      the types of car (in UPPERCASE).
+     * @param noCars     the number of cars of each type.
+     * @param duration   the simulated time of each run in milliseconds.
+     * @param noRuns     the number of runs.
+     * @param noEvents   the number of events simulated.
+     * @param arrivals   the rental requests of each type.
+     * @param issued     the rental requests of each type issued a car.
+     * @param rejections the rental requests of each type rejected, by the ordinal of the RejectionReason.
+     * @param rentedTime the time the cars of each type were rented in milliseconds.
+     */
+    SimulationResult(List<String> types, int[] noCars, long duration, int noRuns, long noEvents, long[] arrivals, long[] issued, long[][] rejections, long[] rentedTime) {
+        this.types = Collections.unmodifiableList(new ArrayList<>(types));
+        this.noCars = noCars;
+        this.duration = duration;
+        this.noRuns = noRuns;
+        this.noEvents = noEvents;
+        this.arrivals = arrivals;
+        this.issued = issued;
+        this.rejections = rejections;
+        this.rentedTime = rentedTime;
+    }
+
+    /**
+     * merge returns the results of runs of the same Scenario taken together (i.e. the results of SimulationContexts run separately), adding the counts of every result in a single pass.
+     * The counts are added as integers, so the merged result is the same whatever the order of the results.
+     *
+     * @param results specifies the results.
+     * @return returns a new SimulationResult object.
+     */
+    public static SimulationResult merge(List<SimulationResult> results) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (results == null || results.isEmpty()) {
+            throw new IllegalArgumentException("Results cannot be null or empty.");
+        }
+        SimulationResult first = results.get(0);
+        int noTypes = first.types.size();
+        int noRuns = 0;
+        long noEvents = 0;
+        long[] mergedArrivals = new long[noTypes];
+        long[] mergedIssued = new long[noTypes];
+        long[][] mergedRejections = new long[noTypes][REASONS.length];
+        long[] mergedRentedTime = new long[noTypes];
+        for (SimulationResult result : results) {
+            if (result == null) {
+                throw new IllegalArgumentException("Results cannot contain a null object.");
+            }
+            if (!result.types.equals(first.types) || !Arrays.equals(result.noCars, first.noCars) || result.duration != first.duration) {
+                throw new IllegalArgumentException("Only the results of the same scenario can be merged.");
+            }
+            noRuns += result.noRuns;
+            noEvents += result.noEvents;
+            for (int type = 0; type < noTypes; type++) {
+                mergedArrivals[type] += result.arrivals[type];
+                mergedIssued[type] += result.issued[type];
+                mergedRentedTime[type] += result.rentedTime[type];
+                for (int reason = 0; reason < REASONS.length; reason++) {
+                    mergedRejections[type][reason] += result.rejections[type][reason];
+                }
+            }
+        }
+        return new SimulationResult(first.types, first.noCars, first.duration, noRuns, noEvents, mergedArrivals, mergedIssued, mergedRejections, mergedRentedTime);
+    }
+
+    /**
+     * getTypes returns the types of car of the Scenario.
+     *
+     * @return returns an unmodifiable list of the types (in UPPERCASE).
+     */
+    public List<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * getNoRuns returns the number of runs of the result.
+     *
+     * @return returns the number of runs.
+     */
+    public int getNoRuns() {
+        return noRuns;
+    }
+
+    /**
+     * getNoEvents returns the number of events simulated by the runs (arrivals of requests, ends of rentals and refuelling cycles).
+     *
+     * @return returns the number of events.
+     */
+    public long getNoEvents() {
+        return noEvents;
+    }
+
+    /**
+     * getArrivals returns the number of rental requests for a type of car.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of requests.
+     */
+    public long getArrivals(String typeOfCar) {
+        return arrivals[indexOf(typeOfCar)];
+    }
+
+    /**
+     * getIssued returns the number of rental requests for a type of car which were issued a car.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of requests.
+     */
+    public long getIssued(String typeOfCar) {
+        return issued[indexOf(typeOfCar)];
+    }
+
+    /**
+     * getRejected returns the number of rental requests for a type of car which were rejected.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the number of requests.
+     */
+    public long getRejected(String typeOfCar) {
+        long noRejected = 0;
+        for (long noRejectedForReason : rejections[indexOf(typeOfCar)]) {
+            noRejected += noRejectedForReason;
+        }
+        return noRejected;
+    }
+
+    /**
+     * getRejected returns the number of rental requests for a type of car which were rejected for a reason (i.e. NO_CAR_AVAILABLE when every car was rented, or INSUFFICIENT_FUEL when the cars left were awaiting fuel).
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @param reason    specifies the RejectionReason.
+     * @return returns the number of requests.
+     */
+    public long getRejected(String typeOfCar, RejectionReason reason) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (reason == null) {
+            throw new IllegalArgumentException("Reason cannot be null.");
+        }
+        return rejections[indexOf(typeOfCar)][reason.ordinal()];
+    }
+
+    /**
+     * getRejectionRate returns the share of the rental requests for a type of car which were rejected.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the rejection rate (0-1, 0 if there were no requests).
+     */
+    public double getRejectionRate(String typeOfCar) {
+        long noArrivals = getArrivals(typeOfCar);
+        return noArrivals == 0 ? 0 : (double) getRejected(typeOfCar) / noArrivals;
+    }
+
+    /**
+     * getUtilisation returns the share of the simulated time the cars of a type were rented.
+     *
+     * @param typeOfCar specifies the type of car (converted into UPPERCASE).
+     * @return returns the utilisation (0-1).
+     */
+    public double getUtilisation(String typeOfCar) {
+        int type = indexOf(typeOfCar);
+        return (double) rentedTime[type] / ((double) noCars[type] * duration * noRuns);
+    }
+
+    private int indexOf(String typeOfCar) {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (typeOfCar == null) {
+            throw new IllegalArgumentException("Car type cannot be null.");
+        }
+        int type = types.indexOf(typeOfCar.toUpperCase());
+        if (type < 0) {
+            throw new IllegalArgumentException("The scenario has no cars of type " + typeOfCar + ".");
+        }
+        return type;
+    }
+
+    /**
+     * toString returns the result as a string.
+     *
+     * @return returns the following formatted string "SimulationResult[runs, events, TYPE utilisation=..%, rejected=..%, ...]".
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("SimulationResult[").append(noRuns).append(" runs, ").append(noEvents).append(" events");
+        for (String type : types) {
+            out.append(", ").append(type).append(" utilisation=").append(String.format("%.1f", getUtilisation(type) * 100))
+                    .append("%, rejected=").append(String.format("%.1f", getRejectionRate(type) * 100)).append('%');
+        }
+        return out.append(']').toString();
+    }
+}
@@ -0,0 +1,128 @@
+package simulation;
+
+import exceptions.GetInstanceLimitExceededException;
+
+import java.io.InvalidObjectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The Simulator class is the capacity planning simulator: it runs a Scenario (a fleet mix and the demand for each type of car) as a discrete-event simulation of a depot (see DepotSimulation)
+ * and reports the utilisation of the fleet and the rate rental requests are rejected (see SimulationResult), so depots can be sized before they are stocked.
+ * <p>
+ * Each run of a Scenario has a SimulationContext of its own (an isolated depot, a factory of cars and drivers), so runs share no state and are spread across the cores on a fork-join pool (the common pool by default).
+ * The seed of each run is derived from the seed of the request (see getRunSeed), and the results of the runs are merged by adding their counts (see SimulationResult.merge),
+ * so the same request gives the same result however many threads run it and whatever else the process is doing.
+ */
+public final class Simulator {
+
+    //The increment of the seeds of successive runs (the golden ratio, as SplittableRandom uses).
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    private Simulator() {
+    }
+
+    /**
+     * run runs a Scenario once.
+     *
+     * @param scenario specifies the Scenario.
+     * @param seed     specifies the seed of the run.
+     * @return returns the SimulationResult of the run.
+     * @throws GetInstanceLimitExceededException in the event the fleet or the drivers cannot be created (see SimulationContext).
+     */
+    public static SimulationResult run(Scenario scenario, long seed) throws GetInstanceLimitExceededException {
+        return run(scenario, seed, 1);
+    }
+
+    /**
+     * run runs a Scenario a number of times in parallel on the common fork-join pool and merges the results of the runs.
+     *
+     * @param scenario specifies the Scenario (which must have cars, see Scenario.withCars).
+     * @param seed     specifies the seed of the request (the seeds of the runs are derived from it, see getRunSeed).
+     * @param noRuns   specifies the number of runs.
+     * @return returns the SimulationResult of the runs taken together.
+     * @throws GetInstanceLimitExceededException in the event the fleet or the drivers of a run cannot be created (see SimulationContext).
+     */
+    public static SimulationResult run(Scenario scenario, long seed, int noRuns) throws GetInstanceLimitExceededException {
+        return run(scenario, seed, noRuns, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * run runs a Scenario a number of times in parallel on a fork-join pool and merges the results of the runs.
+     * Each run creates its SimulationContext on the thread which runs it, so the contexts are created in parallel too.
+     *
+     * @param scenario specifies the Scenario (which must have cars, see Scenario.withCars).
+     * @param seed     specifies the seed of the request (the seeds of the runs are derived from it, see getRunSeed).
+     * @param noRuns   specifies the number of runs.
+     * @param pool     specifies the fork-join pool to run the runs on.
+     * @return returns the SimulationResult of the runs taken together.
+     * @throws GetInstanceLimitExceededException in the event the fleet or the drivers of a run cannot be created (see SimulationContext).
+     */
+    public static SimulationResult run(Scenario scenario, long seed, int noRuns, ForkJoinPool pool) throws GetInstanceLimitExceededException {
+        /*
+        Check parameters (since a public method throw exception if objects are null).
+         */
+        if (scenario == null) {
+            throw new IllegalArgumentException("Scenario cannot be null.");
+        }
+        if (scenario.getNoCars() == 0) {
+            throw new IllegalArgumentException("The scenario has no cars.");
+        }
+        if (noRuns <= 0) {
+            throw new IllegalArgumentException("The number of runs cannot be a value lower than or equal to 0.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null.");
+        }
+        List<Callable<SimulationResult>> runs = new ArrayList<>(noRuns);
+        for (int run = 0; run < noRuns; run++) {
+            final long runSeed = getRunSeed(seed, run);
+            runs.add(() -> SimulationContext.getInstance(scenario, runSeed).run());
+        }
+        List<SimulationResult> results = new ArrayList<>(noRuns);
+        for (Future<SimulationResult> run : pool.invokeAll(runs)) {
+            results.add(getResult(run));
+        }
+        return SimulationResult.merge(results);
+    }
+
+    /**
+     * getRunSeed returns the seed of a run of a request, so a single run of a request can be reproduced with a SimulationContext of its own.
+     *
+     * @param seed specifies the seed of the request.
+     * @param run  specifies the run (0 for the first run).
+     * @return returns the seed of the run.
+     */
+    public static long getRunSeed(long seed, int run) {
+        return seed + run * SEED_INCREMENT;
+    }
+
+    /*
+    Waits for the result of a run, rethrowing the exception the run failed with.
+     */
+    private static SimulationResult getResult(Future<SimulationResult> run) throws GetInstanceLimitExceededException {
+        try {
+            return run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a run.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GetInstanceLimitExceededException) {
+                throw (GetInstanceLimitExceededException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            //An InvalidObjectException, the depot of the run was found in an inconsistent state.
+            throw new IllegalStateException("A run failed.", cause instanceof InvalidObjectException ? cause : e);
+        }
+    }
+}
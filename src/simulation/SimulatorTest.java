@@ -0,0 +1,90 @@
+package simulation;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SimulatorTest {
+
+    private static final Scenario SCENARIO = Scenario.getInstance(24 * 7, 15)
+            .withCars("small", 6, Demand.getInstance(2, 3, 120))
+            .withCars("large", 3, Demand.getInstance(0.5, 8, 300));
+
+    @Test
+    public void runValid() throws Exception {
+        SimulationResult result = Simulator.run(SCENARIO, 48);
+        if (result.getNoRuns() != 1 || result.getNoEvents() == 0 || !result.getTypes().contains("SMALL") || !result.getTypes().contains("LARGE")) {
+            fail();
+        }
+        for (String type : result.getTypes()) {
+            if (result.getArrivals(type) == 0 || result.getArrivals(type) != result.getIssued(type) + result.getRejected(type)) {
+                fail();
+            }
+            if (result.getUtilisation(type) <= 0 || result.getUtilisation(type) > 1 || result.getRejectionRate(type) < 0 || result.getRejectionRate(type) > 1) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void runDeterministicValid() throws Exception {
+        SimulationResult result = Simulator.run(SCENARIO, 48, 4);
+        SimulationResult again = Simulator.run(SCENARIO, 48, 4);
+        if (result.getNoRuns() != 4 || result.getNoEvents() != again.getNoEvents()) {
+            fail();
+        }
+        for (String type : result.getTypes()) {
+            if (result.getIssued(type) != again.getIssued(type) || result.getRejected(type) != again.getRejected(type) || result.getUtilisation(type) != again.getUtilisation(type)) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void runPoolValid() throws Exception {
+        //Runs share no state, so the result is the same however many threads run them.
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+        try {
+            if (!SimulationContextTest.isSame(Simulator.run(SCENARIO, 48, 8, pool), Simulator.run(SCENARIO, 48, 8, singleThreadPool))) {
+                fail();
+            }
+        } finally {
+            pool.shutdown();
+            singleThreadPool.shutdown();
+        }
+    }
+
+    @Test
+    public void runExtremeValid() throws Exception {
+        //A single car with far more demand than it can meet is rented most of the time, and most requests are rejected.
+        Scenario scenario = Scenario.getInstance(24 * 7, 15).withCars("small", 1, Demand.getInstance(20, 4, 100));
+        SimulationResult result = Simulator.run(scenario, 48);
+        if (result.getUtilisation("small") < 0.5 || result.getRejectionRate("small") < 0.5) {
+            fail();
+        }
+        //Without demand no car is rented.
+        scenario = Scenario.getInstance(24, 15).withCars("small", 1, Demand.getInstance(0, 4, 100));
+        result = Simulator.run(scenario, 48);
+        if (result.getArrivals("small") != 0 || result.getUtilisation("small") != 0) {
+            fail();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void runInvalid() throws Exception {
+        Simulator.run(Scenario.getInstance(24, 15), 48);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void demandInvalid() throws Exception {
+        Demand.getInstance(-1, 4, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void scenarioInvalid() throws Exception {
+        Scenario.getInstance(24, 15).withCars("small", 0, Demand.getInstance(1, 4, 100));
+    }
+}